@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.benchmark.controller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.CapabilityRegistry;
+import org.jboss.as.controller.CompositeOperationHandler;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.access.management.ManagementSecurityIdentitySupplier;
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+
+/**
+ * A {@code Service<ModelController>} exposing a synthetic management model to the benchmarks.
+ * <p>
+ * Below the root there are {@code depth} levels of resources of type {@code level-1}, {@code level-2} etc.,
+ * each with {@code width} children named {@code 0} to {@code width - 1}. Every resource has two configuration
+ * attributes, one of them holding an expression, and a runtime metric.
+ */
+public class BenchmarkControllerService extends AbstractControllerService {
+
+    static final String ATTRIBUTE = "attribute";
+    static final String EXPRESSION_ATTRIBUTE = "expression-attribute";
+    static final String METRIC = "metric";
+
+    private static final SimpleAttributeDefinition ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(ATTRIBUTE, ModelType.STRING)
+            .setRequired(false)
+            .build();
+    private static final SimpleAttributeDefinition EXPRESSION_ATTRIBUTE_DEFINITION = new SimpleAttributeDefinitionBuilder(EXPRESSION_ATTRIBUTE, ModelType.STRING)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .build();
+    private static final SimpleAttributeDefinition METRIC_DEFINITION = new SimpleAttributeDefinitionBuilder(METRIC, ModelType.LONG)
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
+
+    private final int depth;
+    private final int width;
+    private final CountDownLatch latch = new CountDownLatch(2);
+
+    BenchmarkControllerService(final int depth, final int width) {
+        super(ProcessType.EMBEDDED_SERVER, new RunningModeControl(RunningMode.NORMAL), new NullConfigurationPersister(),
+                new ControlledProcessState(true),
+                ResourceBuilder.Factory.create(PathElement.pathElement("root"), new NonResolvingResourceDescriptionResolver()).build(),
+                null, ExpressionResolver.TEST_RESOLVER, AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer(),
+                new ManagementSecurityIdentitySupplier(), new CapabilityRegistry(true));
+        this.depth = depth;
+        this.width = width;
+    }
+
+    /**
+     * Gets the address of the first resource on the deepest level of the model.
+     *
+     * @return the address. Will not be {@code null}
+     */
+    PathAddress getDeepestAddress() {
+        return getDeepestAddress(depth);
+    }
+
+    static PathAddress getDeepestAddress(final int depth) {
+        PathAddress address = PathAddress.EMPTY_ADDRESS;
+        for (int level = 1; level <= depth; level++) {
+            address = address.append(getChildType(level), "0");
+        }
+        return address;
+    }
+
+    static String getChildType(final int level) {
+        return "level-" + level;
+    }
+
+    void awaitStartup(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        if (!latch.await(timeout, timeUnit)) {
+            throw new IllegalStateException("Failed to boot in timely fashion");
+        }
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        latch.countDown();
+    }
+
+    @Override
+    protected void bootThreadDone() {
+        super.bootThreadDone();
+        latch.countDown();
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+        registerModel(managementModel.getRootResourceRegistration(), processType, depth);
+        addChildren(managementModel.getRootResource(), 1);
+    }
+
+    /**
+     * Registers the resource types of the synthetic model and the global operations.
+     *
+     * @param rootRegistration the root registration
+     * @param processType the type of process
+     * @param depth the number of nested resource levels
+     */
+    static void registerModel(final ManagementResourceRegistration rootRegistration, final ProcessType processType, final int depth) {
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+        GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+        rootRegistration.registerOperationHandler(CompositeOperationHandler.DEFINITION, CompositeOperationHandler.INSTANCE);
+
+        ManagementResourceRegistration parentRegistration = rootRegistration;
+        for (int level = 1; level <= depth; level++) {
+            ManagementResourceRegistration registration = parentRegistration.registerSubModel(
+                    new SimpleResourceDefinition(PathElement.pathElement(getChildType(level)), new NonResolvingResourceDescriptionResolver()));
+            registration.registerReadOnlyAttribute(ATTRIBUTE_DEFINITION, null);
+            registration.registerReadOnlyAttribute(EXPRESSION_ATTRIBUTE_DEFINITION, null);
+            registration.registerMetric(METRIC_DEFINITION, (context, operation) -> context.getResult().set(System.nanoTime()));
+            parentRegistration = registration;
+        }
+    }
+
+    private void addChildren(final Resource parent, final int level) {
+        if (level > depth) {
+            return;
+        }
+        for (int i = 0; i < width; i++) {
+            Resource child = Resource.Factory.create();
+            ModelNode model = child.getModel();
+            model.get(ATTRIBUTE).set("value-" + i);
+            model.get(EXPRESSION_ATTRIBUTE).set(new ModelNode().set(new ValueExpression("${benchmark.level" + level + ":default}")));
+            parent.registerChild(PathElement.pathElement(getChildType(level), String.valueOf(i)), child);
+            addChildren(child, level + 1);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.benchmark.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code ExpressionResolverImpl} on single expressions and on complex attribute values where only some
+ * of the leaves are expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionResolutionBenchmark {
+
+    private static final String PROPERTY = "benchmark.expression.property";
+
+    /** Number of fields of the complex value, one in four of which is an expression */
+    @Param({"8", "64"})
+    int fields;
+
+    private final ExpressionResolver resolver = ExpressionResolver.SIMPLE;
+
+    private ModelNode systemProperty;
+    private ModelNode defaultValue;
+    private ModelNode nested;
+    private ModelNode complex;
+    private ModelNode plain;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty(PROPERTY, "value");
+        systemProperty = new ModelNode(new ValueExpression("${" + PROPERTY + "}"));
+        defaultValue = new ModelNode(new ValueExpression("${benchmark.undefined.property:default}"));
+        nested = new ModelNode(new ValueExpression("prefix-${benchmark.undefined.property:${" + PROPERTY + "}}-suffix"));
+        complex = new ModelNode();
+        plain = new ModelNode();
+        for (int i = 0; i < fields; i++) {
+            String name = "field-" + i;
+            if (i % 4 == 0) {
+                complex.get(name).set(new ValueExpression("${" + PROPERTY + ":default}"));
+            } else {
+                complex.get(name).set("value-" + i);
+            }
+            plain.get(name).set("value-" + i);
+        }
+        complex.protect();
+        plain.protect();
+    }
+
+    @Benchmark
+    public ModelNode systemProperty() throws OperationFailedException {
+        return resolver.resolveExpressions(systemProperty);
+    }
+
+    @Benchmark
+    public ModelNode defaultValue() throws OperationFailedException {
+        return resolver.resolveExpressions(defaultValue);
+    }
+
+    @Benchmark
+    public ModelNode nestedExpression() throws OperationFailedException {
+        return resolver.resolveExpressions(nested);
+    }
+
+    @Benchmark
+    public ModelNode complexValue() throws OperationFailedException {
+        return resolver.resolveExpressions(complex);
+    }
+
+    @Benchmark
+    public ModelNode complexValueWithoutExpressions() throws OperationFailedException {
+        return resolver.resolveExpressions(plain);
+    }
+}
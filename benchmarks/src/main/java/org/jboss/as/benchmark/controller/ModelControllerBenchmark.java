@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.benchmark.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures end to end execution of read operations through {@code ModelControllerImpl}, including operation
+ * validation, context creation, authorization and step execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelControllerBenchmark {
+
+    /** Number of steps in the composite operation, and of attributes read by read-metrics */
+    @Param({"10", "100"})
+    int steps;
+
+    private ServiceContainer container;
+    private ModelController controller;
+
+    private Operation readAttribute;
+    private Operation readMetric;
+    private Operation readResource;
+    private Operation readResourceRecursive;
+    private Operation composite;
+    private Operation readMetrics;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        container = ServiceContainer.Factory.create("benchmark");
+        BenchmarkControllerService service = new BenchmarkControllerService(4, 3);
+        container.subTarget().addService(ServiceName.of("benchmark", "controller"), service).install();
+        service.awaitStartup(30, TimeUnit.SECONDS);
+        controller = service.getValue();
+
+        PathAddress deepest = service.getDeepestAddress();
+        readAttribute = Operation.Factory.create(Util.getReadAttributeOperation(deepest, BenchmarkControllerService.ATTRIBUTE));
+        readMetric = Operation.Factory.create(Util.getReadAttributeOperation(deepest, BenchmarkControllerService.METRIC));
+        readResource = Operation.Factory.create(Util.createEmptyOperation(READ_RESOURCE_OPERATION, deepest));
+        ModelNode recursive = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        recursive.get(RECURSIVE).set(true);
+        recursive.get(INCLUDE_RUNTIME).set(true);
+        readResourceRecursive = Operation.Factory.create(recursive);
+
+        ModelNode compositeOp = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+        ModelNode stepList = compositeOp.get(STEPS).setEmptyList();
+        for (int i = 0; i < steps; i++) {
+            stepList.add(Util.getReadAttributeOperation(deepest, i % 2 == 0 ? BenchmarkControllerService.ATTRIBUTE : BenchmarkControllerService.METRIC));
+        }
+        composite = Operation.Factory.create(compositeOp);
+
+        // The same reads as the composite, in a single operation
+        ModelNode readMetricsOp = Util.createEmptyOperation(READ_METRICS_OPERATION, deepest);
+        ModelNode attributeList = readMetricsOp.get(ATTRIBUTES).setEmptyList();
+        for (int i = 0; i < steps; i++) {
+            attributeList.add(i % 2 == 0 ? BenchmarkControllerService.ATTRIBUTE : BenchmarkControllerService.METRIC);
+        }
+        readMetrics = Operation.Factory.create(readMetricsOp);
+
+        // Fail fast rather than measuring error handling
+        for (Operation op : new Operation[]{readAttribute, readMetric, readResource, readResourceRecursive, composite, readMetrics}) {
+            ModelNode response = execute(op);
+            if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+                throw new IllegalStateException(response.toString());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public ModelNode readAttribute() {
+        return execute(readAttribute);
+    }
+
+    @Benchmark
+    public ModelNode readMetric() {
+        return execute(readMetric);
+    }
+
+    @Benchmark
+    public ModelNode readResource() {
+        return execute(readResource);
+    }
+
+    @Benchmark
+    public ModelNode readResourceRecursive() {
+        return execute(readResourceRecursive);
+    }
+
+    @Benchmark
+    public ModelNode composite() {
+        return execute(composite);
+    }
+
+    @Benchmark
+    public ModelNode readMetrics() {
+        return execute(readMetrics);
+    }
+
+    private ModelNode execute(Operation operation) {
+        return controller.execute(operation, OperationMessageHandler.DISCARD, ModelController.OperationTransactionControl.COMMIT).getResponseNode();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.benchmark.server;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.as.server.deployment.module.VFSResourceLoader;
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.Resource;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures class and resource lookups of {@link VFSResourceLoader} on a mounted archive, with the entry index it builds
+ * from the central directory of the archive and without it, as before the index was added. A module of a deployment
+ * looks up each class in every one of its resource roots, so most lookups of a deployment with many roots are misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VFSResourceLoaderBenchmark {
+
+    /** Number of classes in the archive */
+    @Param({"100", "5000"})
+    int classes;
+
+    /** Whether the loader indexes the archive */
+    @Param({"true", "false"})
+    boolean indexed;
+
+    private File archive;
+    private TempFileProvider tempFileProvider;
+    private Closeable mount;
+    private VirtualFile root;
+    private VFSResourceLoader loader;
+    private String[] present;
+    private String[] missing;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        archive = File.createTempFile("benchmark", ".jar");
+        present = new String[classes];
+        missing = new String[classes];
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < classes; i++) {
+                present[i] = "org/example/package" + (i % 50) + "/Class" + i + ".class";
+                // the same packages as the archive, as when the classes of a split package are spread over roots
+                missing[i] = "org/example/package" + (i % 50) + "/Missing" + i + ".class";
+                output.putNextEntry(new ZipEntry(present[i]));
+                output.write(new byte[256]);
+                output.closeEntry();
+            }
+        }
+        tempFileProvider = TempFileProvider.create("benchmark", Executors.newSingleThreadScheduledExecutor(), true);
+        root = VFS.getChild("content").getChild(archive.getName());
+        mount = VFS.mountZip(archive, root, tempFileProvider);
+        loader = createLoader();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        VFSUtils.safeClose(mount, tempFileProvider);
+        archive.delete();
+    }
+
+    private int next() {
+        final int index = next;
+        next = index + 1 == classes ? 0 : index + 1;
+        return index;
+    }
+
+    /**
+     * Creating the loader, which reads the central directory of the archive when it is indexed.
+     */
+    @Benchmark
+    public VFSResourceLoader createLoader() throws IOException {
+        return new VFSResourceLoader("benchmark", root, false, indexed ? archive : null);
+    }
+
+    @Benchmark
+    public ClassSpec presentClass() throws IOException {
+        return loader.getClassSpec(present[next()]);
+    }
+
+    @Benchmark
+    public ClassSpec missingClass() throws IOException {
+        return loader.getClassSpec(missing[next()]);
+    }
+
+    @Benchmark
+    public Resource missingResource() {
+        return loader.getResource(missing[next()]);
+    }
+}
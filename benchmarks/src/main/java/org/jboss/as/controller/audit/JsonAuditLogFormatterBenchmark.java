@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext.ResultAction;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures formatting an audit log record as JSON bytes with {@link JsonAuditLogItemFormatter}, against building a
+ * {@link ModelNode} and converting it to a string as the formatter used to. Run with {@code -prof gc} to compare the
+ * allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonAuditLogFormatterBenchmark {
+
+    @Param({"jmx", "core"})
+    String type;
+
+    @Param({"true", "false"})
+    boolean compact;
+
+    private AuditLogItem item;
+    private JsonAuditLogItemFormatter formatter;
+
+    @Setup
+    public void setup() {
+        if (AuditLogItemFormatter.TYPE_JMX.equals(type)) {
+            item = AuditLogItem.createMethodAccessItem("5.0", true, false, "admin", null, AccessMechanism.JMX,
+                    InetAddress.getLoopbackAddress(), "getAttribute",
+                    new String[]{"javax.management.ObjectName", "java.lang.String"},
+                    new Object[]{"jboss.as:subsystem=request-controller", "activeRequests"}, null);
+        } else {
+            ModelNode op = new ModelNode();
+            op.get("operation").set("write-attribute");
+            op.get("address").add("subsystem", "request-controller");
+            op.get("name").set("max-requests");
+            op.get("value").set(100);
+            item = AuditLogItem.createModelControllerItem("5.0", false, false, ResultAction.KEEP, "admin", null,
+                    AccessMechanism.NATIVE, InetAddress.getLoopbackAddress(), null, Collections.singletonList(op));
+        }
+        formatter = new JsonAuditLogItemFormatter("benchmark", true, " - ", "yyyy-MM-dd HH:mm:ss", compact, false, false);
+    }
+
+    @Benchmark
+    public ByteBuffer streaming() {
+        ByteBuffer bytes = formatter.formatAuditLogItemBytes(item);
+        formatter.clear();
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] modelNode() {
+        ModelNode formatted = new ModelNode();
+        if (item instanceof AuditLogItem.ModelControllerAuditLogItem) {
+            AuditLogItem.ModelControllerAuditLogItem coreItem = (AuditLogItem.ModelControllerAuditLogItem) item;
+            formatted.get(JsonAuditLogItemFormatter.TYPE).set(AuditLogItemFormatter.TYPE_CORE);
+            addCommonFields(formatted);
+            formatted.get(JsonAuditLogItemFormatter.SUCCESS).set(coreItem.getResultAction() == ResultAction.KEEP);
+            formatted.get(JsonAuditLogItemFormatter.OPERATIONS).set(coreItem.getOperations());
+        } else {
+            AuditLogItem.JmxAccessAuditLogItem jmxItem = (AuditLogItem.JmxAccessAuditLogItem) item;
+            formatted.get(JsonAuditLogItemFormatter.TYPE).set(AuditLogItemFormatter.TYPE_JMX);
+            addCommonFields(formatted);
+            formatted.get(JsonAuditLogItemFormatter.METHOD_NAME).set(jmxItem.getMethodName());
+            for (String sig : jmxItem.getMethodSignature()) {
+                formatted.get(JsonAuditLogItemFormatter.METHOD_SIGNATURE).add(sig);
+            }
+            for (Object param : jmxItem.getMethodParams()) {
+                formatted.get(JsonAuditLogItemFormatter.METHOD_PARAMETERS).add(new ModelNode(param.toString()));
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(formatter.getDatePrefix(item));
+        sb.append(formatted.toJSONString(compact));
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void addCommonFields(ModelNode formatted) {
+        formatted.get(JsonAuditLogItemFormatter.READ_ONLY).set(item.isReadOnly());
+        formatted.get(JsonAuditLogItemFormatter.BOOTING).set(item.isBooting());
+        formatted.get(JsonAuditLogItemFormatter.AS_VERSION).set(item.getAsVersion());
+        formatted.get(JsonAuditLogItemFormatter.USER_ID).set(item.getUserId());
+        formatted.get(JsonAuditLogItemFormatter.DOMAIN_UUID);
+        formatted.get(JsonAuditLogItemFormatter.ACCESS_MECHANISM).set(item.getAccessMechanism().toString());
+        formatted.get(JsonAuditLogItemFormatter.REMOTE_ADDRESS).set(item.getRemoteAddress().toString());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encodings {@link DomainUtil} offers for HTTP management responses, using a response shaped like
+ * the result of a recursive {@code read-resource}, on their own and compressed with gzip as the management
+ * interface does when the client accepts it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainUtilEncodingBenchmark {
+
+    /** Number of child resources in the response */
+    @Param({"10", "1000"})
+    int resources;
+
+    private ModelNode response;
+    private OperationParameter json;
+    private OperationParameter prettyJson;
+    private OperationParameter dmr;
+    private OperationParameter binaryDmr;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        ModelNode children = response.get(RESULT, "child");
+        for (int i = 0; i < resources; i++) {
+            ModelNode child = children.get("child-" + i);
+            child.get("name").set("child-" + i);
+            child.get("enabled").set(i % 2 == 0);
+            child.get("count").set(i);
+            child.get("size").set(1024L * i);
+            child.get("undefined");
+            child.get("properties", "key").set("value");
+            child.get("list").add("a").add("b");
+        }
+        response.protect();
+        json = new OperationParameter.Builder(false).build();
+        prettyJson = new OperationParameter.Builder(false).pretty(true).build();
+        dmr = new OperationParameter.Builder(false).encode(true).build();
+        binaryDmr = new OperationParameter.Builder(false).binary(true).build();
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return DomainUtil.getResponseBytes(response, json);
+    }
+
+    @Benchmark
+    public byte[] prettyJson() throws IOException {
+        return DomainUtil.getResponseBytes(response, prettyJson);
+    }
+
+    @Benchmark
+    public byte[] base64Dmr() throws IOException {
+        return DomainUtil.getResponseBytes(response, dmr);
+    }
+
+    @Benchmark
+    public byte[] binaryDmr() throws IOException {
+        return DomainUtil.getResponseBytes(response, binaryDmr);
+    }
+
+    @Benchmark
+    public byte[] gzipJson() throws IOException {
+        return gzip(DomainUtil.getResponseBytes(response, json));
+    }
+
+    @Benchmark
+    public byte[] gzipBase64Dmr() throws IOException {
+        return gzip(DomainUtil.getResponseBytes(response, dmr));
+    }
+
+    @Benchmark
+    public byte[] gzipBinaryDmr() throws IOException {
+        return gzip(DomainUtil.getResponseBytes(response, binaryDmr));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
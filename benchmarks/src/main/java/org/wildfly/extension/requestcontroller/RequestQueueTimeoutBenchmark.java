@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures scheduling and cancelling the timeouts of queued requests with {@link HashedWheelTimer}, against the
+ * {@link Timer} it replaced, while a backlog of queued requests is waiting for its timeouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestQueueTimeoutBenchmark {
+
+    private static final Runnable NOOP = () -> { };
+    private static final int BATCH = 1000;
+
+    /** Number of queued requests waiting for their timeouts */
+    @Param({"1000", "100000"})
+    int backlog;
+
+    private HashedWheelTimer wheelTimer;
+    private Timer timer;
+    private final HashedWheelTimer.Timeout[] timeouts = new HashedWheelTimer.Timeout[BATCH];
+    private final TimerTask[] timerTasks = new TimerTask[BATCH];
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        wheelTimer = new HashedWheelTimer("benchmark-wheel-timer", 10, TimeUnit.MILLISECONDS, 512);
+        timer = new Timer("benchmark-timer", true);
+        for (int i = 0; i < backlog; i++) {
+            wheelTimer.schedule(NOOP, 1, TimeUnit.HOURS);
+            timer.schedule(new NoopTimerTask(), TimeUnit.HOURS.toMillis(1));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        wheelTimer.stop();
+        timer.cancel();
+    }
+
+    /**
+     * Requests that leave the queue before their timeout, as when they are admitted.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void hashedWheelTimer() {
+        for (int i = 0; i < BATCH; i++) {
+            timeouts[i] = wheelTimer.schedule(NOOP, 30, TimeUnit.SECONDS);
+        }
+        for (int i = 0; i < BATCH; i++) {
+            timeouts[i].cancel();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void javaUtilTimer() {
+        for (int i = 0; i < BATCH; i++) {
+            timerTasks[i] = new NoopTimerTask();
+            timer.schedule(timerTasks[i], TimeUnit.SECONDS.toMillis(30));
+        }
+        for (int i = 0; i < BATCH; i++) {
+            timerTasks[i].cancel();
+        }
+        // cancelled tasks otherwise stay in the heap until their deadline
+        timer.purge();
+    }
+
+    private static final class NoopTimerTask extends TimerTask {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -570,12 +570,19 @@ public abstract class AbstractControllerService implements Service<ModelControll
             @Override
             public void run() {
                 try {
+                    // Make sure deferred configuration writes are not lost on shutdown or reload
+                    configurationPersister.flush();
                     stopAsynchronous(context);
                 } finally {
                     try {
                         authorizer.shutdown();
                     } finally {
-                        context.complete();
+                        try {
+                            // Write the audit log records that are still queued
+                            auditLogger.stop();
+                        } finally {
+                            context.complete();
+                        }
                     }
                 }
             }
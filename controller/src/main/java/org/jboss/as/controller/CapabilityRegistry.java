@@ -83,6 +83,8 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     //holds reference to parent published registry
     private final CapabilityRegistry publishedFullRegistry;
     private boolean modified = false;
+    // A copy of this registry for read-only operations, discarded when this registry is modified
+    private volatile CapabilityRegistry readOnlyCopy;
 
     public CapabilityRegistry(boolean forServer) {
         this(forServer, null);
@@ -116,6 +118,40 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         return result;
     }
 
+    /**
+     * Gets a copy of the main registry as it was last published, which doesn't include the changes made to this
+     * registry that aren't published yet. The copy is shared by the callers until the main registry is modified again,
+     * so it must not be modified.
+     *
+     * @return the copy
+     */
+    CapabilityRegistry getPublishedCopy() {
+        return publishedFullRegistry == null ? getReadOnlyCopy() : publishedFullRegistry.getReadOnlyCopy();
+    }
+
+    private CapabilityRegistry getReadOnlyCopy() {
+        CapabilityRegistry result = readOnlyCopy;
+        if (result == null) {
+            readLock.lock();
+            try {
+                result = readOnlyCopy;
+                if (result == null) {
+                    result = new CapabilityRegistry(forServer, null);
+                    result.writeLock.lock();
+                    try {
+                        copy(this, result);
+                    } finally {
+                        result.writeLock.unlock();
+                    }
+                    readOnlyCopy = result;
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+        return result;
+    }
+
     private static void copyCapabilities(final Map<CapabilityId, RuntimeCapabilityRegistration> source,
                                          final Map<CapabilityId, RuntimeCapabilityRegistration> dest) {
         for (Map.Entry<CapabilityId, RuntimeCapabilityRegistration> entry : source.entrySet()) {
@@ -175,6 +211,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 knownContexts.add(capContext);
             }
             modified = true;
+            readOnlyCopy = null;
         } finally {
             writeLock.unlock();
         }
@@ -227,6 +264,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             existing.addRegistrationPoint(requirement.getOldestRegistrationPoint());
         }
         modified = true;
+        readOnlyCopy = null;
     }
 
     /**
@@ -314,6 +352,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
             if (removed != null) {
                 modified = true;
+                readOnlyCopy = null;
             }
             return removed;
         } finally {
@@ -337,6 +376,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                     requirementMap.remove(requirementRegistration.getDependentId());
                 }
                 modified = true;
+                readOnlyCopy = null;
             }
         }
         return result;
@@ -578,6 +618,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             });
             possibleCapabilities.putIfAbsent(capabilityId, capabilityRegistration);
             modified = true;
+            readOnlyCopy = null;
         } finally {
             writeLock.unlock();
         }
@@ -612,6 +653,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
             if (removed != null) {
                 modified = true;
+                readOnlyCopy = null;
             }
             return removed;
         } finally {
@@ -827,6 +869,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 restartCapabilities.clear();
             }
             modified = true;
+            readOnlyCopy = null;
         } finally {
             writeLock.unlock();
         }
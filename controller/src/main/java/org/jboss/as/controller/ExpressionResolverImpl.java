@@ -21,7 +21,11 @@
 */
 package org.jboss.as.controller;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
@@ -40,6 +44,11 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     private static final int GOT_DOLLAR = 1;
     private static final int GOT_OPEN_BRACE = 2;
 
+    // Compiled forms of the expression strings found in the model. They only describe the syntax of a string, values
+    // are still resolved on each use, so the cache never has to be invalidated when the sources of the values change.
+    private static final int MAX_COMPILED_EXPRESSIONS = 4096;
+    private static final ConcurrentMap<String, CompiledExpression> COMPILED_EXPRESSIONS = new ConcurrentHashMap<>();
+
     private final boolean lenient;
 
     /**
@@ -79,30 +88,74 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
 
         ModelType type = node.getType();
-        ModelNode resolved;
         if (type == ModelType.EXPRESSION) {
-            resolved = resolveExpressionStringRecursively(node.asExpression().getExpressionString(), lenient, true);
-        } else if (type == ModelType.OBJECT) {
-            resolved = node.clone();
-            for (Property prop : resolved.asPropertyList()) {
-                resolved.get(prop.getName()).set(resolveExpressionsRecursively(prop.getValue()));
-            }
-        } else if (type == ModelType.LIST) {
-            resolved = node.clone();
-            ModelNode list = new ModelNode();
-            list.setEmptyList();
-            for (ModelNode current : resolved.asList()) {
-                list.add(resolveExpressionsRecursively(current));
+            return resolveExpressionStringRecursively(node.asExpression().getExpressionString(), lenient, true);
+        } else if (type == ModelType.OBJECT || type == ModelType.LIST || type == ModelType.PROPERTY) {
+            // Copy the tree once and only replace the expressions in the copy
+            ModelNode resolved = node.clone();
+            if (containsExpression(resolved)) {
+                resolveExpressionsInPlace(resolved);
             }
-            resolved = list;
-        } else if (type == ModelType.PROPERTY) {
-            resolved = node.clone();
-            resolved.set(resolved.asProperty().getName(), resolveExpressionsRecursively(resolved.asProperty().getValue()));
+            return resolved;
         } else {
-            resolved = node;
+            return node;
         }
+    }
 
-        return resolved;
+    private static boolean containsExpression(final ModelNode node) {
+        switch (node.getType()) {
+            case EXPRESSION:
+                return true;
+            case OBJECT:
+                for (String key : node.keys()) {
+                    if (containsExpression(node.get(key))) {
+                        return true;
+                    }
+                }
+                return false;
+            case LIST:
+                for (int i = 0; i < node.asInt(); i++) {
+                    if (containsExpression(node.get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            case PROPERTY:
+                return containsExpression(node.asProperty().getValue());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Resolves the expressions in a node that is owned by this resolver, replacing them by their values.
+     */
+    private void resolveExpressionsInPlace(final ModelNode node) throws OperationFailedException {
+        switch (node.getType()) {
+            case EXPRESSION:
+                node.set(resolveExpressionStringRecursively(node.asExpression().getExpressionString(), lenient, true));
+                break;
+            case OBJECT:
+                for (String key : node.keys()) {
+                    resolveExpressionsInPlace(node.get(key));
+                }
+                break;
+            case LIST:
+                for (int i = 0; i < node.asInt(); i++) {
+                    resolveExpressionsInPlace(node.get(i));
+                }
+                break;
+            case PROPERTY:
+                Property property = node.asProperty();
+                if (containsExpression(property.getValue())) {
+                    ModelNode value = property.getValue().clone();
+                    resolveExpressionsInPlace(value);
+                    node.set(property.getName(), value);
+                }
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -140,7 +193,14 @@ public class ExpressionResolverImpl implements ExpressionResolver {
      */
     private ModelNode resolveExpressionStringRecursively(final String expressionString, final boolean ignoreDMRResolutionFailure,
                                                          final boolean initial) throws OperationFailedException {
-        ParseAndResolveResult resolved = parseAndResolve(expressionString, ignoreDMRResolutionFailure);
+        ParseAndResolveResult resolved = null;
+        if (initial) {
+            // Only compile the strings from the model, the recursive ones contain resolved values
+            resolved = getCompiledExpression(expressionString).resolve(this, expressionString, ignoreDMRResolutionFailure);
+        }
+        if (resolved == null) {
+            resolved = parseAndResolve(expressionString, ignoreDMRResolutionFailure);
+        }
         if (resolved.recursive) {
             // Some part of expressionString resolved into a different expression.
             // So, start over, ignoring failures. Ignore failures because we don't require
@@ -320,6 +380,18 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         return new ParseAndResolveResult(builder.toString(), modified, false);
     }
 
+    private static CompiledExpression getCompiledExpression(final String expressionString) {
+        CompiledExpression compiled = COMPILED_EXPRESSIONS.get(expressionString);
+        if (compiled == null) {
+            compiled = CompiledExpression.compile(expressionString);
+            if (COMPILED_EXPRESSIONS.size() >= MAX_COMPILED_EXPRESSIONS) {
+                COMPILED_EXPRESSIONS.clear();
+            }
+            COMPILED_EXPRESSIONS.put(expressionString, compiled);
+        }
+        return compiled;
+    }
+
     private static Stack<OpenExpression> addToStack(Stack<OpenExpression> stack, int startIndex) {
         Stack<OpenExpression> result = stack == null ? new Stack<OpenExpression>() : stack;
         result.push(new OpenExpression(startIndex));
@@ -471,6 +543,99 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
     }
 
+    /**
+     * An expression string split into its literal text and its top level expressions, which are resolved with
+     * {@link #resolveExpressionString(String)} without parsing the string again. Strings with nested expressions or
+     * escaped {@code $} are left to {@link #parseAndResolve(String, boolean)}.
+     */
+    private static final class CompiledExpression {
+
+        private static final CompiledExpression NOT_COMPILED = new CompiledExpression(null, null);
+
+        // One more literal than expressions, the text before, between and after them
+        private final String[] literals;
+        private final String[] expressions;
+
+        private CompiledExpression(String[] literals, String[] expressions) {
+            this.literals = literals;
+            this.expressions = expressions;
+        }
+
+        private static CompiledExpression compile(final String value) {
+            final List<String> literals = new ArrayList<>();
+            final List<String> expressions = new ArrayList<>();
+            final int len = value.length();
+            int literalStart = 0;
+            int i = 0;
+            while (i < len) {
+                if (value.charAt(i) != '$' || i + 1 == len) {
+                    i++;
+                    continue;
+                }
+                final char next = value.charAt(i + 1);
+                if (next == '$') {
+                    return NOT_COMPILED;
+                } else if (next != '{') {
+                    i++;
+                    continue;
+                }
+                int braceLevel = 0;
+                int end = -1;
+                for (int j = i + 2; j < len && end < 0; j++) {
+                    final char ch = value.charAt(j);
+                    if (ch == '$') {
+                        return NOT_COMPILED;
+                    } else if (ch == '{') {
+                        braceLevel++;
+                    } else if (ch == '}') {
+                        if (braceLevel == 0) {
+                            end = j;
+                        } else {
+                            braceLevel--;
+                        }
+                    }
+                }
+                if (end < 0) {
+                    // Incomplete, let the parser report it
+                    return NOT_COMPILED;
+                }
+                literals.add(value.substring(literalStart, i));
+                expressions.add(value.substring(i, end + 1));
+                literalStart = end + 1;
+                i = end + 1;
+            }
+            literals.add(value.substring(literalStart));
+            return new CompiledExpression(literals.toArray(new String[literals.size()]), expressions.toArray(new String[expressions.size()]));
+        }
+
+        /**
+         * @return the result of the resolution, or {@code null} if the string must be parsed by {@link #parseAndResolve(String, boolean)}
+         */
+        private ParseAndResolveResult resolve(final ExpressionResolverImpl resolver, final String initialValue, final boolean lenient) throws OperationFailedException {
+            if (this == NOT_COMPILED) {
+                return null;
+            }
+            if (expressions.length == 0) {
+                return new ParseAndResolveResult(initialValue, false, false);
+            }
+            final StringBuilder builder = new StringBuilder(literals[0]);
+            for (int i = 0; i < expressions.length; i++) {
+                final String resolved = resolver.resolveExpressionString(expressions[i]);
+                if (expressions[i].equals(resolved)) {
+                    if (lenient) {
+                        return new ParseAndResolveResult(initialValue, false, false);
+                    }
+                    throw ControllerLogger.ROOT_LOGGER.cannotResolveExpression(initialValue);
+                } else if (EXPRESSION_PATTERN.matcher(resolved).matches()) {
+                    // Resolved into another expression, the parser handles the additional passes
+                    return null;
+                }
+                builder.append(resolved).append(literals[i + 1]);
+            }
+            return new ParseAndResolveResult(builder.toString(), true, false);
+        }
+    }
+
     private static class OpenExpression {
         private final int startIndex;
         private int endIndex = -1;
@@ -109,6 +109,18 @@ public interface ModelController {
     @Deprecated
     NotificationHandlerRegistration getNotificationRegistry();
 
+    /**
+     * Gets a stamp of the current state of the resource registrations of this model controller, which changes
+     * whenever an attribute, operation or resource type is registered or unregistered.
+     *
+     * @return the registration stamp, or {@code 0} if the changes to the registrations aren't tracked
+     *
+     * @see org.jboss.as.controller.registry.ImmutableManagementResourceRegistration#getRegistrationStamp()
+     */
+    default long getRegistrationStamp() {
+        return 0;
+    }
+
     /**
      * A callback interface for the operation's completion status.  Implemented in order to control whether a complete
      * operation is committed or rolled back after it is prepared.
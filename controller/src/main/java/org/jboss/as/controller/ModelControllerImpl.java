@@ -25,6 +25,7 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACTIVE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTACHED_STREAMS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CALLER_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
@@ -37,8 +38,21 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPE
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_GROUP_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_GROUP_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_TYPES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UUID;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
@@ -48,18 +62,19 @@ import static org.jboss.as.controller.operations.common.Util.validateOperation;
 import java.io.IOException;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -129,8 +144,14 @@ class ModelControllerImpl implements ModelController {
     private final Authorizer authorizer;
     private final Supplier<SecurityIdentity> securityIdentitySupplier;
 
+    // The global operations that never modify the model, which can run against a snapshot of it
+    private static final Set<String> READ_ONLY_GLOBAL_OPERATIONS = new HashSet<>(Arrays.asList(READ_RESOURCE_OPERATION,
+            READ_ATTRIBUTE_OPERATION, READ_ATTRIBUTE_GROUP_OPERATION, READ_ATTRIBUTE_GROUP_NAMES_OPERATION,
+            READ_CHILDREN_NAMES_OPERATION, READ_CHILDREN_TYPES_OPERATION, READ_CHILDREN_RESOURCES_OPERATION,
+            READ_RESOURCE_DESCRIPTION_OPERATION, READ_OPERATION_NAMES_OPERATION, READ_OPERATION_DESCRIPTION_OPERATION,
+            READ_METRICS_OPERATION, QUERY));
+
     private final ConcurrentMap<Integer, OperationContextImpl> activeOperations = new ConcurrentHashMap<>();
-    private final Random random = new Random();
     private final ManagedAuditLogger auditLogger;
     private final BootErrorCollector bootErrorCollector;
 
@@ -394,13 +415,21 @@ class ModelControllerImpl implements ModelController {
             return handleExternalRequestDuringBoot();
         }
 
+        // Operations that can be proven read-only before they execute run against an immutable snapshot of
+        // the currently published model. They never take the controller lock, so an in-progress write does not
+        // stall them, and all of their steps see the same model even if a write is published meanwhile.
+        final ManagementModelImpl publishedModel = managementModel.get();
+        final ManagementModelImpl executionModel = prepareStep == this.prepareStep && !bootingFlag.get()
+                && isReadOnlyOperation(operation)
+                ? publishedModel.createReadOnlySnapshot() : publishedModel;
+
         for (;;) {
             responseStreams = null;
             // Create a random operation-id
-            final Integer operationID = random.nextInt();
+            final Integer operationID = ThreadLocalRandom.current().nextInt();
             final OperationContextImpl context = new OperationContextImpl(operationID, operation.get(OP).asString(),
                     operation.get(OP_ADDR), this, processType, runningModeControl.getRunningMode(),
-                    headers, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
+                    headers, handler, attachments, executionModel, originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), hostServerGroupTracker, accessContext, notificationSupport,
                     false, extraValidationStepHandler, partialModel, securityIdentitySupplier);
             // Try again if the operation-id is already taken
@@ -460,6 +489,33 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /**
+     * Determines whether an operation is known to be read-only before it is executed, i.e. it is one of the global
+     * read operations, or it is a composite whose steps all are. This only looks at the operation names, so it doesn't
+     * add a registry lookup to the dispatch of every operation.
+     *
+     * @param operation the operation
+     * @return {@code true} if the operation will not modify the model or the runtime
+     */
+    private static boolean isReadOnlyOperation(final ModelNode operation) {
+        if (!operation.hasDefined(OP)) {
+            return false;
+        }
+        final String operationName = operation.get(OP).asString();
+        if (COMPOSITE.equals(operationName)) {
+            if (!operation.hasDefined(STEPS)) {
+                return false;
+            }
+            for (ModelNode step : operation.get(STEPS).asList()) {
+                if (!isReadOnlyOperation(step)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return READ_ONLY_GLOBAL_OPERATIONS.contains(operationName);
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -473,7 +529,7 @@ class ModelControllerImpl implements ModelController {
                  final boolean rollbackOnRuntimeFailure, MutableRootResourceRegistrationProvider parallelBootRootResourceRegistrationProvider,
                  final boolean skipModelValidation, final boolean partialModel) {
 
-        final Integer operationID = random.nextInt();
+        final Integer operationID = ThreadLocalRandom.current().nextInt();
 
         OperationHeaders headers = OperationHeaders.forBoot(rollbackOnRuntimeFailure);
 
@@ -865,6 +921,11 @@ class ModelControllerImpl implements ModelController {
         return notificationSupport.getNotificationRegistry();
     }
 
+    @Override
+    public long getRegistrationStamp() {
+        return managementModel.get().getRootResourceRegistration().getRegistrationStamp();
+    }
+
     NotificationSupport getNotificationSupport() {
         return notificationSupport;
     }
@@ -1086,11 +1147,22 @@ class ModelControllerImpl implements ModelController {
         // The capability registry
         private final CapabilityRegistry capabilityRegistry;
 
+        // Whether we are a read-only view pinned to a previously published root Resource
+        private final boolean snapshot;
+
         private volatile boolean published;
 
         ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
                             final Resource rootResource,
                             final CapabilityRegistry capabilityRegistry) {
+            this(resourceRegistration, rootResource, capabilityRegistry, false);
+        }
+
+        private ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
+                            final Resource rootResource,
+                            final CapabilityRegistry capabilityRegistry,
+                            final boolean snapshot) {
+            this.snapshot = snapshot;
             this.resourceRegistration = resourceRegistration;
             this.rootResource = rootResource;
             assert capabilityRegistry != null;
@@ -1187,8 +1259,9 @@ class ModelControllerImpl implements ModelController {
             ManagementResourceRegistration mrr;
             Resource currentResource;
             CapabilityRegistry currentCaps;
-            if (published) {
-                // This is the first clone since this was published. Use the current stuff as the basis
+            if (published || snapshot) {
+                // This is the first clone since this was published, or we are a read-only snapshot whose
+                // operation turned out to modify the model. Use the current stuff as the basis
                 // to ensure that the clone is based on the latest even if we are not the latest.
                 ManagementModelImpl currentPublished = ModelControllerImpl.this.managementModel.get();
                 mrr = currentPublished.resourceRegistration;
@@ -1207,6 +1280,26 @@ class ModelControllerImpl implements ModelController {
             return result;
         }
 
+        /**
+         * Creates a read-only view of the currently published model. The view is pinned to the root {@link Resource}
+         * published at the time of the call, which is never modified in place, and to a copy of the published
+         * capabilities, so readers can use it without holding the controller lock and will not observe changes
+         * made or published by concurrent writers. If the operation using
+         * the view unexpectedly modifies the model, {@link #cloneRootResource()} bases the modification on the latest
+         * published model as usual.
+         *
+         * @return the snapshot. Will not return {@code null}
+         */
+        ManagementModelImpl createReadOnlySnapshot() {
+            ManagementModelImpl current = published ? ModelControllerImpl.this.managementModel.get() : this;
+            // The capability registry of the model is modified in place by the writes until they are published,
+            // so use a copy of the published registry
+            ManagementModelImpl result = new ManagementModelImpl(current.resourceRegistration, current.rootResource,
+                    current.capabilityRegistry.getPublishedCopy(), true);
+            ControllerLogger.MGMT_OP_LOGGER.tracef("created read-only snapshot %s of %s", result, current);
+            return result;
+        }
+
         /**
          * Compares the registered requirements to the registered capabilities, returning any missing
          * or inconsistent requirements.
@@ -117,6 +117,24 @@ public final class DelegatingConfigurableAuthorizer implements JmxAuthorizer {
         }
     }
 
+    /**
+     * @return the number of authorization decisions found in the decision cache of the standard RBAC authorizer,
+     * or {@code 0} if another authorizer is in use
+     */
+    public long getDecisionCacheHitCount() {
+        Authorizer current = delegate;
+        return current instanceof StandardRBACAuthorizer ? ((StandardRBACAuthorizer) current).getDecisionCacheHitCount() : 0;
+    }
+
+    /**
+     * @return the number of cacheable authorization decisions not found in the decision cache of the standard RBAC
+     * authorizer, or {@code 0} if another authorizer is in use
+     */
+    public long getDecisionCacheMissCount() {
+        Authorizer current = delegate;
+        return current instanceof StandardRBACAuthorizer ? ((StandardRBACAuthorizer) current).getDecisionCacheMissCount() : 0;
+    }
+
     @Override
     public boolean isNonFacadeMBeansSensitive() {
         return writableAuthorizerConfiguration.isNonFacadeMBeansSensitive();
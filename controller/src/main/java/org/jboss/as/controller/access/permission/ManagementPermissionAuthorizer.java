@@ -77,6 +77,14 @@ public class ManagementPermissionAuthorizer implements Authorizer {
         if (isServerBooting(callEnvironment)) {
             return AuthorizationResult.PERMITTED;
         }
+        return authorizeTarget(caller, callEnvironment, action, target);
+    }
+
+    /**
+     * Authorizes access to an attribute once the process has booted, by checking the caller's permissions against
+     * the required permissions.
+     */
+    protected AuthorizationResult authorizeTarget(Caller caller, Environment callEnvironment, Action action, TargetAttribute target) {
         PermissionCollection userPerms = permissionFactory.getUserPermissions(caller, callEnvironment, action, target);
         PermissionCollection requiredPerms = permissionFactory.getRequiredPermissions(action, target);
         return authorize(userPerms, requiredPerms);
@@ -88,6 +96,14 @@ public class ManagementPermissionAuthorizer implements Authorizer {
         if (isServerBooting(callEnvironment)) {
             return AuthorizationResult.PERMITTED;
         }
+        return authorizeTarget(caller, callEnvironment, action, target);
+    }
+
+    /**
+     * Authorizes access to a resource once the process has booted, by checking the caller's permissions against
+     * the required permissions.
+     */
+    protected AuthorizationResult authorizeTarget(Caller caller, Environment callEnvironment, Action action, TargetResource target) {
         PermissionCollection userPerms = permissionFactory.getUserPermissions(caller, callEnvironment, action, target);
         if (userPerms == AllPermissionsCollection.INSTANCE) {
             return AuthorizationResult.PERMITTED;
@@ -120,6 +136,14 @@ public class ManagementPermissionAuthorizer implements Authorizer {
         if (isServerBooting(callEnvironment)) {
             return AuthorizationResult.PERMITTED;
         }
+        return authorizeTarget(caller, callEnvironment, action, target);
+    }
+
+    /**
+     * Authorizes a JMX operation once the process has booted, by checking the caller's permissions against the
+     * required permissions.
+     */
+    protected AuthorizationResult authorizeTarget(Caller caller, Environment callEnvironment, JmxAction action, JmxTarget target) {
         PermissionCollection userPerms = permissionFactory.getUserPermissions(caller, callEnvironment, action, target);
         PermissionCollection requiredPerms = permissionFactory.getRequiredPermissions(action, target);
         return authorize(userPerms, requiredPerms);
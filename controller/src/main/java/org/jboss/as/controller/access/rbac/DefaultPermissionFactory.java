@@ -29,12 +29,14 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.controller.access.Action;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
@@ -45,6 +47,7 @@ import org.jboss.as.controller.access.TargetAttribute;
 import org.jboss.as.controller.access.TargetResource;
 import org.jboss.as.controller.access.constraint.ConstraintFactory;
 import org.jboss.as.controller.access.constraint.ScopingConstraint;
+import org.jboss.as.controller.access.constraint.ScopingConstraintFactory;
 import org.jboss.as.controller.access.JmxAction;
 import org.jboss.as.controller.access.JmxTarget;
 import org.jboss.as.controller.access.constraint.ApplicationTypeConstraint;
@@ -80,6 +83,8 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
     private final AuthorizerConfiguration authorizerConfiguration;
     private PermsHolder permsHolder;
     private boolean rolePermissionsConfigured;
+    private final LongAdder decisionCacheHits = new LongAdder();
+    private final LongAdder decisionCacheMisses = new LongAdder();
 
     /**
      * Creates a new {@code DefaultPermissionFactory}
@@ -115,12 +120,15 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
     }
 
     private PermissionCollection getUserPermissions(Set<String> roles) {
+        return getUserPermissions(roles, configureRolePermissions());
+    }
+
+    private PermissionCollection getUserPermissions(Set<String> roles, PermsHolder currentPerms) {
         PermissionCollection result = checkAllPermissions(roles);
         if (result != null) {
             return result;
         }
 
-        PermsHolder currentPerms = configureRolePermissions();
         result = currentPerms.getPermissions(roles);
         if (result != null) {
             return result;
@@ -232,6 +240,72 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
         return result;
     }
 
+    /**
+     * Decides whether a set of roles is permitted all the effects of an action, the same way as checking the
+     * {@link #getRequiredPermissions(Action, TargetResource) required permissions} against the
+     * {@link #getUserPermissions(Caller, Environment, Action, TargetResource) user permissions} does.
+     * <p>
+     * The decisions for sets of standard roles are cached, keyed by the roles, the combination policy, the action
+     * effect and the required constraints. The required constraints are still obtained from the constraint factories
+     * for every decision, so changes to the sensitivity classifications or the application types are taken into
+     * account, and the cache is discarded along with the role permissions whenever those are reconfigured. Scoped
+     * roles are not cached since their constraints can be changed in place.
+     *
+     * @param roles the roles of the caller, as mapped by the role mapper
+     * @param actionEffects the effects of the action
+     * @param requiredConstraints provides the constraint required by a factory for an action effect on the target
+     * @return {@code true} if all the action effects are permitted
+     */
+    boolean isPermitted(Set<String> roles, Set<Action.ActionEffect> actionEffects, RequiredConstraints requiredConstraints) {
+        final PermsHolder currentPerms = configureRolePermissions();
+        final PermissionCollection userPermissions = getUserPermissions(roles, currentPerms);
+        if (userPermissions == AllPermissionsCollection.INSTANCE) {
+            return true;
+        }
+        final ConstraintFactory[] currentFactories = currentPerms.constraintFactories;
+        final boolean cacheable = currentPerms.isCacheable(roles);
+        final CombinationPolicy combinationPolicy = authorizerConfiguration.getPermissionCombinationPolicy();
+        for (Action.ActionEffect actionEffect : actionEffects) {
+            Constraint[] constraints = new Constraint[currentFactories.length];
+            for (int i = 0; i < constraints.length; i++) {
+                constraints[i] = requiredConstraints.getRequiredConstraint(currentFactories[i], actionEffect);
+            }
+            Boolean permitted = null;
+            DecisionKey key = null;
+            if (cacheable) {
+                key = new DecisionKey(roles, combinationPolicy, actionEffect, currentPerms.getDecisionConstraints(constraints));
+                permitted = currentPerms.getDecision(key);
+            }
+            if (permitted == null) {
+                permitted = userPermissions.implies(new SimpleManagementPermission(actionEffect, constraints));
+                if (cacheable) {
+                    decisionCacheMisses.increment();
+                    currentPerms.storeDecision(key, permitted);
+                }
+            } else {
+                decisionCacheHits.increment();
+            }
+            if (!permitted) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of decisions made by {@link #isPermitted} that were found in the cache
+     */
+    long getDecisionCacheHitCount() {
+        return decisionCacheHits.sum();
+    }
+
+    /**
+     * @return the number of cacheable decisions made by {@link #isPermitted} that were not found in the cache
+     */
+    long getDecisionCacheMissCount() {
+        return decisionCacheMisses.sum();
+    }
+
     /** Hook for the access control management layer to add a new constraint factory */
     void addConstraintFactory(ConstraintFactory factory) {
         synchronized (this) {
@@ -286,7 +360,7 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
             for (Map.Entry<String, ScopedBase> entry : scopedBaseMap.entrySet()) {
                 addScopedRoleInternal(entry.getKey(), entry.getValue().base, entry.getValue().constraint);
             }
-            permsHolder = new PermsHolder(permissionsByRole, constraintFactories);
+            permsHolder = new PermsHolder(permissionsByRole, constraintFactories, scopedBaseMap.keySet());
             rolePermissionsConfigured = true;
         }
         return permsHolder;
@@ -430,16 +504,30 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
         }
     }
 
+    /** Provides the constraint a factory requires for an action effect on the target being authorized */
+    interface RequiredConstraints {
+        Constraint getRequiredConstraint(ConstraintFactory factory, Action.ActionEffect actionEffect);
+    }
+
     private static class PermsHolder {
         private final Map<Set<String>, PermissionCollection> permsByRoleSet =
                 Collections.synchronizedMap(new HashMap<Set<String>, PermissionCollection>());
         private final Map<String, ManagementPermissionCollection> permsByRole =
                 new HashMap<String, ManagementPermissionCollection>();
         private final ConstraintFactory[] constraintFactories;
+        private final boolean[] scopingFactories;
+        private final Set<String> scopedRoles;
+        private final DecisionCache decisions = new DecisionCache();
 
-        private PermsHolder(Map<String, ManagementPermissionCollection> permsByRole, SortedSet<ConstraintFactory> constraintFactories) {
+        private PermsHolder(Map<String, ManagementPermissionCollection> permsByRole, SortedSet<ConstraintFactory> constraintFactories,
+                            Set<String> scopedRoles) {
             this.permsByRole.putAll(permsByRole);
             this.constraintFactories = constraintFactories.toArray(new ConstraintFactory[constraintFactories.size()]);
+            this.scopingFactories = new boolean[this.constraintFactories.length];
+            for (int i = 0; i < scopingFactories.length; i++) {
+                scopingFactories[i] = this.constraintFactories[i] instanceof ScopingConstraintFactory;
+            }
+            this.scopedRoles = new HashSet<String>(scopedRoles);
         }
 
         private PermissionCollection getPermissions(Set<String> roleSet) {
@@ -449,6 +537,138 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
         private void storePermissions(Set<String> roleSet, PermissionCollection perms) {
             permsByRoleSet.put(roleSet, perms);
         }
+
+        private boolean isCacheable(Set<String> roleSet) {
+            for (String role : roleSet) {
+                if (scopedRoles.contains(getOfficialForm(role))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The standard roles are not scoped, so the constraints of the scoping factories, which vary with the
+         * hosts and server groups affected by the target, never matter for their decisions.
+         */
+        private Constraint[] getDecisionConstraints(Constraint[] constraints) {
+            Constraint[] result = constraints;
+            for (int i = 0; i < scopingFactories.length; i++) {
+                if (scopingFactories[i]) {
+                    if (result == constraints) {
+                        result = constraints.clone();
+                    }
+                    result[i] = null;
+                }
+            }
+            return result;
+        }
+
+        private Boolean getDecision(DecisionKey key) {
+            return decisions.get(key);
+        }
+
+        private void storeDecision(DecisionKey key, boolean permitted) {
+            decisions.put(key, permitted);
+        }
+    }
+
+    /**
+     * A bounded cache of decisions, split in segments that each evict their least recently used decision once full,
+     * so that a full cache keeps its frequent decisions and callers mostly lock different segments.
+     */
+    private static final class DecisionCache {
+        private static final int SEGMENTS = 16;
+        private static final int MAX_DECISIONS = 8192;
+
+        private final Map<DecisionKey, Boolean>[] segments;
+
+        @SuppressWarnings("unchecked")
+        private DecisionCache() {
+            final int maxPerSegment = MAX_DECISIONS / SEGMENTS;
+            segments = new Map[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new LinkedHashMap<DecisionKey, Boolean>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<DecisionKey, Boolean> eldest) {
+                        return size() > maxPerSegment;
+                    }
+                };
+            }
+        }
+
+        private Boolean get(DecisionKey key) {
+            final Map<DecisionKey, Boolean> segment = segmentFor(key);
+            synchronized (segment) {
+                return segment.get(key);
+            }
+        }
+
+        private void put(DecisionKey key, boolean permitted) {
+            final Map<DecisionKey, Boolean> segment = segmentFor(key);
+            synchronized (segment) {
+                segment.put(key, permitted);
+            }
+        }
+
+        private Map<DecisionKey, Boolean> segmentFor(DecisionKey key) {
+            final int hash = key.hashCode();
+            return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        }
+    }
+
+    /**
+     * Key of a cached decision. The constraint factories return shared constraint instances for the targets that
+     * don't have a scope, so the constraints are compared by identity.
+     */
+    private static final class DecisionKey {
+        private final Set<String> roles;
+        private final CombinationPolicy combinationPolicy;
+        private final Action.ActionEffect actionEffect;
+        private final Constraint[] constraints;
+        private final int hashCode;
+
+        private DecisionKey(Set<String> roles, CombinationPolicy combinationPolicy, Action.ActionEffect actionEffect, Constraint[] constraints) {
+            this.roles = roles;
+            this.combinationPolicy = combinationPolicy;
+            this.actionEffect = actionEffect;
+            this.constraints = constraints;
+            int hash = roles.hashCode();
+            hash = 31 * hash + combinationPolicy.hashCode();
+            hash = 31 * hash + actionEffect.hashCode();
+            for (Constraint constraint : constraints) {
+                hash = 31 * hash + System.identityHashCode(constraint);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey that = (DecisionKey) o;
+            if (hashCode != that.hashCode || combinationPolicy != that.combinationPolicy || actionEffect != that.actionEffect
+                    || constraints.length != that.constraints.length || !roles.equals(that.roles)) {
+                return false;
+            }
+            for (int i = 0; i < constraints.length; i++) {
+                if (constraints[i] != that.constraints[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 
 }
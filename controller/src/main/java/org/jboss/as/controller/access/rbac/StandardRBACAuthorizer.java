@@ -30,10 +30,18 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.JmxAction;
+import org.jboss.as.controller.access.JmxTarget;
+import org.jboss.as.controller.access.TargetAttribute;
+import org.jboss.as.controller.access.TargetResource;
 import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
 
 /**
  * Standard {@link org.jboss.as.controller.access.Authorizer} implementation that uses a provided
@@ -46,6 +54,9 @@ import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
  * So, by adding the {@code roles} operation-header to the request the client can only reduce its privileges,
  * not increase them.
  * </p>
+ * <p>Decisions for callers with standard roles are cached by the {@link DefaultPermissionFactory}, so that checking
+ * many resources and attributes against the same roles, as in a recursive read, doesn't evaluate the same constraints
+ * over and over.</p>
  *
  *
  * @author Brian Stansberry (c) 2013 Red Hat Inc.
@@ -139,6 +150,46 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
         return official;
     }
 
+    @Override
+    protected AuthorizationResult authorizeTarget(Caller caller, Environment callEnvironment, Action action, TargetAttribute target) {
+        Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        return getResult(permissionFactory.isPermitted(roles, action.getActionEffects(),
+                (factory, actionEffect) -> factory.getRequiredConstraint(actionEffect, action, target)));
+    }
+
+    @Override
+    protected AuthorizationResult authorizeTarget(Caller caller, Environment callEnvironment, Action action, TargetResource target) {
+        Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        return getResult(permissionFactory.isPermitted(roles, action.getActionEffects(),
+                (factory, actionEffect) -> factory.getRequiredConstraint(actionEffect, action, target)));
+    }
+
+    @Override
+    protected AuthorizationResult authorizeTarget(Caller caller, Environment callEnvironment, JmxAction action, JmxTarget target) {
+        Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        return getResult(permissionFactory.isPermitted(roles, action.getActionEffects(),
+                (factory, actionEffect) -> factory.getRequiredConstraint(actionEffect, action, target)));
+    }
+
+    private static AuthorizationResult getResult(boolean permitted) {
+        return permitted ? AuthorizationResult.PERMITTED
+                : new AuthorizationResult(AuthorizationResult.Decision.DENY, new ModelNode(ControllerLogger.ROOT_LOGGER.permissionDenied()));
+    }
+
+    /**
+     * @return the number of authorization decisions that were found in the cache
+     */
+    public long getDecisionCacheHitCount() {
+        return permissionFactory.getDecisionCacheHitCount();
+    }
+
+    /**
+     * @return the number of cacheable authorization decisions that were not found in the cache
+     */
+    public long getDecisionCacheMissCount() {
+        return permissionFactory.getDecisionCacheMissCount();
+    }
+
     @Override
     public AuthorizerDescription getDescription() {
         return AUTHORIZER_DESCRIPTION;
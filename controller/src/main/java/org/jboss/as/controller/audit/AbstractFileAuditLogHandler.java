@@ -33,7 +33,10 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -91,11 +94,32 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
 
     @Override
     void writeLogItem(String formattedItem) throws IOException {
+        writeRecords(Collections.singletonList(ByteBuffer.wrap(formattedItem.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Override
+    void writeLogItem(AuditLogItem item, AuditLogItemFormatter formatter) throws IOException {
+        writeRecords(Collections.singletonList(formatter.formatAuditLogItemBytes(item)));
+    }
+
+    @Override
+    void writeLogItemBatch(List<ByteBuffer> formattedItems) throws IOException {
+        writeRecords(formattedItems);
+    }
+
+    /**
+     * Appends records to the file, each followed by a line terminator, and forces the file to sync once.
+     *
+     * @param records the UTF-8 bytes of the records
+     */
+    void writeRecords(List<ByteBuffer> records) throws IOException {
         final FileOutputStream fos = new FileOutputStream(file, true);
         final BufferedOutputStream output = new BufferedOutputStream(fos);
         try {
-            output.write(formattedItem.getBytes(StandardCharsets.UTF_8));
-            output.write(LINE_TERMINATOR);
+            for (ByteBuffer record : records) {
+                output.write(record.array(), record.arrayOffset() + record.position(), record.remaining());
+                output.write(LINE_TERMINATOR);
+            }
 
             //Flush and force the file to sync
             output.flush();
@@ -0,0 +1,317 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Writes audit log records on a dedicated thread, so that management operations don't wait for the audit log handlers.
+ * <p/>
+ * Records are handed over through a bounded lock-free ring buffer. The writer thread drains them in batches, which it
+ * writes to the handlers under the audit lock, so that a file handler syncs once per batch. When the buffer is full
+ * a record is either dropped and counted, or the logging thread waits for room, depending on the overflow policy.
+ * <p/>
+ * The writer thread is started by the first record and {@link #stop()} drains the queue and waits for the thread to
+ * end, a record logged afterwards starts it again.
+ * <p/>
+ * The writer is enabled with the {@value #ASYNC_PROPERTY} system property. The size of the buffer is given by
+ * {@value #QUEUE_SIZE_PROPERTY}, and the overflow policy, {@code block} or {@code drop}, by {@value #OVERFLOW_POLICY_PROPERTY}.
+ */
+final class AsyncAuditLogWriter {
+
+    static final String ASYNC_PROPERTY = "jboss.as.management.audit.async";
+    static final String QUEUE_SIZE_PROPERTY = "jboss.as.management.audit.async.queue-size";
+    static final String OVERFLOW_POLICY_PROPERTY = "jboss.as.management.audit.async.overflow-policy";
+
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final int MAX_BATCH_SIZE = 256;
+    // How long the idle writer parks and a blocked logger waits for room, both are also woken up explicitly
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    // Vyukov's bounded queue: a slot is free for position p when its sequence is p, and holds a record when it is p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<ManagedAuditLoggerImpl> loggers;
+    private final AtomicReferenceArray<AuditLogItem> items;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the writer thread
+    private volatile long head;
+    // The position up to which the records were written
+    private volatile long written;
+    private volatile boolean idle;
+    private volatile boolean dropping;
+    private volatile boolean stopping;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder writeTime = new LongAdder();
+
+    // Null until the first record is queued and once stopped
+    private volatile Thread writer;
+
+    /**
+     * @return the writer configured by the system properties, or {@code null} if records should be written synchronously
+     */
+    static AsyncAuditLogWriter create() {
+        if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ASYNC_PROPERTY, "false"))) {
+            return null;
+        }
+        int queueSize = DEFAULT_QUEUE_SIZE;
+        String queueSizeValue = WildFlySecurityManager.getPropertyPrivileged(QUEUE_SIZE_PROPERTY, null);
+        if (queueSizeValue != null) {
+            try {
+                queueSize = Integer.parseInt(queueSizeValue);
+            } catch (NumberFormatException e) {
+                ControllerLogger.MGMT_OP_LOGGER.invalidAuditLogQueueSize(queueSizeValue, QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE);
+            }
+        }
+        String policy = WildFlySecurityManager.getPropertyPrivileged(OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK.name());
+        OverflowPolicy overflowPolicy = OverflowPolicy.DROP.name().equals(policy.toUpperCase(Locale.ENGLISH)) ? OverflowPolicy.DROP : OverflowPolicy.BLOCK;
+        return new AsyncAuditLogWriter(queueSize, overflowPolicy);
+    }
+
+    AsyncAuditLogWriter(int queueSize, OverflowPolicy overflowPolicy) {
+        int capacity = 2;
+        while (capacity < queueSize) {
+            capacity <<= 1;
+        }
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.loggers = new AtomicReferenceArray<>(capacity);
+        this.items = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Queues a record.
+     *
+     * @param logger the logger whose handlers should write the record
+     * @param item   the record
+     */
+    void offer(ManagedAuditLoggerImpl logger, AuditLogItem item) {
+        while (!tryOffer(logger, item)) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.increment();
+                if (!dropping) {
+                    dropping = true;
+                    ControllerLogger.MGMT_OP_LOGGER.auditLogQueueFull();
+                }
+                return;
+            }
+            wakeWriter();
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+        // read the writer after publishing the record, so that a writer stopping meanwhile sees the record in stop()
+        if (writer == null || idle) {
+            wakeWriter();
+        }
+    }
+
+    /**
+     * Waits until the records queued so far are written. Must not be called with the audit lock held.
+     */
+    void flush() {
+        final long target = tail.get();
+        while (written < target) {
+            wakeWriter();
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Writes the records queued so far and waits for the writer thread to end. Must not be called with the audit lock
+     * held.
+     */
+    synchronized void stop() {
+        final Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        stopping = true;
+        try {
+            LockSupport.unpark(thread);
+            thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopping = false;
+        }
+        if (thread.isAlive()) {
+            // still blocked writing, it remains the writer
+            return;
+        }
+        writer = null;
+        // a record queued while the thread was ending is left for a new thread
+        if (hasRecord()) {
+            startWriter();
+        }
+    }
+
+    /**
+     * @return the number of records waiting to be written
+     */
+    int getQueueSize() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return the number of records dropped because the queue was full
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the average time in microseconds to write a batch of records to the handlers
+     */
+    long getAverageWriteTime() {
+        final long count = batches.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(writeTime.sum() / count);
+    }
+
+    private boolean tryOffer(ManagedAuditLoggerImpl logger, AuditLogItem item) {
+        long position = tail.get();
+        for (;;) {
+            final int index = (int) position & mask;
+            final long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    loggers.lazySet(index, logger);
+                    items.lazySet(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void wakeWriter() {
+        final Thread thread = writer;
+        if (thread == null) {
+            startWriter();
+        } else {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer == null) {
+            final Thread thread = new Thread(this::run, "management-audit-log-writer");
+            thread.setDaemon(true);
+            writer = thread;
+            thread.start();
+        }
+    }
+
+    private void run() {
+        final List<AuditLogItem> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        for (;;) {
+            final ManagedAuditLoggerImpl logger = drain(batch);
+            if (logger == null) {
+                if (stopping) {
+                    return;
+                }
+                // warn again about dropped records only once the queue has been drained
+                dropping = false;
+                idle = true;
+                // recheck after publishing that we're idle, so that a record offered meanwhile isn't left behind
+                if (!hasRecord()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+            final long start = System.nanoTime();
+            try {
+                logger.writeQueuedItems(batch);
+            } catch (Throwable t) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(t instanceof Exception ? (Exception) t : new RuntimeException(t));
+            }
+            writeTime.add(System.nanoTime() - start);
+            batches.increment();
+            written = head;
+            batch.clear();
+        }
+    }
+
+    private boolean hasRecord() {
+        final long position = head;
+        return sequences.get((int) position & mask) == position + 1;
+    }
+
+    /**
+     * Takes the next records that belong to the same logger.
+     *
+     * @return the logger of the records, or {@code null} if there is none
+     */
+    private ManagedAuditLoggerImpl drain(List<AuditLogItem> batch) {
+        ManagedAuditLoggerImpl batchLogger = null;
+        long position = head;
+        while (batch.size() < MAX_BATCH_SIZE) {
+            final int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            final ManagedAuditLoggerImpl logger = loggers.get(index);
+            if (batchLogger == null) {
+                batchLogger = logger;
+            } else if (logger != batchLogger) {
+                break;
+            }
+            batch.add(items.get(index));
+            loggers.lazySet(index, null);
+            items.lazySet(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+        }
+        head = position;
+        return batchLogger;
+    }
+}
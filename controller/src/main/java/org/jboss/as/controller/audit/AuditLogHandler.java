@@ -22,6 +22,8 @@
 package org.jboss.as.controller.audit;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -80,8 +82,37 @@ abstract class AuditLogHandler {
         FailureCountHandler fch = getFailureCountHandler();
         try {
             initialize();
-            String formattedItem = item.format(formatter);
-            writeLogItem(formattedItem);
+            writeLogItem(item, formatter);
+            fch.success();
+        } catch (Throwable t) {
+            fch.failure(t);
+        }
+    }
+
+    /**
+     * Formats an item for {@link #writeLogItems(List)}, as a copy of the formatter's UTF-8 bytes since the
+     * formatter reuses them for the next item.
+     */
+    ByteBuffer formatLogItem(AuditLogItem item) {
+        final ByteBuffer formatted = formatter.formatAuditLogItemBytes(item);
+        final byte[] copy = new byte[formatted.remaining()];
+        formatted.get(copy);
+        return ByteBuffer.wrap(copy);
+    }
+
+    /**
+     * Writes a batch of items formatted by {@link #formatLogItem(AuditLogItem)}.
+     *
+     * @param formattedItems the formatted items
+     */
+    void writeLogItems(List<ByteBuffer> formattedItems) {
+        if (formattedItems.isEmpty()) {
+            return;
+        }
+        FailureCountHandler fch = getFailureCountHandler();
+        try {
+            initialize();
+            writeLogItemBatch(formattedItems);
             fch.success();
         } catch (Throwable t) {
             fch.failure(t);
@@ -133,6 +164,24 @@ abstract class AuditLogHandler {
     abstract void stop();
     abstract void writeLogItem(String formattedItem) throws IOException;
 
+    /**
+     * Formats and writes an item, by default as a string. Handlers that can write the formatter's UTF-8 bytes
+     * override this.
+     */
+    void writeLogItem(AuditLogItem item, AuditLogItemFormatter formatter) throws IOException {
+        writeLogItem(item.format(formatter));
+    }
+
+    /**
+     * Writes items formatted as UTF-8, by default one at a time as strings. Handlers that can write several items
+     * at once override this.
+     */
+    void writeLogItemBatch(List<ByteBuffer> formattedItems) throws IOException {
+        for (ByteBuffer formattedItem : formattedItems) {
+            writeLogItem(StandardCharsets.UTF_8.decode(formattedItem.duplicate()).toString());
+        }
+    }
+
     List<ModelNode> listLastEntries() {
         return Collections.emptyList();
     }
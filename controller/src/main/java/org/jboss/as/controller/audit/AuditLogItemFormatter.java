@@ -21,6 +21,8 @@
  */
 package org.jboss.as.controller.audit;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 
 
@@ -99,6 +101,18 @@ public abstract class AuditLogItemFormatter {
      */
     abstract String formatAuditLogItem(AuditLogItem.JmxAccessAuditLogItem item);
 
+    /**
+     * Formats and caches the audit log item as UTF-8. The bytes are those of the string returned by
+     * {@code formatAuditLogItem}, and the buffer holding them may be reused once the {@link #clear()} method
+     * gets called, so they should be copied by whoever needs to keep them longer.
+     *
+     * @param item the log item
+     * @return a buffer holding the formatted bytes between its position and its limit
+     */
+    ByteBuffer formatAuditLogItemBytes(AuditLogItem item) {
+        return ByteBuffer.wrap(item.format(this).getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Clears the formatted log item created by {@link #formatAuditLogItem(org.jboss.as.controller.audit.AuditLogItem.JmxAccessAuditLogItem)}
      * or {@link #formatAuditLogItem(org.jboss.as.controller.audit.AuditLogItem.ModelControllerAuditLogItem)} once the audit log item has been
@@ -115,6 +129,16 @@ public abstract class AuditLogItemFormatter {
         }
     }
 
+    /**
+     * @return the date and the separator that start the record, or {@code null} if the date should not be included
+     */
+    String getDatePrefix(AuditLogItem auditLogItem) {
+        if (includeDate) {
+            return dateFormat.format(auditLogItem.getDate()) + dateSeparator;
+        }
+        return null;
+    }
+
     String getCachedString() {
         return formattedString;
     }
@@ -21,6 +21,12 @@
  */
 package org.jboss.as.controller.audit;
 
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import org.jboss.as.controller.OperationContext.ResultAction;
 import org.jboss.as.controller.audit.AuditLogItem.JmxAccessAuditLogItem;
 import org.jboss.as.controller.audit.AuditLogItem.ModelControllerAuditLogItem;
@@ -28,15 +34,16 @@ import org.jboss.dmr.ModelNode;
 
 /**
  * All methods on this class should be called with {@link ManagedAuditLoggerImpl}'s lock taken.
+ * <p/>
+ * The record is streamed as UTF-8 into a byte buffer that is reused for every item, rather than built as a
+ * {@link ModelNode} and then converted to a string. The output is the JSON {@link ModelNode#toJSONString(boolean)}
+ * writes for such a record, whose layout is fixed here; only the operations of core records are still written by
+ * jboss-dmr.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
 
-    private static final ModelNode UNDEFINED = new ModelNode();
-    static {
-        UNDEFINED.protect();
-    }
     public static final String TYPE = "type";
     public static final String READ_ONLY = "r/o";
     public static final String BOOTING = "booting";
@@ -52,10 +59,27 @@ public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
     public static final String METHOD_PARAMETERS = "params";
     public static final String ERROR = "error";
 
+    private static final JsonLayout COMPACT = new JsonLayout(true);
+    private static final JsonLayout MULTI_LINE = new JsonLayout(false);
+    private static final String HEX_DIGITS = "0123456789ABCDEF";
+
+    private static final int ESCAPE_NONE = 0;
+    private static final int ESCAPE_NEW_LINE = 1;
+    private static final int ESCAPE_CONTROL_CHARACTERS = 2;
+
     private volatile boolean compactJson;
     private volatile boolean escapeNewLine;
     private volatile boolean escapeControlCharacters;
 
+    // The state below is only used with the audit lock taken
+    private byte[] buffer = new byte[1024];
+    private int length;
+    private boolean formatted;
+    private int escaping;
+    private String nestedIndent;
+    private char highSurrogate;
+    private final PrintWriter nestedWriter = new PrintWriter(new RecordWriter());
+
     public JsonAuditLogItemFormatter(String name, boolean includeDate, String dateSeparator, String dateFormat,
             boolean compactJson, boolean escapeNewLine, boolean escapeControlCharacters) {
         super(name, includeDate, dateSeparator, dateFormat);
@@ -82,105 +106,339 @@ public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
 
     @Override
     public String formatAuditLogItem(ModelControllerAuditLogItem item) {
-        String formattedString = getCachedString();
-        if (formattedString != null) {
-            return formattedString;
-        }
+        return formatString(item);
+    }
 
-        ModelNode formatted = new ModelNode();
-        formatted.get(TYPE).set(TYPE_CORE);
-        addCommonFields(item, formatted);
-        formatted.get(SUCCESS).set(item.getResultAction() == ResultAction.KEEP);
-        formatted.get(OPERATIONS).set(item.getOperations());
+    @Override
+    public String formatAuditLogItem(JmxAccessAuditLogItem item) {
+        return formatString(item);
+    }
 
-        return cacheString(createRecordText(item, formatted));
+    @Override
+    ByteBuffer formatAuditLogItemBytes(AuditLogItem item) {
+        if (!formatted) {
+            writeRecord(item);
+        }
+        return ByteBuffer.wrap(buffer, 0, length);
     }
 
     @Override
-    public String formatAuditLogItem(JmxAccessAuditLogItem item) {
+    void clear() {
+        super.clear();
+        formatted = false;
+    }
+
+    private String formatString(AuditLogItem item) {
         String formattedString = getCachedString();
         if (formattedString != null) {
             return formattedString;
         }
-        ModelNode formatted = new ModelNode();
-        formatted.get(TYPE).set(TYPE_JMX);
-        addCommonFields(item, formatted);
+        if (!formatted) {
+            writeRecord(item);
+        }
+        return cacheString(new String(buffer, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private void writeRecord(AuditLogItem item) {
+        final JsonLayout layout = compactJson ? COMPACT : MULTI_LINE;
+        escaping = escapeControlCharacters ? ESCAPE_CONTROL_CHARACTERS : escapeNewLine ? ESCAPE_NEW_LINE : ESCAPE_NONE;
+        length = 0;
+
+        final String date = getDatePrefix(item);
+        if (date != null) {
+            writeText(date);
+        }
+        writeText(layout.objectStart);
+        if (item instanceof ModelControllerAuditLogItem) {
+            writeString(layout, TYPE, TYPE_CORE, true);
+            writeCommonFields(layout, item);
+            writeCoreFields(layout, (ModelControllerAuditLogItem) item);
+        } else {
+            writeString(layout, TYPE, TYPE_JMX, true);
+            writeCommonFields(layout, item);
+            writeJmxFields(layout, (JmxAccessAuditLogItem) item);
+        }
+        writeText(layout.objectEnd);
+        flushHighSurrogate();
+        formatted = true;
+    }
 
-        formatted.get(METHOD_NAME).set(item.getMethodName());
+    private void writeCommonFields(JsonLayout layout, AuditLogItem item) {
+        writeBoolean(layout, READ_ONLY, item.isReadOnly());
+        writeBoolean(layout, BOOTING, item.isBooting());
+        writeString(layout, AS_VERSION, item.getAsVersion(), false);
+        writeString(layout, USER_ID, item.getUserId(), false);
+        writeString(layout, DOMAIN_UUID, item.getDomainUUID(), false);
+        writeString(layout, ACCESS_MECHANISM, item.getAccessMechanism() == null ? null : item.getAccessMechanism().toString(), false);
+        writeString(layout, REMOTE_ADDRESS, item.getRemoteAddress() == null ? null : item.getRemoteAddress().toString(), false);
+    }
 
-        formatted.get(METHOD_SIGNATURE);
-        for (String sig : item.getMethodSignature()) {
-            formatted.get(METHOD_SIGNATURE).add(sig);
+    private void writeCoreFields(JsonLayout layout, ModelControllerAuditLogItem item) {
+        writeBoolean(layout, SUCCESS, item.getResultAction() == ResultAction.KEEP);
+        writeKey(layout, OPERATIONS, false);
+        final List<ModelNode> operations = item.getOperations();
+        if (operations.isEmpty()) {
+            writeText("[]");
+            return;
+        }
+        writeText(layout.listStart);
+        for (int i = 0; i < operations.size(); i++) {
+            if (i > 0) {
+                writeText(layout.listSeparator);
+            }
+            nestedIndent = layout.elementIndent;
+            try {
+                if (layout.compact) {
+                    // jboss-dmr streams compact JSON without the spaces around separators that toJSONString(true) has
+                    nestedWriter.write(operations.get(i).toJSONString(true));
+                } else {
+                    operations.get(i).writeJSONString(nestedWriter, false);
+                }
+            } finally {
+                nestedIndent = null;
+            }
         }
+        writeText(layout.listEnd);
+    }
 
-        formatted.get(METHOD_PARAMETERS);
-        for (Object param : item.getMethodParams()) {
-            //TODO handle arrays better
-            formatted.get(METHOD_PARAMETERS).add(param == null ? UNDEFINED : new ModelNode(param.toString()));
+    private void writeJmxFields(JsonLayout layout, JmxAccessAuditLogItem item) {
+        writeString(layout, METHOD_NAME, item.getMethodName(), false);
+
+        writeKey(layout, METHOD_SIGNATURE, false);
+        final String[] signature = item.getMethodSignature();
+        if (signature == null || signature.length == 0) {
+            writeText("null");
+        } else {
+            writeText(layout.listStart);
+            for (int i = 0; i < signature.length; i++) {
+                if (i > 0) {
+                    writeText(layout.listSeparator);
+                }
+                writeStringValue(signature[i]);
+            }
+            writeText(layout.listEnd);
+        }
+
+        writeKey(layout, METHOD_PARAMETERS, false);
+        final Object[] params = item.getMethodParams();
+        if (params == null || params.length == 0) {
+            writeText("null");
+        } else {
+            writeText(layout.listStart);
+            for (int i = 0; i < params.length; i++) {
+                if (i > 0) {
+                    writeText(layout.listSeparator);
+                }
+                //TODO handle arrays better
+                writeStringValue(params[i] == null ? null : params[i].toString());
+            }
+            writeText(layout.listEnd);
         }
 
         final Throwable throwable = item.getError();
         if (throwable != null) {
             //TODO include stack trace?
-            formatted.get(ERROR).set(throwable.getMessage());
+            writeString(layout, ERROR, throwable.getMessage(), false);
         }
-
-        return cacheString(createRecordText(item, formatted));
     }
 
-    private String createRecordText(AuditLogItem item, ModelNode formatted) {
-        StringBuilder sb = new StringBuilder();
+    private void writeKey(JsonLayout layout, String key, boolean first) {
+        if (!first) {
+            writeText(layout.entrySeparator);
+        }
+        writeStringValue(key);
+        writeText(" : ");
+    }
 
-        appendDate(sb, item);
+    private void writeBoolean(JsonLayout layout, String key, boolean value) {
+        writeKey(layout, key, false);
+        writeText(value ? "true" : "false");
+    }
 
-        sb.append(formatted.toJSONString(compactJson));
+    private void writeString(JsonLayout layout, String key, String value, boolean first) {
+        writeKey(layout, key, first);
+        writeStringValue(value);
+    }
 
-        String formattedString;
-        if (escapeNewLine && !escapeControlCharacters) {
-            //Escape all instances of "\n" with "#012"
-            formattedString = sb.toString().replace("\n", "#012");
-        } else if (escapeControlCharacters) {
-            StringBuilder escaped = new StringBuilder();
-            for (int i = 0 ; i < sb.length() ; i++) {
-                char c = sb.charAt(i);
-                if (c >= 0 && c < 32) {
-                    escaped.append('#');
-                    if (c < 8) {
-                        escaped.append('0').append('0').append((int) c);
+    /**
+     * Writes a quoted string, escaped as jboss-dmr does: quotes, backslashes and the characters below {@code 0x20}.
+     */
+    private void writeStringValue(String value) {
+        if (value == null) {
+            writeText("null");
+            return;
+        }
+        writeChar('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writeText("\\\"");
+                    break;
+                case '\\':
+                    writeText("\\\\");
+                    break;
+                case '\b':
+                    writeText("\\b");
+                    break;
+                case '\t':
+                    writeText("\\t");
+                    break;
+                case '\n':
+                    writeText("\\n");
+                    break;
+                case '\f':
+                    writeText("\\f");
+                    break;
+                case '\r':
+                    writeText("\\r");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writeText("\\u00");
+                        writeAscii(HEX_DIGITS.charAt(c >> 4));
+                        writeAscii(HEX_DIGITS.charAt(c & 0xF));
                     } else {
-                        escaped.append('0').append(c >> 3).append(c & 0x07);
+                        writeChar(c);
                     }
-                } else {
-                    escaped.append(c);
-                }
             }
-            formattedString = escaped.toString();
+        }
+        writeChar('"');
+    }
+
+    private void writeText(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            writeChar(text.charAt(i));
+        }
+    }
+
+    /**
+     * Encodes a character as UTF-8, replacing unpaired surrogates with {@code '?'} as {@link String#getBytes} does.
+     */
+    private void writeChar(char c) {
+        if (highSurrogate != 0) {
+            final char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                ensureCapacity(4);
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            writeAscii('?');
+        }
+        if (c < 0x80) {
+            writeAscii(c);
+            if (c == '\n' && nestedIndent != null) {
+                writeText(nestedIndent);
+            }
+        } else if (c < 0x800) {
+            ensureCapacity(2);
+            buffer[length++] = (byte) (0xC0 | (c >> 6));
+            buffer[length++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            writeAscii('?');
         } else {
-            formattedString = sb.toString();
+            ensureCapacity(3);
+            buffer[length++] = (byte) (0xE0 | (c >> 12));
+            buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (c & 0x3F));
         }
+    }
 
-        return formattedString;
+    private void flushHighSurrogate() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            writeAscii('?');
+        }
+    }
+
+    private void writeAscii(int c) {
+        ensureCapacity(4);
+        if (c < 32 && escaping != ESCAPE_NONE && (escaping == ESCAPE_CONTROL_CHARACTERS || c == '\n')) {
+            //Write the octal value, e.g. "#012" for "\n"
+            buffer[length++] = '#';
+            buffer[length++] = '0';
+            buffer[length++] = (byte) ('0' + (c >> 3));
+            buffer[length++] = (byte) ('0' + (c & 0x07));
+        } else {
+            buffer[length++] = (byte) c;
+        }
     }
 
-    private void addCommonFields(AuditLogItem item, ModelNode formatted) {
-        formatted.get(READ_ONLY).set(item.isReadOnly());
-        formatted.get(BOOTING).set(item.isBooting());
-        formatted.get(AS_VERSION).set(item.getAsVersion());
-        formatted.get(USER_ID);
-        if (item.getUserId() != null) {
-            formatted.get(USER_ID).set(item.getUserId());
+    private void ensureCapacity(int count) {
+        if (length + count > buffer.length) {
+            final byte[] grown = new byte[Math.max(buffer.length << 1, length + count)];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
         }
-        formatted.get(DOMAIN_UUID);
-        if (item.getDomainUUID() != null) {
-            formatted.get(DOMAIN_UUID).set(item.getDomainUUID());
+    }
+
+    /**
+     * Receives the JSON of nested model nodes written by jboss-dmr.
+     */
+    private class RecordWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                writeChar(cbuf[i]);
+            }
         }
-        formatted.get(ACCESS_MECHANISM);
-        if (item.getAccessMechanism() != null) {
-            formatted.get(ACCESS_MECHANISM).set(item.getAccessMechanism().toString());
+
+        @Override
+        public void write(String str, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                writeChar(str.charAt(i));
+            }
         }
-        formatted.get(REMOTE_ADDRESS);
-        if (item.getRemoteAddress() != null) {
-            formatted.get(REMOTE_ADDRESS).set(item.getRemoteAddress().toString());
+
+        @Override
+        public void write(int c) {
+            writeChar((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The punctuation and indentation of the JSON written by jboss-dmr, for the values of the record's fields. Its
+     * compact JSON puts spaces around the separators of objects but not of lists, and its multi-line JSON indents
+     * by four spaces.
+     */
+    private static final class JsonLayout {
+        private final boolean compact;
+        private final String objectStart;
+        private final String entrySeparator;
+        private final String objectEnd;
+        // lists are the values of the record's fields, so their elements are indented one level more
+        private final String listStart;
+        private final String listSeparator;
+        private final String listEnd;
+        // what follows a new line in the JSON of an element of a list
+        private final String elementIndent;
+
+        private JsonLayout(boolean compact) {
+            this.compact = compact;
+            final String lineBreak = compact ? "" : "\n";
+            final String indent = compact ? "" : "    ";
+            objectStart = "{" + lineBreak + indent;
+            entrySeparator = compact ? ", " : ",\n" + indent;
+            objectEnd = lineBreak + "}";
+            elementIndent = indent + indent;
+            listStart = "[" + lineBreak + elementIndent;
+            listSeparator = "," + lineBreak + elementIndent;
+            listEnd = lineBreak + indent + "]";
         }
     }
 
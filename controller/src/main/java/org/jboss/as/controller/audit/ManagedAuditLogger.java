@@ -200,6 +200,33 @@ public interface ManagedAuditLogger extends AuditLogger {
         return Collections.emptyList();
     }
 
+    /**
+     * Gets the number of records waiting to be written by the asynchronous writer
+     *
+     * @return the number of records, 0 if records are written synchronously
+     */
+    default int getQueuedRecordCount() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of records the asynchronous writer dropped because its queue was full
+     *
+     * @return the number of dropped records
+     */
+    default long getDroppedRecordCount() {
+        return 0;
+    }
+
+    /**
+     * Gets the average time the asynchronous writer took to write a batch of records
+     *
+     * @return the average time in microseconds
+     */
+    default long getAverageWriteTime() {
+        return 0;
+    }
+
     /**
      * Callback for the controller to call before the controller is booted
      */
@@ -210,6 +237,12 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     void bootDone();
 
+    /**
+     * Callback for the controller to call when it stops, so that the records logged so far are written
+     */
+    default void stop() {
+    }
+
     /**
      * <p>The audit log handler updater. Additive changes will be used for the audit log record as a result of
      * management operations causing updates here. Removals and updates will not take effect until the current audit log
@@ -26,6 +26,7 @@ package org.jboss.as.controller.audit;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -60,8 +61,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     /** If we are the core audit logger, list the children */
     private final ManagedAuditLogConfiguration config;
 
-    /** Guarded by config's auditLock - updates to the handlers */
-    private HandlerUpdateTask handlerUpdateTask;
+    /** Guarded by config's auditLock - updates to the handlers. Volatile so that asynchronous logging sees pending updates without the lock */
+    private volatile HandlerUpdateTask handlerUpdateTask;
 
     /** Guarded by config's auditLock - the messages logged while in the QUEUEING state */
     private final List<AuditLogItem> queuedItems = new ArrayList<AuditLogItem>();
@@ -92,6 +93,19 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        if (canLogAsynchronously(asyncWriter)) {
+            if (!readOnly || config.isLogReadOnly()) {
+                asyncWriter.offer(this,
+                        AuditLogItem.createModelControllerItem(config.getAsVersion(), readOnly, false, resultAction, userId, domainUUID,
+                                accessMechanism, remoteAddress, resultantModel, operations));
+            }
+            return;
+        } else if (asyncWriter != null) {
+            // keep the order of the records
+            asyncWriter.flush();
+        }
+
         config.lock();
         try {
             if (skipLogging(readOnly)) {
@@ -114,6 +128,19 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        if (canLogAsynchronously(asyncWriter)) {
+            if (!readOnly || config.isLogReadOnly()) {
+                asyncWriter.offer(this,
+                        AuditLogItem.createMethodAccessItem(config.getAsVersion(), readOnly, false, userId, domainUUID, accessMechanism,
+                                remoteAddress, methodName, methodSignature, methodParams, error));
+            }
+            return;
+        } else if (asyncWriter != null) {
+            // keep the order of the records
+            asyncWriter.flush();
+        }
+
         config.lock();
         try {
             if (skipLogging(readOnly)) {
@@ -130,6 +157,34 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /**
+     * Whether a record can be handed to the asynchronous writer without taking the lock. Records logged during boot,
+     * while handler updates are pending or when the logger is not simply logging are written synchronously, so that
+     * they are queued, written or discarded exactly as they would be without the asynchronous writer.
+     */
+    private boolean canLogAsynchronously(AsyncAuditLogWriter asyncWriter) {
+        return asyncWriter != null && handlerUpdateTask == null && config.getLoggerStatus() == Status.LOGGING && !config.isBooting();
+    }
+
+    /**
+     * Writes records queued by the asynchronous writer.
+     *
+     * @param items the records, in the order they were logged
+     */
+    void writeQueuedItems(List<AuditLogItem> items) {
+        config.lock();
+        try {
+            final Status status = config.getLoggerStatus();
+            if (status == Status.LOGGING || status == Status.DISABLE_NEXT) {
+                writeLogItems(items);
+            }
+        } catch (Exception e) {
+            handleLoggingException(e);
+        } finally {
+            config.unlock();
+        }
+    }
+
     private boolean skipLogging(boolean readOnly) {
         if (config.isBooting() && !isLogBoot() || readOnly && !isLogReadOnly()) {
             if (getLoggerStatus() == Status.DISABLED) {
@@ -201,6 +256,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
     @Override
     public void recycleHandler(String name) {
+        flushAsyncWriter();
         config.lock();
         try {
             config.recycleHandler(name);
@@ -272,6 +328,33 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /** protected by config's audit lock */
+    private void writeLogItems(List<AuditLogItem> items) {
+        final List<AuditLogHandler> handlers = config.getHandlersForLogging();
+        final List<List<ByteBuffer>> formattedItems = new ArrayList<>(handlers.size());
+        for (int i = 0; i < handlers.size(); i++) {
+            formattedItems.add(new ArrayList<>(items.size()));
+        }
+        // the formatters cache the last item they formatted, so format all the handlers' items one record at a time
+        for (AuditLogItem item : items) {
+            Set<String> formatterNames = new HashSet<String>();
+            try {
+                for (int i = 0; i < handlers.size(); i++) {
+                    final AuditLogHandler handler = handlers.get(i);
+                    formatterNames.add(handler.getFormatterName());
+                    formattedItems.get(i).add(handler.formatLogItem(item));
+                }
+            } finally {
+                for (String formatterName : formatterNames) {
+                    config.getFormatter(formatterName).clear();
+                }
+            }
+        }
+        for (int i = 0; i < handlers.size(); i++) {
+            handlers.get(i).writeLogItems(formattedItems.get(i));
+        }
+    }
+
     /** protected by config's audit lock */
     private void handleLoggingException(final Exception e) {
         ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
@@ -374,6 +457,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
     @Override
     public void applyChanges() {
+        // the queued records go to the handlers they were logged with
+        flushAsyncWriter();
         config.lock();
         try {
             if (!config.isManualCommit()) {
@@ -518,6 +603,24 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    @Override
+    public int getQueuedRecordCount() {
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        return asyncWriter == null ? 0 : asyncWriter.getQueueSize();
+    }
+
+    @Override
+    public long getDroppedRecordCount() {
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        return asyncWriter == null ? 0 : asyncWriter.getDroppedCount();
+    }
+
+    @Override
+    public long getAverageWriteTime() {
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        return asyncWriter == null ? 0 : asyncWriter.getAverageWriteTime();
+    }
+
     @Override
     public void updateInMemoryHandlerMaxHistory(String name, int maxHistory) {
         config.lock();
@@ -592,6 +695,10 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             return sharedConfiguration.getAsVersion();
         }
 
+        AsyncAuditLogWriter getAsyncWriter() {
+            return sharedConfiguration.getAsyncWriter();
+        }
+
         boolean isServer() {
             return sharedConfiguration.isServer();
         }
@@ -741,6 +848,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         private final Lock auditLock = new ReentrantLock(true);
         private final String asVersion;
         private final boolean server;
+        /** The writer shared by all the configurations when logging asynchronously, {@code null} otherwise */
+        private final AsyncAuditLogWriter asyncWriter;
 
         /** Guarded by auditLock - the formatters configured in the global json-formatters section */
         private final Map<String, AuditLogItemFormatter> formatters = new HashMap<String, AuditLogItemFormatter>();
@@ -748,13 +857,14 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         /** Guarded by auditLock - the handlers configured in the global file-handlers and syslog-handlers section */
         private final Map<String, AuditLogHandler> configuredHandlers = new HashMap<String, AuditLogHandler>();
 
-        /** Guarded by auditLock - whether we are boothing or not */
-        private boolean booting = true;
+        /** Guarded by auditLock - whether we are boothing or not. Volatile so that asynchronous logging can read it without the lock */
+        private volatile boolean booting = true;
 
 
         SharedConfiguration(String asVersion, boolean server) {
             this.asVersion = asVersion;
             this.server = server;
+            this.asyncWriter = AsyncAuditLogWriter.create();
         }
 
         public void recycleHandler(String name) {
@@ -778,6 +888,10 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             return server;
         }
 
+        AsyncAuditLogWriter getAsyncWriter() {
+            return asyncWriter;
+        }
+
         Map<String, AuditLogHandler> getConfiguredHandlers() {
             return configuredHandlers;
         }
@@ -993,6 +1107,22 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
 
+    @Override
+    public void stop() {
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        if (asyncWriter != null) {
+            asyncWriter.stop();
+        }
+    }
+
+    /** Must not be called with the lock taken */
+    private void flushAsyncWriter() {
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        if (asyncWriter != null) {
+            asyncWriter.flush();
+        }
+    }
+
     @Override
     public void startBoot() {
         config.lock();
@@ -26,7 +26,8 @@ import org.jboss.as.controller.services.path.PathManagerService;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -84,10 +85,29 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
     }
 
     @Override
-    void writeLogItem(String formattedItem) throws IOException {
-        super.writeLogItem(formattedItem);
-        currentSize += formattedItem.getBytes(StandardCharsets.UTF_8).length;
-        currentSize += LINE_TERMINATOR.length;
+    void writeRecords(List<ByteBuffer> records) throws IOException {
+        // check the size before each record of a batch, as if the records were written one at a time
+        int start = 0;
+        long size = currentSize;
+        for (int i = 0; i < records.size(); i++) {
+            if (i > start && size > rotateSize) {
+                writeAndCount(records.subList(start, i));
+                // rotates the file
+                initialize();
+                start = i;
+                size = currentSize;
+            }
+            size += records.get(i).remaining() + LINE_TERMINATOR.length;
+        }
+        writeAndCount(records.subList(start, records.size()));
+    }
+
+    private void writeAndCount(List<ByteBuffer> records) throws IOException {
+        super.writeRecords(records);
+        for (ByteBuffer record : records) {
+            currentSize += record.remaining();
+            currentSize += LINE_TERMINATOR.length;
+        }
     }
 
     @Override
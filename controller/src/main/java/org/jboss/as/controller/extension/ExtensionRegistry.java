@@ -902,6 +902,11 @@ public class ExtensionRegistry {
             return deployments.getMinOccurs();
         }
 
+        @Override
+        public long getRegistrationStamp() {
+            return deployments.getRegistrationStamp();
+        }
+
         @Override
         public boolean isRuntimeOnly() {
             return deployments.isRuntimeOnly();
@@ -3520,4 +3520,53 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 448, value = "%s additional services are down due to their dependencies being missing or failed")
     String servicesWithTransitiveUnavailability(int count);
 
+    /**
+     * Logs a warning message indicating the value of the audit log queue size system property is invalid.
+     *
+     * @param value        the invalid value
+     * @param property     the name of the system property
+     * @param defaultValue the queue size used instead
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 449, value = "Invalid value '%s' for system property '%s', using the default audit log queue size %d")
+    void invalidAuditLogQueueSize(String value, String property, int defaultValue);
+
+    /**
+     * Logs a warning message indicating audit log records are dropped because the asynchronous audit log queue is full.
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 450, value = "The management audit log queue is full, audit log records are being dropped")
+    void auditLogQueueFull();
+
+    /**
+     * Logs an informational message indicating the boot operations were read from the boot operation cache.
+     *
+     * @param count     the number of boot operations
+     * @param file      the configuration file
+     * @param savedTime the time in milliseconds the configuration file took to parse when the cache was written
+     */
+    @LogMessage(level = Level.INFO)
+    @Message(id = 451, value = "Read %d boot operations for %s from the boot operation cache, saving %d ms of configuration parsing")
+    void bootOperationsReadFromCache(int count, File file, long savedTime);
+
+    /**
+     * Logs a debug message indicating the boot operation cache could not be read or written.
+     *
+     * @param cause the cause of the error
+     * @param file  the cache file
+     */
+    @LogMessage(level = Level.DEBUG)
+    @Message(id = 452, value = "Cannot use the boot operation cache %s")
+    void cannotUseBootOperationCache(@Cause Throwable cause, File file);
+
+    /**
+     * Logs a warning message indicating the configuration file write delay is invalid.
+     *
+     * @param value    the invalid value
+     * @param property the system property
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 453, value = "Invalid value '%s' for system property '%s', the configuration file is written synchronously")
+    void invalidConfigurationWriteDelay(String value, String property);
+
 }
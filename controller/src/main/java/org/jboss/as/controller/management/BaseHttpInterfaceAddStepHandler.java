@@ -73,6 +73,7 @@ public abstract class BaseHttpInterfaceAddStepHandler extends ManagementInterfac
         final String sslContext = asStringIfDefined(context, BaseHttpInterfaceResourceDefinition.SSL_CONTEXT, model);
         final String securityRealm = asStringIfDefined(context, BaseHttpInterfaceResourceDefinition.SECURITY_REALM, model);
         final boolean consoleEnabled = BaseHttpInterfaceResourceDefinition.CONSOLE_ENABLED.resolveModelAttribute(context, model).asBoolean();
+        final boolean metricsEnabled = BaseHttpInterfaceResourceDefinition.METRICS_ENABLED.resolveModelAttribute(context, model).asBoolean();
         final boolean httpUpgradeEnabled;
         final String saslAuthenticationFactory;
         if (model.hasDefined(ModelDescriptionConstants.HTTP_UPGRADE)) {
@@ -120,6 +121,11 @@ public abstract class BaseHttpInterfaceAddStepHandler extends ManagementInterfac
                 return consoleEnabled;
             }
 
+            @Override
+            public boolean isMetricsEnabled() {
+                return metricsEnabled;
+            }
+
             @Override
             public String getSecurityRealm() {
                 return securityRealm;
@@ -96,6 +96,13 @@ public abstract class BaseHttpInterfaceResourceDefinition extends SimpleResource
         .setRestartAllServices()
         .build();
 
+    public static final SimpleAttributeDefinition METRICS_ENABLED = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.METRICS_ENABLED, ModelType.BOOLEAN, true)
+        .setAllowExpression(true)
+        .setXmlName(Attribute.METRICS_ENABLED.getLocalName())
+        .setDefaultValue(new ModelNode(false))
+        .setRestartAllServices()
+        .build();
+
     public static final SimpleAttributeDefinition HTTP_UPGRADE_ENABLED = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.HTTP_UPGRADE_ENABLED, ModelType.BOOLEAN, true)
         .setXmlName(Attribute.HTTP_UPGRADE_ENABLED.getLocalName())
         .setDeprecated(ModelVersion.create(5), true)
@@ -142,7 +149,7 @@ public abstract class BaseHttpInterfaceResourceDefinition extends SimpleResource
         .build();
 
     protected static final AttributeDefinition[] COMMON_ATTRIBUTES = new AttributeDefinition[] { HTTP_AUTHENTICATION_FACTORY, SSL_CONTEXT, SECURITY_REALM, CONSOLE_ENABLED, HTTP_UPGRADE_ENABLED,
-                                                                                                     HTTP_UPGRADE, SASL_PROTOCOL, SERVER_NAME, ALLOWED_ORIGINS};
+                                                                                                     HTTP_UPGRADE, SASL_PROTOCOL, SERVER_NAME, ALLOWED_ORIGINS, METRICS_ENABLED};
 
     /**
      * @param parameters
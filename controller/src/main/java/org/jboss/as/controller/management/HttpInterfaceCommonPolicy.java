@@ -68,6 +68,13 @@ public interface HttpInterfaceCommonPolicy {
      */
     boolean isConsoleEnabled();
 
+    /**
+     * Are the metrics of the management model served under the {@code /metrics} context.
+     *
+     * @return {@code true} if the metrics should be made available, {@code false} otherwise.
+     */
+    boolean isMetricsEnabled();
+
     /**
      * Is upgrading to a Remoting connection over the HTTP interface enabled.
      *
@@ -110,6 +110,7 @@ public class GlobalOperationHandlers {
         root.registerOperationHandler(ReadOperationNamesHandler.DEFINITION, ReadOperationNamesHandler.INSTANCE, true);
         root.registerOperationHandler(ReadOperationDescriptionHandler.DEFINITION, ReadOperationDescriptionHandler.INSTANCE, true);
         root.registerOperationHandler(QueryOperationHandler.DEFINITION, QueryOperationHandler.INSTANCE, true);
+        root.registerOperationHandler(ReadMetricsHandler.DEFINITION, ReadMetricsHandler.INSTANCE, true);
 
         //map operations
         root.registerOperationHandler(MapOperations.MAP_PUT_DEFINITION, MapOperations.MAP_PUT_HANDLER, true);
@@ -32,7 +32,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ExpressionResolver;
@@ -46,13 +48,16 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.PropertiesAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.as.controller.transform.TransformationContext;
@@ -111,7 +116,7 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
 
 
         ImmutableManagementResourceRegistration mrr = parentContext.getResourceRegistration();
-        final OperationStepHandler readResourceHandler = mrr.getOperationHandler(
+        OperationStepHandler readResourceHandler = mrr.getOperationHandler(
                 PathAddress.EMPTY_ADDRESS,
                 ModelDescriptionConstants.READ_RESOURCE_OPERATION
         );
@@ -121,8 +126,16 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
         readResourceOp.get(INCLUDE_RUNTIME).set(true);
 
+        // Push the filter and the projection down into the standard read-resource handling,
+        // an overridden read-resource handler reads the complete resource
+        ReadResourceFilter readResourceFilter = null;
+        if (readResourceHandler != null && readResourceHandler.getClass() == ReadResourceHandler.class) {
+            readResourceFilter = new ReadResourceFilter(where, operator, select);
+            readResourceHandler = new ReadResourceHandler(readResourceFilter);
+        }
+
         // filter/reduce phase
-        parentContext.addStep(operation, new FilterReduceHandler(where, operator, select), OperationContext.Stage.MODEL);
+        parentContext.addStep(operation, new FilterReduceHandler(where, operator, select, readResourceFilter), OperationContext.Stage.MODEL);
 
         // map phase
         parentContext.addStep(readResourceOp, readResourceHandler, OperationContext.Stage.MODEL);
@@ -136,11 +149,13 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         private final ModelNode filter;
         private final Operator operator;
         private final ModelNode select;
+        private final ReadResourceFilter readResourceFilter;
 
-        FilterReduceHandler(final ModelNode filter, final Operator operator, final ModelNode select) {
+        FilterReduceHandler(final ModelNode filter, final Operator operator, final ModelNode select, final ReadResourceFilter readResourceFilter) {
             this.filter = filter;
             this.operator = operator;
             this.select = select;
+            this.readResourceFilter = readResourceFilter;
         }
 
 
@@ -151,7 +166,10 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
                     new OperationContext.ResultHandler() {
                         @Override
                         public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
-                            if (context.hasResult() || filter.isDefined()) {
+                            if (readResourceFilter != null && readResourceFilter.isPruned()) {
+                                // the resource was already found not to match, so it wasn't read
+                                context.getResult().set(new ModelNode());
+                            } else if (context.hasResult() || filter.isDefined()) {
                                 ModelNode result = context.getResult();
                                 try {
                                     filterAndReduce(filter, operator, select, result);
@@ -282,6 +300,103 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         }
     }
 
+    /**
+     * Narrows the {@code read-resource} a query runs against a resource to what the query needs.
+     * <p>
+     * With a {@code select} parameter only the selected attributes and those tested by the {@code where} parameter are
+     * read, so the read handlers of the other attributes never run. With a {@code where} parameter that only tests
+     * attributes stored in the model, the filter is applied to the model before any read handler runs, and a resource
+     * that doesn't match is not read at all.
+     */
+    static final class ReadResourceFilter {
+
+        private final ModelNode filter;
+        private final Operator operator;
+        // null if everything is needed
+        private final Set<String> names;
+        private boolean pruned;
+
+        ReadResourceFilter(final ModelNode filter, final Operator operator, final ModelNode select) {
+            this.filter = filter;
+            this.operator = operator;
+            if (select.isDefined()) {
+                names = new HashSet<>();
+                for (ModelNode name : select.asList()) {
+                    names.add(name.asString());
+                }
+                if (filter.isDefined()) {
+                    for (Property property : filter.asPropertyList()) {
+                        names.add(property.getName());
+                    }
+                }
+            } else {
+                names = null;
+            }
+        }
+
+        /**
+         * @param name the name of an attribute or a child type
+         * @return whether the query needs it
+         */
+        boolean isIncluded(String name) {
+            return names == null || names.contains(name);
+        }
+
+        /**
+         * Applies the filter to the model of a resource, if the value of each attribute it tests can be read from the model.
+         *
+         * @return {@code true} if the resource doesn't match the filter and doesn't need to be read
+         */
+        boolean prune(OperationContext context, PathAddress address, ImmutableManagementResourceRegistration registry, Resource resource) {
+            if (!filter.isDefined() || registry == null) {
+                return false;
+            }
+            final OperationStepHandler readAttributeHandler = registry.getOperationHandler(PathAddress.EMPTY_ADDRESS, ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION);
+            if (readAttributeHandler != null
+                    && readAttributeHandler != ReadAttributeHandler.INSTANCE && readAttributeHandler != ReadAttributeHandler.RESOLVE_INSTANCE) {
+                return false;
+            }
+            final ModelNode model = resource.getModel();
+            final ModelNode values = new ModelNode();
+            for (Property property : filter.asPropertyList()) {
+                final String name = property.getName();
+                final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name);
+                if (access == null || access.getAttributeDefinition() == null || access.getReadHandler() != null
+                        || access.getStorageType() != AttributeAccess.Storage.CONFIGURATION) {
+                    // the value is only known once the attribute is read
+                    return false;
+                }
+                // the same value read-attribute would provide
+                final AttributeDefinition attribute = access.getAttributeDefinition();
+                final ModelNode value;
+                if (model.hasDefined(name)) {
+                    value = model.get(name);
+                } else if (attribute.getDefaultValue() != null) {
+                    value = attribute.getDefaultValue();
+                } else {
+                    value = new ModelNode();
+                }
+                final ModelNode readAttributeOp = Util.getReadAttributeOperation(address, name);
+                if (context.authorize(readAttributeOp, name, value).getDecision() != AuthorizationResult.Decision.PERMIT) {
+                    // let the read report the restricted attribute
+                    return false;
+                }
+                values.get(name).set(value);
+            }
+            try {
+                pruned = !FilterReduceHandler.matchesFilter(values, filter, operator);
+            } catch (OperationFailedException e) {
+                // the failure is reported when the read resource is filtered
+                return false;
+            }
+            return pruned;
+        }
+
+        boolean isPruned() {
+            return pruned;
+        }
+    }
+
     /**
      * Transformer for this operation for slave Host Controllers running versions prior to
      * WildFly Core 1.0 (i.e. AS 7, EAP 6 and WildFly 8).
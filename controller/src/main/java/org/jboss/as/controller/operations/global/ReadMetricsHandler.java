@@ -0,0 +1,322 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * {@link OperationStepHandler} reading a set of attributes, typically metrics, from all the resources matching the
+ * address of the operation.
+ * <p/>
+ * Unlike a composite of {@code read-attribute} operations, the attributes of a resource are read in a single step:
+ * the attributes stored in the model are read directly and only the attributes with a read handler get a step of their
+ * own. The result for each resource is a list of the values, in the order of the {@code attributes} parameter. A value
+ * is undefined if the resource has no such attribute or if the caller isn't allowed to read it.
+ * <p/>
+ * The attributes are resolved against the resource registration once, into a plan that is reused by later operations
+ * on the same resource type until an attribute, operation or child is registered or unregistered.
+ */
+public class ReadMetricsHandler extends GlobalOperationHandlers.AbstractMultiTargetHandler {
+
+    private static final PrimitiveListAttributeDefinition ATTRIBUTES_ATT = new PrimitiveListAttributeDefinition.Builder(ATTRIBUTES, ModelType.STRING)
+            .setRequired(true)
+            .setMinSize(1)
+            .build();
+
+    static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(READ_METRICS_OPERATION, ControllerResolver.getResolver("global"))
+            .addParameter(ATTRIBUTES_ATT)
+            .setReadOnly()
+            .setReplyType(ModelType.LIST)
+            .build();
+
+    static final OperationStepHandler INSTANCE = new ReadMetricsHandler();
+
+    // The plans are cheap to rebuild, so the cache is simply cleared once it is full
+    private static final int MAX_PLANS = 256;
+
+    private final ConcurrentMap<PlanKey, Plan> plans = new ConcurrentHashMap<>();
+
+    private ReadMetricsHandler() {
+        super(null, true);
+    }
+
+    @Override
+    void doExecute(OperationContext context, ModelNode operation, FilteredData filteredData, boolean ignoreMissingResource) throws OperationFailedException {
+        final List<ModelNode> attributes = ATTRIBUTES_ATT.validateOperation(operation).asList();
+        final List<String> names = new ArrayList<>(attributes.size());
+        for (ModelNode attribute : attributes) {
+            names.add(attribute.asString());
+        }
+
+        final PathAddress address = context.getCurrentAddress();
+        final ImmutableManagementResourceRegistration registry = context.getResourceRegistration();
+        final Plan plan = getPlan(registry, names);
+
+        final ModelNode[] responses = new ModelNode[plan.names.length];
+        final GlobalOperationHandlers.AvailableResponse[] availableResponses = new GlobalOperationHandlers.AvailableResponse[plan.names.length];
+        ModelNode model = null;
+        for (int i = 0; i < plan.names.length; i++) {
+            final AttributeAccess access = plan.accesses[i];
+            final ModelNode response = new ModelNode();
+            responses[i] = response;
+            if (access == null) {
+                response.get(RESULT);
+            } else if (plan.handlers[i] == null) {
+                if (model == null) {
+                    model = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+                }
+                final AttributeDefinition definition = access.getAttributeDefinition();
+                if (model.hasDefined(definition.getName())) {
+                    response.get(RESULT).set(model.get(definition.getName()));
+                } else if (definition.getDefaultValue() != null) {
+                    response.get(RESULT).set(definition.getDefaultValue());
+                } else {
+                    response.get(RESULT);
+                }
+            }
+        }
+
+        // Assemble the values once the attributes with a read handler have been read, runtime ones only in RUNTIME stage
+        context.addStep(new ReadMetricsAssemblyHandler(address, plan, responses, availableResponses, filteredData, ignoreMissingResource),
+                plan.runtime ? OperationContext.Stage.VERIFY : OperationContext.Stage.MODEL, true);
+
+        for (int i = plan.names.length - 1; i >= 0; i--) {
+            if (plan.handlers[i] != null) {
+                final ModelNode readAttributeOperation = Util.getReadAttributeOperation(address, plan.names[i]);
+                availableResponses[i] = new GlobalOperationHandlers.AvailableResponse(responses[i]);
+                context.addStep(responses[i], readAttributeOperation,
+                        new GlobalOperationHandlers.AvailableResponseWrapper(plan.handlers[i], availableResponses[i]),
+                        OperationContext.Stage.MODEL, true);
+            }
+        }
+    }
+
+    private Plan getPlan(ImmutableManagementResourceRegistration registry, List<String> names) {
+        final PlanKey key = new PlanKey(registry.getPathAddress(), names);
+        Plan plan = plans.get(key);
+        if (plan == null || !plan.isValid(registry)) {
+            plan = new Plan(registry, names);
+            if (plans.size() >= MAX_PLANS) {
+                plans.clear();
+            }
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    private static final class PlanKey {
+        private final PathAddress address;
+        private final List<String> names;
+        private final int hash;
+
+        private PlanKey(PathAddress address, List<String> names) {
+            this.address = address;
+            this.names = names;
+            this.hash = 31 * address.hashCode() + names.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            final PlanKey other = (PlanKey) o;
+            return address.equals(other.address) && names.equals(other.names);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The attributes resolved against a resource registration.
+     */
+    private static final class Plan {
+        private final String[] names;
+        private final AttributeAccess[] accesses;
+        // The step handler reading each attribute, or null if it is read from the model
+        private final OperationStepHandler[] handlers;
+        // Whether an attribute can only be read in RUNTIME stage
+        private final boolean runtime;
+        // The registration stamp the plan was resolved against, read first so a concurrent change invalidates it
+        private final long registrationStamp;
+
+        private Plan(ImmutableManagementResourceRegistration registry, List<String> names) {
+            this.registrationStamp = registry.getRegistrationStamp();
+            this.names = names.toArray(new String[names.size()]);
+            this.accesses = new AttributeAccess[this.names.length];
+            this.handlers = new OperationStepHandler[this.names.length];
+            final OperationStepHandler readAttributeOverride = getReadAttributeOverride(registry);
+            boolean runtime = false;
+            for (int i = 0; i < this.names.length; i++) {
+                final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, this.names[i]);
+                accesses[i] = access;
+                if (access == null) {
+                    continue;
+                }
+                if (readAttributeOverride != null) {
+                    // Respect an override of the standard read-attribute handling for all the attributes
+                    handlers[i] = readAttributeOverride;
+                } else if (access.getReadHandler() != null) {
+                    handlers[i] = new AttributeReadHandler(access);
+                }
+                runtime |= handlers[i] != null && access.getStorageType() == AttributeAccess.Storage.RUNTIME;
+            }
+            this.runtime = runtime;
+        }
+
+        private boolean isValid(ImmutableManagementResourceRegistration registry) {
+            // A registration that doesn't track its changes gets a new plan every time
+            return registrationStamp != 0 && registry.getRegistrationStamp() == registrationStamp;
+        }
+
+        private static OperationStepHandler getReadAttributeOverride(ImmutableManagementResourceRegistration registry) {
+            final OperationStepHandler handler = registry.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_ATTRIBUTE_OPERATION);
+            return handler == null || handler == ReadAttributeHandler.INSTANCE || handler == ReadAttributeHandler.RESOLVE_INSTANCE ? null : handler;
+        }
+    }
+
+    /**
+     * Reads an attribute with its read handler, as {@code read-attribute} does.
+     */
+    private static final class AttributeReadHandler implements OperationStepHandler {
+
+        private final AttributeAccess access;
+
+        private AttributeReadHandler(AttributeAccess access) {
+            this.access = access;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final OperationStepHandler handler = access.getReadHandler();
+            ClassLoader oldTccl = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(handler.getClass());
+            try {
+                handler.execute(context, operation);
+            } finally {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldTccl);
+            }
+            if (access.getAccessType() == AttributeAccess.AccessType.METRIC && !context.getResult().isDefined()) {
+                ModelNode undefinedMetricValue = access.getAttributeDefinition().getUndefinedMetricValue();
+                if (undefinedMetricValue != null) {
+                    context.getResult().set(undefinedMetricValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Authorizes the read of each value and assembles them into the result.
+     */
+    private static final class ReadMetricsAssemblyHandler implements OperationStepHandler {
+
+        private final PathAddress address;
+        private final Plan plan;
+        private final ModelNode[] responses;
+        private final GlobalOperationHandlers.AvailableResponse[] availableResponses;
+        private final FilteredData filteredData;
+        private final boolean ignoreMissingResource;
+
+        private ReadMetricsAssemblyHandler(PathAddress address, Plan plan, ModelNode[] responses,
+                                           GlobalOperationHandlers.AvailableResponse[] availableResponses,
+                                           FilteredData filteredData, boolean ignoreMissingResource) {
+            this.address = address;
+            this.plan = plan;
+            this.responses = responses;
+            this.availableResponses = availableResponses;
+            this.filteredData = filteredData;
+            this.ignoreMissingResource = ignoreMissingResource;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            for (GlobalOperationHandlers.AvailableResponse availableResponse : availableResponses) {
+                if (availableResponse != null && availableResponse.unavailable) {
+                    // Our target resource has disappeared
+                    if (context.hasResult()) {
+                        context.getResult().set(new ModelNode());
+                    }
+                    if (!ignoreMissingResource) {
+                        throw ControllerLogger.MGMT_OP_LOGGER.managementResourceNotFound(address);
+                    }
+                    return;
+                }
+            }
+            final ModelNode result = context.getResult().setEmptyList();
+            for (int i = 0; i < responses.length; i++) {
+                final ModelNode response = responses[i];
+                if (response.hasDefined(FAILURE_DESCRIPTION)) {
+                    context.getFailureDescription().set(response.get(FAILURE_DESCRIPTION));
+                    result.clear();
+                    return;
+                }
+                final ModelNode value = response.get(RESULT);
+                if (plan.accesses[i] != null) {
+                    // Authorized as the read-attribute operation reading the value would be
+                    final ModelNode readAttributeOperation = Util.getReadAttributeOperation(address, plan.names[i]);
+                    final AuthorizationResult authorizationResult = context.authorize(readAttributeOperation, plan.names[i], value);
+                    if (authorizationResult.getDecision() == AuthorizationResult.Decision.DENY) {
+                        if (filteredData != null) {
+                            filteredData.addReadRestrictedAttribute(address, plan.names[i]);
+                        }
+                        result.add();
+                        continue;
+                    }
+                }
+                result.add(value);
+            }
+        }
+    }
+}
@@ -138,24 +138,33 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
 
     private final OperationStepHandler overrideHandler;
     private final boolean resolvable;
+    private final QueryOperationHandler.ReadResourceFilter queryFilter;
 
     public ReadResourceHandler() {
-        this(null, null, false, false);
+        this(null, null, false, false, null);
     }
 
     public ReadResourceHandler(boolean resolvable){
-        this(null,null,resolvable, false);
+        this(null,null,resolvable, false, null);
     }
 
     ReadResourceHandler(final FilteredData filteredData, OperationStepHandler overrideHandler, boolean resolvable) {
-        this(filteredData, overrideHandler, resolvable, true);
+        this(filteredData, overrideHandler, resolvable, true, null);
+    }
+
+    /**
+     * Creates a handler reading a resource for the {@code query} operation, which only reads what the query needs.
+     */
+    ReadResourceHandler(final QueryOperationHandler.ReadResourceFilter queryFilter) {
+        this(null, null, false, false, queryFilter);
     }
 
     private ReadResourceHandler(final FilteredData filteredData, OperationStepHandler overrideHandler,
-                                boolean resolvable, boolean ignoreMissingResource) {
+                                boolean resolvable, boolean ignoreMissingResource, QueryOperationHandler.ReadResourceFilter queryFilter) {
         super(filteredData, ignoreMissingResource);
         this.overrideHandler = overrideHandler;
         this.resolvable = resolvable;
+        this.queryFilter = queryFilter;
     }
 
 
@@ -252,12 +261,20 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         // Get the model for this resource.
         final Resource resource = nullSafeReadResource(context, registry);
 
+        if (queryFilter != null && queryFilter.prune(context, address, registry, resource)) {
+            // The resource doesn't match the query, there's nothing else to read
+            return;
+        }
+
         final Map<String, Set<String>> childrenByType = registry != null ? GlobalOperationHandlers.getChildAddresses(context, address, registry, resource, null) : Collections.<String, Set<String>>emptyMap();
         if (!attributesOnly) {
             // Next, process child resources
             for (Map.Entry<String, Set<String>> entry : childrenByType.entrySet()) {
 
                 String childType = entry.getKey();
+                if (queryFilter != null && !queryFilter.isIncluded(childType)) {
+                    continue;
+                }
 
                 // child type has no children until we add one
                 nonExistentChildTypes.add(childType);
@@ -335,6 +352,9 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         // Handle registered attributes
         final Set<String> attributeNames = registry != null ? registry.getAttributeNames(PathAddress.EMPTY_ADDRESS) : Collections.<String>emptySet();
         for (final String attributeName : attributeNames) {
+            if (queryFilter != null && !queryFilter.isIncluded(attributeName)) {
+                continue;
+            }
 
             final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
             if ((aliases || !access.getFlags().contains(AttributeAccess.Flag.ALIAS))
@@ -355,7 +375,8 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
             for (String key : model.keys()) {
                 AttributeDefinition.NameAndGroup nag = new AttributeDefinition.NameAndGroup(key);
                 // Skip children and attributes already handled
-                if (!otherAttributes.containsKey(nag) && !childrenByType.containsKey(key) && !metrics.containsKey(nag)) {
+                if (!otherAttributes.containsKey(nag) && !childrenByType.containsKey(key) && !metrics.containsKey(nag)
+                        && (queryFilter == null || queryFilter.isIncluded(key))) {
                     addReadAttributeStep(context, address, defaults, resolve, localFilteredData, registry, nag, otherAttributes);
                 }
             }
@@ -376,7 +397,8 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
                             !otherAttributes.containsKey(nag) &&
                             !metrics.containsKey(nag) &&
                             nodeDescription.get(ATTRIBUTES).hasDefined(key) &&
-                            nodeDescription.get(ATTRIBUTES, key).hasDefined(DEFAULT)) {
+                            nodeDescription.get(ATTRIBUTES, key).hasDefined(DEFAULT) &&
+                            (queryFilter == null || queryFilter.isIncluded(key))) {
                         addReadAttributeStep(context, address, defaults, resolve, localFilteredData, registry, nag, otherAttributes);
                     }
                 }
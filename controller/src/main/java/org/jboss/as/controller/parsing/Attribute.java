@@ -130,6 +130,7 @@ public enum Attribute {
     MAX_THREADS("max-threads"),
     MECHANISM("mechanism"),
     MESSAGE_TRANSFER("message-transfer"),
+    METRICS_ENABLED("metrics-enabled"),
     MICRO_VERSION("micro-version"),
     MINOR_VERSION("minor-version"),
     MODULE("module"),
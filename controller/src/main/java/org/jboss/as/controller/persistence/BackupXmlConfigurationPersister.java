@@ -29,9 +29,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * An XML configuration persister which backs up the old file before overwriting it.
@@ -40,8 +42,23 @@ import org.jboss.staxmapper.XMLElementWriter;
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * System property setting the number of milliseconds by which marshalling the model and writing the configuration
+     * file may be deferred after a change is committed, so that successive changes are written together. The default,
+     * {@code 0}, writes the file synchronously on every commit.
+     */
+    public static final String WRITE_DELAY_PROPERTY = "jboss.as.management.config.write.delay";
+
+    /**
+     * System property enabling the boot operation cache. When {@code true} the operations parsed from the
+     * configuration file are cached in its history directory after a successful boot, and the next boot reads them
+     * from the cache instead of parsing the file, as long as neither the file nor the parsers changed.
+     */
+    public static final String BOOT_CACHE_PROPERTY = "jboss.as.management.config.boot-cache";
+
     private ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final DeferredConfigurationFileWriter deferredWriter;
 
     /**
      * Construct a new instance.
@@ -54,6 +71,10 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser, final boolean suppressLoad) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, suppressLoad);
         this.configurationFile = file;
+        this.deferredWriter = createDeferredWriter(file, this);
+        if (Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(BOOT_CACHE_PROPERTY, "false"))) {
+            setBootOperationCache(new BootOperationCache(file.getBootOperationCacheFile(), rootParser.getClass()));
+        }
     }
 
     /**
@@ -70,6 +91,26 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                                            final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, isSuppressLoad(file, reload, allowEmpty));
         this.configurationFile = file;
+        this.deferredWriter = createDeferredWriter(file, this);
+        if (Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(BOOT_CACHE_PROPERTY, "false"))) {
+            setBootOperationCache(new BootOperationCache(file.getBootOperationCacheFile(), rootParser.getClass()));
+        }
+    }
+
+    private static DeferredConfigurationFileWriter createDeferredWriter(ConfigurationFile file, AbstractConfigurationPersister persister) {
+        long delay = 0;
+        String value = WildFlySecurityManager.getPropertyPrivileged(WRITE_DELAY_PROPERTY, null);
+        if (value != null) {
+            try {
+                delay = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                delay = -1;
+            }
+            if (delay < 0) {
+                ControllerLogger.ROOT_LOGGER.invalidConfigurationWriteDelay(value, WRITE_DELAY_PROPERTY);
+            }
+        }
+        return delay > 0 ? new DeferredConfigurationFileWriter(file, persister, delay) : null;
     }
 
     private static boolean isSuppressLoad(ConfigurationFile configurationFile, boolean reload, boolean allowEmpty) {
@@ -89,10 +130,23 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         super.registerAdditionalRootElement(anotherRoot, parser);
     }
 
+    /**
+     * Disables the boot operation cache, for configuration files whose operations don't only depend on the content
+     * of the file.
+     */
+    public void disableBootOperationCache() {
+        setBootOperationCache(null);
+    }
+
     @Override
     public void successfulBoot() throws ConfigurationPersistenceException {
         if(successfulBoot.compareAndSet(false, true)) {
+            flush();
             configurationFile.successfulBoot();
+            final BootOperationCache cache = getBootOperationCache();
+            if (cache != null) {
+                cache.write();
+            }
         }
     }
 
@@ -117,11 +171,31 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        if (deferredWriter != null) {
+            // The model is a snapshot read for this commit, so it can be marshalled later by the writer
+            return new PersistenceResource() {
+                public void commit() {
+                    deferredWriter.commit(model);
+                }
+
+                public void rollback() {
+                }
+            };
+        }
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
+    @Override
+    public void flush() {
+        if (deferredWriter != null) {
+            deferredWriter.flush();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        // The snapshot must include every committed change
+        flush();
         return configurationFile.snapshot();
     }
 
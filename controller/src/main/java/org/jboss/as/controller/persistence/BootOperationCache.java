@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+
+/**
+ * A cache of the operations parsed from a configuration file, so that the file doesn't have to be parsed again when
+ * it didn't change since the previous boot.
+ * <p/>
+ * The operations are stored in DMR binary form, after a header holding the key of the cache: the SHA-256 digest of
+ * the configuration file, the location of the root parser and the version and location of the modules of the
+ * extensions the operations add. A location includes the size and last modification time of its jar, as a jar may
+ * be patched in place. The cache is only used when none of them changed.
+ */
+final class BootOperationCache {
+
+    private static final int MAGIC = 0x424f4f54;
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION_SERVICE = "META-INF/services/" + Extension.class.getName();
+
+    private static final String DIGEST = "digest";
+    private static final String PARSER = "parser";
+    private static final String EXTENSIONS = "extensions";
+    private static final String PARSE_TIME = "parse-time";
+
+    private final File cacheFile;
+    private final Class<?> parserClass;
+    // The cache content to write once the server booted, if the configuration file was parsed
+    private volatile byte[] pending;
+
+    BootOperationCache(File cacheFile, Class<?> parserClass) {
+        this.cacheFile = cacheFile;
+        this.parserClass = parserClass;
+    }
+
+    /**
+     * Reads the operations of a configuration file from the cache.
+     *
+     * @param configurationFile the configuration file
+     * @return the operations, or {@code null} if the cache is missing or outdated
+     */
+    List<ModelNode> read(File configurationFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            final DataInputStream input = new DataInputStream(new ByteBufferInputStream(readFile(cacheFile)));
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final ModelNode header = new ModelNode();
+            header.readExternal(input);
+            if (!header.get(DIGEST).asString().equals(digest(configurationFile))
+                    || !header.get(PARSER).asString().equals(getParserLocation())) {
+                return null;
+            }
+            for (Property extension : header.get(EXTENSIONS).asPropertyList()) {
+                if (!extension.getValue().asString().equals(getModuleFingerprint(extension.getName()))) {
+                    return null;
+                }
+            }
+            final ModelNode operations = new ModelNode();
+            operations.readExternal(input);
+            final List<ModelNode> result = new ArrayList<>(operations.asList());
+            ControllerLogger.ROOT_LOGGER.bootOperationsReadFromCache(result.size(), configurationFile, header.get(PARSE_TIME).asLong());
+            return result;
+        } catch (Exception e) {
+            ControllerLogger.ROOT_LOGGER.cannotUseBootOperationCache(e, cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Prepares the cache content for the operations parsed from a configuration file. The content is only written by
+     * {@link #write()}, once the operations booted successfully.
+     *
+     * @param configurationFile the configuration file
+     * @param operations        the operations parsed from the file
+     * @param parseTime         the time in milliseconds it took to parse the file
+     */
+    void prepare(File configurationFile, List<ModelNode> operations, long parseTime) {
+        try {
+            final ModelNode header = new ModelNode();
+            header.get(DIGEST).set(digest(configurationFile));
+            header.get(PARSER).set(getParserLocation());
+            header.get(EXTENSIONS).setEmptyObject();
+            header.get(PARSE_TIME).set(parseTime);
+            final ModelNode list = new ModelNode().setEmptyList();
+            for (ModelNode operation : operations) {
+                list.add(operation);
+                if (operation.hasDefined(OP_ADDR) && ADD.equals(operation.get(OP).asString())) {
+                    final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+                    if (address.size() == 1 && EXTENSION.equals(address.getElement(0).getKey())) {
+                        final String module = address.getElement(0).getValue();
+                        header.get(EXTENSIONS, module).set(getModuleFingerprint(module));
+                    }
+                }
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            header.writeExternal(output);
+            list.writeExternal(output);
+            output.flush();
+            pending = bytes.toByteArray();
+        } catch (Exception e) {
+            // Most likely an extension module that can't be loaded, the boot will report it
+            ControllerLogger.ROOT_LOGGER.cannotUseBootOperationCache(e, cacheFile);
+        }
+    }
+
+    /**
+     * Writes the content prepared by {@link #prepare(File, List, long)}, if any.
+     */
+    void write() {
+        final byte[] content = pending;
+        if (content == null) {
+            return;
+        }
+        pending = null;
+        final File tmp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+        try {
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+                out.write(content);
+            }
+            Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            ControllerLogger.ROOT_LOGGER.cannotUseBootOperationCache(e, cacheFile);
+            tmp.delete();
+        }
+    }
+
+    private String getParserLocation() {
+        final URL location = parserClass.getResource('/' + parserClass.getName().replace('.', '/') + ".class");
+        return location == null ? parserClass.getName() : AccessController.doPrivileged((PrivilegedAction<String>) () -> describe(location));
+    }
+
+    private static String getModuleFingerprint(final String name) throws Exception {
+        return AccessController.doPrivileged((PrivilegedExceptionAction<String>) () -> {
+            final Module module = Module.getBootModuleLoader().loadModule(ModuleIdentifier.fromString(name));
+            final StringBuilder builder = new StringBuilder();
+            builder.append(module.getVersion());
+            for (URL url : Collections.list(module.getClassLoader().getResources(EXTENSION_SERVICE))) {
+                builder.append(' ').append(describe(url));
+            }
+            return builder.toString();
+        });
+    }
+
+    /**
+     * Describes a class or resource by its location along with the size and last modification time of the jar or file
+     * it is found in, so that a jar patched in place without a new version doesn't give the same description.
+     */
+    private static String describe(final URL url) {
+        final StringBuilder builder = new StringBuilder(url.toExternalForm());
+        try {
+            URL root = url;
+            if ("jar".equals(url.getProtocol())) {
+                final String path = url.getPath();
+                final int separator = path.indexOf("!/");
+                root = new URL(separator < 0 ? path : path.substring(0, separator));
+            }
+            if ("file".equals(root.getProtocol())) {
+                final File file = new File(root.toURI());
+                builder.append(' ').append(file.length()).append(' ').append(file.lastModified());
+            }
+        } catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+            // Only the location describes it
+        }
+        return builder.toString();
+    }
+
+    private static String digest(final File file) throws IOException, NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(readFile(file));
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    private static ByteBuffer readFile(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -96,6 +96,7 @@ public class ConfigurationFile {
     private static final String LAST_SUFFIX = LAST + ".xml";
     private static final String INITIAL_SUFFIX = INITIAL + ".xml";
     private static final String ORIGINAL_SUFFIX = BOOT + ".xml";
+    private static final String BOOT_OPERATIONS_FILE = "boot-operations.dmr";
 
     private static final int CURRENT_HISTORY_LENGTH = 100;
     private static final int HISTORY_DAYS = 30;
@@ -471,6 +472,11 @@ public class ConfigurationFile {
         return configurationDir;
     }
 
+    /** Gets the file holding the operations parsed from the boot file at the last successful boot */
+    File getBootOperationCacheFile() {
+        return new File(historyRoot, BOOT_OPERATIONS_FILE);
+    }
+
 
     /** Notification that boot has completed successfully and the configuration history should be updated */
     void successfulBoot() throws ConfigurationPersistenceException {
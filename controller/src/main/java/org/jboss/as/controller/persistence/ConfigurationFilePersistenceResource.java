@@ -49,6 +49,19 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
     @Override
     public void doCommit(ExposedByteArrayOutputStream marshalled) {
+        writeConfiguration(marshalled, configurationFile, false);
+    }
+
+    /**
+     * Writes marshalled configuration to the main file of a {@link ConfigurationFile}, backing up the previous content.
+     * Failures are logged.
+     *
+     * @param marshalled the marshalled configuration
+     * @param configurationFile the configuration file
+     * @param sync {@code true} if the written content should be forced to the storage device before the main file is replaced
+     */
+    static void writeConfiguration(final ExposedByteArrayOutputStream marshalled, final ConfigurationFile configurationFile, final boolean sync) {
+        final File fileName = configurationFile.getMainFile();
         final File tempFileName;
 
         if ( FilePersistenceUtils.isParentFolderWritable(fileName) ){
@@ -59,7 +72,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
         try {
             try {
-                FilePersistenceUtils.writeToTempFile(marshalled, tempFileName, fileName);
+                FilePersistenceUtils.writeToTempFile(marshalled, tempFileName, fileName, sync);
             } catch (Exception e) {
                 MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
                 return;
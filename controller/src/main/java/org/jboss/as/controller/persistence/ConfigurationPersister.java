@@ -67,6 +67,16 @@ public interface ConfigurationPersister {
         return true;
     }
 
+    /**
+     * Writes to persistent storage any changes accepted by {@link PersistenceResource#commit()} whose writing has
+     * been deferred. Callers use this to ensure durability before the process stops or reloads.
+     * <p>
+     * The default implementation does nothing, as persisters write synchronously on commit unless
+     * they document otherwise.
+     */
+    default void flush() {
+    }
+
     /**
      * Persist the given configuration model if {@link #isPersisting()} would return {@code true}, otherwise
      * return a no-op {@link PersistenceResource}.
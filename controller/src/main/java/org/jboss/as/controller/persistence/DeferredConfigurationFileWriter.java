@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Writes a {@link ConfigurationFile} in the background, coalescing all configurations committed within a bounded
+ * delay into a single write of the latest one. A bulk script of many writes therefore results in the model being
+ * marshalled and the file being written once rather than once per operation. Both happen on the writer thread, so
+ * failures to marshal the model are logged, as are failures to write the file.
+ * <p>
+ * The file is written at most {@code delay} milliseconds after the first change that has not been written yet.
+ * Written content is forced to the storage device before it replaces the main file. {@link #flush()} writes
+ * any pending change synchronously.
+ */
+final class DeferredConfigurationFileWriter {
+
+    private final ConfigurationFile configurationFile;
+    private final AbstractConfigurationPersister persister;
+    private final long delay;
+    /** The latest committed model that has not been written yet, if any */
+    private final AtomicReference<ModelNode> pending = new AtomicReference<>();
+    /** Serializes writes so a flush never overtakes a write of an older model */
+    private final Object writeLock = new Object();
+
+    DeferredConfigurationFileWriter(final ConfigurationFile configurationFile, final AbstractConfigurationPersister persister,
+                                    final long delay) {
+        this.configurationFile = configurationFile;
+        this.persister = persister;
+        this.delay = delay;
+    }
+
+    /**
+     * Records a committed model to be written. The model is marshalled later on, so it must not be modified
+     * afterwards.
+     *
+     * @param model the committed model
+     */
+    void commit(final ModelNode model) {
+        if (pending.getAndSet(model) == null) {
+            // First change since the last write; schedule the write that will pick up this and any later change
+            try {
+                ExecutorHolder.EXECUTOR.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Marshals and writes the latest committed model, if it has not been written yet. Failures are logged.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            final ModelNode model = pending.getAndSet(null);
+            if (model != null) {
+                final ExposedByteArrayOutputStream marshalled;
+                try {
+                    marshalled = FilePersistenceUtils.marshalXml(persister, model);
+                } catch (ConfigurationPersistenceException e) {
+                    MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+                    return;
+                }
+                ConfigurationFilePersistenceResource.writeConfiguration(marshalled, configurationFile, true);
+            }
+        }
+    }
+
+    /**
+     * Lazily creates the single daemon thread shared by all writers. The thread terminates once it has been idle for
+     * {@value #KEEP_ALIVE} seconds, so it doesn't outlive the controllers that used it, and it is created again on
+     * the next deferred write.
+     */
+    private static final class ExecutorHolder {
+        private static final long KEEP_ALIVE = 30;
+        private static final ScheduledExecutorService EXECUTOR;
+
+        static {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "Configuration File Writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            executor.setKeepAliveTime(KEEP_ALIVE, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
+}
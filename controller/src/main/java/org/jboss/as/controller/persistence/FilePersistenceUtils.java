@@ -25,10 +25,12 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileStore;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.AclEntry;
 import java.nio.file.attribute.AclFileAttributeView;
 import java.nio.file.attribute.FileAttribute;
@@ -99,6 +101,10 @@ class FilePersistenceUtils {
     }
 
     static File writeToTempFile(ExposedByteArrayOutputStream marshalled, File tempFileName, File fileName) throws IOException {
+        return writeToTempFile(marshalled, tempFileName, fileName, false);
+    }
+
+    static File writeToTempFile(ExposedByteArrayOutputStream marshalled, File tempFileName, File fileName, boolean sync) throws IOException {
         Path targetPath = tempFileName.toPath();
         deleteFile(tempFileName);
         try {
@@ -109,6 +115,11 @@ class FilePersistenceUtils {
         try (InputStream is = marshalled.getInputStream()) {
             Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
         }
+        if (sync) {
+            try (FileChannel channel = FileChannel.open(targetPath, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
         return tempFileName;
     }
 
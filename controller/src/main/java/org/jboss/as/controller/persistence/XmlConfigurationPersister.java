@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
@@ -60,6 +61,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
     private final boolean suppressLoad;
+    private volatile BootOperationCache bootOperationCache;
 
     /**
      * Construct a new instance.
@@ -97,6 +99,19 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Sets the cache from which {@link #load()} reads the operations instead of parsing the file, when it is up to date.
+     *
+     * @param bootOperationCache the cache, or {@code null} to always parse the file
+     */
+    void setBootOperationCache(final BootOperationCache bootOperationCache) {
+        this.bootOperationCache = bootOperationCache;
+    }
+
+    BootOperationCache getBootOperationCache() {
+        return bootOperationCache;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
@@ -110,6 +125,15 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
             return new ArrayList<>();
         }
 
+        final BootOperationCache cache = bootOperationCache;
+        if (cache != null) {
+            final List<ModelNode> cached = cache.read(fileName);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final long start = System.nanoTime();
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(rootElement, rootParser);
         synchronized (additionalParsers) {
@@ -144,6 +168,9 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         } catch (Exception e) {
             throw ControllerLogger.ROOT_LOGGER.failedToParseConfiguration(e);
         }
+        if (cache != null) {
+            cache.prepare(fileName, updates, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
         return updates;
     }
 
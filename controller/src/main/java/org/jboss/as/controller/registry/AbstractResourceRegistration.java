@@ -29,6 +29,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationStepHandler;
@@ -55,10 +56,16 @@ import org.wildfly.common.Assert;
 @SuppressWarnings("deprecation")
 abstract class AbstractResourceRegistration implements ManagementResourceRegistration {
 
+    /** Source of the registration stamps, so that no two registration trees ever share one */
+    private static final AtomicLong STAMPS = new AtomicLong();
+
     private final String valueString;
     private final NodeSubregistry parent;
     private final PathAddress pathAddress;
     private final ProcessType processType;
+    private final AbstractResourceRegistration root;
+    /** The registration stamp of the tree, only maintained by the root */
+    private volatile long registrationStamp;
     private RootInvocation rootInvocation;
 
     /** Constructor for a root MRR */
@@ -68,6 +75,8 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         this.parent = null;
         this.pathAddress = PathAddress.EMPTY_ADDRESS;
         this.processType = Assert.checkNotNullParam("processType", processType);
+        this.root = this;
+        this.registrationStamp = STAMPS.incrementAndGet();
     }
 
     /** Constructor for a non-root MRR */
@@ -77,6 +86,7 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         this.parent = Assert.checkNotNullParam("parent", parent);
         this.pathAddress = parent.getPathAddress(valueString);
         this.processType = parent.getProcessType();
+        this.root = parent.getParent().root;
     }
 
     static void checkPermission() {
@@ -86,6 +96,19 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         }
     }
 
+    /**
+     * Records that an attribute, operation or child was registered or unregistered in this registration, changing
+     * the registration stamp of the whole tree.
+     */
+    final void registrationModified() {
+        root.registrationStamp = STAMPS.incrementAndGet();
+    }
+
+    @Override
+    public final long getRegistrationStamp() {
+        return root.registrationStamp;
+    }
+
     NodeSubregistry getParentSubRegistry() {
         return parent;
     }
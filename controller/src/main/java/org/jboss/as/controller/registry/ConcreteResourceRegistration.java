@@ -158,6 +158,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationModified();
     }
 
     @Override
@@ -252,6 +253,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationModified();
     }
 
     public void unregisterSubModel(final PathElement address) throws IllegalArgumentException {
@@ -400,6 +402,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationModified();
     }
 
     @Override
@@ -435,6 +438,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationModified();
     }
 
     @Override
@@ -522,6 +526,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationModified();
     }
 
     private boolean assertMetricValues(AttributeDefinition definition) {
@@ -80,6 +80,11 @@ public class DelegatingImmutableManagementResourceRegistration implements Immuta
         return delegate.getMinOccurs();
     }
 
+    @Override
+    public long getRegistrationStamp() {
+        return delegate.getRegistrationStamp();
+    }
+
     @Override
     public boolean isRuntimeOnly() {
         return delegate.isRuntimeOnly();
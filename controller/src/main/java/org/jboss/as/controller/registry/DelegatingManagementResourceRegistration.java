@@ -115,6 +115,11 @@ public class DelegatingManagementResourceRegistration implements ManagementResou
         return getDelegate().getMinOccurs();
     }
 
+    @Override
+    public long getRegistrationStamp() {
+        return getDelegate().getRegistrationStamp();
+    }
+
     @Override
     public boolean isRuntimeOnly() {
         return getDelegate().isRuntimeOnly();
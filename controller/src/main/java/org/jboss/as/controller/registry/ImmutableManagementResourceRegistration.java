@@ -94,6 +94,18 @@ public interface ImmutableManagementResourceRegistration {
         return getPathAddress().size() == 0 ? 1 : 0;
     }
 
+    /**
+     * Gets a stamp of the current state of the registration tree this registration belongs to. The stamp changes
+     * whenever an attribute, operation or child is registered or unregistered anywhere in the tree, and two trees
+     * never have the same stamp, so information derived from the registrations can be reused for as long as the
+     * stamp is the same.
+     *
+     * @return the registration stamp, or {@code 0} if the changes to the registrations aren't tracked
+     */
+    default long getRegistrationStamp() {
+        return 0;
+    }
+
     /**
      * Gets whether this model node only exists in the runtime and has no representation in the
      * persistent configuration model.
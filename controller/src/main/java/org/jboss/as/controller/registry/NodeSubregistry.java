@@ -121,6 +121,7 @@ final class NodeSubregistry {
         } finally {
             newRegistry.initialized();
         }
+        parent.registrationModified();
 
         if (ordered) {
             AbstractResourceRegistration parentRegistration = getParent();
@@ -137,12 +138,14 @@ final class NodeSubregistry {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
         //register(elementValue, newRegistry);
+        parent.registrationModified();
         return newRegistry;
     }
 
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.registrationModified();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -151,12 +154,14 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        parent.registrationModified();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.registrationModified();
     }
 
 
@@ -172,6 +177,7 @@ final class NodeSubregistry {
             for (Capability c : rr.getCapabilities(EMPTY_ITERATOR)) {
                 capabilityRegistry.removePossibleCapability(c, pa);
             }
+            parent.registrationModified();
         }
     }
 
@@ -444,6 +444,40 @@ public class ExpressionResolverUnitTestCase {
         }
     }
 
+    @Test
+    public void testRepeatedResolutionSeesPropertyChanges() throws OperationFailedException {
+        ModelNode node = new ModelNode();
+        node.get("expr").set(new ValueExpression("a-${test.property.repeated:default}-b"));
+        assertEquals("a-default-b", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).get("expr").asString());
+        System.setProperty("test.property.repeated", "value");
+        try {
+            assertEquals("a-value-b", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).get("expr").asString());
+        } finally {
+            System.clearProperty("test.property.repeated");
+        }
+        assertEquals("a-default-b", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).get("expr").asString());
+        assertEquals(ModelType.EXPRESSION, node.get("expr").getType());
+    }
+
+    @Test
+    public void testResolvedNodeIsCopy() throws OperationFailedException {
+        ModelNode node = new ModelNode();
+        node.get("string").set("value");
+        node.get("list").add("a").add(new ValueExpression("${test.property.copy:b}"));
+        ModelNode resolved = ExpressionResolver.TEST_RESOLVER.resolveExpressions(node);
+        assertEquals("b", resolved.get("list").get(1).asString());
+        resolved.get("string").set("changed");
+        assertEquals("value", node.get("string").asString());
+        assertEquals(ModelType.EXPRESSION, node.get("list").get(1).getType());
+
+        ModelNode withoutExpressions = new ModelNode();
+        withoutExpressions.get("string").set("value");
+        resolved = ExpressionResolver.TEST_RESOLVER.resolveExpressions(withoutExpressions);
+        assertEquals(withoutExpressions, resolved);
+        resolved.get("string").set("changed");
+        assertEquals("value", withoutExpressions.get("string").asString());
+    }
+
     private ModelNode expression(String str) {
         return new ModelNode(new ValueExpression(str));
     }
@@ -28,6 +28,7 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOW_RESOURCE_SERVICE_RESTART;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BLOCKING_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
@@ -54,6 +55,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_MODIFICATION_COMPLETE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_UPDATE_SKIPPED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.junit.Assert.assertEquals;
@@ -65,6 +67,10 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -462,6 +468,42 @@ public class ModelControllerImplUnitTestCase {
         notificationHandler.validate(0);
     }
 
+    @Test
+    public void testReadSeesOneModel() throws Exception {
+        BlockingReadHandler.entered = new CountDownLatch(1);
+        BlockingReadHandler.release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // A composite read whose second step blocks until a write has been published
+            ModelNode read = new ModelNode();
+            read.get(OP).set(COMPOSITE);
+            read.get(OP_ADDR).setEmptyList();
+            read.get(STEPS).add(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "attr1"));
+            read.get(STEPS).add(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "blocker"));
+            read.get(STEPS).add(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "attr1"));
+            Future<ModelNode> future = executor.submit(() -> controller.execute(read, null, null, null));
+            assertTrue(BlockingReadHandler.entered.await(30, TimeUnit.SECONDS));
+
+            ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+            assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+
+            BlockingReadHandler.release.countDown();
+            result = future.get(30, TimeUnit.SECONDS);
+            assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+            // The last step doesn't see the write published while the read was running
+            assertEquals(result.toString(), 1, result.get(RESULT, "step-1", RESULT).asInt());
+            assertEquals(result.toString(), 1, result.get(RESULT, "step-3", RESULT).asInt());
+
+            result = controller.execute(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "attr1"), null, null, null);
+            assertEquals(result.toString(), 5, result.get(RESULT).asInt());
+        } finally {
+            BlockingReadHandler.release.countDown();
+            BlockingReadHandler.entered = null;
+            BlockingReadHandler.release = null;
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testReloadRequired() throws Exception {
         ModelNode result = controller.execute(getOperation("reload-required", "attr1", 5), null, null, null);
@@ -792,6 +834,7 @@ public class ModelControllerImplUnitTestCase {
             );
             rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attr1", ModelType.INT), null);
             rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attr2", ModelType.INT), null);
+            rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("blocker", ModelType.INT), new BlockingReadHandler());
             ManagementResourceRegistration childRegistration = rootRegistration.registerSubModel(childResource);
             childRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attribute1", ModelType.INT), null);
             childRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attribute2", ModelType.INT), null);
@@ -838,6 +881,31 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    public static class BlockingReadHandler implements OperationStepHandler {
+
+        // Only set by the tests that want the reads to block
+        static volatile CountDownLatch entered;
+        static volatile CountDownLatch release;
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (entered == null) {
+                context.getResult().set(0);
+                return;
+            }
+            entered.countDown();
+            try {
+                if (!release.await(30, TimeUnit.SECONDS)) {
+                    throw new OperationFailedException("Not released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationFailedException(e);
+            }
+            context.getResult().set(0);
+        }
+    }
+
     public static class ModelStageFailsHandler implements OperationStepHandler {
 
         @Override
@@ -23,6 +23,8 @@
 package org.jboss.as.controller.access.rbac;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.security.Permission;
@@ -247,6 +249,39 @@ public class DefaultPermissionFactoryTestCase {
         } catch (Exception e) { /* expected */ }
     }
 
+    @Test
+    public void testDecisionCache() {
+        SwitchableConstraintFactory constraintFactory = new SwitchableConstraintFactory();
+        DefaultPermissionFactory permissionFactory = new DefaultPermissionFactory(new TestRoleMapper(StandardRole.MONITOR),
+                Collections.<ConstraintFactory>singleton(constraintFactory), PERMISSIVE);
+
+        Action action = new Action(null, null, EnumSet.of(Action.ActionEffect.ADDRESS, Action.ActionEffect.READ_CONFIG));
+        TargetResource targetResource = TargetResource.forStandalone(PathAddress.EMPTY_ADDRESS, ROOT_RR, null);
+        DefaultPermissionFactory.RequiredConstraints requiredConstraints =
+                (factory, actionEffect) -> factory.getRequiredConstraint(actionEffect, action, targetResource);
+        Set<String> roles = Collections.singleton(StandardRole.MONITOR.name());
+
+        assertTrue(permissionFactory.isPermitted(roles, action.getActionEffects(), requiredConstraints));
+        assertEquals(0, permissionFactory.getDecisionCacheHitCount());
+        assertEquals(2, permissionFactory.getDecisionCacheMissCount());
+
+        assertTrue(permissionFactory.isPermitted(roles, action.getActionEffects(), requiredConstraints));
+        assertEquals(2, permissionFactory.getDecisionCacheHitCount());
+        assertEquals(2, permissionFactory.getDecisionCacheMissCount());
+
+        // the required constraints change, e.g. as a sensitivity classification is reconfigured
+        constraintFactory.restricted = true;
+        assertFalse(permissionFactory.isPermitted(roles, action.getActionEffects(), requiredConstraints));
+        assertFalse(permissionFactory.isPermitted(roles, action.getActionEffects(), requiredConstraints));
+        assertEquals(3, permissionFactory.getDecisionCacheHitCount());
+        assertEquals(3, permissionFactory.getDecisionCacheMissCount());
+
+        // super users aren't checked against the constraints
+        assertTrue(permissionFactory.isPermitted(Collections.singleton(StandardRole.SUPERUSER.name()),
+                action.getActionEffects(), requiredConstraints));
+        assertEquals(3, permissionFactory.getDecisionCacheMissCount());
+    }
+
     // ---
 
     private static Set<Permission> toSet(PermissionCollection permissionCollection) {
@@ -343,6 +378,40 @@ public class DefaultPermissionFactoryTestCase {
         }
     }
 
+    /** Returns shared constraint instances, like the standard constraint factories */
+    private static final class SwitchableConstraintFactory implements ConstraintFactory {
+        private static final Constraint USER = new TestConstraint(true);
+        private static final Constraint ALLOWED = new TestConstraint(true);
+        private static final Constraint RESTRICTED = new TestConstraint(false);
+
+        private volatile boolean restricted;
+
+        @Override
+        public Constraint getStandardUserConstraint(StandardRole role, Action.ActionEffect actionEffect) {
+            return USER;
+        }
+
+        @Override
+        public Constraint getRequiredConstraint(Action.ActionEffect actionEffect, Action action, TargetAttribute target) {
+            return restricted ? RESTRICTED : ALLOWED;
+        }
+
+        @Override
+        public Constraint getRequiredConstraint(Action.ActionEffect actionEffect, Action action, TargetResource target) {
+            return restricted ? RESTRICTED : ALLOWED;
+        }
+
+        @Override
+        public Constraint getRequiredConstraint(Action.ActionEffect actionEffect, JmxAction action, JmxTarget target) {
+            return restricted ? RESTRICTED : ALLOWED;
+        }
+
+        @Override
+        public int compareTo(ConstraintFactory o) {
+            return this.equals(o) ? 0 : -1;
+        }
+    }
+
     private static final class TestConstraint implements Constraint {
         private final boolean allowed;
 
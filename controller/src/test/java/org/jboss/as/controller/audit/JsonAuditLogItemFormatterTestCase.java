@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.controller.OperationContext.ResultAction;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that {@link JsonAuditLogItemFormatter} writes the same records as formatting a {@link ModelNode} does, and
+ * pins the layout of its output.
+ */
+public class JsonAuditLogItemFormatterTestCase {
+
+    private static final String TEXT = "quote \" backslash \\ new line \n tab \t bell \u0007 accent \u00e9 euro \u20ac emoji \ud83d\ude00";
+
+    @Test
+    public void testModelControllerItems() throws Exception {
+        ModelNode op = new ModelNode();
+        op.get("operation").set("write-attribute");
+        op.get("address").add("subsystem", "logging");
+        op.get("name").set("level");
+        op.get("value").set(TEXT);
+        op.get("nested").get("list").add(1).add(new ModelNode().setEmptyList());
+        op.get("empty").setEmptyObject();
+        ModelNode other = new ModelNode();
+        other.get("operation").set("read-resource");
+
+        checkFormatting(AuditLogItem.createModelControllerItem("5.0", false, false, ResultAction.KEEP, "admin", "uuid",
+                AccessMechanism.NATIVE, InetAddress.getLoopbackAddress(), null, Arrays.asList(op, other)));
+        checkFormatting(AuditLogItem.createModelControllerItem("5.0", true, true, ResultAction.ROLLBACK, null, null,
+                null, null, null, Collections.<ModelNode>emptyList()));
+    }
+
+    @Test
+    public void testJmxItems() throws Exception {
+        checkFormatting(AuditLogItem.createMethodAccessItem("5.0", true, false, TEXT, "uuid", AccessMechanism.JMX,
+                InetAddress.getLoopbackAddress(), "invoke", new String[]{"java.lang.String", "int"},
+                new Object[]{TEXT, null, 42}, new IllegalStateException(TEXT)));
+        checkFormatting(AuditLogItem.createMethodAccessItem("5.0", false, true, null, null, null,
+                null, "getAttribute", new String[0], new Object[0], null));
+    }
+
+    @Test
+    public void testCompactLayout() throws Exception {
+        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", false, " - ", "yyyy-MM-dd HH:mm:ss",
+                true, false, false);
+        Assert.assertEquals("{\"type\" : \"core\", \"r/o\" : false, \"booting\" : true, \"version\" : \"5.0\", " +
+                "\"user\" : \"admin\", \"domainUUID\" : null, \"access\" : \"NATIVE\", \"remote-address\" : null, " +
+                "\"success\" : true, \"ops\" : [{\"operation\" : \"read-resource\"}]}", createCoreItem().format(formatter));
+        formatter.clear();
+        Assert.assertEquals("{\"type\" : \"jmx\", \"r/o\" : true, \"booting\" : false, \"version\" : \"5.0\", " +
+                "\"user\" : \"admin\", \"domainUUID\" : null, \"access\" : \"JMX\", \"remote-address\" : null, " +
+                "\"method\" : \"invoke\", \"sig\" : [\"java.lang.String\"], \"params\" : [\"a \\\"b\\\"\\t\\u0001\"]}",
+                createJmxItem().format(formatter));
+    }
+
+    @Test
+    public void testMultiLineLayout() throws Exception {
+        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", false, " - ", "yyyy-MM-dd HH:mm:ss",
+                false, false, false);
+        Assert.assertEquals("{\n" +
+                "    \"type\" : \"core\",\n" +
+                "    \"r/o\" : false,\n" +
+                "    \"booting\" : true,\n" +
+                "    \"version\" : \"5.0\",\n" +
+                "    \"user\" : \"admin\",\n" +
+                "    \"domainUUID\" : null,\n" +
+                "    \"access\" : \"NATIVE\",\n" +
+                "    \"remote-address\" : null,\n" +
+                "    \"success\" : true,\n" +
+                "    \"ops\" : [\n" +
+                "        {\"operation\" : \"read-resource\"}\n" +
+                "    ]\n" +
+                "}", createCoreItem().format(formatter));
+        formatter.clear();
+        Assert.assertEquals("{\n" +
+                "    \"type\" : \"jmx\",\n" +
+                "    \"r/o\" : true,\n" +
+                "    \"booting\" : false,\n" +
+                "    \"version\" : \"5.0\",\n" +
+                "    \"user\" : \"admin\",\n" +
+                "    \"domainUUID\" : null,\n" +
+                "    \"access\" : \"JMX\",\n" +
+                "    \"remote-address\" : null,\n" +
+                "    \"method\" : \"invoke\",\n" +
+                "    \"sig\" : [\n" +
+                "        \"java.lang.String\"\n" +
+                "    ],\n" +
+                "    \"params\" : [\n" +
+                "        \"a \\\"b\\\"\\t\\u0001\"\n" +
+                "    ]\n" +
+                "}", createJmxItem().format(formatter));
+    }
+
+    private static AuditLogItem createCoreItem() {
+        ModelNode op = new ModelNode();
+        op.get("operation").set("read-resource");
+        return AuditLogItem.createModelControllerItem("5.0", false, true, ResultAction.KEEP, "admin", null,
+                AccessMechanism.NATIVE, null, null, Collections.singletonList(op));
+    }
+
+    private static AuditLogItem createJmxItem() {
+        return AuditLogItem.createMethodAccessItem("5.0", true, false, "admin", null, AccessMechanism.JMX,
+                null, "invoke", new String[]{"java.lang.String"}, new Object[]{"a \"b\"\t\u0001"}, null);
+    }
+
+    private void checkFormatting(AuditLogItem item) {
+        for (boolean includeDate : new boolean[]{false, true}) {
+            for (boolean compact : new boolean[]{false, true}) {
+                for (boolean escapeNewLine : new boolean[]{false, true}) {
+                    for (boolean escapeControlCharacters : new boolean[]{false, true}) {
+                        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", includeDate, " - ",
+                                "yyyy-MM-dd HH:mm:ss", compact, escapeNewLine, escapeControlCharacters);
+                        String expected = formatWithModelNode(formatter, item, compact, escapeNewLine, escapeControlCharacters);
+
+                        ByteBuffer bytes = formatter.formatAuditLogItemBytes(item);
+                        Assert.assertEquals(expected, StandardCharsets.UTF_8.decode(bytes.duplicate()).toString());
+                        Assert.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), toArray(bytes));
+                        Assert.assertEquals(expected, item.format(formatter));
+                        formatter.clear();
+
+                        // formatting the string first gives the same bytes
+                        Assert.assertEquals(expected, item.format(formatter));
+                        Assert.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), toArray(formatter.formatAuditLogItemBytes(item)));
+                        formatter.clear();
+                    }
+                }
+            }
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Formats the item the way the formatter used to, as a model node converted to JSON.
+     */
+    private static String formatWithModelNode(AuditLogItemFormatter formatter, AuditLogItem item, boolean compact,
+            boolean escapeNewLine, boolean escapeControlCharacters) {
+        ModelNode formatted = new ModelNode();
+        if (item instanceof AuditLogItem.ModelControllerAuditLogItem) {
+            AuditLogItem.ModelControllerAuditLogItem coreItem = (AuditLogItem.ModelControllerAuditLogItem) item;
+            formatted.get(JsonAuditLogItemFormatter.TYPE).set(AuditLogItemFormatter.TYPE_CORE);
+            addCommonFields(item, formatted);
+            formatted.get(JsonAuditLogItemFormatter.SUCCESS).set(coreItem.getResultAction() == ResultAction.KEEP);
+            formatted.get(JsonAuditLogItemFormatter.OPERATIONS).set(coreItem.getOperations());
+        } else {
+            AuditLogItem.JmxAccessAuditLogItem jmxItem = (AuditLogItem.JmxAccessAuditLogItem) item;
+            formatted.get(JsonAuditLogItemFormatter.TYPE).set(AuditLogItemFormatter.TYPE_JMX);
+            addCommonFields(item, formatted);
+            formatted.get(JsonAuditLogItemFormatter.METHOD_NAME).set(jmxItem.getMethodName());
+            formatted.get(JsonAuditLogItemFormatter.METHOD_SIGNATURE);
+            for (String sig : jmxItem.getMethodSignature()) {
+                formatted.get(JsonAuditLogItemFormatter.METHOD_SIGNATURE).add(sig);
+            }
+            formatted.get(JsonAuditLogItemFormatter.METHOD_PARAMETERS);
+            for (Object param : jmxItem.getMethodParams()) {
+                formatted.get(JsonAuditLogItemFormatter.METHOD_PARAMETERS).add(param == null ? new ModelNode() : new ModelNode(param.toString()));
+            }
+            if (jmxItem.getError() != null) {
+                formatted.get(JsonAuditLogItemFormatter.ERROR).set(jmxItem.getError().getMessage());
+            }
+        }
+
+        String date = formatter.getDatePrefix(item);
+        String text = (date == null ? "" : date) + formatted.toJSONString(compact);
+        if (escapeControlCharacters) {
+            StringBuilder escaped = new StringBuilder();
+            for (char c : text.toCharArray()) {
+                if (c < 32) {
+                    escaped.append('#').append('0').append(c >> 3).append(c & 0x07);
+                } else {
+                    escaped.append(c);
+                }
+            }
+            return escaped.toString();
+        }
+        return escapeNewLine ? text.replace("\n", "#012") : text;
+    }
+
+    private static void addCommonFields(AuditLogItem item, ModelNode formatted) {
+        formatted.get(JsonAuditLogItemFormatter.READ_ONLY).set(item.isReadOnly());
+        formatted.get(JsonAuditLogItemFormatter.BOOTING).set(item.isBooting());
+        formatted.get(JsonAuditLogItemFormatter.AS_VERSION).set(item.getAsVersion());
+        setIfDefined(formatted.get(JsonAuditLogItemFormatter.USER_ID), item.getUserId());
+        setIfDefined(formatted.get(JsonAuditLogItemFormatter.DOMAIN_UUID), item.getDomainUUID());
+        setIfDefined(formatted.get(JsonAuditLogItemFormatter.ACCESS_MECHANISM), item.getAccessMechanism());
+        setIfDefined(formatted.get(JsonAuditLogItemFormatter.REMOTE_ADDRESS), item.getRemoteAddress());
+    }
+
+    private static void setIfDefined(ModelNode node, Object value) {
+        if (value != null) {
+            node.set(value.toString());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link SizeRotatingFileAuditLogHandler}.
+ */
+public class SizeRotatingFileAuditLogHandlerUnitTestCase {
+
+    private File confDir = createTempDir();
+    private File logFile = new File(confDir, "audit-log.log");
+    private PathManagerService pathManager = new PathManagerServiceStub();
+
+    @After
+    public void cleanup() {
+        for (String fileName : confDir.list()) {
+            File file = new File(confDir, fileName);
+            file.delete();
+        }
+        confDir.delete();
+    }
+
+    @Test
+    public void testBatchIsRotatedPerRecord() throws IOException {
+        SizeRotatingFileAuditLogHandler handler =
+                new SizeRotatingFileAuditLogHandler("name", "formatter", 0, pathManager, logFile.getPath(), null, 10, 5);
+        handler.initialize();
+        handler.writeLogItemBatch(Arrays.asList(record("first record"), record("second record"), record("third record")));
+
+        Assert.assertEquals(3, confDir.list().length);
+        Assert.assertEquals(Arrays.asList("first record"), readLines(new File(confDir, "audit-log.log.2")));
+        Assert.assertEquals(Arrays.asList("second record"), readLines(new File(confDir, "audit-log.log.1")));
+        Assert.assertEquals(Arrays.asList("third record"), readLines(logFile));
+    }
+
+    @Test
+    public void testBatchBelowRotateSizeIsNotRotated() throws IOException {
+        SizeRotatingFileAuditLogHandler handler =
+                new SizeRotatingFileAuditLogHandler("name", "formatter", 0, pathManager, logFile.getPath(), null, 1024, 5);
+        handler.initialize();
+        handler.writeLogItemBatch(Arrays.asList(record("first record"), record("second record")));
+
+        Assert.assertEquals(1, confDir.list().length);
+        Assert.assertEquals(Arrays.asList("first record", "second record"), readLines(logFile));
+    }
+
+    private static ByteBuffer record(String record) {
+        return ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static File createTempDir() {
+        try {
+            File tempFile = File.createTempFile("test-config", "");
+            if (!tempFile.delete() || !tempFile.mkdir()) {
+                throw new IOException("Couldn't create temp directory.");
+            }
+            return tempFile;
+        } catch (Exception e) {
+            throw new RuntimeException("Couldn't create temp directory.", e);
+        }
+    }
+
+    private static class PathManagerServiceStub extends PathManagerService {}
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private File dir;
+    private File configFile;
+    private File cacheFile;
+
+    @Before
+    public void createFiles() throws Exception {
+        dir = Files.createTempDirectory("boot-operation-cache").toFile();
+        configFile = new File(dir, "standalone.xml");
+        cacheFile = new File(new File(dir, "standalone_xml_history"), "boot-operations.dmr");
+        Files.write(configFile.toPath(), "<server/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void deleteFiles() throws Exception {
+        cacheFile.delete();
+        cacheFile.getParentFile().delete();
+        configFile.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testReadWrittenOperations() throws Exception {
+        BootOperationCache cache = new BootOperationCache(cacheFile, getClass());
+        Assert.assertNull(cache.read(configFile));
+
+        List<ModelNode> operations = Collections.singletonList(createOperation());
+        cache.prepare(configFile, operations, 10);
+        Assert.assertFalse(cacheFile.exists());
+        cache.write();
+        Assert.assertTrue(cacheFile.exists());
+
+        Assert.assertEquals(operations, new BootOperationCache(cacheFile, getClass()).read(configFile));
+    }
+
+    @Test
+    public void testChangedConfigurationIsNotRead() throws Exception {
+        BootOperationCache cache = new BootOperationCache(cacheFile, getClass());
+        cache.prepare(configFile, Collections.singletonList(createOperation()), 10);
+        cache.write();
+
+        Files.write(configFile.toPath(), "<server></server>".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(new BootOperationCache(cacheFile, getClass()).read(configFile));
+    }
+
+    @Test
+    public void testChangedParserIsNotRead() throws Exception {
+        BootOperationCache cache = new BootOperationCache(cacheFile, getClass());
+        cache.prepare(configFile, Collections.singletonList(createOperation()), 10);
+        cache.write();
+
+        Assert.assertNull(new BootOperationCache(cacheFile, XmlConfigurationPersister.class).read(configFile));
+    }
+
+    @Test
+    public void testParserJarPatchedInPlaceIsNotRead() throws Exception {
+        File jar = new File(dir, "parser.jar");
+        try {
+            writeParserJar(jar, false);
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, null)) {
+                Class<?> parser = loader.loadClass(Parser.class.getName());
+                BootOperationCache cache = new BootOperationCache(cacheFile, parser);
+                cache.prepare(configFile, Collections.singletonList(createOperation()), 10);
+                cache.write();
+                Assert.assertNotNull(new BootOperationCache(cacheFile, parser).read(configFile));
+            }
+
+            // Same location and no new version, only the content of the jar changed
+            writeParserJar(jar, true);
+            Assert.assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, null)) {
+                Class<?> parser = loader.loadClass(Parser.class.getName());
+                Assert.assertNull(new BootOperationCache(cacheFile, parser).read(configFile));
+            }
+        } finally {
+            jar.delete();
+        }
+    }
+
+    private static void writeParserJar(File jar, boolean patched) throws Exception {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            String entry = Parser.class.getName().replace('.', '/') + ".class";
+            out.putNextEntry(new JarEntry(entry));
+            try (InputStream in = BootOperationCacheTestCase.class.getClassLoader().getResourceAsStream(entry)) {
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            out.closeEntry();
+            if (patched) {
+                out.putNextEntry(new JarEntry("patched.txt"));
+                out.write("patched".getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static ModelNode createOperation() {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(ADD);
+        operation.get(OP_ADDR).set(PathAddress.pathAddress("system-property", "test").toModelNode());
+        operation.get("value").set("value");
+        return operation;
+    }
+
+    /**
+     * Stands for a parser class loaded from a jar.
+     */
+    public static class Parser {
+    }
+}
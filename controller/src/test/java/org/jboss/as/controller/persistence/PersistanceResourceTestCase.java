@@ -33,6 +33,7 @@ import static org.junit.Assert.assertThat;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -151,6 +152,42 @@ public class PersistanceResourceTestCase {
         checkFiles(null, "Four", "std", "Three", "Four", "Three");
     }
 
+    @Test
+    public void testDeferredConfigurationFileWrites() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        Assert.assertEquals(standardFile.getCanonicalPath(), configurationFile.getBootFile().getCanonicalPath());
+        // Long enough for the background write never to happen during the test
+        TestDeferredConfigurationFilePersister persister = new TestDeferredConfigurationFilePersister(configurationFile, 60000);
+
+        configurationFile.successfulBoot();
+        checkFiles(null, "std", "std", "std", "std");
+
+        store(persister, "One");
+        store(persister, "Two");
+        store(persister, "Three");
+        checkFiles(null, "std", "std", "std", "std");
+        // Only the latest model is marshalled, when it is written
+        Assert.assertEquals(0, persister.marshalled);
+
+        persister.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+        Assert.assertEquals(1, persister.marshalled);
+
+        // Nothing pending, so nothing written
+        persister.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+
+        // A model that can't be marshalled is logged and not written
+        store(persister, "Invalid");
+        persister.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+
+        store(persister, "Four");
+        persister.flush();
+        checkFiles(null, "Four", "std", "std", "Four", "std", "Three");
+        Assert.assertEquals(2, persister.marshalled);
+    }
+
     @Test
     public void testOtherPersistentConfigurationFile() throws Exception {
         assertFileContents(standardFile, "std");
@@ -989,4 +1026,42 @@ public class PersistanceResourceTestCase {
             return new ConfigurationFilePersistenceResource(model, configurationFile, this);
         }
     }
+
+    private class TestDeferredConfigurationFilePersister extends TestConfigurationPersister {
+
+        private final DeferredConfigurationFileWriter writer;
+        private volatile int marshalled;
+
+        public TestDeferredConfigurationFilePersister(ConfigurationFile configurationFile, long delay) {
+            this.writer = new DeferredConfigurationFileWriter(configurationFile, this, delay);
+        }
+
+        @Override
+        PersistenceResource create(ModelNode model) throws ConfigurationPersistenceException {
+            return new PersistenceResource() {
+                @Override
+                public void commit() {
+                    writer.commit(model);
+                }
+
+                @Override
+                public void rollback() {
+                }
+            };
+        }
+
+        @Override
+        public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
+            if (model.asString().equals("Invalid")) {
+                throw new ConfigurationPersistenceException("Invalid");
+            }
+            marshalled++;
+            super.marshallAsXml(model, output);
+        }
+
+        @Override
+        public void flush() {
+            writer.flush();
+        }
+    }
 }
@@ -23,6 +23,7 @@
 package org.jboss.as.controller.registry;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -39,6 +40,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition.Parameters;
@@ -47,6 +49,7 @@ import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraint
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -355,6 +358,39 @@ public class CoreManagementResourceRegistrationUnitTestCase {
         assertTrue(acds.contains(ApplicationTypeAccessConstraintDefinition.DEPLOYMENT));
     }
 
+    @Test
+    public void testRegistrationStamp() {
+
+        long stamp = rootRegistration.getRegistrationStamp();
+        assertTrue(stamp != 0);
+
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+        assertEquals(rootRegistration.getRegistrationStamp(), child.getRegistrationStamp());
+        assertNotEquals(stamp, stamp = child.getRegistrationStamp());
+
+        // Reads don't change the stamp
+        child.getAttributeNames(PathAddress.EMPTY_ADDRESS);
+        rootRegistration.getOperationHandler(fullChildAddress, "one");
+        assertEquals(stamp, rootRegistration.getRegistrationStamp());
+
+        child.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+        assertNotEquals(stamp, stamp = rootRegistration.getRegistrationStamp());
+        child.unregisterOperationHandler("one");
+        assertNotEquals(stamp, stamp = rootRegistration.getRegistrationStamp());
+
+        child.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("attr", ModelType.STRING).build(), null);
+        assertNotEquals(stamp, stamp = rootRegistration.getRegistrationStamp());
+        child.unregisterAttribute("attr");
+        assertNotEquals(stamp, stamp = rootRegistration.getRegistrationStamp());
+
+        rootRegistration.unregisterSubModel(childElement);
+        assertNotEquals(stamp, stamp = rootRegistration.getRegistrationStamp());
+
+        // Another tree never shares the stamp
+        ManagementResourceRegistration other = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER).createRegistration(new SimpleResourceDefinition(null, new NonResolvingResourceDescriptionResolver()));
+        assertNotEquals(stamp, other.getRegistrationStamp());
+    }
+
     private static class TestHandler implements OperationStepHandler {
 
         private static TestHandler INSTANCE = new TestHandler();
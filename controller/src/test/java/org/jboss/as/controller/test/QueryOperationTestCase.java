@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SELECT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WHERE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the query operation only reads what its where and select parameters need.
+ */
+public class QueryOperationTestCase extends AbstractControllerTestBase {
+
+    private static final AttributeDefinition STATUS = new SimpleAttributeDefinitionBuilder("status", ModelType.STRING, true)
+            .setDefaultValue(new ModelNode("ok"))
+            .build();
+
+    private static final AttributeDefinition METRIC = new SimpleAttributeDefinitionBuilder("metric", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final AtomicInteger metricReads = new AtomicInteger();
+
+    @Before
+    public void addResources() throws Exception {
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress("test", "a")));
+        ModelNode add = Util.createAddOperation(PathAddress.pathAddress("test", "b"));
+        add.get(STATUS.getName()).set("failed");
+        executeCheckNoFailure(add);
+        add = Util.createAddOperation(PathAddress.pathAddress("test", "c"));
+        add.get(STATUS.getName()).set("ok");
+        executeCheckNoFailure(add);
+        metricReads.set(0);
+    }
+
+    @Test
+    public void testNonMatchingResourcesAreNotRead() throws Exception {
+        ModelNode query = createQuery();
+        query.get(WHERE, STATUS.getName()).set("failed");
+        List<ModelNode> result = executeForResult(query).asList();
+        assertEquals(1, result.size());
+        assertEquals(PathAddress.pathAddress("test", "b"), PathAddress.pathAddress(result.get(0).get(ADDRESS)));
+        assertEquals("failed", result.get(0).get(RESULT, STATUS.getName()).asString());
+        assertEquals(42, result.get(0).get(RESULT, METRIC.getName()).asInt());
+        assertEquals(1, metricReads.get());
+
+        // the default value is matched as read-attribute would provide it
+        query.get(WHERE, STATUS.getName()).set("ok");
+        result = executeForResult(query).asList();
+        assertEquals(2, result.size());
+        assertEquals(3, metricReads.get());
+    }
+
+    @Test
+    public void testUnselectedAttributesAreNotRead() throws Exception {
+        ModelNode query = createQuery();
+        query.get(SELECT).add(STATUS.getName());
+        List<ModelNode> result = executeForResult(query).asList();
+        assertEquals(3, result.size());
+        for (ModelNode item : result) {
+            assertEquals(1, item.get(RESULT).keys().size());
+            assertFalse(item.get(RESULT).hasDefined(METRIC.getName()));
+        }
+        assertEquals(0, metricReads.get());
+    }
+
+    @Test
+    public void testFilterOnRuntimeAttribute() throws Exception {
+        ModelNode query = createQuery();
+        query.get(WHERE, METRIC.getName()).set("42");
+        query.get(SELECT).add(STATUS.getName());
+        List<ModelNode> result = executeForResult(query).asList();
+        assertEquals(3, result.size());
+        for (ModelNode item : result) {
+            assertEquals(1, item.get(RESULT).keys().size());
+            assertEquals(STATUS.getName(), item.get(RESULT).keys().iterator().next());
+        }
+        assertEquals(3, metricReads.get());
+    }
+
+    private static ModelNode createQuery() {
+        return Util.createEmptyOperation(QUERY, PathAddress.pathAddress("test", "*"));
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+        registration.registerSubModel(new TestResource());
+    }
+
+    private static class TestResource extends SimpleResourceDefinition {
+
+        TestResource() {
+            super(PathElement.pathElement("test"), new NonResolvingResourceDescriptionResolver(),
+                    new AbstractAddStepHandler(STATUS), new AbstractRemoveStepHandler() {
+                    });
+        }
+
+        @Override
+        public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+            resourceRegistration.registerReadOnlyAttribute(STATUS, null);
+            resourceRegistration.registerMetric(METRIC, (context, operation) -> {
+                metricReads.incrementAndGet();
+                context.getResult().set(42);
+            });
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the read-metrics operation.
+ */
+public class ReadMetricsTestCase extends AbstractControllerTestBase {
+
+    private static final AttributeDefinition STATUS = new SimpleAttributeDefinitionBuilder("status", ModelType.STRING, true)
+            .setDefaultValue(new ModelNode("ok"))
+            .build();
+
+    private static final AttributeDefinition METRIC = new SimpleAttributeDefinitionBuilder("metric", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final AtomicInteger metricReads = new AtomicInteger();
+
+    private ManagementResourceRegistration testRegistration;
+
+    @Before
+    public void addResources() throws Exception {
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress("test", "a")));
+        ModelNode add = Util.createAddOperation(PathAddress.pathAddress("test", "b"));
+        add.get(STATUS.getName()).set("failed");
+        executeCheckNoFailure(add);
+        metricReads.set(0);
+    }
+
+    @Test
+    public void testReadMetrics() throws Exception {
+        ModelNode op = createReadMetrics(PathAddress.pathAddress("test", "b"), METRIC.getName(), "missing", STATUS.getName());
+        List<ModelNode> result = executeForResult(op).asList();
+        assertEquals(3, result.size());
+        assertEquals(42, result.get(0).asInt());
+        assertFalse(result.get(1).isDefined());
+        assertEquals("failed", result.get(2).asString());
+        assertEquals(1, metricReads.get());
+
+        // the cached plan gives the same result
+        result = executeForResult(op).asList();
+        assertEquals(42, result.get(0).asInt());
+        assertEquals("failed", result.get(2).asString());
+        assertEquals(2, metricReads.get());
+    }
+
+    @Test
+    public void testReadMetricsWildcard() throws Exception {
+        List<ModelNode> result = executeForResult(createReadMetrics(PathAddress.pathAddress("test", "*"), STATUS.getName(), METRIC.getName())).asList();
+        assertEquals(2, result.size());
+        assertEquals(PathAddress.pathAddress("test", "a"), PathAddress.pathAddress(result.get(0).get(ADDRESS)));
+        // the default value is provided as read-attribute would
+        assertEquals("ok", result.get(0).get(RESULT).get(0).asString());
+        assertEquals(42, result.get(0).get(RESULT).get(1).asInt());
+        assertEquals(PathAddress.pathAddress("test", "b"), PathAddress.pathAddress(result.get(1).get(ADDRESS)));
+        assertEquals("failed", result.get(1).get(RESULT).get(0).asString());
+        assertEquals(42, result.get(1).get(RESULT).get(1).asInt());
+        assertEquals(2, metricReads.get());
+    }
+
+    @Test
+    public void testReadMetricsAfterRegistrationChange() throws Exception {
+        ModelNode op = createReadMetrics(PathAddress.pathAddress("test", "a"), "added");
+        assertFalse(executeForResult(op).get(0).isDefined());
+
+        // the cached plan is replaced once the attribute is registered
+        testRegistration.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("added", ModelType.STRING)
+                .setRequired(false)
+                .setDefaultValue(new ModelNode("value"))
+                .build(), null);
+        assertEquals("value", executeForResult(op).get(0).asString());
+    }
+
+    private static ModelNode createReadMetrics(PathAddress address, String... attributes) {
+        ModelNode op = Util.createEmptyOperation(READ_METRICS_OPERATION, address);
+        for (String attribute : attributes) {
+            op.get(ATTRIBUTES).add(attribute);
+        }
+        return op;
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+        testRegistration = registration.registerSubModel(new TestResource());
+    }
+
+    private static class TestResource extends SimpleResourceDefinition {
+
+        TestResource() {
+            super(PathElement.pathElement("test"), new NonResolvingResourceDescriptionResolver(),
+                    new AbstractAddStepHandler(STATUS), new AbstractRemoveStepHandler() {
+                    });
+        }
+
+        @Override
+        public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+            resourceRegistration.registerReadOnlyAttribute(STATUS, null);
+            resourceRegistration.registerMetric(METRIC, (context, operation) -> context.addStep((ctx, op) -> {
+                metricReads.incrementAndGet();
+                ctx.getResult().set(42);
+            }, OperationContext.Stage.RUNTIME));
+        }
+    }
+}
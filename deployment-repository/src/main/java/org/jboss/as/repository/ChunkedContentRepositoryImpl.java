@@ -0,0 +1,409 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.common.Assert;
+
+/**
+ * {@link ContentRepository} storing archives as content-defined chunks shared between all the contents.
+ * <p>
+ * Each archive added is split by {@link ContentChunker}; the chunks are stored once under {@code chunks} and the
+ * archive is replaced by a manifest under {@code manifests} listing its chunks. The archive file is reassembled in the
+ * usual location when it is needed as a file. An archive reassembled to be read, listed or exploded is removed once
+ * the last operation reading it is done. An archive handed out by {@link #getContent(byte[])} or
+ * {@link #syncContent(ContentReference)}, typically to be mounted by a deployment, is kept until the last reference to
+ * the content is released, so near identical versions of an application only cost their differing chunks plus the
+ * archives actually in use.
+ * Exploded contents are stored as usual.
+ * <p>
+ * Chunks that are no longer listed by any manifest are removed by {@link #cleanObsoleteContent()} once they are older
+ * than the obsolescence timeout, as are reassembled archives that are no longer in use.
+ */
+public class ChunkedContentRepositoryImpl extends ContentRepositoryImpl {
+
+    static final String CHUNKS = "chunks";
+    static final String MANIFESTS = "manifests";
+    private final Path chunksRoot;
+    private final Path manifestsRoot;
+    private final long obsolescenceTimeout;
+    /** Hashes of the contents whose reassembled archive has been handed out and is kept while they are referenced */
+    private final Set<String> contentsInUse = ConcurrentHashMap.newKeySet();
+    /** Number of operations reading the reassembled archive of each content, updated under the lock of the content */
+    private final ConcurrentMap<String, Integer> contentReaders = new ConcurrentHashMap<>();
+
+    protected ChunkedContentRepositoryImpl(final File repoRoot, final File tmpRoot, final File chunkRoot, long obsolescenceTimeout, long lockTimeout) {
+        super(repoRoot, tmpRoot, obsolescenceTimeout, lockTimeout);
+        Assert.checkNotNullParam("chunkRoot", chunkRoot);
+        this.chunksRoot = chunkRoot.toPath().resolve(CHUNKS);
+        this.manifestsRoot = chunkRoot.toPath().resolve(MANIFESTS);
+        validateDir(chunksRoot);
+        validateDir(manifestsRoot);
+        this.obsolescenceTimeout = obsolescenceTimeout;
+    }
+
+    @Override
+    public byte[] addContent(InputStream stream) throws IOException {
+        final byte[] hash = super.addContent(stream);
+        final Path manifest = getManifestFile(hash);
+        if (stream != null && !Files.exists(manifest)) {
+            try {
+                if (!lock(hash)) {
+                    // someone else is using it: keep the content as a plain file
+                    return hash;
+                }
+                final Path content = getDeploymentContentFile(hash);
+                if (Files.isRegularFile(content) && !Files.exists(manifest)) {
+                    writeManifest(manifest, storeChunks(content));
+                    Files.delete(content);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                unlock(hash);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public VirtualFile getContent(byte[] hash) {
+        Assert.checkNotNullParam("hash", hash);
+        reassemble(hash, true);
+        return super.getContent(hash);
+    }
+
+    @Override
+    public boolean hasContent(byte[] hash) {
+        return Files.exists(getDeploymentContentFile(hash)) || Files.exists(getManifestFile(hash));
+    }
+
+    /**
+     * Reassembles the content from its chunks, so that it can be read directly from its deployment root until the
+     * reference is released.
+     *
+     * @param reference the reference to the content.
+     * @return {@code true} if the repository has the content.
+     */
+    @Override
+    public boolean syncContent(ContentReference reference) {
+        if (HashUtil.isEachHexHashInTable(reference.getHexHash())) {
+            reassemble(reference.getHash(), true);
+        }
+        return super.syncContent(reference);
+    }
+
+    /**
+     * Releases the reference. Once the last reference to the content is released, the content is removed along with
+     * its manifest; until then its reassembled archive is kept.
+     *
+     * @param reference the reference to the content.
+     */
+    @Override
+    public void removeContent(ContentReference reference) {
+        super.removeContent(reference);
+        if (!HashUtil.isEachHexHashInTable(reference.getHexHash())) {
+            return;
+        }
+        try {
+            if (!lock(reference.getHash())) {
+                return;
+            }
+            // the content directory is only removed once the last reference has been released
+            if (!Files.exists(getDeploymentHashDir(reference.getHash(), false))) {
+                contentsInUse.remove(reference.getHexHash());
+                Files.deleteIfExists(getManifestFile(reference.getHash()));
+            }
+        } catch (IOException ex) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, reference.getHexHash());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            unlock(reference.getHash());
+        }
+    }
+
+    @Override
+    public Map<String, Set<String>> cleanObsoleteContent() {
+        Map<String, Set<String>> cleanedContents = super.cleanObsoleteContent();
+        removeUnusedChunks();
+        return cleanedContents;
+    }
+
+    @Override
+    public byte[] explodeContent(byte[] deploymentHash) throws ExplodedContentException {
+        final boolean reading = reassemble(deploymentHash, false);
+        try {
+            return super.explodeContent(deploymentHash);
+        } finally {
+            if (reading) {
+                releaseReassembled(deploymentHash);
+            }
+        }
+    }
+
+    @Override
+    public TypedInputStream readContent(byte[] deploymentHash, String path) throws ExplodedContentException {
+        final boolean reading = reassemble(deploymentHash, false);
+        try {
+            return super.readContent(deploymentHash, path);
+        } finally {
+            if (reading) {
+                releaseReassembled(deploymentHash);
+            }
+        }
+    }
+
+    @Override
+    public List<ContentRepositoryElement> listContent(byte[] deploymentHash, String path, ContentFilter filter) throws ExplodedContentException {
+        final boolean reading = reassemble(deploymentHash, false);
+        try {
+            return super.listContent(deploymentHash, path, filter);
+        } finally {
+            if (reading) {
+                releaseReassembled(deploymentHash);
+            }
+        }
+    }
+
+    /**
+     * Gets the manifest listing the chunks of a content.
+     *
+     * @param hash the hash of the content.
+     * @return the path to the manifest, which exists only if the content was chunked.
+     */
+    protected Path getManifestFile(byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        return manifestsRoot.resolve(sha1.substring(0, 2)).resolve(sha1.substring(2));
+    }
+
+    /**
+     * Gets the file storing a chunk.
+     *
+     * @param hash the hash of the chunk.
+     * @return the path to the chunk.
+     */
+    protected Path getChunkFile(byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        return chunksRoot.resolve(sha1.substring(0, 2)).resolve(sha1.substring(2));
+    }
+
+    private List<ContentChunker.Chunk> storeChunks(Path content) throws IOException {
+        final List<ContentChunker.Chunk> chunks = new ArrayList<>();
+        final MessageDigest digest = getMessageDigest();
+        try (InputStream in = Files.newInputStream(content)) {
+            ContentChunker.split(in, (buffer, offset, length) -> {
+                digest.reset();
+                digest.update(buffer, offset, length);
+                final byte[] chunkHash = digest.digest();
+                final Path chunkFile = getChunkFile(chunkHash);
+                if (Files.exists(chunkFile)) {
+                    // refresh it so that a concurrent cleaning doesn't see it as unused
+                    Files.setLastModifiedTime(chunkFile, FileTime.fromMillis(System.currentTimeMillis()));
+                } else {
+                    validateDir(chunkFile.getParent());
+                    final Path tmp = Files.createTempFile(chunkFile.getParent(), CHUNKS, ".tmp");
+                    try {
+                        try (OutputStream out = Files.newOutputStream(tmp)) {
+                            out.write(buffer, offset, length);
+                        }
+                        Files.move(tmp, chunkFile, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException ex) {
+                        // stored concurrently by another content
+                    } finally {
+                        Files.deleteIfExists(tmp);
+                    }
+                }
+                chunks.add(new ContentChunker.Chunk(chunkHash, length));
+            });
+        }
+        return chunks;
+    }
+
+    private void writeManifest(Path manifest, List<ContentChunker.Chunk> chunks) throws IOException {
+        validateDir(manifest.getParent());
+        final Path tmp = Files.createTempFile(manifest.getParent(), MANIFESTS, ".tmp");
+        try {
+            ContentChunker.writeManifest(tmp, chunks);
+            Files.move(tmp, manifest, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reassembles the archive of a chunked content, unless it already exists. An archive reassembled to be read must
+     * be released with {@link #releaseReassembled(byte[])} once the caller is done with it.
+     *
+     * @param hash the hash of the content.
+     * @param keep {@code true} if the archive is handed out and must be kept until the last reference is released,
+     *             {@code false} if it is only read by the caller.
+     * @return {@code true} if the content is chunked, so that the caller reading it must release it.
+     */
+    private boolean reassemble(byte[] hash, boolean keep) {
+        final Path content = getDeploymentContentFile(hash);
+        final Path manifest = getManifestFile(hash);
+        if (!Files.exists(manifest)) {
+            return false;
+        }
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        try {
+            if (!lock(hash)) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotReassembleContent(DeploymentRepositoryLogger.ROOT_LOGGER.errorLockingDeployment(), sha1);
+            }
+            if (Files.exists(content)) {
+                use(sha1, keep);
+                return true;
+            }
+            final Path hashDir = getDeploymentHashDir(hash, true);
+            final Path tmp = Files.createTempFile(hashDir, CONTENT, ".tmp");
+            try {
+                final MessageDigest digest = getMessageDigest();
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    for (ContentChunker.Chunk chunk : ContentChunker.readManifest(manifest)) {
+                        final byte[] bytes = Files.readAllBytes(getChunkFile(chunk.getHash()));
+                        digest.update(bytes);
+                        out.write(bytes);
+                    }
+                }
+                if (!MessageDigest.isEqual(hash, digest.digest())) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotReassembleContent(null, sha1);
+                }
+                Files.move(tmp, content, StandardCopyOption.ATOMIC_MOVE);
+                use(sha1, keep);
+                return true;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException ex) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotReassembleContent(ex, sha1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotReassembleContent(ex, sha1);
+        } finally {
+            unlock(hash);
+        }
+    }
+
+    /**
+     * Marks the reassembled archive of a content as handed out or read. Called under the lock of the content, so that
+     * a concurrent discarding either happens before or sees it in use.
+     */
+    private void use(String sha1, boolean keep) {
+        if (keep) {
+            contentsInUse.add(sha1);
+        } else {
+            contentReaders.merge(sha1, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Releases an archive reassembled to be read, removing it once no other operation reads it unless it is in use.
+     *
+     * @param hash the hash of the content.
+     */
+    private void releaseReassembled(byte[] hash) {
+        contentReaders.computeIfPresent(HashUtil.bytesToHexString(hash), ChunkedContentRepositoryImpl::decrement);
+        discardReassembled(hash);
+    }
+
+    private static Integer decrement(String sha1, Integer readers) {
+        return readers == 1 ? null : readers - 1;
+    }
+
+    /**
+     * Removes the reassembled archive of a chunked content unless it is in use or read. Failures are expected if the
+     * archive is still open, e.g. on Windows, so it is then left for a later cleaning.
+     *
+     * @param hash the hash of the content.
+     */
+    private void discardReassembled(byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        try {
+            if (!lock(hash)) {
+                return;
+            }
+            if (!contentsInUse.contains(sha1) && !contentReaders.containsKey(sha1) && Files.exists(getManifestFile(hash))) {
+                Files.deleteIfExists(getDeploymentContentFile(hash));
+            }
+        } catch (IOException ex) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ex, "Couldn't remove the reassembled content %s", sha1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            unlock(hash);
+        }
+    }
+
+    private void removeUnusedChunks() {
+        final Set<String> usedChunks = new HashSet<>();
+        try (Stream<Path> manifests = Files.walk(manifestsRoot, 2)) {
+            for (Path manifest : (Iterable<Path>) manifests.filter(Files::isRegularFile)::iterator) {
+                final String sha1 = manifest.getParent().getFileName().toString() + manifest.getFileName().toString();
+                if (!HashUtil.isEachHexHashInTable(sha1)) {
+                    continue; // temporary file of a manifest being written
+                }
+                final byte[] hash = HashUtil.hexStringToByteArray(sha1);
+                if (!Files.exists(getDeploymentHashDir(hash, false))) {
+                    Files.deleteIfExists(manifest);
+                } else {
+                    // left over from a read that couldn't remove it or from a previous run
+                    discardReassembled(hash);
+                    for (ContentChunker.Chunk chunk : ContentChunker.readManifest(manifest)) {
+                        usedChunks.add(chunk.getHexHash());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, manifestsRoot.toString());
+            return;
+        }
+        final long limit = System.currentTimeMillis() - obsolescenceTimeout;
+        try (Stream<Path> chunks = Files.walk(chunksRoot, 2)) {
+            for (Path chunk : (Iterable<Path>) chunks.filter(Files::isRegularFile)::iterator) {
+                final String sha1 = chunk.getParent().getFileName().toString() + chunk.getFileName().toString();
+                if (HashUtil.isEachHexHashInTable(sha1) && !usedChunks.contains(sha1)
+                        && Files.getLastModifiedTime(chunk).toMillis() <= limit) {
+                    Files.deleteIfExists(chunk);
+                }
+            }
+        } catch (IOException ex) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, chunksRoot.toString());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Splits content into content-defined chunks, so that a change in the middle of an archive only changes the chunks
+ * around it and the rest of the archive can be shared with other versions of the same content.
+ * <p>
+ * Boundaries are found with a gear rolling hash over the last 64 bytes, which gives chunks of about 8KB on average,
+ * bounded between {@value #MIN_CHUNK_SIZE} and {@value #MAX_CHUNK_SIZE} bytes.
+ */
+public final class ContentChunker {
+
+    static final int MIN_CHUNK_SIZE = 2048;
+    /** Maximum size of a chunk, in bytes */
+    public static final int MAX_CHUNK_SIZE = 65536;
+    private static final long BOUNDARY_MASK = ((1L << 13) - 1) << 51;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // The seed is fixed: every process must cut the same content at the same boundaries.
+        Random random = new Random(0x5eedL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private ContentChunker() {
+    }
+
+    /**
+     * Receives the chunks of some content, in order.
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+        /**
+         * Handles a chunk. The buffer is reused once this method returns.
+         *
+         * @param buffer the buffer holding the chunk.
+         * @param offset the offset of the chunk in the buffer.
+         * @param length the length of the chunk.
+         * @throws IOException if the chunk couldn't be handled.
+         */
+        void handleChunk(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Reads the stream until its end and passes each chunk to the handler.
+     *
+     * @param stream the content to split.
+     * @param handler the handler receiving the chunks.
+     * @throws IOException if the stream couldn't be read or the handler failed.
+     */
+    public static void split(InputStream stream, ChunkHandler handler) throws IOException {
+        final byte[] chunk = new byte[MAX_CHUNK_SIZE];
+        final byte[] buffer = new byte[8192];
+        int size = 0;
+        long hash = 0L;
+        int read;
+        while ((read = stream.read(buffer)) > -1) {
+            for (int i = 0; i < read; i++) {
+                final byte b = buffer[i];
+                chunk[size++] = b;
+                hash = (hash << 1) + GEAR[b & 0xff];
+                if (size == MAX_CHUNK_SIZE || (size >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0L)) {
+                    handler.handleChunk(chunk, 0, size);
+                    size = 0;
+                    hash = 0L;
+                }
+            }
+        }
+        if (size > 0) {
+            handler.handleChunk(chunk, 0, size);
+        }
+    }
+
+    /**
+     * Writes a manifest listing the chunks of a content, one {@code <sha1> <length>} line per chunk.
+     *
+     * @param manifest the manifest file.
+     * @param chunks the chunks in order.
+     * @throws IOException if the manifest couldn't be written.
+     */
+    public static void writeManifest(Path manifest, List<Chunk> chunks) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+            for (Chunk chunk : chunks) {
+                writer.write(chunk.getHexHash());
+                writer.write(' ');
+                writer.write(Integer.toString(chunk.getLength()));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Reads a manifest written by {@link #writeManifest(Path, List)}.
+     *
+     * @param manifest the manifest file.
+     * @return the chunks in order.
+     * @throws IOException if the manifest couldn't be read.
+     */
+    public static List<Chunk> readManifest(Path manifest) throws IOException {
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        List<Chunk> chunks = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (!line.isEmpty()) {
+                int index = line.indexOf(' ');
+                chunks.add(new Chunk(HashUtil.hexStringToByteArray(line.substring(0, index)), Integer.parseInt(line.substring(index + 1))));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * A chunk of content identified by its SHA-1.
+     */
+    public static final class Chunk {
+        private final byte[] hash;
+        private final int length;
+
+        public Chunk(byte[] hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+
+        public byte[] getHash() {
+            return hash;
+        }
+
+        public String getHexHash() {
+            return HashUtil.bytesToHexString(hash);
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Chunk)) {
+                return false;
+            }
+            Chunk other = (Chunk) obj;
+            return length == other.length && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(hash) + length;
+        }
+    }
+}
@@ -177,12 +177,18 @@ public interface ContentRepository {
         @Deprecated
         private static final String UNSUPPORTED_PROPERTY = "org.wildfly.unsupported.content.repository.obsolescence";
 
+        /**
+         * Stores archives as deduplicated chunks, see {@link ChunkedContentRepositoryImpl}.
+         */
+        private static final String CHUNKED_PROPERTY = "org.wildfly.content.repository.chunked";
+        private static final boolean CHUNKED = getSecurityManager() == null ? Boolean.getBoolean(CHUNKED_PROPERTY) : doPrivileged((PrivilegedAction<Boolean>) () -> Boolean.getBoolean(CHUNKED_PROPERTY));
+
         public static void addService(final ServiceTarget serviceTarget, final File repoRoot) {
             addService(serviceTarget, repoRoot, repoRoot);
         }
 
         public static void addService(final ServiceTarget serviceTarget, final File repoRoot, final File tmpRoot) {
-            addService(serviceTarget, new ContentRepositoryImpl(repoRoot, tmpRoot, OBSOLETE_CONTENT_TIMEOUT, LOCK_TIMEOUT));
+            addService(serviceTarget, create(repoRoot, tmpRoot, OBSOLETE_CONTENT_TIMEOUT, LOCK_TIMEOUT));
         }
 
         public static void addService(final ServiceTarget serviceTarget, final ContentRepository contentRepository) {
@@ -202,6 +208,10 @@ public interface ContentRepository {
         }
 
         static ContentRepository create(final File repoRoot, final File tmpRoot, long timeout, long lock) {
+            if (CHUNKED) {
+                File chunkRoot = new File(repoRoot.getAbsoluteFile().getParentFile(), repoRoot.getName() + "-chunks");
+                return new ChunkedContentRepositoryImpl(repoRoot, tmpRoot, chunkRoot, timeout, lock);
+            }
             return new ContentRepositoryImpl(repoRoot, tmpRoot, timeout, lock);
         }
     }
@@ -30,15 +30,17 @@ import static org.jboss.as.repository.PathUtil.getFileExtension;
 import static org.jboss.as.repository.PathUtil.isArchive;
 import static org.jboss.as.repository.PathUtil.resolveSecurely;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.security.DigestOutputStream;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
@@ -55,6 +57,8 @@ import static org.jboss.as.repository.PathUtil.unzip;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import org.wildfly.common.Assert;
@@ -67,11 +71,21 @@ import org.wildfly.common.Assert;
 public class ContentRepositoryImpl implements ContentRepository {
 
     protected static final String CONTENT = "content";
+    private static final int COPY_BUFFER_SIZE = 65536;
     private final File repoRoot;
     private final File tmpRoot;
+    /**
+     * Not used by this class, only kept for subclasses hashing with it; they have to synchronize on it.
+     *
+     * @deprecated a single digest serializes every hashing operation. Use {@link #getMessageDigest()} which returns a
+     * digest confined to the calling thread.
+     */
+    @Deprecated
     protected final MessageDigest messageDigest;
+    private final ThreadLocal<MessageDigest> messageDigests;
     private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<>();
-    private final Map<String, ReentrantLock> lockedContents = new HashMap<>();
+    /** Locks of the contents currently locked or waited for, removed once no thread references them. */
+    private final ConcurrentMap<String, ContentLock> contentLocks = new ConcurrentHashMap<>();
     private final Map<String, Long> obsoleteContents = new HashMap<>();
     private final long obsolescenceTimeout;
     private final long lockTimeout;
@@ -86,13 +100,29 @@ public class ContentRepositoryImpl implements ContentRepository {
         this.tmpRoot = tmpRoot;
         this.obsolescenceTimeout = obsolescenceTimeout;
         this.lockTimeout = lockTimeout;
+        this.messageDigest = createMessageDigest();
+        this.messageDigests = ThreadLocal.withInitial(ContentRepositoryImpl::createMessageDigest);
+    }
+
+    private static MessageDigest createMessageDigest() {
         try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
+            return MessageDigest.getInstance("SHA-1");
         } catch (NoSuchAlgorithmException e) {
             throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
         }
     }
 
+    /**
+     * Gets the SHA-1 digest to be used by the calling thread, so concurrent uploads don't contend on a shared digest.
+     *
+     * @return a reset digest confined to the calling thread.
+     */
+    protected MessageDigest getMessageDigest() {
+        MessageDigest digest = messageDigests.get();
+        digest.reset();
+        return digest;
+    }
+
     private void checkDirectory(final File directory) {
         if (directory.exists()) {
             if (!directory.isDirectory()) {
@@ -120,27 +150,25 @@ public class ContentRepositoryImpl implements ContentRepository {
         byte[] sha1Bytes;
         Path tmp = File.createTempFile(CONTENT, ".tmp", repoRoot).toPath();
         if (stream != null) {
-            try (OutputStream fos = Files.newOutputStream(tmp)) {
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                    BufferedInputStream bis = new BufferedInputStream(stream);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = bis.read(bytes)) > -1) {
-                        dos.write(bytes, 0, read);
+            // single pass over the bytes: each chunk read is hashed and then written to the temp file
+            final MessageDigest digest = getMessageDigest();
+            try (ReadableByteChannel in = Channels.newChannel(stream);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+                while (in.read(buffer) > -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), buffer.arrayOffset(), buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
                     }
-                    fos.flush();
+                    buffer.clear();
                 }
-                sha1Bytes = messageDigest.digest();
             }
+            sha1Bytes = digest.digest();
         } else {//create a directory instead
             Files.delete(tmp);
             Files.createDirectory(tmp);
-            synchronized (messageDigest) {
-                messageDigest.reset();
-                sha1Bytes = HashUtil.hashPath(messageDigest, tmp);
-            }
+            sha1Bytes = HashUtil.hashPath(getMessageDigest(), tmp);
         }
         final Path realFile = getDeploymentContentFile(sha1Bytes, true);
         if (hasContent(sha1Bytes)) {
@@ -420,7 +448,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
             Path contentDir = Files.createDirectory(tmp.resolve(CONTENT));
             unzip(contentPath, contentDir);
-            byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+            byte[] sha1Bytes = HashUtil.hashPath(getMessageDigest(), contentDir);
             final Path realFile = getDeploymentContentFile(sha1Bytes, true);
             if (hasContent(sha1Bytes)) {
                 // we've already got this content
@@ -463,7 +491,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                     deleteRecursively(targetPath);
                 }
                 unzip(sourcePath, targetPath);
-                byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+                byte[] sha1Bytes = HashUtil.hashPath(getMessageDigest(), contentDir);
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -517,31 +545,47 @@ public class ContentRepositoryImpl implements ContentRepository {
         }
     }
 
-    private boolean lock(byte[] hash) throws InterruptedException {
-        String hashHex = HashUtil.bytesToHexString(hash);
-        synchronized(lockedContents) {
-            if(!lockedContents.containsKey(hashHex)) {
-                lockedContents.put(hashHex, new ReentrantLock());
+    protected boolean lock(byte[] hash) throws InterruptedException {
+        final String key = HashUtil.bytesToHexString(hash);
+        final ContentLock lock = contentLocks.compute(key, (k, existing) -> {
+            ContentLock result = existing == null ? new ContentLock() : existing;
+            result.references++;
+            return result;
+        });
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(lockTimeout, TimeUnit.MILLISECONDS);
+        } finally {
+            if (!locked) {
+                release(key);
             }
-            return lockedContents.get(hashHex).tryLock(lockTimeout, TimeUnit.MILLISECONDS);
         }
+        return locked;
     }
 
-    private void unlock(byte[] hash) {
-        String hashHex = HashUtil.bytesToHexString(hash);
-        synchronized (lockedContents) {
-            if (lockedContents.containsKey(hashHex)) {
-                ReentrantLock lock = lockedContents.get(hashHex);
-                if (lock.isHeldByCurrentThread()) {
-                    lock.unlock();
-                    if (!Files.exists(getDeploymentContentFile(hash))) {
-                        lockedContents.remove(hashHex);
-                    }
-                }
-            }
+    protected void unlock(byte[] hash) {
+        final String key = HashUtil.bytesToHexString(hash);
+        final ContentLock lock = contentLocks.get(key);
+        if (lock != null && lock.isHeldByCurrentThread()) {
+            lock.unlock();
+            release(key);
         }
     }
 
+    private void release(String key) {
+        contentLocks.computeIfPresent(key, (k, lock) -> --lock.references == 0 ? null : lock);
+    }
+
+    /**
+     * Lock of a single content. The number of references, i.e. of threads holding or waiting for it, is only
+     * updated while the mapping of the content is computed, so a lock is never removed while it is in use.
+     */
+    private static final class ContentLock extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private int references;
+    }
+
     @Override
     public TypedInputStream readContent(byte[] deploymentHash, String path) throws ExplodedContentException {
         Path tmpDir = null;
@@ -629,7 +673,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                         }
                     }
                 }
-                byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+                byte[] sha1Bytes = HashUtil.hashPath(getMessageDigest(), contentDir);
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -666,7 +710,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                     Path targetFile = resolveSecurely(contentDir, path);
                     deleteFileWithEmptyAncestorDirectories(targetFile);
                 }
-                byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+                byte[] sha1Bytes = HashUtil.hashPath(getMessageDigest(), contentDir);
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -39,11 +39,21 @@ public class LocalFileRepository extends LocalDeploymentFileRepository implement
 
     private final File repositoryRoot;
     private final File configurationRoot;
+    private final ContentRepository contentRepository;
 
     public LocalFileRepository(final File repositoryRoot, final File deploymentRoot, final File configurationRoot) {
+        this(repositoryRoot, deploymentRoot, configurationRoot, null);
+    }
+
+    /**
+     * Creates a file repository over the deployment root of a content repository, which is synchronized before the
+     * files of a deployment are accessed.
+     */
+    public LocalFileRepository(final File repositoryRoot, final File deploymentRoot, final File configurationRoot, final ContentRepository contentRepository) {
         super(deploymentRoot);
         this.repositoryRoot = repositoryRoot;
         this.configurationRoot = configurationRoot;
+        this.contentRepository = contentRepository;
     }
 
     /** {@inheritDoc} */
@@ -70,6 +80,9 @@ public class LocalFileRepository extends LocalDeploymentFileRepository implement
         if (reference == null || reference.getHexHash().isEmpty()) {
             return deploymentRoot;
         }
+        if (contentRepository != null) {
+            contentRepository.syncContent(reference);
+        }
         File first = new File(deploymentRoot, reference.getHexHash().substring(0,2));
         return new File(first, reference.getHexHash().substring(2));
     }
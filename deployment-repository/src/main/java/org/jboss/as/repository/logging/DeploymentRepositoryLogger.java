@@ -162,4 +162,7 @@ public interface DeploymentRepositoryLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 24, value = "Error copying file %s")
     void cannotCopyFile(@Cause Exception ex, Path path);
+
+    @Message(id = 25, value = "Cannot reassemble content %s from its chunks")
+    IllegalStateException cannotReassembleContent(@Cause Throwable cause, String hash);
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2018 Red Hat, inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.jboss.as.repository;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.jboss.as.repository.PathUtil.deleteRecursively;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ChunkedContentRepositoryImpl}.
+ */
+public class ChunkedContentRepositoryTest {
+
+    private final File rootDir = new File("target", "chunked-repository");
+    private final File contentDir = new File(rootDir, "content");
+    private final File chunkDir = new File(rootDir, "content-chunks");
+    private final File tmpRootDir = new File(rootDir, "tmp");
+    private ChunkedContentRepositoryImpl repository;
+
+    @Before
+    public void createRepository() throws IOException {
+        if (rootDir.exists()) {
+            deleteRecursively(rootDir.toPath());
+        }
+        contentDir.mkdirs();
+        tmpRootDir.mkdirs();
+        repository = new ChunkedContentRepositoryImpl(contentDir, tmpRootDir, chunkDir, 0L, ContentRepository.LOCK_TIMEOUT);
+        repository.readWrite();
+    }
+
+    @After
+    public void destroyRepository() throws IOException {
+        deleteRecursively(rootDir.toPath());
+        repository = null;
+    }
+
+    @Test
+    public void testSimilarContentsShareChunks() throws Exception {
+        byte[] original = new byte[1024 * 1024];
+        new Random(42L).nextBytes(original);
+        byte[] modified = original.clone();
+        for (int i = 500000; i < 500100; i++) {
+            modified[i] = (byte) ~modified[i];
+        }
+        byte[] originalHash = repository.addContent(new ByteArrayInputStream(original));
+        long chunksAfterFirst = countChunks();
+        byte[] modifiedHash = repository.addContent(new ByteArrayInputStream(modified));
+        long newChunks = countChunks() - chunksAfterFirst;
+        assertTrue("Only the chunks around the change should be new, got " + newChunks + " out of " + chunksAfterFirst,
+                newChunks > 0 && newChunks <= 3);
+
+        Path originalFile = repository.getDeploymentHashDir(originalHash, false).resolve(ContentRepositoryImpl.CONTENT);
+        assertFalse(Files.exists(originalFile));
+        assertTrue(repository.hasContent(originalHash));
+        assertArrayEquals(original, Files.readAllBytes(repository.getContent(originalHash).getPhysicalFile().toPath()));
+        assertArrayEquals(modified, Files.readAllBytes(repository.getContent(modifiedHash).getPhysicalFile().toPath()));
+    }
+
+    @Test
+    public void testRemovedContentReleasesChunks() throws Exception {
+        byte[] content = new byte[256 * 1024];
+        new Random(7L).nextBytes(content);
+        byte[] hash = repository.addContent(new ByteArrayInputStream(content));
+        assertTrue(countChunks() > 0);
+        ContentReference reference = new ContentReference("test", hash);
+        repository.addContentReference(reference);
+        repository.removeContent(reference);
+        assertFalse(repository.hasContent(hash));
+        repository.cleanObsoleteContent();
+        assertThat(countChunks(), is(0L));
+    }
+
+    @Test
+    public void testReadDoesNotKeepReassembledArchive() throws Exception {
+        byte[] text = new byte[128 * 1024];
+        new Random(3L).nextBytes(text);
+        byte[] hash = repository.addContent(new ByteArrayInputStream(createArchive("data.bin", text)));
+        ContentReference reference = new ContentReference("test", hash);
+        repository.addContentReference(reference);
+        assertThat(diskUsage(contentDir.toPath()), is(0L));
+
+        try (InputStream in = repository.readContent(hash, "data.bin")) {
+            assertArrayEquals(text, readAll(in));
+        }
+        assertThat(repository.listContent(hash, "", ContentFilter.Factory.createContentFilter(-1, false)).size(), is(1));
+        // only the chunks are stored, the archive reassembled for the reads has been removed
+        assertThat(diskUsage(contentDir.toPath()), is(0L));
+        assertTrue(repository.hasContent(hash));
+    }
+
+    @Test
+    public void testReassembledArchiveIsKeptUntilTheLastReferenceIsReleased() throws Exception {
+        byte[] content = new byte[256 * 1024];
+        new Random(11L).nextBytes(content);
+        byte[] hash = repository.addContent(new ByteArrayInputStream(content));
+        ContentReference reference = new ContentReference("test", hash);
+        ContentReference otherReference = new ContentReference("other", hash);
+        repository.addContentReference(reference);
+        repository.addContentReference(otherReference);
+        Path contentFile = repository.getDeploymentHashDir(hash, false).resolve(ContentRepositoryImpl.CONTENT);
+
+        assertArrayEquals(content, Files.readAllBytes(repository.getContent(hash).getPhysicalFile().toPath()));
+        // handed out, so kept by the cleaning
+        repository.cleanObsoleteContent();
+        assertTrue(Files.exists(contentFile));
+
+        // still referenced by the other deployment
+        repository.removeContent(reference);
+        assertTrue(Files.exists(contentFile));
+        repository.cleanObsoleteContent();
+        assertTrue(Files.exists(contentFile));
+
+        repository.removeContent(otherReference);
+        assertFalse(Files.exists(contentFile));
+        assertFalse(repository.hasContent(hash));
+    }
+
+    @Test
+    public void testReadOnlyRepositoryKeepsReassembledArchive() throws Exception {
+        byte[] content = new byte[256 * 1024];
+        new Random(13L).nextBytes(content);
+        byte[] hash = repository.addContent(new ByteArrayInputStream(content));
+        ContentReference reference = new ContentReference("test", hash);
+        repository.addContentReference(reference);
+        Path contentFile = repository.getDeploymentHashDir(hash, false).resolve(ContentRepositoryImpl.CONTENT);
+        repository.getContent(hash);
+
+        repository.readOnly();
+        repository.removeContent(reference);
+        assertTrue(Files.exists(contentFile));
+        assertTrue(repository.hasContent(hash));
+    }
+
+    @Test
+    public void testReadKeepsHandedOutArchive() throws Exception {
+        byte[] text = new byte[128 * 1024];
+        new Random(5L).nextBytes(text);
+        byte[] hash = repository.addContent(new ByteArrayInputStream(createArchive("data.bin", text)));
+        repository.addContentReference(new ContentReference("test", hash));
+        Path contentFile = repository.getDeploymentHashDir(hash, false).resolve(ContentRepositoryImpl.CONTENT);
+        repository.getContent(hash);
+
+        try (InputStream in = repository.readContent(hash, "data.bin")) {
+            assertArrayEquals(text, readAll(in));
+        }
+        // the read released the archive, but it was handed out before
+        assertTrue(Files.exists(contentFile));
+    }
+
+    private static byte[] createArchive(String name, byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry(name));
+            out.write(content);
+            out.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static long diskUsage(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            long size = 0;
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private long countChunks() throws IOException {
+        try (Stream<Path> chunks = Files.walk(chunkDir.toPath().resolve(ChunkedContentRepositoryImpl.CHUNKS))) {
+            return chunks.filter(Files::isRegularFile).count();
+        }
+    }
+}
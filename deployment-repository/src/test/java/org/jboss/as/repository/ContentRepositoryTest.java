@@ -40,15 +40,20 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.security.AccessController;
+import java.security.MessageDigest;
 import java.security.PrivilegedAction;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.hamcrest.CoreMatchers;
@@ -125,6 +130,33 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test of addContent method, of class ContentRepository, with several uploads running concurrently.
+     */
+    @Test
+    public void testAddContentConcurrently() throws Exception {
+        final int count = 16;
+        final List<byte[]> contents = new ArrayList<>(count);
+        final List<Future<byte[]>> results = new ArrayList<>(count);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] content = new byte[100000 + i];
+                Arrays.fill(content, (byte) i);
+                contents.add(content);
+                results.add(executor.submit(() -> repository.addContent(new ByteArrayInputStream(content))));
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] expected = MessageDigest.getInstance("SHA-1").digest(contents.get(i));
+                byte[] result = results.get(i).get();
+                assertThat(HashUtil.bytesToHexString(result), is(HashUtil.bytesToHexString(expected)));
+                assertThat(Files.size(repository.getContent(result).getPhysicalFile().toPath()), is((long) contents.get(i).length));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test of explodeContent method, of class ContentRepository.
      */
@@ -618,6 +650,48 @@ public class ContentRepositoryTest {
 
     }
 
+    /**
+     * Test that only the locks of the same content exclude each other, and that unused locks are released.
+     */
+    @Test
+    public void testContentLocks() throws Exception {
+        final ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(rootDir, tmpRootDir, 0L, 100L);
+        // Hashes differing only in their last byte
+        final byte[] hash = HashUtil.hexStringToByteArray("aeffacd15b0f66d5081a93407d3ff5e3c65a71aa");
+        final byte[] otherHash = HashUtil.hexStringToByteArray("aeffacd15b0f66d5081a93407d3ff5e3c65a71bb");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(contentRepository.lock(hash));
+            assertTrue(executor.submit(() -> {
+                try {
+                    return contentRepository.lock(otherHash);
+                } finally {
+                    contentRepository.unlock(otherHash);
+                }
+            }).get());
+            assertFalse(executor.submit(() -> {
+                try {
+                    return contentRepository.lock(hash);
+                } finally {
+                    contentRepository.unlock(hash);
+                }
+            }).get());
+            // Reentrant for the owner
+            assertTrue(contentRepository.lock(hash));
+            contentRepository.unlock(hash);
+            contentRepository.unlock(hash);
+            assertTrue(executor.submit(() -> {
+                try {
+                    return contentRepository.lock(hash);
+                } finally {
+                    contentRepository.unlock(hash);
+                }
+            }).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private InputStream getResourceAsStream(final String name) throws IOException {
         final InputStream result = getClass().getClassLoader().getResourceAsStream(name);
         // If we're on Windows we want to replace the stream with one that ignores \r
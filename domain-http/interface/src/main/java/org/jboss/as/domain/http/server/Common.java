@@ -25,14 +25,20 @@ import static io.undertow.server.handlers.ResponseCodeHandler.HANDLE_404;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import io.undertow.io.IoCallback;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
+import io.undertow.util.QValueParser;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -49,6 +55,7 @@ public class Common {
     public static final ResponseCodeHandler INTERNAL_SERVER_ERROR = new ResponseCodeHandler(500);
     public static final ResponseCodeHandler SERVICE_UNAVAIABLE = new ResponseCodeHandler(503);
 
+    static final String APPLICATION_DMR = "application/dmr";
     static final String APPLICATION_DMR_ENCODED = "application/dmr-encoded";
     static final String APPLICATION_JSON = "application/json";
     static final String TEXT_PLAIN = "text/plain";
@@ -57,6 +64,57 @@ public class Common {
 
     static final String UTF_8 = "utf-8";
 
+    /**
+     * Selects the media type of the response from the request's {@code Accept} headers, honouring lists and
+     * q-values.
+     *
+     * @param headers the request headers
+     * @param mediaTypes the media types the response can be sent as
+     * @return the acceptable media type with the highest q-value, or {@code null} if the client doesn't explicitly
+     *         prefer any of them, in which case the default representation applies
+     */
+    static String getPreferredMediaType(HeaderMap headers, String... mediaTypes) {
+        HeaderValues accept = headers.get(Headers.ACCEPT);
+        if (accept == null || accept.isEmpty()) {
+            return null;
+        }
+        for (List<QValueParser.QValueResult> group : QValueParser.parse(accept)) {
+            // Only the group with the highest q-value that mentions a media type we can send counts, a wild card
+            // in that group means the client is as happy with the default as with anything explicitly listed
+            boolean wildCard = false;
+            for (QValueParser.QValueResult result : group) {
+                if (result.isQValueZero()) {
+                    continue;
+                }
+                String value = result.getValue();
+                int index = value.indexOf(';');
+                String type = (index < 0 ? value : value.substring(0, index)).trim();
+                for (String mediaType : mediaTypes) {
+                    if (mediaType.equalsIgnoreCase(type)) {
+                        return mediaType;
+                    }
+                }
+                if ("*/*".equals(type) || (type.endsWith("/*") && mediaTypesMatch(type, mediaTypes))) {
+                    wildCard = true;
+                }
+            }
+            if (wildCard) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean mediaTypesMatch(String wildCard, String... mediaTypes) {
+        String prefix = wildCard.substring(0, wildCard.length() - 1);
+        for (String mediaType : mediaTypes) {
+            if (mediaType.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     static void sendError(HttpServerExchange exchange, boolean encode, String msg) {
         int errorCode = getErrorResponseCode(msg);
         sendError(exchange, encode, new ModelNode(msg == null ? "" : msg), errorCode);
@@ -67,6 +125,53 @@ public class Common {
         sendError(exchange, encode, msg, errorCode);
     }
 
+    static void sendError(HttpServerExchange exchange, OperationParameter operationParameter, String msg) {
+        sendError(exchange, operationParameter, new ModelNode(msg == null ? "" : msg));
+    }
+
+    static void sendError(HttpServerExchange exchange, OperationParameter operationParameter, ModelNode msg) {
+        int errorCode = getErrorResponseCode(msg.asString());
+        if (operationParameter.isBinary()) {
+            sendBinaryError(exchange, msg, errorCode);
+        } else {
+            sendError(exchange, operationParameter.isEncode(), msg, errorCode);
+        }
+    }
+
+    static void sendError(HttpServerExchange exchange, OperationParameter operationParameter, ModelNode msg, int errorCode) {
+        if (operationParameter.isBinary()) {
+            sendBinaryError(exchange, msg, errorCode);
+        } else {
+            sendError(exchange, operationParameter.isEncode(), msg, errorCode);
+        }
+    }
+
+    /**
+     * Reads a model node written in the binary {@code application/dmr} format by {@link ModelNode#writeExternal}.
+     */
+    static ModelNode readBinary(InputStream in) throws IOException {
+        ModelNode node = new ModelNode();
+        node.readExternal(in);
+        return node;
+    }
+
+    private static void sendBinaryError(HttpServerExchange exchange, ModelNode msg, int errorCode) {
+        try {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            msg.writeExternal(bout);
+            byte[] bytes = bout.toByteArray();
+
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, APPLICATION_DMR);
+            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, String.valueOf(bytes.length));
+            exchange.setStatusCode(errorCode);
+
+            exchange.getResponseSender().send(ByteBuffer.wrap(bytes), IoCallback.END_EXCHANGE);
+        } catch (IOException e) {
+            // fallback, should not happen
+            sendError(exchange, false, msg, errorCode);
+        }
+    }
+
     static void sendError(HttpServerExchange exchange, boolean encode, ModelNode msg, int errorCode) {
         if(encode) {
 
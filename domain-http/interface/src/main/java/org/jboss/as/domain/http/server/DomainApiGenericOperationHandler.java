@@ -36,19 +36,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USE
 import static org.jboss.as.domain.http.server.DomainUtil.writeResponse;
 import static org.jboss.as.domain.http.server.logging.HttpServerLogger.ROOT_LOGGER;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.Deque;
-import java.util.Iterator;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
-import io.undertow.server.handlers.form.FormData;
-import io.undertow.server.handlers.form.FormDataParser;
-import io.undertow.server.handlers.form.FormParserFactory;
 import io.undertow.util.HeaderMap;
 import io.undertow.util.Headers;
 import org.jboss.as.controller.ModelController;
@@ -79,18 +70,16 @@ class DomainApiGenericOperationHandler implements HttpHandler {
     private static final String CLIENT_NAME = "X-Management-Client-Name";
 
     private final ModelController modelController;
-    private final FormParserFactory formParserFactory;
 
     public DomainApiGenericOperationHandler(ModelController modelController) {
         this.modelController = modelController;
-        this.formParserFactory = FormParserFactory.builder().build();
     }
 
     @Override
     public void handleRequest(final HttpServerExchange exchange) throws Exception {
-        final FormDataParser parser = formParserFactory.createParser(exchange);
-        if (parser == null) {
+        if (!MultipartFormData.isMultipartFormData(exchange)) {
             Common.UNSUPPORTED_MEDIA_TYPE.handleRequest(exchange);
+            return;
         }
 
         // Prevent CSRF which can occur from standard a multipart/form-data submission from a standard HTML form.
@@ -106,25 +95,31 @@ class DomainApiGenericOperationHandler implements HttpHandler {
         }
 
         // Parse the form data
-        final FormData data = parser.parseBlocking();
-        final OperationParameter.Builder operationParameterBuilder = new OperationParameter.Builder(false);
+        final MultipartFormData data = MultipartFormData.parse(exchange);
+        final OperationParameter.Builder operationParameterBuilder = new OperationParameter.Builder(false)
+                .binary(Common.APPLICATION_DMR.equals(Common.getPreferredMediaType(headers, Common.APPLICATION_DMR, Common.APPLICATION_JSON)));
 
         // Process the operation
-        final FormData.FormValue op = data.getFirst(OPERATION);
+        final MultipartFormData.Part op = data.getFirst(OPERATION);
         final ModelNode operation;
         try {
-            String type = op.getHeaders().getFirst(Headers.CONTENT_TYPE);
-            if (Common.APPLICATION_DMR_ENCODED.equals(type)) {
-                try (InputStream stream = convertToStream(op)) {
+            String type = stripSuffix(op.getHeaders().getFirst(Headers.CONTENT_TYPE));
+            if (Common.APPLICATION_DMR.equals(type)) {
+                try (InputStream stream = op.openStream()) {
+                    operation = Common.readBinary(stream);
+                }
+                operationParameterBuilder.binary(true);
+            } else if (Common.APPLICATION_DMR_ENCODED.equals(type)) {
+                try (InputStream stream = op.openStream()) {
                     operation = ModelNode.fromBase64(stream);
                 }
                 operationParameterBuilder.encode(true);
-            } else if (Common.APPLICATION_JSON.equals(stripSuffix(type))) {
-                try (InputStream stream = convertToStream(op)) {
+            } else if (Common.APPLICATION_JSON.equals(type)) {
+                try (InputStream stream = op.openStream()) {
                     operation = ModelNode.fromJSONStream(stream);
                 }
             } else {
-                ROOT_LOGGER.debug("Content-type must be application/dmr-encoded or application/json");
+                ROOT_LOGGER.debug("Content-type must be application/dmr, application/dmr-encoded or application/json");
                 Common.UNAUTHORIZED.handleRequest(exchange);
                 return;
             }
@@ -145,17 +140,8 @@ class DomainApiGenericOperationHandler implements HttpHandler {
 
         // Process the input streams
         final OperationBuilder builder = OperationBuilder.create(operation, true);
-        final Iterator<String> i = data.iterator();
-        while (i.hasNext()) {
-            final String name = i.next();
-            final Deque<FormData.FormValue> contents = data.get(name);
-            if (contents != null && !contents.isEmpty()) {
-                for (final FormData.FormValue value : contents) {
-                    if (value.isFile()) {
-                        builder.addFileAsAttachment(value.getPath().toFile());
-                    }
-                }
-            }
+        for (MultipartFormData.Part file : data.getFiles()) {
+            builder.addFileAsAttachment(file.getPath().toFile());
         }
 
         operationParameterBuilder.pretty(operation.hasDefined("json.pretty") && operation.get("json.pretty").asBoolean());
@@ -166,7 +152,7 @@ class DomainApiGenericOperationHandler implements HttpHandler {
             void doSendResponse(final OperationResponse operationResponse) {
                 ModelNode response = operationResponse.getResponseNode();
                 if (response.hasDefined(OUTCOME) && FAILED.equals(response.get(OUTCOME).asString())) {
-                    Common.sendError(exchange, opParam.isEncode(), response);
+                    Common.sendError(exchange, opParam, response);
                     return;
                 }
                 writeResponse(exchange, 200, response, opParam);
@@ -184,7 +170,7 @@ class DomainApiGenericOperationHandler implements HttpHandler {
             response = modelController.execute(builtOp, OperationMessageHandler.DISCARD, control);
         } catch (Throwable t) {
             ROOT_LOGGER.modelRequestError(t);
-            Common.sendError(exchange, opParam.isEncode(), t.getLocalizedMessage());
+            Common.sendError(exchange, opParam, t.getLocalizedMessage());
             return;
         } finally {
             // Close any input streams that were open
@@ -198,14 +184,6 @@ class DomainApiGenericOperationHandler implements HttpHandler {
         callback.sendResponse(response);
     }
 
-    private InputStream convertToStream(FormData.FormValue op) throws IOException {
-        if (op.isFile()) {
-            return Files.newInputStream(op.getPath());
-        } else {
-            return new ByteArrayInputStream(op.getValue().getBytes(StandardCharsets.UTF_8));
-        }
-    }
-
     private static String stripSuffix(String contentType) {
         if (contentType == null) {
             return null;
@@ -134,9 +134,13 @@ class DomainApiHandler implements HttpHandler {
         final HeaderMap requestHeaders = exchange.getRequestHeaders();
         final boolean cachable;
         final boolean get = exchange.getRequestMethod().equals(Methods.GET);
-        final boolean encode = Common.APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(Headers.ACCEPT))
+        final String accept = Common.getPreferredMediaType(requestHeaders, Common.APPLICATION_DMR, Common.APPLICATION_DMR_ENCODED, Common.APPLICATION_JSON);
+        final boolean encode = Common.APPLICATION_DMR_ENCODED.equals(accept)
                 || Common.APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(Headers.CONTENT_TYPE));
-        final OperationParameter.Builder operationParameterBuilder = new OperationParameter.Builder(get).encode(encode);
+        // Raw binary DMR, the request is only read as such if it is its content type
+        final boolean binaryRequest = Common.APPLICATION_DMR.equals(requestHeaders.getFirst(Headers.CONTENT_TYPE));
+        final boolean binary = binaryRequest || Common.APPLICATION_DMR.equals(accept);
+        final OperationParameter.Builder operationParameterBuilder = new OperationParameter.Builder(get).encode(encode).binary(binary);
         final int streamIndex = getStreamIndex(exchange, requestHeaders);
 
         try {
@@ -146,7 +150,7 @@ class DomainApiHandler implements HttpHandler {
                 dmr = convertGetRequest(exchange, operation);
                 cachable = operation.getMaxAge() > 0;
             } else {
-                dmr = convertPostRequest(exchange, encode);
+                dmr = convertPostRequest(exchange, encode, binaryRequest);
                 cachable = false;
             }
             //operationParameterBuilder.pretty(dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean());
@@ -159,7 +163,11 @@ class DomainApiHandler implements HttpHandler {
 
         } catch (Exception e) {
             ROOT_LOGGER.debugf("Unable to construct ModelNode '%s'", e.getMessage());
-            Common.sendError(exchange, false, e.toString());
+            if (binary) {
+                Common.sendError(exchange, operationParameterBuilder.build(), e.toString());
+            } else {
+                Common.sendError(exchange, false, e.toString());
+            }
             return;
         }
 
@@ -170,7 +178,7 @@ class DomainApiHandler implements HttpHandler {
                 try {
                     ModelNode responseNode = response.getResponseNode();
                     if (responseNode.hasDefined(OUTCOME) && FAILED.equals(responseNode.get(OUTCOME).asString())) {
-                        Common.sendError(exchange, encode, responseNode);
+                        Common.sendError(exchange, operationParameterBuilder.build(), responseNode);
                         return;
                     }
                     if (streamIndex < 0) {
@@ -179,7 +187,7 @@ class DomainApiHandler implements HttpHandler {
                         List<OperationResponse.StreamEntry> streamEntries = response.getInputStreams();
                         if (streamIndex >= streamEntries.size()) {
                             // invalid index
-                            Common.sendError(exchange, encode, new ModelNode(HttpServerLogger.ROOT_LOGGER.invalidUseStreamAsResponseIndex(streamIndex, streamEntries.size())), 400);
+                            Common.sendError(exchange, operationParameterBuilder.build(), new ModelNode(HttpServerLogger.ROOT_LOGGER.invalidUseStreamAsResponseIndex(streamIndex, streamEntries.size())), 400);
                         } else {
                             // writeStreamResponse will close the response
                             closeResponse = false;
@@ -225,7 +233,7 @@ class DomainApiHandler implements HttpHandler {
             }
         } catch (Throwable t) {
             ROOT_LOGGER.modelRequestError(t);
-            Common.sendError(exchange, encode, t.getLocalizedMessage());
+            Common.sendError(exchange, operationParameterBuilder.build(), t.getLocalizedMessage());
             return;
         }
 
@@ -286,9 +294,12 @@ class DomainApiHandler implements HttpHandler {
         return dmr;
     }
 
-    private ModelNode convertPostRequest(HttpServerExchange exchange, boolean encode) throws IOException {
+    private ModelNode convertPostRequest(HttpServerExchange exchange, boolean encode, boolean binary) throws IOException {
         InputStream in = new ChannelInputStream(exchange.getRequestChannel());
         try {
+            if (binary) {
+                return Common.readBinary(in);
+            }
             return encode ? ModelNode.fromBase64(in) : ModelNode.fromJSONStream(in);
         } finally {
             IoUtils.safeClose(in);
@@ -27,10 +27,12 @@ import static io.undertow.predicate.Predicates.suffixes;
 import static io.undertow.util.Headers.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
@@ -66,6 +68,8 @@ public class DomainUtil {
     private static final String DEFAULT_RESOURCE = "/" + INDEX_HTML;
     private static final String USE_STREAM_AS_RESPONSE = "useStreamAsResponse";
     private static final HttpString USE_STREAM_AS_RESPONSE_HEADER = new HttpString("org.wildfly.useStreamAsResponse");
+    // Responses up to this size are sent at once with a content length, larger ones are streamed in chunks
+    private static final int STREAMING_THRESHOLD = 64 * 1024;
 
     public static void writeResponse(final HttpServerExchange exchange, final int status, ModelNode response,
             OperationParameter operationParameter) {
@@ -73,8 +77,12 @@ public class DomainUtil {
         exchange.setStatusCode(status);
 
         final HeaderMap responseHeaders = exchange.getResponseHeaders();
-        final String contentType = operationParameter.isEncode() ? Common.APPLICATION_DMR_ENCODED : Common.APPLICATION_JSON;
-        responseHeaders.put(Headers.CONTENT_TYPE, contentType + "; charset=" + Common.UTF_8);
+        if (operationParameter.isBinary()) {
+            responseHeaders.put(Headers.CONTENT_TYPE, Common.APPLICATION_DMR);
+        } else {
+            final String contentType = operationParameter.isEncode() ? Common.APPLICATION_DMR_ENCODED : Common.APPLICATION_JSON;
+            responseHeaders.put(Headers.CONTENT_TYPE, contentType + "; charset=" + Common.UTF_8);
+        }
 
         writeCacheHeaders(exchange, status, operationParameter);
 
@@ -84,14 +92,34 @@ public class DomainUtil {
             response = response.get(RESULT);
         }
         try {
-            byte[] data = getResponseBytes(response, operationParameter);
-            responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
-            exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            if (exchange.isInIoThread()) {
+                byte[] data = getResponseBytes(response, operationParameter);
+                responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
+                exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            } else {
+                // Serialize into the response, which is streamed in chunks once it is too large to be buffered
+                try (ResponseOutputStream out = new ResponseOutputStream(exchange)) {
+                    writeResponse(response, operationParameter, out);
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static void writeResponse(final ModelNode modelNode, final OperationParameter operationParameter, final OutputStream out) throws IOException {
+        if (operationParameter.isBinary()) {
+            modelNode.writeExternal(out);
+        } else if (operationParameter.isEncode()) {
+            modelNode.writeBase64(out);
+        } else {
+            // ModelNode.writeJSONString formats compact JSON differently, so the whole JSON string is built
+            final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(modelNode.toJSONString(!operationParameter.isPretty()));
+            writer.flush();
+        }
+    }
+
 
     static void writeStreamResponse(final HttpServerExchange exchange,
                                      final OperationResponse operationResponse,
@@ -169,16 +197,69 @@ public class DomainUtil {
         return "application/octet-stream";
     }
 
-    private static byte[] getResponseBytes(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
-        if (operationParameter.isEncode()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            BufferedOutputStream out = new BufferedOutputStream(baos);
-            modelNode.writeBase64(out);
-            out.flush();
-            return baos.toByteArray();
-        } else {
-            String json = modelNode.toJSONString(!operationParameter.isPretty());
-            return json.getBytes(StandardCharsets.UTF_8);
+    static byte[] getResponseBytes(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeResponse(modelNode, operationParameter, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Buffers a response until it exceeds {@link #STREAMING_THRESHOLD}, in which case it is written to the blocking
+     * response stream, which sends it in chunks as the client reads it, otherwise it is sent at once with its length.
+     */
+    private static final class ResponseOutputStream extends OutputStream {
+
+        private final HttpServerExchange exchange;
+        private byte[] buffer = new byte[1024];
+        private int count;
+        private OutputStream stream;
+
+        private ResponseOutputStream(final HttpServerExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (stream == null && count < buffer.length) {
+                buffer[count++] = (byte) b;
+            } else {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (stream == null) {
+                if (count + len <= STREAMING_THRESHOLD) {
+                    if (count + len > buffer.length) {
+                        byte[] grown = new byte[Math.min(STREAMING_THRESHOLD, Math.max(count + len, buffer.length << 1))];
+                        System.arraycopy(buffer, 0, grown, 0, count);
+                        buffer = grown;
+                    }
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                // Too large to buffer, no content length is set so the response is chunked
+                if (!exchange.isBlocking()) {
+                    exchange.startBlocking();
+                }
+                stream = exchange.getOutputStream();
+                stream.write(buffer, 0, count);
+                buffer = null;
+            }
+            stream.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            } else if (buffer != null) {
+                exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, count);
+                exchange.getResponseSender().send(ByteBuffer.wrap(buffer, 0, count));
+                buffer = null;
+            }
         }
     }
 
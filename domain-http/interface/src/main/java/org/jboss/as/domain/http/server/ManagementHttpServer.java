@@ -78,6 +78,9 @@ import org.xnio.conduits.StreamSinkConduit;
 import org.xnio.ssl.SslConnection;
 import org.xnio.ssl.XnioSsl;
 
+import io.undertow.conduits.GzipStreamSourceConduit;
+import io.undertow.conduits.InflatingStreamSourceConduit;
+import io.undertow.predicate.Predicates;
 import io.undertow.protocols.ssl.UndertowXnioSsl;
 import io.undertow.security.handlers.AuthenticationCallHandler;
 import io.undertow.security.handlers.AuthenticationConstraintHandler;
@@ -94,6 +97,11 @@ import io.undertow.server.handlers.ResponseCodeHandler;
 import io.undertow.server.handlers.SetHeaderHandler;
 import io.undertow.server.handlers.cache.CacheHandler;
 import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.server.handlers.encoding.DeflateEncodingProvider;
+import io.undertow.server.handlers.encoding.EncodingHandler;
+import io.undertow.server.handlers.encoding.GzipEncodingProvider;
+import io.undertow.server.handlers.encoding.RequestEncodingHandler;
 import io.undertow.server.handlers.error.SimpleErrorPageHandler;
 import io.undertow.server.handlers.resource.ResourceManager;
 import io.undertow.server.protocol.http.HttpOpenListener;
@@ -309,15 +317,20 @@ public class ManagementHttpServer {
         private final Set<String> extensionContexts = new HashSet<>();
 
         private ExtensionHandlers(PathHandler extensionPathHandler, HttpHandler managementHandler,
-                Function<HttpServerExchange, Boolean> readyFunction, ResourceHandlerDefinition consoleHandler) {
+                Function<HttpServerExchange, Boolean> readyFunction, ResourceHandlerDefinition consoleHandler, boolean metricsEnabled) {
             this.extensionPathHandler = extensionPathHandler;
             this.managementHandler = managementHandler;
             this.readyFunction = readyFunction;
-            if (consoleHandler == null) {
+            if (consoleHandler == null && !metricsEnabled) {
                 this.reservedContexts = RESERVED_CONTEXTS;
             } else {
                 Set<String> set = new HashSet<>(RESERVED_CONTEXTS);
-                set.add(consoleHandler.getContext());
+                if (consoleHandler != null) {
+                    set.add(consoleHandler.getContext());
+                }
+                if (metricsEnabled) {
+                    set.add(MetricsHandler.PATH);
+                }
                 this.reservedContexts = Collections.unmodifiableSet(set);
             }
         }
@@ -362,12 +375,12 @@ public class ManagementHttpServer {
         }
 
         ManagementRootConsoleRedirectHandler rootConsoleRedirectHandler = new ManagementRootConsoleRedirectHandler(consoleHandler);
-        HttpHandler domainApiHandler = StreamReadLimitHandler.wrap(CorrelationHandler.wrap(
+        HttpHandler domainApiHandler = addContentEncoding(StreamReadLimitHandler.wrap(CorrelationHandler.wrap(
                 InExecutorHandler.wrap(
                     builder.executor,
                     associateIdentity(new DomainApiCheckHandler(builder.modelController, builder.controlledProcessStateService,
                         builder.allowedOrigins), builder)
-                )));
+                ))));
 
         final Function<HttpServerExchange, Boolean> readyFunction = createReadyFunction(builder);
         pathHandler.addPrefixPath("/", rootConsoleRedirectHandler);
@@ -378,8 +391,37 @@ public class ManagementHttpServer {
         domainApiHandler = secureDomainAccess(domainApiHandler, builder);
         HttpHandler readinessHandler = addDmrRedinessHandler(pathHandler, domainApiHandler, readyFunction);
         addLogoutHandler(pathHandler, builder);
+        if (builder.metricsEnabled) {
+            addMetricsHandler(pathHandler, builder, readyFunction);
+        }
+
+        return new ExtensionHandlers(pathHandler, readinessHandler, readyFunction, consoleHandler, builder.metricsEnabled);
+    }
 
-        return new ExtensionHandlers(pathHandler, readinessHandler, readyFunction, consoleHandler);
+    /**
+     * Serves the metrics through the same executor, request limits, authentication and identity association as the
+     * management API.
+     */
+    private static void addMetricsHandler(PathHandler pathHandler, Builder builder, Function<HttpServerExchange, Boolean> readyFunction) {
+        HttpHandler metricsHandler = addContentEncoding(StreamReadLimitHandler.wrap(CorrelationHandler.wrap(
+                InExecutorHandler.wrap(builder.executor, associateIdentity(new MetricsHandler(builder.modelController), builder)))));
+        metricsHandler = secureDomainAccess(metricsHandler, builder);
+        pathHandler.addExactPath(MetricsHandler.PATH, wrapXFrameOptions(
+                new DmrFailureReadinessHandler(readyFunction, metricsHandler, ErrorContextHandler.ERROR_CONTEXT)));
+    }
+
+    /**
+     * Compresses responses with gzip or deflate if the client accepts it, and decompresses requests sent with either
+     * content encoding. The request is decompressed before any other handler reads it, so that the size of a request
+     * is always checked against what the management API actually reads.
+     */
+    private static HttpHandler addContentEncoding(HttpHandler domainHandler) {
+        domainHandler = new EncodingHandler(domainHandler, new ContentEncodingRepository()
+                .addEncodingHandler(Headers.GZIP.toString(), new GzipEncodingProvider(), 50, Predicates.truePredicate())
+                .addEncodingHandler(Headers.DEFLATE.toString(), new DeflateEncodingProvider(), 10, Predicates.truePredicate()));
+        return new RequestEncodingHandler(domainHandler)
+                .addEncoding(Headers.GZIP.toString(), GzipStreamSourceConduit.WRAPPER)
+                .addEncoding(Headers.DEFLATE.toString(), InflatingStreamSourceConduit.WRAPPER);
     }
 
     private static HttpHandler associateIdentity(HttpHandler domainHandler, final Builder builder) {
@@ -467,6 +509,7 @@ public class ManagementHttpServer {
         private Collection<String> allowedOrigins;
         private XnioWorker worker;
         private Executor executor;
+        private boolean metricsEnabled;
 
         private Builder() {
         }
@@ -584,6 +627,20 @@ public class ManagementHttpServer {
             return this;
         }
 
+        /**
+         * Set whether the metrics of the management model are served in the Prometheus and OpenMetrics text formats
+         * under the {@code /metrics} context.
+         *
+         * @param metricsEnabled {@code true} to serve the metrics.
+         * @return {@code this} to allow chaining of commands.
+         */
+        public Builder setMetricsEnabled(boolean metricsEnabled) {
+            assertNotBuilt();
+            this.metricsEnabled = metricsEnabled;
+
+            return this;
+        }
+
         public ManagementHttpServer build() {
             assertNotBuilt();
 
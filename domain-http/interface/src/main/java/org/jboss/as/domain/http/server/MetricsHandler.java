@@ -0,0 +1,500 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CALLER_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MODEL_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
+import static org.jboss.as.domain.http.server.logging.HttpServerLogger.ROOT_LOGGER;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.as.core.security.api.RealmPrincipal;
+import org.jboss.as.domain.http.server.security.ElytronIdentityHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.security.auth.server.SecurityIdentity;
+
+/**
+ * Serves the metrics of the management model in the Prometheus text format, or in the OpenMetrics text format if
+ * the client accepts it.
+ * <p/>
+ * The metric attributes of all the resource types are found by walking the resource descriptions. The walk is reused
+ * until the {@linkplain ModelController#getRegistrationStamp() registration stamp} of the model controller changes,
+ * i.e. until a resource type, attribute or operation is registered or unregistered. The walk is executed on behalf of
+ * the caller and so only sees the resource types it can address, hence it is only reused for callers which are mapped
+ * to the same roles, i.e. with the same name, realm and groups. A scrape executes a composite of a
+ * {@code read-metrics} operation per resource type on behalf of the caller, so the values are subject to the same
+ * access control as the management API: resources that the caller can't address and attributes it can't read are
+ * left out, along with the description of a metric that has no value to show. A resource type whose read fails, e.g.
+ * because its resource doesn't exist, would fail the whole composite, so it is read on its own until it succeeds.
+ * <p/>
+ * A metric is named after the address of its resource type and the attribute, e.g. the {@code busy-task-thread-count}
+ * attribute of {@code subsystem=io/worker=*} is {@code wildfly_io_worker_busy_task_thread_count}, and each wildcard of
+ * the address gives a label, here {@code worker}. If that name is already taken by a metric with other labels, the
+ * metric is named after the keys and values of the whole address instead, e.g.
+ * {@code wildfly_subsystem_io_worker_busy_task_thread_count}, as a metric family has a single set of labels.
+ */
+class MetricsHandler implements HttpHandler {
+
+    static final String PATH = "/metrics";
+
+    private static final String OPENMETRICS = "application/openmetrics-text";
+    private static final String OPENMETRICS_CONTENT_TYPE = OPENMETRICS + "; version=1.0.0; charset=utf-8";
+    private static final String PROMETHEUS_CONTENT_TYPE = Common.TEXT_PLAIN + "; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "wildfly";
+    private static final int MAX_PLANS = 16;
+    private static final Set<ModelType> NUMERIC_TYPES = Collections.unmodifiableSet(EnumSet.of(ModelType.INT, ModelType.LONG,
+            ModelType.DOUBLE, ModelType.BIG_INTEGER, ModelType.BIG_DECIMAL, ModelType.BOOLEAN));
+
+    private final ModelController modelController;
+    // Keyed by the caller, as the walk only sees what the caller can address
+    private final Map<String, Plan> plans = new LinkedHashMap<String, Plan>(MAX_PLANS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    MetricsHandler(ModelController modelController) {
+        this.modelController = modelController;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (!Methods.GET.equals(exchange.getRequestMethod())) {
+            Common.METHOD_NOT_ALLOWED_HANDLER.handleRequest(exchange);
+            return;
+        }
+        final boolean openMetrics = OPENMETRICS.equals(Common.getPreferredMediaType(exchange.getRequestHeaders(), OPENMETRICS, Common.TEXT_PLAIN));
+
+        final Plan current;
+        final ModelNode[] results;
+        try {
+            current = getPlan(getCallerKey(exchange.getAttachment(ElytronIdentityHandler.IDENTITY_KEY)));
+            results = read(current);
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Unable to collect the metrics");
+            Common.INTERNAL_SERVER_ERROR.handleRequest(exchange);
+            return;
+        }
+
+        exchange.setStatusCode(200);
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, openMetrics ? OPENMETRICS_CONTENT_TYPE : PROMETHEUS_CONTENT_TYPE);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getOutputStream(), StandardCharsets.UTF_8))) {
+            current.write(writer, results);
+            if (openMetrics) {
+                writer.write("# EOF\n");
+            }
+        }
+    }
+
+    private Plan getPlan(String callerKey) throws IOException {
+        Plan current;
+        synchronized (plans) {
+            current = plans.get(callerKey);
+        }
+        if (current == null || !current.isValid(modelController.getRegistrationStamp())) {
+            // Read before the walk, so that a concurrent registration change invalidates the plan
+            final long registrationStamp = modelController.getRegistrationStamp();
+            final ModelNode operation = Util.createEmptyOperation(READ_RESOURCE_DESCRIPTION_OPERATION, PathAddress.EMPTY_ADDRESS);
+            operation.get(RECURSIVE).set(true);
+            final ModelNode response = execute(operation);
+            if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+                throw new IOException(response.get(FAILURE_DESCRIPTION).asString());
+            }
+            current = new Plan(registrationStamp, response.get(RESULT));
+            synchronized (plans) {
+                plans.put(callerKey, current);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reads the metrics of a plan, the resource types which are known to fail on their own and the others in a single
+     * composite operation.
+     *
+     * @return the result of the {@code read-metrics} operation of each resource type, or {@code null} if it failed
+     */
+    private ModelNode[] read(Plan plan) throws IOException {
+        final ModelNode[] results = new ModelNode[plan.operations.size()];
+        final List<Integer> batched = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (plan.failing.contains(i)) {
+                final ModelNode response = execute(plan.operations.get(i));
+                if (SUCCESS.equals(response.get(OUTCOME).asString())) {
+                    results[i] = response.get(RESULT);
+                    plan.failing.remove(i);
+                }
+            } else {
+                batched.add(i);
+            }
+        }
+        while (!batched.isEmpty()) {
+            final ModelNode composite = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+            final ModelNode steps = composite.get(STEPS).setEmptyList();
+            for (int index : batched) {
+                steps.add(plan.operations.get(index));
+            }
+            final ModelNode response = execute(composite);
+            if (SUCCESS.equals(response.get(OUTCOME).asString())) {
+                for (int i = 0; i < batched.size(); i++) {
+                    results[batched.get(i)] = response.get(RESULT, "step-" + (i + 1), RESULT);
+                }
+                break;
+            }
+            // The steps that failed on their own are set apart, the others were only rolled back along with them
+            boolean failed = false;
+            int step = 1;
+            for (Iterator<Integer> iterator = batched.iterator(); iterator.hasNext(); step++) {
+                final Integer index = iterator.next();
+                if (response.get(RESULT, "step-" + step).hasDefined(FAILURE_DESCRIPTION)) {
+                    iterator.remove();
+                    plan.failing.add(index);
+                    failed = true;
+                }
+            }
+            if (!failed) {
+                throw new IOException(response.get(FAILURE_DESCRIPTION).asString());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Identifies the caller by what it is mapped to roles from: its name, its realm and its groups.
+     */
+    private static String getCallerKey(SecurityIdentity identity) {
+        if (identity == null) {
+            return "";
+        }
+        final StringBuilder key = new StringBuilder();
+        final Principal principal = identity.getPrincipal();
+        if (principal instanceof RealmPrincipal && ((RealmPrincipal) principal).getRealm() != null) {
+            key.append(((RealmPrincipal) principal).getRealm());
+        }
+        key.append('\0').append(principal.getName());
+        final Set<String> groups = new TreeSet<>();
+        for (String role : identity.getRoles()) {
+            groups.add(role);
+        }
+        for (String group : groups) {
+            key.append('\0').append(group);
+        }
+        return key.toString();
+    }
+
+    private ModelNode execute(ModelNode template) throws IOException {
+        // The operations of a plan are shared by concurrent scrapes
+        final ModelNode operation = template.clone();
+        final ModelNode headers = operation.get(OPERATION_HEADERS);
+        headers.get(ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
+        headers.get(CALLER_TYPE).set(USER);
+        try (OperationResponse response = modelController.execute(new OperationBuilder(operation).build(), OperationMessageHandler.logging,
+                ModelController.OperationTransactionControl.COMMIT)) {
+            return response.getResponseNode();
+        }
+    }
+
+    /**
+     * The metrics found by walking the resource descriptions, along with the operations reading them.
+     */
+    private static final class Plan {
+
+        private final long registrationStamp;
+        private final List<PathAddress> patterns = new ArrayList<>();
+        private final List<ModelNode> operations = new ArrayList<>();
+        // Keyed by the name of the metric, several resource types may give metrics of the same name
+        private final Map<String, Family> families = new LinkedHashMap<>();
+        // The indexes of the operations which failed the last time they were read
+        private final Set<Integer> failing = ConcurrentHashMap.newKeySet();
+
+        private Plan(long registrationStamp, ModelNode description) {
+            this.registrationStamp = registrationStamp;
+            walk(PathAddress.EMPTY_ADDRESS, description);
+        }
+
+        private boolean isValid(long currentStamp) {
+            // A model controller that doesn't track its registration changes gets a new walk every time
+            return registrationStamp != 0 && currentStamp == registrationStamp;
+        }
+
+        private void walk(PathAddress address, ModelNode description) {
+            if (description.hasDefined(ATTRIBUTES)) {
+                final ModelNode operation = Util.createEmptyOperation(READ_METRICS_OPERATION, address);
+                final ModelNode names = operation.get(ATTRIBUTES).setEmptyList();
+                int index = 0;
+                for (String attribute : description.get(ATTRIBUTES).keys()) {
+                    final ModelNode attributeDescription = description.get(ATTRIBUTES, attribute);
+                    if (AttributeAccess.AccessType.METRIC.toString().equals(attributeDescription.get(ACCESS_TYPE).asString())
+                            && attributeDescription.hasDefined(TYPE)
+                            && NUMERIC_TYPES.contains(attributeDescription.get(TYPE).asType())) {
+                        final Family family = getFamily(address, attribute, attributeDescription);
+                        if (family == null) {
+                            ROOT_LOGGER.debugf("Skipping the %s metric of %s as its name is already taken", attribute, address);
+                            continue;
+                        }
+                        family.sources.add(new Source(operations.size(), index++));
+                        names.add(attribute);
+                    }
+                }
+                if (index > 0) {
+                    patterns.add(address);
+                    operations.add(operation);
+                }
+            }
+            if (description.hasDefined(CHILDREN)) {
+                for (String type : description.get(CHILDREN).keys()) {
+                    final ModelNode child = description.get(CHILDREN, type);
+                    if (child.hasDefined(MODEL_DESCRIPTION)) {
+                        for (String value : child.get(MODEL_DESCRIPTION).keys()) {
+                            walk(address.append(PathElement.pathElement(type, value)), child.get(MODEL_DESCRIPTION, value));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets the family of a metric, which is created if it is the first metric of that name. Metrics of the same name
+         * must have the same labels, otherwise the metric is named after its whole address.
+         *
+         * @return the family or {@code null} if both names are taken by metrics with other labels
+         */
+        private Family getFamily(PathAddress address, String attribute, ModelNode attributeDescription) {
+            final List<String> labels = new ArrayList<>();
+            for (PathElement element : address) {
+                if (element.isWildcard()) {
+                    labels.add(sanitize(element.getKey()));
+                }
+            }
+            for (String name : new String[] {getMetricName(address, attribute, false), getMetricName(address, attribute, true)}) {
+                Family family = families.get(name);
+                if (family == null) {
+                    family = new Family(name, labels, attributeDescription.hasDefined(DESCRIPTION) ? attributeDescription.get(DESCRIPTION).asString() : attribute);
+                    families.put(name, family);
+                    return family;
+                } else if (family.labels.equals(labels)) {
+                    return family;
+                }
+            }
+            return null;
+        }
+
+        private void write(Writer writer, ModelNode[] results) throws IOException {
+            for (Family family : families.values()) {
+                // The description of a metric is only written along with a value, so a caller doesn't learn about
+                // the metrics of resources it can't address or attributes it can't read
+                boolean described = false;
+                for (Source source : family.sources) {
+                    final ModelNode result = results[source.operation];
+                    if (result == null) {
+                        continue;
+                    }
+                    final PathAddress pattern = patterns.get(source.operation);
+                    if (pattern.isMultiTarget()) {
+                        for (ModelNode item : result.asList()) {
+                            if (SUCCESS.equals(item.get(OUTCOME).asString()) && item.hasDefined(RESULT)) {
+                                described = writeSample(writer, family, described, pattern, PathAddress.pathAddress(item.get(ADDRESS)), item.get(RESULT).get(source.index));
+                            }
+                        }
+                    } else {
+                        described = writeSample(writer, family, described, pattern, pattern, result.get(source.index));
+                    }
+                }
+            }
+        }
+
+        private static boolean writeSample(Writer writer, Family family, boolean described, PathAddress pattern, PathAddress address, ModelNode value) throws IOException {
+            if (!value.isDefined()) {
+                return described;
+            }
+            final String name = family.name;
+            if (!described) {
+                writer.write("# HELP ");
+                writer.write(name);
+                writer.write(' ');
+                writer.write(escape(family.help, false));
+                writer.write("\n# TYPE ");
+                writer.write(name);
+                writer.write(" gauge\n");
+            }
+            writer.write(name);
+            boolean first = true;
+            for (int i = 0; i < pattern.size(); i++) {
+                final PathElement element = pattern.getElement(i);
+                if (element.isWildcard()) {
+                    writer.write(first ? '{' : ',');
+                    first = false;
+                    writer.write(sanitize(element.getKey()));
+                    writer.write("=\"");
+                    writer.write(escape(address.getElement(i).getValue(), true));
+                    writer.write('"');
+                }
+            }
+            if (!first) {
+                writer.write('}');
+            }
+            writer.write(' ');
+            writer.write(formatValue(value));
+            writer.write('\n');
+            return true;
+        }
+
+        private static String formatValue(ModelNode value) {
+            switch (value.getType()) {
+                case BOOLEAN:
+                    return value.asBoolean() ? "1" : "0";
+                case DOUBLE:
+                    final double d = value.asDouble();
+                    if (Double.isNaN(d)) {
+                        return "NaN";
+                    } else if (Double.isInfinite(d)) {
+                        return d > 0 ? "+Inf" : "-Inf";
+                    }
+                    return Double.toString(d);
+                default:
+                    return value.asString();
+            }
+        }
+
+        /**
+         * Names a metric after the address of its resource type: the value of an element, or its key if the value is
+         * a wildcard, as the value is then a label. The full name has the key of every element, and the value of those
+         * which aren't wildcards.
+         */
+        private static String getMetricName(PathAddress address, String attribute, boolean full) {
+            final StringBuilder name = new StringBuilder(PREFIX);
+            for (PathElement element : address) {
+                if (full) {
+                    name.append('_').append(element.getKey());
+                    if (!element.isWildcard()) {
+                        name.append('_').append(element.getValue());
+                    }
+                } else {
+                    name.append('_').append(element.isWildcard() ? element.getKey() : element.getValue());
+                }
+            }
+            name.append('_').append(attribute);
+            return sanitize(name.toString());
+        }
+
+        private static String sanitize(String name) {
+            final StringBuilder sanitized = new StringBuilder(name.length());
+            for (int i = 0; i < name.length(); i++) {
+                final char c = name.charAt(i);
+                sanitized.append((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9' && i > 0) || c == '_' ? c : '_');
+            }
+            return sanitized.toString();
+        }
+
+        private static String escape(String value, boolean quotes) {
+            final StringBuilder escaped = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == '\\') {
+                    escaped.append("\\\\");
+                } else if (c == '\n') {
+                    escaped.append("\\n");
+                } else if (c == '"' && quotes) {
+                    escaped.append("\\\"");
+                } else {
+                    escaped.append(c);
+                }
+            }
+            return escaped.toString();
+        }
+    }
+
+    private static final class Family {
+        private final String name;
+        private final List<String> labels;
+        private final String help;
+        private final List<Source> sources = new ArrayList<>();
+
+        private Family(String name, List<String> labels, String help) {
+            this.name = name;
+            this.labels = labels;
+            this.help = help;
+        }
+    }
+
+    /**
+     * The position of the values of a metric in the results of the read-metrics operations.
+     */
+    private static final class Source {
+        private final int operation;
+        private final int index;
+
+        private Source(int operation, int index) {
+            this.operation = operation;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.MultipartParser;
+import org.xnio.IoUtils;
+
+/**
+ * The parts of a {@code multipart/form-data} request. Unlike {@link io.undertow.server.handlers.form.FormData} the
+ * content of a part without a file name is kept as the raw bytes that were sent, so that binary content such as an
+ * {@code application/dmr} operation isn't decoded as text. Parts with a file name are stored in temporary files
+ * which are deleted once the exchange completes.
+ */
+final class MultipartFormData {
+
+    private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+
+    private final Map<String, Deque<Part>> parts = new LinkedHashMap<>();
+
+    private MultipartFormData() {
+    }
+
+    /**
+     * Whether the request is a {@code multipart/form-data} request that can be {@link #parse(HttpServerExchange) parsed}.
+     *
+     * @param exchange the exchange
+     * @return {@code true} if the request has a {@code multipart/form-data} content type with a boundary
+     */
+    static boolean isMultipartFormData(final HttpServerExchange exchange) {
+        final String contentType = exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE);
+        return contentType != null && contentType.toLowerCase(Locale.ENGLISH).startsWith(MULTIPART_FORM_DATA)
+                && Headers.extractQuotedValueFromHeader(contentType, "boundary") != null;
+    }
+
+    /**
+     * Reads the body of a {@code multipart/form-data} request, the exchange must be in blocking mode.
+     *
+     * @param exchange the exchange
+     * @return the parts
+     * @throws IOException if the body can't be read or isn't a complete multipart message
+     */
+    static MultipartFormData parse(final HttpServerExchange exchange) throws IOException {
+        assert isMultipartFormData(exchange);
+        final String contentType = exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE);
+        final String boundary = Headers.extractQuotedValueFromHeader(contentType, "boundary");
+        final MultipartFormData data = new MultipartFormData();
+        final PartCollector collector = new PartCollector(data);
+        exchange.addExchangeCompleteListener((completed, next) -> {
+            data.deleteFiles();
+            next.proceed();
+        });
+        final MultipartParser.ParseState state = MultipartParser.beginParse(exchange.getConnection().getByteBufferPool(),
+                collector, boundary.getBytes(StandardCharsets.US_ASCII), exchange.getRequestCharset());
+        try {
+            final InputStream in = exchange.getInputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while (!state.isComplete() && (read = in.read(buffer)) != -1) {
+                state.parse(ByteBuffer.wrap(buffer, 0, read));
+            }
+            if (!state.isComplete()) {
+                throw new IOException("Incomplete multipart/form-data request");
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            collector.close();
+        }
+        return data;
+    }
+
+    /**
+     * Gets the first part of the given name.
+     *
+     * @param name the name of the part
+     * @return the part or {@code null} if there isn't a part with that name
+     */
+    Part getFirst(final String name) {
+        final Deque<Part> named = parts.get(name);
+        return named == null ? null : named.peekFirst();
+    }
+
+    /**
+     * Gets the parts which were sent with a file name, grouped by name in the order the names were first seen.
+     *
+     * @return the file parts
+     */
+    List<Part> getFiles() {
+        final List<Part> files = new ArrayList<>();
+        for (Deque<Part> named : parts.values()) {
+            for (Part part : named) {
+                if (part.isFile()) {
+                    files.add(part);
+                }
+            }
+        }
+        return files;
+    }
+
+    private void add(final Part part) {
+        parts.computeIfAbsent(part.name, k -> new ArrayDeque<>()).add(part);
+    }
+
+    private void deleteFiles() {
+        for (Deque<Part> named : parts.values()) {
+            for (Part part : named) {
+                if (part.file != null) {
+                    try {
+                        Files.deleteIfExists(part.file);
+                    } catch (IOException e) {
+                        // Nothing more can be done, the file is in the temporary directory anyway
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A single part of the request.
+     */
+    static final class Part {
+
+        private final String name;
+        private final String fileName;
+        private final HeaderMap headers;
+        private byte[] content;
+        private Path file;
+
+        private Part(final String name, final String fileName, final HeaderMap headers) {
+            this.name = name;
+            this.fileName = fileName;
+            this.headers = headers;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getFileName() {
+            return fileName;
+        }
+
+        HeaderMap getHeaders() {
+            return headers;
+        }
+
+        boolean isFile() {
+            return file != null;
+        }
+
+        Path getPath() {
+            return file;
+        }
+
+        /**
+         * Opens the content of the part exactly as it was sent.
+         *
+         * @return a stream of the part's bytes
+         * @throws IOException if the temporary file of a file part can't be opened
+         */
+        InputStream openStream() throws IOException {
+            return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(content);
+        }
+    }
+
+    private static final class PartCollector implements MultipartParser.PartHandler {
+
+        private final MultipartFormData data;
+        private final ByteArrayOutputStream contentBytes = new ByteArrayOutputStream();
+        private Part current;
+        private FileChannel fileChannel;
+
+        private PartCollector(final MultipartFormData data) {
+            this.data = data;
+        }
+
+        @Override
+        public void beginPart(final HeaderMap headers) {
+            final String disposition = headers.getFirst(Headers.CONTENT_DISPOSITION);
+            String name = null;
+            String fileName = null;
+            if (disposition != null && disposition.startsWith("form-data")) {
+                name = Headers.extractQuotedValueFromHeader(disposition, "name");
+                fileName = Headers.extractQuotedValueFromHeaderWithEncoding(disposition, "filename");
+            }
+            current = new Part(name, fileName, headers);
+            contentBytes.reset();
+        }
+
+        @Override
+        public void data(final ByteBuffer buffer) throws IOException {
+            if (current.fileName != null) {
+                if (fileChannel == null) {
+                    createFile();
+                    fileChannel = FileChannel.open(current.file, StandardOpenOption.WRITE);
+                }
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+            } else {
+                final byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                contentBytes.write(bytes);
+            }
+        }
+
+        @Override
+        public void endPart() {
+            if (current.fileName != null) {
+                if (fileChannel == null) {
+                    // An empty file, there was no data to create it
+                    try {
+                        createFile();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                } else {
+                    IoUtils.safeClose(fileChannel);
+                    fileChannel = null;
+                }
+            } else if (current.name != null) {
+                current.content = contentBytes.toByteArray();
+                data.add(current);
+            }
+            current = null;
+        }
+
+        private void createFile() throws IOException {
+            current.file = Files.createTempFile("wildfly-management-", ".upload");
+            // Registered straight away so the file is deleted even if the request fails part way through
+            data.add(current);
+        }
+
+        void close() {
+            IoUtils.safeClose(fileChannel);
+        }
+    }
+}
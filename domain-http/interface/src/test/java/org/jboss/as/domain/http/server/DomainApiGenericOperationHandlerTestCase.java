@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+
+import io.undertow.Undertow;
+import io.undertow.server.handlers.BlockingHandler;
+import io.undertow.server.handlers.PathHandler;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.registry.NotificationHandlerRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xnio.IoUtils;
+
+/**
+ * Tests of the binary {@code application/dmr} request and response handling of the
+ * {@link DomainApiGenericOperationHandler} and the {@link DomainApiHandler}, and of the {@code Accept} header negotiation.
+ */
+public class DomainApiGenericOperationHandlerTestCase {
+
+    private static final String BOUNDARY = "----boundary0123456789";
+    /** Not valid in any single byte charset, and not valid UTF-8 once written by writeExternal */
+    private static final String TEXT = "café € 😀";
+
+    private Undertow server;
+    private int port;
+
+    @Before
+    public void startServer() {
+        ModelController controller = new EchoModelController();
+        server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(new BlockingHandler(new PathHandler()
+                        .addExactPath("/management", new DomainApiHandler(controller))
+                        .addExactPath("/management-upload", new DomainApiGenericOperationHandler(controller))))
+                .build();
+        server.start();
+        port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testBinaryRequestAndResponse() throws Exception {
+        ModelNode op = createOperation();
+        HttpURLConnection connection = post(Common.APPLICATION_DMR, toBytes(op), Common.APPLICATION_DMR, null);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(Common.APPLICATION_DMR, connection.getContentType());
+        ModelNode response;
+        try (InputStream in = connection.getInputStream()) {
+            response = Common.readBinary(in);
+        }
+        assertEquals(SUCCESS, response.get(OUTCOME).asString());
+        assertEquals(TEXT, response.get(RESULT, "value").asString());
+        assertEquals(0, response.get(RESULT, "attachments").asInt());
+    }
+
+    @Test
+    public void testBinaryRequestWithCharsetIsNotDecoded() throws Exception {
+        ModelNode op = createOperation();
+        HttpURLConnection connection = post(Common.APPLICATION_DMR + "; charset=utf-8", toBytes(op), Common.APPLICATION_DMR, null);
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(TEXT, Common.readBinary(in).get(RESULT, "value").asString());
+        }
+    }
+
+    @Test
+    public void testBinaryRequestWithAttachment() throws Exception {
+        byte[] attachment = new byte[] {0, 1, (byte) 0x80, (byte) 0xff, '\r', '\n'};
+        HttpURLConnection connection = post(Common.APPLICATION_DMR, toBytes(createOperation()), Common.APPLICATION_DMR, attachment);
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            ModelNode response = Common.readBinary(in);
+            assertEquals(1, response.get(RESULT, "attachments").asInt());
+            ModelNode bytes = response.get(RESULT, "attachment-bytes");
+            assertEquals(attachment.length, bytes.asBytes().length);
+            for (int i = 0; i < attachment.length; i++) {
+                assertEquals(attachment[i], bytes.asBytes()[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testDomainApiBinaryRequestAndResponse() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, "/management").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", Common.APPLICATION_DMR);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(toBytes(createOperation()));
+        }
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(Common.APPLICATION_DMR, connection.getContentType());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(TEXT, Common.readBinary(in).get(RESULT, "value").asString());
+        }
+    }
+
+    @Test
+    public void testAcceptQValues() throws Exception {
+        byte[] json = createOperation().toJSONString(true).getBytes(StandardCharsets.UTF_8);
+
+        HttpURLConnection connection = post(Common.APPLICATION_JSON, json, "application/json;q=0.5, application/dmr", null);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(Common.APPLICATION_DMR, connection.getContentType());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(TEXT, Common.readBinary(in).get(RESULT, "value").asString());
+        }
+
+        connection = post(Common.APPLICATION_JSON, json, "application/dmr;q=0.1, application/json", null);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(Common.APPLICATION_JSON + "; charset=utf-8", connection.getContentType());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(TEXT, ModelNode.fromJSONStream(in).get(RESULT, "value").asString());
+        }
+    }
+
+    @Test
+    public void testPreferredMediaType() {
+        assertNull(preferred());
+        assertNull(preferred("*/*"));
+        assertNull(preferred("text/html, application/*;q=0.8"));
+        assertNull(preferred("application/dmr;q=0"));
+        assertEquals(Common.APPLICATION_DMR, preferred("application/dmr"));
+        assertEquals(Common.APPLICATION_DMR, preferred("text/html", "application/dmr;q=0.9"));
+        assertEquals(Common.APPLICATION_DMR_ENCODED, preferred("application/json;q=0.2,application/dmr-encoded;q=0.5"));
+        assertEquals(Common.APPLICATION_JSON, preferred("application/dmr;q=0.5, application/json"));
+        assertEquals(Common.APPLICATION_DMR, preferred("Application/DMR; q=1.0, */*;q=0.1"));
+        assertNull(preferred("*/*, application/dmr;q=0.5"));
+    }
+
+    private static String preferred(String... accept) {
+        HeaderMap headers = new HeaderMap();
+        for (String value : accept) {
+            headers.add(Headers.ACCEPT, value);
+        }
+        return Common.getPreferredMediaType(headers, Common.APPLICATION_DMR, Common.APPLICATION_DMR_ENCODED, Common.APPLICATION_JSON);
+    }
+
+    private HttpURLConnection post(String operationType, byte[] operation, String accept, byte[] attachment) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"operation\"\r\n"
+                + "Content-Type: " + operationType + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.write(operation);
+        if (attachment != null) {
+            body.write(("\r\n--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"attachment.bin\"\r\n"
+                    + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            body.write(attachment);
+        }
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, "/management-upload").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+        connection.setRequestProperty("X-Management-Client-Name", "test");
+        connection.setRequestProperty("Accept", accept);
+        try (OutputStream out = connection.getOutputStream()) {
+            body.writeTo(out);
+        }
+        return connection;
+    }
+
+    private static ModelNode createOperation() {
+        ModelNode op = new ModelNode();
+        op.get(OP).set("echo");
+        op.get(OP_ADDR).setEmptyList();
+        op.get("value").set(TEXT);
+        return op;
+    }
+
+    private static byte[] toBytes(ModelNode node) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        node.writeExternal(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Replies with the operation's {@code value} and the attachments it was sent with.
+     */
+    private static class EchoModelController implements ModelController {
+
+        @Override
+        public ModelNode execute(ModelNode operation, OperationMessageHandler handler, OperationTransactionControl control, OperationAttachments attachments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OperationResponse execute(Operation operation, OperationMessageHandler handler, OperationTransactionControl control) {
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT, "value").set(operation.getOperation().get("value"));
+            response.get(RESULT, "attachments").set(operation.getInputStreams().size());
+            if (!operation.getInputStreams().isEmpty()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                InputStream in = operation.getInputStreams().get(0);
+                try {
+                    byte[] buffer = new byte[64];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        bytes.write(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    IoUtils.safeClose(in);
+                }
+                response.get(RESULT, "attachment-bytes").set(bytes.toByteArray());
+            }
+            return OperationResponse.Factory.createSimple(response);
+        }
+
+        @Override
+        public ModelControllerClient createClient(Executor executor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NotificationHandlerRegistration getNotificationRegistry() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
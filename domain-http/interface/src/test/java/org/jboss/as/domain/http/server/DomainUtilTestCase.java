@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.http.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the encodings of HTTP management responses by {@link DomainUtil}.
+ */
+public class DomainUtilTestCase {
+
+    private static ModelNode createResponse() {
+        ModelNode response = new ModelNode();
+        response.get("outcome").set("success");
+        ModelNode result = response.get("result");
+        result.get("name").set("café");
+        result.get("count").set(3);
+        result.get("values").add("a").add(2L);
+        result.get("undefined");
+        return response;
+    }
+
+    @Test
+    public void testCompactJson() throws IOException {
+        ModelNode response = createResponse();
+        byte[] bytes = DomainUtil.getResponseBytes(response, new OperationParameter.Builder(false).build());
+        // the format of the responses written as a whole string, whichever thread writes them
+        Assert.assertArrayEquals(response.toJSONString(true).getBytes(StandardCharsets.UTF_8), bytes);
+        Assert.assertEquals("{\"outcome\" : \"success\", \"result\" : {\"name\" : \"café\", \"count\" : 3, "
+                + "\"values\" : [\"a\",2], \"undefined\" : null}}", new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testPrettyJson() throws IOException {
+        ModelNode response = createResponse();
+        byte[] bytes = DomainUtil.getResponseBytes(response, new OperationParameter.Builder(false).pretty(true).build());
+        Assert.assertArrayEquals(response.toJSONString(false).getBytes(StandardCharsets.UTF_8), bytes);
+    }
+
+    @Test
+    public void testDmrEncodings() throws IOException {
+        ModelNode response = createResponse();
+        byte[] binary = DomainUtil.getResponseBytes(response, new OperationParameter.Builder(false).binary(true).build());
+        ModelNode read = new ModelNode();
+        read.readExternal(new ByteArrayInputStream(binary));
+        Assert.assertEquals(response, read);
+        byte[] encoded = DomainUtil.getResponseBytes(response, new OperationParameter.Builder(false).encode(true).build());
+        Assert.assertEquals(response, ModelNode.fromBase64(new ByteArrayInputStream(encoded)));
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MODEL_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_METRICS_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.Undertow;
+import io.undertow.server.handlers.BlockingHandler;
+import org.jboss.as.controller.AccessAuditContext;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.NotificationHandlerRegistration;
+import org.jboss.as.domain.http.server.security.ElytronIdentityHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.security.auth.realm.SimpleMapBackedSecurityRealm;
+import org.wildfly.security.auth.server.SecurityDomain;
+
+/**
+ * Tests of the {@link MetricsHandler}: the metrics and their descriptions a caller sees only depend on what that caller
+ * can address, and metrics of the same name with different labels are kept apart.
+ */
+public class MetricsHandlerTestCase {
+
+    private static final String USER_HEADER = "X-Test-User";
+    private static final String ADMIN = "admin";
+    private static final String MONITOR = "monitor";
+
+    private final Map<String, AtomicInteger> walks = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicLong registrationStamp = new AtomicLong(1);
+    private volatile boolean missingExists;
+    private Undertow server;
+    private int port;
+
+    @Before
+    public void startServer() {
+        SecurityDomain domain = SecurityDomain.builder()
+                .addRealm("test", new SimpleMapBackedSecurityRealm()).build()
+                .setDefaultRealmName("test")
+                .build();
+        MetricsHandler metricsHandler = new MetricsHandler(new MetricsModelController());
+        ElytronIdentityHandler identityHandler = new ElytronIdentityHandler(metricsHandler);
+        server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(new BlockingHandler(exchange -> {
+                    String user = exchange.getRequestHeaders().getFirst(USER_HEADER);
+                    exchange.putAttachment(ElytronIdentityHandler.IDENTITY_KEY, domain.createAdHocIdentity(user));
+                    identityHandler.handleRequest(exchange);
+                }))
+                .build();
+        server.start();
+        port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testMetricsOfAddressableResources() throws Exception {
+        String admin = scrape(ADMIN);
+        assertTrue(admin, admin.contains("# HELP wildfly_test_worker_busy Busy threads\n# TYPE wildfly_test_worker_busy gauge\n"
+                + "wildfly_test_worker_busy{worker=\"default\"} 5\n"));
+        assertTrue(admin, admin.contains("# TYPE wildfly_test_secret_count gauge\nwildfly_test_secret_count{secret=\"key\"} 7\n"));
+
+        // The monitor can't address the secret resources, and has no worker metrics to read
+        String monitor = scrape(MONITOR);
+        assertFalse(monitor, monitor.contains("secret"));
+        assertFalse(monitor, monitor.contains("wildfly_test_worker_busy"));
+        assertTrue(monitor, monitor.contains("wildfly_test_pool_size{pool=\"a\"} 2\n"));
+
+        // Each caller walks the descriptions once, the next scrapes reuse the walk
+        scrape(ADMIN);
+        scrape(MONITOR);
+        assertEquals(1, walks.get(ADMIN).get());
+        assertEquals(1, walks.get(MONITOR).get());
+    }
+
+    @Test
+    public void testWalkIsReusedUntilTheRegistrationsChange() throws Exception {
+        scrape(ADMIN);
+        scrape(ADMIN);
+        assertEquals(1, walks.get(ADMIN).get());
+
+        registrationStamp.incrementAndGet();
+        scrape(ADMIN);
+        assertEquals(2, walks.get(ADMIN).get());
+    }
+
+    @Test
+    public void testResourceTypesAreReadInOneComposite() throws Exception {
+        // The missing resource fails the first composite, and is then read on its own
+        String admin = scrape(ADMIN);
+        assertFalse(admin, admin.contains("wildfly_test_one_count"));
+        assertTrue(admin, admin.contains("wildfly_test_worker_busy{worker=\"default\"} 5\n"));
+
+        executions.set(0);
+        scrape(ADMIN);
+        assertEquals(2, executions.get());
+
+        // Once it exists, it is read again
+        missingExists = true;
+        admin = scrape(ADMIN);
+        assertTrue(admin, admin.contains("wildfly_test_one_count 1\n"));
+        executions.set(0);
+        scrape(ADMIN);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testContentNegotiation() throws Exception {
+        assertFalse(scrape(ADMIN, null).endsWith("# EOF\n"));
+        assertTrue(scrape(ADMIN, "application/openmetrics-text; version=1.0.0, text/plain; q=0.5").endsWith("# EOF\n"));
+        assertFalse(scrape(ADMIN, "application/openmetrics-text; q=0, text/plain").endsWith("# EOF\n"));
+        assertFalse(scrape(ADMIN, "text/plain, application/openmetrics-text; q=0.5").endsWith("# EOF\n"));
+    }
+
+    @Test
+    public void testMetricNameCollision() throws Exception {
+        String admin = scrape(ADMIN);
+        assertTrue(admin, admin.contains("# TYPE wildfly_test_pool_size gauge\nwildfly_test_pool_size{pool=\"a\"} 2\n"));
+        // pool=pool has no label, so it can't be in the wildfly_test_pool_size family
+        assertTrue(admin, admin.contains("# TYPE wildfly_subsystem_test_pool_pool_size gauge\nwildfly_subsystem_test_pool_pool_size 3\n"));
+    }
+
+    private String scrape(String user) throws IOException {
+        return scrape(user, null);
+    }
+
+    private String scrape(String user, String accept) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, MetricsHandler.PATH).openConnection();
+        connection.setRequestProperty(USER_HEADER, user);
+        if (accept != null) {
+            connection.setRequestProperty("Accept", accept);
+        }
+        assertEquals(200, connection.getResponseCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static ModelNode metric(ModelNode resource, String name, ModelType type, String description) {
+        ModelNode attribute = resource.get(ATTRIBUTES, name);
+        attribute.get(TYPE).set(type);
+        attribute.get(ACCESS_TYPE).set(AttributeAccess.AccessType.METRIC.toString());
+        attribute.get(DESCRIPTION).set(description);
+        return resource;
+    }
+
+    private static ModelNode multiTargetResult(String type, String name, int value) {
+        ModelNode item = new ModelNode();
+        item.get(ADDRESS).set(PathAddress.pathAddress("subsystem", "test").append(type, name).toModelNode());
+        item.get(OUTCOME).set(SUCCESS);
+        item.get(RESULT).add(value);
+        return new ModelNode().add(item);
+    }
+
+    /**
+     * A model of a {@code test} subsystem: the admin can address everything, the monitor can't address the
+     * {@code secret} resources and reads no worker metrics. The {@code missing=one} resource is registered but only
+     * exists once {@link #missingExists} is set.
+     */
+    private class MetricsModelController implements ModelController {
+
+        @Override
+        public ModelNode execute(ModelNode operation, OperationMessageHandler handler, OperationTransactionControl control, OperationAttachments attachments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OperationResponse execute(Operation operation, OperationMessageHandler handler, OperationTransactionControl control) {
+            executions.incrementAndGet();
+            String user = AccessAuditContext.currentAccessAuditContext().getSecurityIdentity().getPrincipal().getName();
+            ModelNode op = operation.getOperation();
+            ModelNode response;
+            if (COMPOSITE.equals(op.get(OP).asString())) {
+                // A step failure fails and rolls back the whole composite
+                response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                int i = 1;
+                for (ModelNode step : op.get(STEPS).asList()) {
+                    ModelNode stepResponse = execute(user, step);
+                    if (!SUCCESS.equals(stepResponse.get(OUTCOME).asString())) {
+                        response.get(OUTCOME).set(FAILED);
+                        response.get(FAILURE_DESCRIPTION).set("Composite operation failed");
+                    }
+                    response.get(RESULT, "step-" + i++).set(stepResponse);
+                }
+            } else {
+                response = execute(user, op);
+            }
+            return OperationResponse.Factory.createSimple(response);
+        }
+
+        private ModelNode execute(String user, ModelNode op) {
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            if (READ_RESOURCE_DESCRIPTION_OPERATION.equals(op.get(OP).asString())) {
+                walks.computeIfAbsent(user, k -> new AtomicInteger()).incrementAndGet();
+                ModelNode subsystem = new ModelNode();
+                subsystem.get(ATTRIBUTES).setEmptyObject();
+                metric(subsystem.get(CHILDREN, "worker", MODEL_DESCRIPTION, "*"), "busy", ModelType.INT, "Busy threads");
+                metric(subsystem.get(CHILDREN, "pool", MODEL_DESCRIPTION, "*"), "size", ModelType.INT, "Pool size");
+                metric(subsystem.get(CHILDREN, "pool", MODEL_DESCRIPTION, "pool"), "size", ModelType.INT, "Pool size");
+                if (ADMIN.equals(user)) {
+                    metric(subsystem.get(CHILDREN, "secret", MODEL_DESCRIPTION, "*"), "count", ModelType.LONG, "Secret count");
+                    metric(subsystem.get(CHILDREN, "missing", MODEL_DESCRIPTION, "one"), "count", ModelType.LONG, "Missing count");
+                }
+                ModelNode root = response.get(RESULT);
+                root.get(ATTRIBUTES).setEmptyObject();
+                root.get(CHILDREN, "subsystem", MODEL_DESCRIPTION, "test").set(subsystem);
+            } else if (READ_METRICS_OPERATION.equals(op.get(OP).asString())) {
+                PathAddress address = PathAddress.pathAddress(op.get(OP_ADDR));
+                String type = address.getLastElement().getKey();
+                String value = address.getLastElement().getValue();
+                if ("missing".equals(type)) {
+                    if (missingExists) {
+                        response.get(RESULT).add(1);
+                    } else {
+                        response.get(OUTCOME).set(FAILED);
+                        response.get(FAILURE_DESCRIPTION).set("Management resource not found");
+                    }
+                } else if ("worker".equals(type)) {
+                    response.get(RESULT).set(ADMIN.equals(user) ? multiTargetResult(type, "default", 5) : new ModelNode().setEmptyList());
+                } else if ("secret".equals(type)) {
+                    response.get(RESULT).set(multiTargetResult(type, "key", 7));
+                } else if ("*".equals(value)) {
+                    response.get(RESULT).set(multiTargetResult(type, "a", 2));
+                } else {
+                    response.get(RESULT).add(3);
+                }
+            } else {
+                throw new UnsupportedOperationException(op.toString());
+            }
+            return response;
+        }
+
+        @Override
+        public long getRegistrationStamp() {
+            return registrationStamp.get();
+        }
+
+        @Override
+        public ModelControllerClient createClient(Executor executor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NotificationHandlerRegistration getNotificationRegistry() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -28,8 +28,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUT
 import java.util.Arrays;
 import java.util.List;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ListAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
@@ -98,6 +101,16 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
             .setRuntimeServiceNotRequired()
             .build();
 
+    static final SimpleAttributeDefinition DECISION_CACHE_HITS = new SimpleAttributeDefinitionBuilder("decision-cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    static final SimpleAttributeDefinition DECISION_CACHE_MISSES = new SimpleAttributeDefinitionBuilder("decision-cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     public static final List<AttributeDefinition> CONFIG_ATTRIBUTES = Arrays.<AttributeDefinition>asList(PROVIDER, PERMISSION_COMBINATION_POLICY);
 
     public static AccessAuthorizationResourceDefinition forDomain(DelegatingConfigurableAuthorizer configurableAuthorizer) {
@@ -136,6 +149,10 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
                 AccessAuthorizationRolesHandler.getStandardRolesHandler(authorizerConfiguration));
         resourceRegistration.registerReadOnlyAttribute(ALL_ROLE_NAMES,
                 AccessAuthorizationRolesHandler.getAllRolesHandler(authorizerConfiguration));
+
+        DecisionCacheMetricsHandler metricsHandler = new DecisionCacheMetricsHandler(configurableAuthorizer);
+        resourceRegistration.registerMetric(DECISION_CACHE_HITS, metricsHandler);
+        resourceRegistration.registerMetric(DECISION_CACHE_MISSES, metricsHandler);
     }
 
     @Override
@@ -169,6 +186,30 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
         }
     }
 
+    private static class DecisionCacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private final DelegatingConfigurableAuthorizer configurableAuthorizer;
+
+        DecisionCacheMetricsHandler(DelegatingConfigurableAuthorizer configurableAuthorizer) {
+            this.configurableAuthorizer = configurableAuthorizer;
+        }
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return true;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (attr.equals(DECISION_CACHE_HITS.getName())) {
+                context.getResult().set(configurableAuthorizer.getDecisionCacheHitCount());
+            } else if (attr.equals(DECISION_CACHE_MISSES.getName())) {
+                context.getResult().set(configurableAuthorizer.getDecisionCacheMissCount());
+            }
+        }
+    }
+
     public static Resource createResource(AccessConstraintUtilizationRegistry registry) {
         Resource accessControlRoot =  Resource.Factory.create();
         accessControlRoot.registerChild(AccessConstraintResources.APPLICATION_PATH_ELEMENT, AccessConstraintResources.getApplicationConfigResource(registry));
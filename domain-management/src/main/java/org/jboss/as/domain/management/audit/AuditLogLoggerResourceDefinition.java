@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
@@ -40,6 +41,7 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.audit.AuditLogger;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -75,6 +77,22 @@ public class AuditLogLoggerResourceDefinition extends SimpleResourceDefinition {
 
     static final List<SimpleAttributeDefinition> ATTRIBUTE_DEFINITIONS = Arrays.asList(LOG_BOOT, LOG_READ_ONLY, ENABLED);
 
+    public static final SimpleAttributeDefinition QUEUED_RECORDS = new SimpleAttributeDefinitionBuilder("queued-records", ModelType.INT)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition DROPPED_RECORDS = new SimpleAttributeDefinitionBuilder("dropped-records", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition AVERAGE_WRITE_TIME = new SimpleAttributeDefinitionBuilder("average-write-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     private final ManagedAuditLogger auditLogger;
 
     private AuditLogLoggerResourceDefinition(final PathElement pathElement, final ManagedAuditLogger auditLogger) {
@@ -100,6 +118,13 @@ public class AuditLogLoggerResourceDefinition extends SimpleResourceDefinition {
 
         resourceRegistration.registerReadWriteAttribute(LOG_READ_ONLY, null, new AuditLogReadOnlyWriteAttributeHandler(auditLogger));
         resourceRegistration.registerReadWriteAttribute(ENABLED, null, new AuditLogEnabledWriteAttributeHandler(auditLogger));
+
+        if (auditLogger != null) {
+            AuditLogMetricsHandler metricsHandler = new AuditLogMetricsHandler(auditLogger);
+            resourceRegistration.registerMetric(QUEUED_RECORDS, metricsHandler);
+            resourceRegistration.registerMetric(DROPPED_RECORDS, metricsHandler);
+            resourceRegistration.registerMetric(AVERAGE_WRITE_TIME, metricsHandler);
+        }
     }
 
     @Override
@@ -208,6 +233,32 @@ public class AuditLogLoggerResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    private static class AuditLogMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private final ManagedAuditLogger auditLogger;
+
+        AuditLogMetricsHandler(ManagedAuditLogger auditLogger) {
+            this.auditLogger = auditLogger;
+        }
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return true;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (attr.equals(QUEUED_RECORDS.getName())) {
+                context.getResult().set(auditLogger.getQueuedRecordCount());
+            } else if (attr.equals(DROPPED_RECORDS.getName())) {
+                context.getResult().set(auditLogger.getDroppedRecordCount());
+            } else if (attr.equals(AVERAGE_WRITE_TIME.getName())) {
+                context.getResult().set(auditLogger.getAverageWriteTime());
+            }
+        }
+    }
+
     private static class AuditLogEnabledWriteAttributeHandler extends AbstractWriteAttributeHandler<ManagedAuditLogger.Status> {
 
         private final ManagedAuditLogger auditLogger;
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ *
+ */
+
+package org.jboss.as.domain.management.security.auditlog;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.audit.ManagedAuditLogger;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.domain.management.audit.AuditLogLoggerResourceDefinition;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the management audit log when records are written asynchronously.
+ *
+ * Don't use core-model test for this. It does not support runtime, and more importantly for backwards compatibility the audit logger cannot be used
+ */
+public class AuditLogAsyncFileHandlerTestCase extends AbstractAuditLogHandlerTestCase {
+
+    private static final String ASYNC_PROPERTY = "jboss.as.management.audit.async";
+
+    public AuditLogAsyncFileHandlerTestCase() {
+        super(true, true);
+    }
+
+    @Override
+    protected ManagedAuditLogger getAuditLogger() {
+        System.setProperty(ASYNC_PROPERTY, "true");
+        try {
+            return super.getAuditLogger();
+        } finally {
+            System.clearProperty(ASYNC_PROPERTY);
+        }
+    }
+
+    @After
+    public void stopWriter() {
+        getAuditLogger().stop();
+    }
+
+    @Test
+    public void testRecordsWrittenInOrder() throws Exception {
+        File file = new File(logDir, "test-file.log");
+        readFile(file, 1);
+
+        ModelNode op = Util.createOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        for (int i = 0; i < 10; i++) {
+            executeForResult(op);
+        }
+        ModelNode writeOp = createAuditLogWriteAttributeOperation(AuditLogLoggerResourceDefinition.LOG_READ_ONLY.getName(), false);
+        executeForResult(writeOp);
+
+        List<ModelNode> records = awaitRecords(file, 12);
+        for (int i = 1; i <= 10; i++) {
+            List<ModelNode> ops = checkBootRecordHeader(records.get(i), 1, "core", true, false, true);
+            checkOpsEqual(op, ops.get(0));
+        }
+        List<ModelNode> ops = checkBootRecordHeader(records.get(11), 1, "core", false, false, true);
+        checkOpsEqual(writeOp, ops.get(0));
+
+        ModelNode dropped = executeForResult(Util.getReadAttributeOperation(AUDIT_ADDR.append(AuditLogLoggerResourceDefinition.PATH_ELEMENT),
+                AuditLogLoggerResourceDefinition.DROPPED_RECORDS.getName()));
+        Assert.assertEquals(0, dropped.asLong());
+    }
+
+    @Test
+    public void testStopWritesQueuedRecords() throws Exception {
+        File file = new File(logDir, "test-file.log");
+        readFile(file, 1);
+
+        ModelNode op = Util.createOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        for (int i = 0; i < 10; i++) {
+            executeForResult(op);
+        }
+        getAuditLogger().stop();
+        Assert.assertFalse(isWriterRunning());
+        List<ModelNode> records = readFile(file, 11);
+        for (int i = 1; i <= 10; i++) {
+            checkOpsEqual(op, checkBootRecordHeader(records.get(i), 1, "core", true, false, true).get(0));
+        }
+
+        // a record logged after the writer stopped starts it again
+        executeForResult(op);
+        awaitRecords(file, 12);
+        getAuditLogger().stop();
+    }
+
+    private static boolean isWriterRunning() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("management-audit-log-writer")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ModelNode> awaitRecords(File file, int expectedRecords) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (;;) {
+            try {
+                return readFile(file, expectedRecords);
+            } catch (AssertionError | IllegalArgumentException e) {
+                // the writer thread has not written all the records yet
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+}
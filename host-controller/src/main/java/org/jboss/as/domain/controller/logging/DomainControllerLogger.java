@@ -802,4 +802,15 @@ public interface DomainControllerLogger extends BasicLogger {
 
     @Message(id = 97, value = "Cannot explode a subdeployment of an unexploded deployment")
     OperationFailedException cannotExplodeSubDeploymentOfUnexplodedDeployment();
+
+    /**
+     * Logs a warning message indicating an invalid value of the number of hosts operations are dispatched to at once.
+     *
+     * @param value the value of the system property.
+     * @param property the name of the system property.
+     * @param concurrency the number of hosts used instead.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 98, value = "Invalid value '%s' for system property '%s', operations are dispatched to %d hosts at once")
+    void invalidHostDispatchConcurrency(String value, String property, int concurrency);
 }
@@ -22,6 +22,7 @@
 
 package org.jboss.as.domain.controller.operations.coordination;
 
+import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_FOR_COORDINATOR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
@@ -29,16 +30,25 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPE
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.domain.controller.logging.DomainControllerLogger.HOST_CONTROLLER_LOGGER;
 
+import java.net.InetAddress;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
+import org.jboss.as.controller.AccessAuditContext;
 import org.jboss.as.controller.BlockingTimeout;
 import org.jboss.as.controller.CurrentOperationIdHolder;
 import org.jboss.as.controller.OperationContext;
@@ -54,21 +64,41 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.dmr.ModelNode;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.as.controller.operations.DomainOperationTransmuter;
+import org.wildfly.security.auth.server.SecurityIdentity;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
+ * <p>
+ * The operation is transformed for each host on the thread executing the step, as the transformation uses the
+ * operation context. When an executor is available the transformed operations are then sent to the hosts in parallel,
+ * with at most {@code jboss.as.domain.host.dispatch.concurrency} hosts being sent to at a time, and the step thread
+ * waits for all of them to be sent. The prepared results are then collected in the order the hosts answer.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
 public class DomainSlaveHandler implements OperationStepHandler {
 
+    static final String DISPATCH_CONCURRENCY_PROPERTY = "jboss.as.domain.host.dispatch.concurrency";
+    static final int DEFAULT_DISPATCH_CONCURRENCY = 16;
+    private static final int DISPATCH_CONCURRENCY = getDispatchConcurrency(
+            WildFlySecurityManager.getPropertyPrivileged(DISPATCH_CONCURRENCY_PROPERTY, null));
+
     private final MultiphaseOverallContext multiphaseContext;
     private final Map<String, ProxyController> hostProxies;
+    private final ExecutorService executorService;
 
     public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
                               final MultiphaseOverallContext domainOperationContext) {
+        this(hostProxies, domainOperationContext, null);
+    }
+
+    public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
+                              final MultiphaseOverallContext domainOperationContext,
+                              final ExecutorService executorService) {
         this.hostProxies = hostProxies;
         this.multiphaseContext = domainOperationContext;
+        this.executorService = executorService;
     }
 
     @Override
@@ -87,6 +117,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
         final Transformers.TransformationInputs transformationInputs = Transformers.TransformationInputs.getOrCreate(context);
         final List<DomainOperationTransmuter> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSMUTERS);
+        final Map<String, HostControllerUpdateTask> tasks = new LinkedHashMap<String, HostControllerUpdateTask>();
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             // Create the proxy task
             final String host = entry.getKey();
@@ -101,11 +132,12 @@ public class DomainSlaveHandler implements OperationStepHandler {
             // Set the flags for host controller operations
             clonedOp.get(OPERATION_HEADERS, EXECUTE_FOR_COORDINATOR).set(true);
             clonedOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
-            final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController, transformationInputs);
-            // Execute the operation on the remote host
-            final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
-            multiphaseContext.recordHostRequest(host, finalResult);
-            finalResults.put(host, finalResult);
+            tasks.put(host, new HostControllerUpdateTask(host, clonedOp, context, proxyController, transformationInputs));
+        }
+        // Execute the operation on the remote hosts
+        dispatch(tasks, listener, finalResults);
+        for (Map.Entry<String, HostControllerUpdateTask.ExecutedHostRequest> entry : finalResults.entrySet()) {
+            multiphaseContext.recordHostRequest(entry.getKey(), entry.getValue());
         }
 
         // Wait for all hosts to reach the prepared state
@@ -178,6 +210,116 @@ public class DomainSlaveHandler implements OperationStepHandler {
         }
     }
 
+    /**
+     * Gets the number of hosts operations are dispatched to at once.
+     *
+     * @param value the value of the {@code jboss.as.domain.host.dispatch.concurrency} system property, may be {@code null}
+     * @return the number of hosts, at least 1
+     */
+    static int getDispatchConcurrency(final String value) {
+        if (value == null) {
+            return DEFAULT_DISPATCH_CONCURRENCY;
+        }
+        int concurrency;
+        try {
+            concurrency = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            concurrency = DEFAULT_DISPATCH_CONCURRENCY;
+            HOST_CONTROLLER_LOGGER.invalidHostDispatchConcurrency(value, DISPATCH_CONCURRENCY_PROPERTY, concurrency);
+        }
+        if (concurrency < 1) {
+            concurrency = 1;
+            HOST_CONTROLLER_LOGGER.invalidHostDispatchConcurrency(value, DISPATCH_CONCURRENCY_PROPERTY, concurrency);
+        }
+        return concurrency;
+    }
+
+    /**
+     * Executes the tasks, sending them in parallel if possible. The tasks are prepared on the calling thread, which
+     * executes the step, and only the sends run on the executor. All the tasks have been sent when this method returns.
+     */
+    private void dispatch(final Map<String, HostControllerUpdateTask> tasks, final HostControllerUpdateTask.ProxyOperationListener listener,
+                          final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults) {
+        if (executorService == null || DISPATCH_CONCURRENCY < 2 || tasks.size() < 2) {
+            for (Map.Entry<String, HostControllerUpdateTask> entry : tasks.entrySet()) {
+                finalResults.put(entry.getKey(), entry.getValue().execute(listener));
+            }
+            return;
+        }
+        // Transform on this thread, as the transformation uses the operation context
+        final Map<String, HostControllerUpdateTask.HostRequest> requests = new LinkedHashMap<String, HostControllerUpdateTask.HostRequest>();
+        for (Map.Entry<String, HostControllerUpdateTask> entry : tasks.entrySet()) {
+            requests.put(entry.getKey(), entry.getValue().prepare(listener));
+        }
+        // The sends run on other threads, so propagate the caller identity the protocol client sends along
+        final AccessAuditContext accessAuditContext = WildFlySecurityManager.isChecking()
+                ? doPrivileged((PrivilegedAction<AccessAuditContext>) AccessAuditContext::currentAccessAuditContext)
+                : AccessAuditContext.currentAccessAuditContext();
+        final SecurityIdentity securityIdentity = accessAuditContext != null ? accessAuditContext.getSecurityIdentity() : null;
+        final InetAddress sourceAddress = accessAuditContext != null ? accessAuditContext.getRemoteAddress() : null;
+        final Map<String, Supplier<HostControllerUpdateTask.ExecutedHostRequest>> sends = new LinkedHashMap<String, Supplier<HostControllerUpdateTask.ExecutedHostRequest>>();
+        for (Map.Entry<String, HostControllerUpdateTask.HostRequest> entry : requests.entrySet()) {
+            final HostControllerUpdateTask.HostRequest request = entry.getValue();
+            sends.put(entry.getKey(), () -> AccessAuditContext.doAs(securityIdentity, sourceAddress,
+                    (PrivilegedAction<HostControllerUpdateTask.ExecutedHostRequest>) request::send));
+        }
+        dispatch(sends, executorService, DISPATCH_CONCURRENCY, finalResults);
+    }
+
+    /**
+     * Runs the tasks on the executor, at most {@code concurrency} at a time, and collects their results in the order
+     * of the tasks. A task rejected by the executor runs on the calling thread. All the tasks have been run when this
+     * method returns.
+     */
+    static <T> void dispatch(final Map<String, Supplier<T>> tasks, final ExecutorService executor, final int concurrency,
+                             final Map<String, T> results) {
+        final Semaphore window = new Semaphore(concurrency);
+        final Map<String, Future<T>> futures = new LinkedHashMap<String, Future<T>>();
+        for (Map.Entry<String, Supplier<T>> entry : tasks.entrySet()) {
+            final Supplier<T> task = entry.getValue();
+            window.acquireUninterruptibly();
+            try {
+                futures.put(entry.getKey(), executor.submit(() -> {
+                    try {
+                        return task.get();
+                    } finally {
+                        window.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                window.release();
+                results.put(entry.getKey(), task.get());
+            }
+        }
+        // Sending is short, so wait for it even if interrupted; the prepared phase deals with the interruption
+        boolean interrupted = false;
+        try {
+            for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+                while (true) {
+                    try {
+                        results.put(entry.getKey(), entry.getValue().get());
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        final Throwable cause = e.getCause();
+                        if (cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        }
+                        if (cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                        throw new IllegalStateException(cause);
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private void handleMissingHostResponses(Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults,
                                             Set<String> outstanding, boolean timedOut, long timeout) {
 
@@ -87,32 +87,48 @@ class HostControllerUpdateTask {
     }
 
     public ExecutedHostRequest execute(final ProxyOperationListener listener) {
+        return prepare(listener).send();
+    }
+
+    /**
+     * Transforms the operation for the host. This uses the operation context, so it must run on the thread executing
+     * the step, while the returned request can be sent from any thread.
+     */
+    HostRequest prepare(final ProxyOperationListener listener) {
 
         final TransactionalProtocolClient client = proxyController.getProtocolClient();
         final OperationMessageHandler messageHandler = new DelegatingMessageHandler(context);
         final OperationAttachments operationAttachments = new DelegatingOperationAttachments(context);
         final SubsystemInfoOperationListener subsystemListener = new SubsystemInfoOperationListener(listener, proxyController.getTransformers());
+        final OperationTransformer.TransformedOperation transformationResult;
         try {
-
-            final OperationTransformer.TransformedOperation transformationResult = proxyController.transformOperation(transformationInputs, operation);
-            final ModelNode transformedOperation = transformationResult.getTransformedOperation();
-            final ProxyOperation proxyOperation = new ProxyOperation(name, transformedOperation, messageHandler, operationAttachments);
+            transformationResult = proxyController.transformOperation(transformationInputs, operation);
+        } catch (OperationFailedException e) {
+            // Handle transformation failures
+            final ProxyOperation proxyOperation = new ProxyOperation(name, operation, messageHandler, operationAttachments);
+            final TransactionalProtocolClient.PreparedOperation<ProxyOperation> result = BlockingQueueOperationListener.FailedOperation.create(proxyOperation, e);
+            subsystemListener.operationPrepared(result);
+            final ExecutedHostRequest failed = new ExecutedHostRequest(result.getFinalResult(), OperationResultTransformer.ORIGINAL_RESULT, OperationTransformer.DEFAULT_REJECTION_POLICY);
+            return () -> failed;
+        }
+        final ModelNode transformedOperation = transformationResult.getTransformedOperation();
+        final ProxyOperation proxyOperation = new ProxyOperation(name, transformedOperation, messageHandler, operationAttachments);
+        // Make sure we preserve the operation headers like PrepareStepHandler.EXECUTE_FOR_COORDINATOR
+        if(transformedOperation != null) {
+            transformedOperation.get(OPERATION_HEADERS).set(operation.get(OPERATION_HEADERS));
+            // If the operation was transformed
+            if (!operation.equals(transformedOperation)) {
+                // push all operations (incl. read-only) to the servers
+                transformedOperation.get(OPERATION_HEADERS, ServerOperationsResolverHandler.DOMAIN_PUSH_TO_SERVERS).set(true);
+                HOST_CONTROLLER_LOGGER.tracef("Sending %s (transformed to %s) to %s", operation, transformedOperation, name);
+            } else {
+                HOST_CONTROLLER_LOGGER.tracef("Sending %s (untransformed) to %s", transformedOperation, name);
+            }
+        } else {
+            HOST_CONTROLLER_LOGGER.tracef("Sending %s (transformed to null) to %s", operation, name);
+        }
+        return () -> {
             try {
-                // Make sure we preserve the operation headers like PrepareStepHandler.EXECUTE_FOR_COORDINATOR
-                if(transformedOperation != null) {
-                    transformedOperation.get(OPERATION_HEADERS).set(operation.get(OPERATION_HEADERS));
-                    // If the operation was transformed
-                    if (!operation.equals(transformedOperation)) {
-                        // push all operations (incl. read-only) to the servers
-                        transformedOperation.get(OPERATION_HEADERS, ServerOperationsResolverHandler.DOMAIN_PUSH_TO_SERVERS).set(true);
-                        HOST_CONTROLLER_LOGGER.tracef("Sending %s (transformed to %s) to %s", operation, transformedOperation, name);
-                    } else {
-                        HOST_CONTROLLER_LOGGER.tracef("Sending %s (untransformed) to %s", transformedOperation, name);
-                    }
-                } else {
-                    HOST_CONTROLLER_LOGGER.tracef("Sending %s (transformed to null) to %s", operation, name);
-                }
-
                 final AsyncFuture<OperationResponse> result = client.execute(subsystemListener, proxyOperation);
                 return new ExecutedHostRequest(result, transformationResult);
             } catch (IOException e) {
@@ -121,13 +137,15 @@ class HostControllerUpdateTask {
                 subsystemListener.operationPrepared(result);
                 return new ExecutedHostRequest(result.getFinalResult(), transformationResult);
             }
-        } catch (OperationFailedException e) {
-            // Handle transformation failures
-            final ProxyOperation proxyOperation = new ProxyOperation(name, operation, messageHandler, operationAttachments);
-            final TransactionalProtocolClient.PreparedOperation<ProxyOperation> result = BlockingQueueOperationListener.FailedOperation.create(proxyOperation, e);
-            subsystemListener.operationPrepared(result);
-            return new ExecutedHostRequest(result.getFinalResult(), OperationResultTransformer.ORIGINAL_RESULT, OperationTransformer.DEFAULT_REJECTION_POLICY);
-        }
+        };
+    }
+
+    /**
+     * An operation transformed for a host, ready to be sent. Sending it doesn't use the operation context.
+     */
+    interface HostRequest {
+
+        ExecutedHostRequest send();
     }
 
     static class ProxyOperation extends TransactionalOperationImpl {
@@ -331,11 +349,20 @@ class HostControllerUpdateTask {
         }
     }
 
+    /**
+     * The attachment streams of the context, read when the request is prepared so that the request can be sent from
+     * another thread.
+     */
     private static class DelegatingOperationAttachments implements OperationAttachments {
 
-        private final OperationContext context;
+        private final List<InputStream> inputStreams;
         private DelegatingOperationAttachments(final OperationContext context) {
-            this.context = context;
+            int count = context.getAttachmentStreamCount();
+            List<InputStream> result = new ArrayList<InputStream>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(context.getAttachmentStream(i));
+            }
+            this.inputStreams = Collections.unmodifiableList(result);
         }
 
         @Override
@@ -345,12 +372,7 @@ class HostControllerUpdateTask {
 
         @Override
         public List<InputStream> getInputStreams() {
-            int count = context.getAttachmentStreamCount();
-            List<InputStream> result = new ArrayList<InputStream>(count);
-            for (int i = 0; i < count; i++) {
-                result.add(context.getAttachmentStream(i));
-            }
-            return result;
+            return inputStreams;
         }
 
         @Override
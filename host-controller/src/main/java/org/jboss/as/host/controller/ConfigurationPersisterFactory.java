@@ -76,6 +76,8 @@ public class ConfigurationPersisterFactory {
         HostXml hostXml = new HostXml(defaultHostname, environment.getRunningModeControl().getRunningMode(),
                 environment.isUseCachedDc(), Module.getBootModuleLoader(), executorService, hostExtensionRegistry);
         BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(file, new QName(Namespace.CURRENT.getUriString(), "host"), hostXml, hostXml, false);
+        // The operations also depend on the default host name
+        persister.disableBootOperationCache();
         for (Namespace namespace : Namespace.domainValues()) {
             if (!namespace.equals(Namespace.CURRENT)) {
                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "host"), hostXml);
@@ -330,7 +330,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         this.runningModeControl = runningModeControl;
         this.processState = processState;
         this.hostControllerInfo = hostControllerInfo;
-        this.localFileRepository = new LocalFileRepository(environment.getDomainBaseDir(), environment.getDomainContentDir(), environment.getDomainConfigurationDir());
+        this.localFileRepository = new LocalFileRepository(environment.getDomainBaseDir(), environment.getDomainContentDir(), environment.getDomainConfigurationDir(), contentRepository);
 
         this.remoteFileRepository = new RemoteFileRepository(localFileRepository);
         this.contentRepository = contentRepository;
@@ -1070,7 +1070,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
                 HostModelUtil.createHostRegistry(hostName, root, hostControllerConfigurationPersister, environment, runningModeControl,
                         localFileRepository, hostControllerInfo, new DelegatingServerInventory(), remoteFileRepository, contentRepository,
                         this, hostExtensionRegistry, extensionRegistry, vaultReader, ignoredRegistry, processState, pathManager, authorizer,
-                        securityIdentitySupplier, getAuditLogger(), getBootErrorCollector());
+                        securityIdentitySupplier, getAuditLogger(), getBootErrorCollector(), remoteFileRepository.getTransferStatistics());
     }
 
 
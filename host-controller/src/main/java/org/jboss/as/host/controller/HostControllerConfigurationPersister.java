@@ -219,6 +219,14 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         }
     }
 
+    @Override
+    public void flush() {
+        hostPersister.flush();
+        if (domainPersister != null) {
+            domainPersister.flush();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
         throw new UnsupportedOperationException();
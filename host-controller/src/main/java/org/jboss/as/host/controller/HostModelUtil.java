@@ -39,6 +39,7 @@ import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.management.security.WhoAmIOperation;
 import org.jboss.as.host.controller.descriptions.HostEnvironmentResourceDefinition;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
+import org.jboss.as.host.controller.mgmt.ContentTransferStatistics;
 import org.jboss.as.host.controller.model.host.HostDefinition;
 import org.jboss.as.host.controller.model.host.HostResourceDefinition;
 import org.jboss.as.host.controller.operations.LocalDomainControllerAddHandler;
@@ -121,13 +122,39 @@ public class HostModelUtil {
                                           final ManagementSecurityIdentitySupplier securityIdentitySupplier,
                                           final ManagedAuditLogger auditLogger,
                                           final BootErrorCollector bootErrorCollector) {
+        return createHostRegistry(hostName, root, configurationPersister, environment, runningModeControl, localFileRepository,
+                hostControllerInfo, serverInventory, remoteFileRepository, contentRepository, domainController, hostExtensionRegistry,
+                extensionRegistry, vaultReader, ignoredRegistry, processState, pathManager, authorizer, securityIdentitySupplier,
+                auditLogger, bootErrorCollector, new ContentTransferStatistics());
+    }
+
+    public static ManagementResourceRegistration createHostRegistry(final String hostName,
+                                          final ManagementResourceRegistration root, final HostControllerConfigurationPersister configurationPersister,
+                                          final HostControllerEnvironment environment, final HostRunningModeControl runningModeControl,
+                                          final HostFileRepository localFileRepository,
+                                          final LocalHostControllerInfoImpl hostControllerInfo, final ServerInventory serverInventory,
+                                          final HostFileRepository remoteFileRepository,
+                                          final ContentRepository contentRepository,
+                                          final DomainController domainController,
+                                          final ExtensionRegistry hostExtensionRegistry,
+                                          final ExtensionRegistry extensionRegistry,
+                                          final AbstractVaultReader vaultReader,
+                                          final IgnoredDomainResourceRegistry ignoredRegistry,
+                                          final ControlledProcessState processState,
+                                          final PathManagerService pathManager,
+                                          final DelegatingConfigurableAuthorizer authorizer,
+                                          final ManagementSecurityIdentitySupplier securityIdentitySupplier,
+                                          final ManagedAuditLogger auditLogger,
+                                          final BootErrorCollector bootErrorCollector,
+                                          final ContentTransferStatistics transferStatistics) {
         // Add of the host itself
         ManagementResourceRegistration hostRegistration = root.registerSubModel(
                 new HostResourceDefinition(hostName, configurationPersister,
                         environment, runningModeControl, localFileRepository,
                         hostControllerInfo, serverInventory, remoteFileRepository,
                         contentRepository, domainController, hostExtensionRegistry,
-                        vaultReader, ignoredRegistry, processState, pathManager, authorizer, securityIdentitySupplier, auditLogger, bootErrorCollector));
+                        vaultReader, ignoredRegistry, processState, pathManager, authorizer, securityIdentitySupplier, auditLogger, bootErrorCollector,
+                        transferStatistics));
 
         final DomainControllerWriteAttributeHandler dcWAH =
                 DomainControllerWriteAttributeHandler.getInstance(root, hostControllerInfo, configurationPersister,
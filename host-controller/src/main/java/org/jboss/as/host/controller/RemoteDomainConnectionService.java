@@ -42,14 +42,18 @@ import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import javax.net.ssl.SSLHandshakeException;
 import javax.security.sasl.SaslException;
@@ -91,7 +95,9 @@ import org.jboss.as.host.controller.discovery.DiscoveryOption;
 import org.jboss.as.host.controller.discovery.RemoteDomainControllerConnectionConfiguration;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.host.controller.mgmt.ContentTransferStatistics;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
+import org.jboss.as.host.controller.mgmt.DomainRemoteFileDeltaRequestAndHandler;
 import org.jboss.as.host.controller.mgmt.DomainRemoteFileRequestAndHandler;
 import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
 import org.jboss.as.host.controller.mgmt.HostInfo;
@@ -102,6 +108,7 @@ import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.ContentRepository;
@@ -166,6 +173,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         GRAB_DOMAIN_RESOURCE = OperationBuilder.create(mn).build();
     }
 
+    private static final DomainRemoteFileDeltaRequestAndHandler DELTA_SUPPORT = new DomainRemoteFileDeltaRequestAndHandler(null);
+
     private final ExtensionRegistry extensionRegistry;
     private final ModelController controller;
     private final ProductConfig productConfig;
@@ -196,6 +205,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private ManagementChannelHandler handler;
     private volatile ResponseAttachmentInputStreamSupport responseAttachmentSupport;
     private volatile RemoteDomainConnection connection;
+    private volatile boolean deltaTransferSupported = true;
 
     private RemoteDomainConnectionService(final ModelController controller,
                                           final ExtensionRegistry extensionRegistry,
@@ -287,6 +297,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                            connection.setUri(masterURI);
                            connection.connect();
                            connected = true;
+                           deltaTransferSupported = true;
                            break;
                        } catch (IOException e) {
                            // If the cause is one of the irrecoverable ones, unwrap and throw it on
@@ -753,12 +764,61 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private class GetFileDeltaRequest extends AbstractManagementRequest<DomainRemoteFileDeltaRequestAndHandler.DeltaTransfer, Void> {
+        private final String hash;
+        private final File localPath;
+        private final Map<Long, DomainRemoteFileDeltaRequestAndHandler.ChunkLocation> localChunks;
+        // Whether the domain controller replied with an error instead of handling the request
+        private volatile boolean rejected;
+
+        private GetFileDeltaRequest(final String hash, final File localPath, final Map<Long, DomainRemoteFileDeltaRequestAndHandler.ChunkLocation> localChunks) {
+            this.hash = hash;
+            this.localPath = localPath;
+            this.localChunks = localChunks;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_FILE_DELTA_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<DomainRemoteFileDeltaRequestAndHandler.DeltaTransfer> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DELTA_SUPPORT.sendRequest(output, hash, localChunks.keySet());
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<DomainRemoteFileDeltaRequestAndHandler.DeltaTransfer> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            resultHandler.done(DELTA_SUPPORT.handleResponse(input, localPath, hash, localChunks));
+        }
+
+        @Override
+        public void handleFailed(ManagementResponseHeader header, ActiveOperation.ResultHandler<DomainRemoteFileDeltaRequestAndHandler.DeltaTransfer> resultHandler) {
+            // The domain controller replies with the delta or that there is none; an error means it can't handle the request
+            rejected = true;
+            super.handleFailed(header, resultHandler);
+        }
+    }
+
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
+        private final ContentTransferStatistics transferStatistics = new ContentTransferStatistics();
+        private final DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex chunkIndex;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
 
         RemoteFileRepository(final HostFileRepository localFileRepository) {
             this.localFileRepository = localFileRepository;
+            this.chunkIndex = new DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex(localFileRepository.getDeploymentRoot(null));
+        }
+
+        ContentTransferStatistics getTransferStatistics() {
+            return transferStatistics;
+        }
+
+        DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex getChunkIndex() {
+            return chunkIndex;
         }
 
         @Override
@@ -807,8 +867,19 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
+                final long start = System.currentTimeMillis();
+                if (repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT && deltaTransferSupported) {
+                    final File file = getFileDelta(relativePath, localFileRepository, start);
+                    if (file != null) {
+                        return file;
+                    }
+                }
                 try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    final File file = handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    if (repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT) {
+                        remoteFileRepository.getTransferStatistics().fullTransfer(sizeOf(file), System.currentTimeMillis() - start);
+                    }
+                    return file;
                 } catch (Exception e) {
                     throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
                 }
@@ -825,6 +896,53 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     };
 
+    /**
+     * Gets deployment content as a delta against the local contents.
+     *
+     * @return the local deployment root, or {@code null} if a full transfer is needed.
+     */
+    private File getFileDelta(final String hash, final HostFileRepository localFileRepository, final long start) {
+        final File localPath = localFileRepository.getDeploymentRoot(new ContentReference(hash, HashUtil.hexStringToByteArray(hash)));
+        GetFileDeltaRequest request = null;
+        try {
+            final Map<Long, DomainRemoteFileDeltaRequestAndHandler.ChunkLocation> localChunks = remoteFileRepository.getChunkIndex().getChunks();
+            if (localChunks.isEmpty()) {
+                return null;
+            }
+            request = new GetFileDeltaRequest(hash, localPath, localChunks);
+            final DomainRemoteFileDeltaRequestAndHandler.DeltaTransfer transfer = handler.executeRequest(request, null).getResult().get();
+            if (transfer == null) {
+                return null;
+            }
+            remoteFileRepository.getTransferStatistics().deltaTransfer(transfer.getSize(), transfer.getReceived(), System.currentTimeMillis() - start);
+            return localPath;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
+        } catch (ExecutionException e) {
+            if (request != null && request.rejected) {
+                // a domain controller which doesn't know about delta transfers, don't ask it again until reconnecting
+                deltaTransferSupported = false;
+            }
+            ROOT_LOGGER.debugf(e, "Cannot get content %s as a delta, getting all of it", hash);
+            return null;
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot get content %s as a delta, getting all of it", hash);
+            return null;
+        }
+    }
+
+    private static long sizeOf(final File file) {
+        if (file == null || !file.exists()) {
+            return 0L;
+        }
+        try (Stream<Path> files = Files.walk(file.toPath())) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
     private void setupHandler() {
         // Setup the transaction protocol handler
         handler.addHandlerFactory(new TransactionalProtocolOperationHandler(controller, handler, responseAttachmentSupport));
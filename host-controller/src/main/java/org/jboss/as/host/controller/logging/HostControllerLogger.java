@@ -1415,4 +1415,13 @@ public interface HostControllerLogger extends BasicLogger {
     @Message(id = 210, value = "A slave host controller may not be added using add(). Please add a host, omitting this parameter, and configure the remote domain controller using write-attribute.")
     OperationFailedException cannotAddSlaveHostAfterBoot();
 
+    @Message(id = 211, value = "Content %s assembled from the delta sent by the domain controller does not match its hash")
+    IOException contentDeltaMismatch(String hash);
+
+    @Message(id = 212, value = "Invalid number of chunks %d advertised for content %s, at most %d can be advertised")
+    IOException invalidAdvertisedChunkCount(int count, String filePath, int max);
+
+    @Message(id = 213, value = "Invalid chunk length %d in the delta of content %s")
+    IOException invalidChunkLength(int length, String hash);
+
 }
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller.mgmt;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the deployment content a slave host controller pulled from the domain controller.
+ */
+public final class ContentTransferStatistics {
+
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder deltaTransfers = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder transferTime = new LongAdder();
+
+    /**
+     * Records a transfer where all the bytes of the content were sent.
+     *
+     * @param size the number of bytes received.
+     * @param time the duration of the transfer in milliseconds.
+     */
+    public void fullTransfer(long size, long time) {
+        transfers.increment();
+        bytesReceived.add(size);
+        transferTime.add(time);
+    }
+
+    /**
+     * Records a transfer where only the chunks missing locally were sent.
+     *
+     * @param size the size of the content.
+     * @param received the number of bytes received.
+     * @param time the duration of the transfer in milliseconds.
+     */
+    public void deltaTransfer(long size, long received, long time) {
+        transfers.increment();
+        deltaTransfers.increment();
+        bytesReceived.add(received);
+        bytesSaved.add(size - received);
+        transferTime.add(time);
+    }
+
+    public long getTransferCount() {
+        return transfers.sum();
+    }
+
+    public long getDeltaTransferCount() {
+        return deltaTransfers.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public long getTransferTime() {
+        return transferTime.sum();
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller.mgmt;
+
+import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
+import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.ContentChunker;
+import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
+
+/**
+ * Protocol code for getting deployment content from the master as a delta against the contents the slave HC already
+ * has.
+ * <p>
+ * The slave advertises the chunks of its local contents, identified by the first 8 bytes of their SHA-1. The master
+ * splits the requested content with the same {@link ContentChunker} and sends either a reference to a chunk the slave
+ * has or the bytes of the chunk. The slave checks the SHA-1 of the assembled content, and falls back to a full transfer
+ * if the content couldn't be assembled or if the master doesn't support delta transfers.
+ */
+public class DomainRemoteFileDeltaRequestAndHandler {
+
+    static final String CONTENT = "content";
+    /**
+     * Maximum number of chunks advertised by a slave, i.e. 512KB of identifiers covering about 500MB of local contents
+     * given the average chunk size. The chunks of the most recent contents are advertised first.
+     */
+    static final int MAX_ADVERTISED_CHUNKS = 1 << 16;
+
+    private final Executor asyncExecutor;
+
+    public DomainRemoteFileDeltaRequestAndHandler(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public void sendRequest(FlushableDataOutput output, String hash, Collection<Long> localChunks) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID);
+        output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+        output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+        output.writeUTF(hash);
+        final int count = Math.min(localChunks.size(), MAX_ADVERTISED_CHUNKS);
+        output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+        output.writeInt(count);
+        int written = 0;
+        for (Long chunk : localChunks) {
+            if (written++ == count) {
+                break;
+            }
+            output.writeLong(chunk);
+        }
+    }
+
+    /**
+     * Reads the delta sent by the master and assembles the content in the local deployment root.
+     *
+     * @param input the response.
+     * @param localPath the local deployment root of the content.
+     * @param hash the hash of the content.
+     * @param localChunks the chunks advertised to the master.
+     * @return the transfer, or {@code null} if the master couldn't send the content as a delta or if it couldn't be
+     * assembled from the local chunks.
+     * @throws IOException if the response couldn't be read.
+     */
+    public DeltaTransfer handleResponse(DataInput input, File localPath, String hash, Map<Long, ChunkLocation> localChunks) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_SIZE);
+        final long size = input.readLong();
+        if (size < 0) {
+            return null;
+        }
+        if (!localPath.exists() && !localPath.mkdirs()) {
+            throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(localPath);
+        }
+        final File part = new File(localPath, CONTENT + ".part");
+        final MessageDigest digest = createDigest();
+        final byte[] buffer = new byte[ContentChunker.MAX_CHUNK_SIZE];
+        long received = 0L;
+        long written = 0L;
+        boolean complete = true;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(part))) {
+            byte type;
+            while ((type = input.readByte()) != DomainControllerProtocol.FILE_END) {
+                final int length;
+                if (type == DomainControllerProtocol.CHUNK_DATA) {
+                    length = checkLength(input.readInt(), hash);
+                    input.readFully(buffer, 0, length);
+                    received += length;
+                } else {
+                    expectHeader(type, DomainControllerProtocol.CHUNK_LOCAL);
+                    final ChunkLocation location = localChunks.get(input.readLong());
+                    length = checkLength(input.readInt(), hash);
+                    // keep reading the response even if a chunk is missing, the transfer is discarded at the end
+                    complete = complete && location != null && location.length == length && location.read(buffer);
+                }
+                if (complete) {
+                    digest.update(buffer, 0, length);
+                    out.write(buffer, 0, length);
+                    written += length;
+                }
+            }
+        } catch (IOException ex) {
+            deleteQuietly(part);
+            deleteQuietly(localPath);
+            throw ex;
+        }
+        if (!complete || written != size || !MessageDigest.isEqual(digest.digest(), HashUtil.hexStringToByteArray(hash))) {
+            deleteQuietly(part);
+            deleteQuietly(localPath);
+            HostControllerLogger.ROOT_LOGGER.debug(HostControllerLogger.ROOT_LOGGER.contentDeltaMismatch(hash).getMessage());
+            return null;
+        }
+        if (!part.renameTo(new File(localPath, CONTENT))) {
+            deleteQuietly(part);
+            deleteQuietly(localPath);
+            throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(localPath);
+        }
+        return new DeltaTransfer(size, received);
+    }
+
+    public void handleRequest(final DataInput input, final RootFileReader reader,
+                              final ActiveOperation.ResultHandler<Void> resultHandler,
+                              final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID);
+        final byte rootId = input.readByte();
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+        final String filePath = input.readUTF();
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+        final int count = input.readInt();
+        if (count < 0 || count > MAX_ADVERTISED_CHUNKS) {
+            throw HostControllerLogger.ROOT_LOGGER.invalidAdvertisedChunkCount(count, filePath, MAX_ADVERTISED_CHUNKS);
+        }
+        final Set<Long> remoteChunks = new HashSet<>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            remoteChunks.add(input.readLong());
+        }
+
+        ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws RequestProcessingException, IOException {
+                File localPath;
+                try {
+                    localPath = reader.readRootFile(rootId, filePath);
+                } catch (RequestProcessingException e) {
+                    // reply that there is no delta, the slave reports the failure when getting all of the content
+                    HostControllerLogger.ROOT_LOGGER.debugf(e, "Cannot read content %s", filePath);
+                    localPath = null;
+                }
+                FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    writeResponse(getContentFile(localPath), remoteChunks, output);
+                    output.close();
+                    resultHandler.done(null); // call stack (AsyncTaskRunner created by ManagementRequestContext) handles failures
+                } finally {
+                    StreamUtils.safeClose(output);
+                }
+            }
+        };
+
+        if (asyncExecutor == null) {
+            context.executeAsync(task);
+        } else {
+            context.executeAsync(task, asyncExecutor);
+        }
+    }
+
+    void writeResponse(final File content, final Set<Long> remoteChunks, final FlushableDataOutput output) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_FILE_SIZE);
+        if (content == null) {
+            output.writeLong(-1L);
+            return;
+        }
+        output.writeLong(content.length());
+        final MessageDigest digest = createDigest();
+        try (InputStream in = new FileInputStream(content)) {
+            ContentChunker.split(in, (buffer, offset, length) -> {
+                final long chunk = getChunkId(digest, buffer, offset, length);
+                if (remoteChunks.contains(chunk)) {
+                    output.writeByte(DomainControllerProtocol.CHUNK_LOCAL);
+                    output.writeLong(chunk);
+                    output.writeInt(length);
+                } else {
+                    output.writeByte(DomainControllerProtocol.CHUNK_DATA);
+                    output.writeInt(length);
+                    output.write(buffer, offset, length);
+                }
+            });
+        }
+        output.writeByte(DomainControllerProtocol.FILE_END);
+    }
+
+    /**
+     * Only deployments made of a single archive are sent as a delta.
+     */
+    private static File getContentFile(File localPath) {
+        if (localPath != null && localPath.isDirectory()) {
+            final String[] children = localPath.list();
+            if (children != null && children.length == 1 && CONTENT.equals(children[0])) {
+                final File content = new File(localPath, CONTENT);
+                if (content.isFile()) {
+                    return content;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int checkLength(int length, String hash) throws IOException {
+        if (length < 0 || length > ContentChunker.MAX_CHUNK_SIZE) {
+            throw HostControllerLogger.ROOT_LOGGER.invalidChunkLength(length, hash);
+        }
+        return length;
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static long getChunkId(MessageDigest digest, byte[] buffer, int offset, int length) {
+        digest.reset();
+        digest.update(buffer, offset, length);
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The outcome of a delta transfer.
+     */
+    public static final class DeltaTransfer {
+        private final long size;
+        private final long received;
+
+        DeltaTransfer(long size, long received) {
+            this.size = size;
+            this.received = received;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+    }
+
+    /**
+     * Where a chunk of a local content can be read from.
+     */
+    public static final class ChunkLocation {
+        private final long id;
+        private final File file;
+        private final long offset;
+        private final int length;
+
+        ChunkLocation(long id, File file, long offset, int length) {
+            this.id = id;
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        boolean read(byte[] buffer) {
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                in.seek(offset);
+                in.readFully(buffer, 0, length);
+                return true;
+            } catch (IOException ex) {
+                HostControllerLogger.ROOT_LOGGER.debugf(ex, "Cannot read chunk of %s", file);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Index of the chunks of the archives in the local deployment root of a slave HC. Contents are immutable, so each
+     * one is split only once.
+     */
+    public static final class LocalChunkIndex {
+        private static final int MAX_INDEXED_CONTENTS = 32;
+        private final File deploymentRoot;
+        private final Map<String, List<ChunkLocation>> indexedContents = new HashMap<>();
+        private final Map<Long, ChunkLocation> chunks = new LinkedHashMap<>();
+
+        public LocalChunkIndex(File deploymentRoot) {
+            this.deploymentRoot = deploymentRoot;
+        }
+
+        /**
+         * Gets the chunks of the most recent local archives.
+         *
+         * @return a copy of the chunks indexed by their identifier, those of the most recent archives first.
+         */
+        public synchronized Map<Long, ChunkLocation> getChunks() {
+            final List<File> contents = new ArrayList<>();
+            final File[] prefixes = deploymentRoot.listFiles(File::isDirectory);
+            if (prefixes != null) {
+                for (File prefix : prefixes) {
+                    final File[] hashes = prefix.listFiles(File::isDirectory);
+                    if (hashes != null) {
+                        for (File hash : hashes) {
+                            final File content = new File(hash, CONTENT);
+                            if (content.isFile()) {
+                                contents.add(content);
+                            }
+                        }
+                    }
+                }
+            }
+            contents.sort(Comparator.comparingLong(File::lastModified).reversed());
+            final Map<String, List<ChunkLocation>> current = new LinkedHashMap<>();
+            for (File content : contents.subList(0, Math.min(contents.size(), MAX_INDEXED_CONTENTS))) {
+                final String hash = content.getParentFile().getParentFile().getName() + content.getParentFile().getName();
+                List<ChunkLocation> locations = indexedContents.get(hash);
+                if (locations == null) {
+                    try {
+                        locations = index(content);
+                    } catch (IOException ex) {
+                        HostControllerLogger.ROOT_LOGGER.debugf(ex, "Cannot index content %s", content);
+                        continue;
+                    }
+                }
+                current.put(hash, locations);
+            }
+            if (!current.keySet().equals(indexedContents.keySet())) {
+                indexedContents.keySet().retainAll(current.keySet());
+                indexedContents.putAll(current);
+                chunks.clear();
+                for (List<ChunkLocation> locations : current.values()) {
+                    for (ChunkLocation location : locations) {
+                        chunks.putIfAbsent(location.id, location);
+                    }
+                }
+            }
+            return new LinkedHashMap<>(chunks);
+        }
+
+        private static List<ChunkLocation> index(File content) throws IOException {
+            final List<ChunkLocation> locations = new ArrayList<>();
+            final MessageDigest digest = createDigest();
+            final long[] offset = {0L};
+            try (InputStream in = new FileInputStream(content)) {
+                ContentChunker.split(in, (buffer, off, length) -> {
+                    locations.add(new ChunkLocation(getChunkId(digest, buffer, off, length), content, offset[0], length));
+                    offset[0] += length;
+                });
+            }
+            return locations;
+        }
+    }
+}
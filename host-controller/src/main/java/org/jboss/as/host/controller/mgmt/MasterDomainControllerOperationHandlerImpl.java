@@ -68,6 +68,9 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
             } case DomainControllerProtocol.GET_FILE_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new GetFileOperation();
+            } case DomainControllerProtocol.GET_FILE_DELTA_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetFileDeltaOperation();
             } case DomainControllerProtocol.SERVER_INSTABILITY_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new ServerUnstableHandler();
@@ -100,29 +103,42 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
         @Override
         void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileOperation with id %d from %s", context.getOperationId(), hostId);
-            final RootFileReader reader = new RootFileReader() {
-                public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
-                    final HostFileRepository localFileRepository = domainController.getLocalFileRepository();
-
-                    switch (rootId) {
-                        case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
-                            return localFileRepository.getFile(filePath);
-                        }
-                        case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
-                            return localFileRepository.getConfigurationFile(filePath);
-                        }
-                        case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
-                            byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                            return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
-                        }
-                        default: {
-                            throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
-                        }
-                    }
-                }
-            };
+            remoteSupport.handleRequest(input, new LocalRootFileReader(), resultHandler, context);
+        }
+    }
+
+    private class GetFileDeltaOperation extends AbstractHostRequestHandler {
+
+        private final DomainRemoteFileDeltaRequestAndHandler remoteSupport = new DomainRemoteFileDeltaRequestAndHandler(asyncExecutor);
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileDeltaOperation with id %d from %s", context.getOperationId(), hostId);
+            remoteSupport.handleRequest(input, new LocalRootFileReader(), resultHandler, context);
+        }
+    }
+
+    private class LocalRootFileReader implements RootFileReader {
+
+        @Override
+        public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
+            final HostFileRepository localFileRepository = domainController.getLocalFileRepository();
 
-            remoteSupport.handleRequest(input, reader, resultHandler, context);
+            switch (rootId) {
+                case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
+                    return localFileRepository.getFile(filePath);
+                }
+                case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
+                    return localFileRepository.getConfigurationFile(filePath);
+                }
+                case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
+                    byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                    return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                }
+                default: {
+                    throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
+                }
+            }
         }
     }
 
@@ -45,6 +45,7 @@ import org.jboss.as.controller.access.management.ManagementSecurityIdentitySuppl
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.ExtensionRegistryType;
@@ -88,6 +89,7 @@ import org.jboss.as.host.controller.discovery.DiscoveryOptionResourceDefinition;
 import org.jboss.as.host.controller.discovery.DiscoveryOptionsResourceDefinition;
 import org.jboss.as.host.controller.discovery.StaticDiscoveryResourceDefinition;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
+import org.jboss.as.host.controller.mgmt.ContentTransferStatistics;
 import org.jboss.as.host.controller.model.jvm.JvmResourceDefinition;
 import org.jboss.as.host.controller.operations.DomainControllerWriteAttributeHandler;
 import org.jboss.as.host.controller.operations.HostShutdownHandler;
@@ -214,6 +216,30 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
             .setResourceOnly()
             .build();
 
+    static final SimpleAttributeDefinition CONTENT_TRANSFER_COUNT = new SimpleAttributeDefinitionBuilder("content-transfer-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .build();
+    static final SimpleAttributeDefinition CONTENT_DELTA_TRANSFER_COUNT = new SimpleAttributeDefinitionBuilder("content-delta-transfer-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .build();
+    static final SimpleAttributeDefinition CONTENT_TRANSFER_BYTES_RECEIVED = new SimpleAttributeDefinitionBuilder("content-transfer-bytes-received", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .build();
+    static final SimpleAttributeDefinition CONTENT_TRANSFER_BYTES_SAVED = new SimpleAttributeDefinitionBuilder("content-transfer-bytes-saved", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .build();
+    static final SimpleAttributeDefinition CONTENT_TRANSFER_TIME = new SimpleAttributeDefinitionBuilder("content-transfer-time", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
     public static final ObjectTypeAttributeDefinition DC_LOCAL = new ObjectTypeAttributeDefinition.Builder(ModelDescriptionConstants.LOCAL)
             .build();
 
@@ -252,6 +278,7 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
     private final ManagementSecurityIdentitySupplier securityIdentitySupplier;
     private final ManagedAuditLogger auditLogger;
     private final BootErrorCollector bootErrorCollector;
+    private final ContentTransferStatistics transferStatistics;
 
     public HostResourceDefinition(final String hostName,
                                   final HostControllerConfigurationPersister configurationPersister,
@@ -272,6 +299,32 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
                                   final ManagementSecurityIdentitySupplier securityIdentitySupplier,
                                   final ManagedAuditLogger auditLogger,
                                   final BootErrorCollector bootErrorCollector) {
+        this(hostName, configurationPersister, environment, runningModeControl, localFileRepository, hostControllerInfo,
+                serverInventory, remoteFileRepository, contentRepository, domainController, hostExtensionRegistry, vaultReader,
+                ignoredRegistry, processState, pathManager, authorizer, securityIdentitySupplier, auditLogger, bootErrorCollector,
+                new ContentTransferStatistics());
+    }
+
+    public HostResourceDefinition(final String hostName,
+                                  final HostControllerConfigurationPersister configurationPersister,
+                                  final HostControllerEnvironment environment,
+                                  final HostRunningModeControl runningModeControl,
+                                  final HostFileRepository localFileRepository,
+                                  final LocalHostControllerInfoImpl hostControllerInfo,
+                                  final ServerInventory serverInventory,
+                                  final HostFileRepository remoteFileRepository,
+                                  final ContentRepository contentRepository,
+                                  final DomainController domainController,
+                                  final ExtensionRegistry hostExtensionRegistry,
+                                  final AbstractVaultReader vaultReader,
+                                  final IgnoredDomainResourceRegistry ignoredRegistry,
+                                  final ControlledProcessState processState,
+                                  final PathManagerService pathManager,
+                                  final DelegatingConfigurableAuthorizer authorizer,
+                                  final ManagementSecurityIdentitySupplier securityIdentitySupplier,
+                                  final ManagedAuditLogger auditLogger,
+                                  final BootErrorCollector bootErrorCollector,
+                                  final ContentTransferStatistics transferStatistics) {
         super(new Parameters(PathElement.pathElement(HOST, hostName), HostModelUtil.getResourceDescriptionResolver())
                 .setCapabilities(HOST_RUNTIME_CAPABILITY));
         this.configurationPersister = configurationPersister;
@@ -292,6 +345,7 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
         this.securityIdentitySupplier = securityIdentitySupplier;
         this.auditLogger = auditLogger;
         this.bootErrorCollector = bootErrorCollector;
+        this.transferStatistics = transferStatistics;
     }
 
     @Override
@@ -332,6 +386,11 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
         hostRegistration.registerReadOnlyAttribute(HostResourceDefinition.HOST_STATE, new ProcessStateAttributeHandler(processState));
         hostRegistration.registerReadOnlyAttribute(ServerRootResourceDefinition.RUNNING_MODE, new RunningModeReadHandler(runningModeControl));
         hostRegistration.registerReadOnlyAttribute(ServerRootResourceDefinition.SUSPEND_STATE, SuspendStateReadHandler.INSTANCE);
+        hostRegistration.registerMetric(CONTENT_TRANSFER_COUNT, (context, operation) -> context.getResult().set(transferStatistics.getTransferCount()));
+        hostRegistration.registerMetric(CONTENT_DELTA_TRANSFER_COUNT, (context, operation) -> context.getResult().set(transferStatistics.getDeltaTransferCount()));
+        hostRegistration.registerMetric(CONTENT_TRANSFER_BYTES_RECEIVED, (context, operation) -> context.getResult().set(transferStatistics.getBytesReceived()));
+        hostRegistration.registerMetric(CONTENT_TRANSFER_BYTES_SAVED, (context, operation) -> context.getResult().set(transferStatistics.getBytesSaved()));
+        hostRegistration.registerMetric(CONTENT_TRANSFER_TIME, (context, operation) -> context.getResult().set(transferStatistics.getTransferTime()));
     }
 
 
@@ -137,7 +137,8 @@ public class HttpManagementAddHandler extends BaseHttpInterfaceAddStepHandler {
         final ServiceName requestProcessorName = UndertowHttpManagementService.SERVICE_NAME.append("requests");
         HttpManagementRequestsService.installService(requestProcessorName, serviceTarget);
 
-        final UndertowHttpManagementService service = new UndertowHttpManagementService(consoleMode, environment.getProductConfig().getConsoleSlot());
+        final UndertowHttpManagementService service = new UndertowHttpManagementService(consoleMode, environment.getProductConfig().getConsoleSlot(),
+                commonPolicy.isMetricsEnabled());
         CapabilityServiceBuilder<?> builder = serviceTarget.addCapability(EXTENSIBLE_HTTP_MANAGEMENT_CAPABILITY, service)
                 .addCapabilityRequirement("org.wildfly.network.interface",
                         NetworkInterfaceBinding.class, service.getInterfaceInjector(), interfaceName)
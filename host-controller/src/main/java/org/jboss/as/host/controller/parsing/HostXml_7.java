@@ -419,6 +419,10 @@ final class HostXml_7 extends CommonXml implements ManagementXmlDelegate {
                         HttpManagementResourceDefinition.CONSOLE_ENABLED.parseAndSetParameter(value, addOp, reader);
                         break;
                     }
+                    case METRICS_ENABLED: {
+                        HttpManagementResourceDefinition.METRICS_ENABLED.parseAndSetParameter(value, addOp, reader);
+                        break;
+                    }
                     case HTTP_UPGRADE_ENABLED: {
                         ModelNode httpUpgrade = addOp.get(HTTP_UPGRADE);
                         HttpManagementResourceDefinition.ENABLED.parseAndSetParameter(value, httpUpgrade, reader);
@@ -1694,6 +1698,7 @@ final class HostXml_7 extends CommonXml implements ManagementXmlDelegate {
         HttpManagementResourceDefinition.SSL_CONTEXT.marshallAsAttribute(protocol, writer);
         HttpManagementResourceDefinition.SECURITY_REALM.marshallAsAttribute(protocol, writer);
         HttpManagementResourceDefinition.CONSOLE_ENABLED.marshallAsAttribute(protocol, writer);
+        HttpManagementResourceDefinition.METRICS_ENABLED.marshallAsAttribute(protocol, writer);
         HttpManagementResourceDefinition.ALLOWED_ORIGINS.getMarshaller().marshallAsAttribute(
                 HttpManagementResourceDefinition.ALLOWED_ORIGINS, protocol, true, writer);
         HttpManagementResourceDefinition.SASL_PROTOCOL.marshallAsAttribute(protocol, writer);
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the dispatch of domain operations to the slave hosts by {@link DomainSlaveHandler}.
+ */
+public class DomainSlaveHandlerDispatchTestCase {
+
+    @Test
+    public void testDispatchConcurrency() {
+        Assert.assertEquals(DomainSlaveHandler.DEFAULT_DISPATCH_CONCURRENCY, DomainSlaveHandler.getDispatchConcurrency(null));
+        Assert.assertEquals(4, DomainSlaveHandler.getDispatchConcurrency("4"));
+        Assert.assertEquals(8, DomainSlaveHandler.getDispatchConcurrency(" 8 "));
+        Assert.assertEquals(DomainSlaveHandler.DEFAULT_DISPATCH_CONCURRENCY, DomainSlaveHandler.getDispatchConcurrency("many"));
+        Assert.assertEquals(1, DomainSlaveHandler.getDispatchConcurrency("0"));
+        Assert.assertEquals(1, DomainSlaveHandler.getDispatchConcurrency("-2"));
+    }
+
+    @Test
+    public void testBoundedDispatch() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Map<String, Supplier<String>> tasks = new LinkedHashMap<>();
+        final List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final String host = "host" + i;
+            hosts.add(host);
+            tasks.put(host, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return host + "-sent";
+            });
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final Map<String, String> results = new LinkedHashMap<>();
+            DomainSlaveHandler.dispatch(tasks, executor, 3, results);
+            Assert.assertEquals(hosts, new ArrayList<>(results.keySet()));
+            for (Map.Entry<String, String> entry : results.entrySet()) {
+                Assert.assertEquals(entry.getKey() + "-sent", entry.getValue());
+            }
+            Assert.assertTrue("Up to " + maxRunning.get() + " tasks ran at once", maxRunning.get() <= 3);
+            Assert.assertTrue("Tasks didn't run in parallel", maxRunning.get() > 1);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRejectedTasksRunOnCaller() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        final Thread caller = Thread.currentThread();
+        final Map<String, Supplier<Boolean>> tasks = new LinkedHashMap<>();
+        tasks.put("host1", () -> Thread.currentThread() == caller);
+        tasks.put("host2", () -> Thread.currentThread() == caller);
+        final Map<String, Boolean> results = new LinkedHashMap<>();
+        DomainSlaveHandler.dispatch(tasks, executor, 2, results);
+        Assert.assertEquals(2, results.size());
+        Assert.assertTrue(results.get("host1"));
+        Assert.assertTrue(results.get("host2"));
+    }
+}
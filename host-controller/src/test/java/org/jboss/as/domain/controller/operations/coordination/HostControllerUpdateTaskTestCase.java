@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.TransformingProxyController;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the preparation of the operations sent to the slave hosts by {@link HostControllerUpdateTask}.
+ */
+public class HostControllerUpdateTaskTestCase {
+
+    @Test
+    public void testOnlyPreparationUsesTheContext() throws Exception {
+        final Thread stepThread = Thread.currentThread();
+        final List<String> contextCallsFromOtherThreads = new CopyOnWriteArrayList<>();
+        final InputStream attachment = new ByteArrayInputStream(new byte[1]);
+        final OperationContext context = (OperationContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {OperationContext.class}, (proxy, method, args) -> {
+                    if (Thread.currentThread() != stepThread) {
+                        contextCallsFromOtherThreads.add(method.getName());
+                    }
+                    switch (method.getName()) {
+                        case "getAttachmentStreamCount":
+                            return 1;
+                        case "getAttachmentStream":
+                            return attachment;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        final AtomicReference<Thread> transformingThread = new AtomicReference<>();
+        final AtomicReference<TransactionalProtocolClient.Operation> sent = new AtomicReference<>();
+        final TransactionalProtocolClient client = (TransactionalProtocolClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {TransactionalProtocolClient.class}, (proxy, method, args) -> {
+                    sent.set((TransactionalProtocolClient.Operation) args[1]);
+                    return null;
+                });
+        final TransformingProxyController proxyController = (TransformingProxyController) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {TransformingProxyController.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getProtocolClient":
+                            return client;
+                        case "getTransformers":
+                            return null;
+                        case "transformOperation":
+                            transformingThread.set(Thread.currentThread());
+                            final ModelNode transformed = ((ModelNode) args[1]).clone();
+                            transformed.get(OP).set("transformed");
+                            return new OperationTransformer.TransformedOperation(transformed, OperationResultTransformer.ORIGINAL_RESULT);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set("test");
+        operation.get(OPERATION_HEADERS, "header").set(true);
+
+        final HostControllerUpdateTask task = new HostControllerUpdateTask("host", operation, context, proxyController, null);
+        final HostControllerUpdateTask.HostRequest request = task.prepare(new HostControllerUpdateTask.ProxyOperationListener());
+        Assert.assertSame(stepThread, transformingThread.get());
+        Assert.assertNull(sent.get());
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertNotNull(executor.submit(request::send).get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals("transformed", sent.get().getOperation().get(OP).asString());
+        Assert.assertTrue(sent.get().getOperation().get(OPERATION_HEADERS, "header").asBoolean());
+        Assert.assertTrue(sent.get().getOperation().get(OPERATION_HEADERS, ServerOperationsResolverHandler.DOMAIN_PUSH_TO_SERVERS).asBoolean());
+        // the protocol client reads the attachments while sending, they have been read from the context beforehand
+        Assert.assertEquals(1, sent.get().getAttachments().getInputStreams().size());
+        Assert.assertSame(attachment, sent.get().getAttachments().getInputStreams().get(0));
+        Assert.assertEquals(contextCallsFromOtherThreads.toString(), 0, contextCallsFromOtherThreads.size());
+    }
+}
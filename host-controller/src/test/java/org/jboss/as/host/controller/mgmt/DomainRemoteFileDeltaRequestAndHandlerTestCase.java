@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the delta transfer of deployment contents from the master to a slave host controller.
+ */
+public class DomainRemoteFileDeltaRequestAndHandlerTestCase {
+
+    private final DomainRemoteFileDeltaRequestAndHandler handler = new DomainRemoteFileDeltaRequestAndHandler(null);
+    private File root;
+    private File slaveRoot;
+    private File masterContent;
+    private byte[] newVersion;
+    private String newHash;
+
+    @Before
+    public void setup() throws Exception {
+        root = Files.createTempDirectory("delta").toFile();
+        slaveRoot = new File(root, "slave");
+        byte[] oldVersion = new byte[512 * 1024];
+        new Random(17L).nextBytes(oldVersion);
+        newVersion = oldVersion.clone();
+        for (int i = 200000; i < 200100; i++) {
+            newVersion[i] = (byte) ~newVersion[i];
+        }
+        writeContent(new File(slaveRoot, "aa/" + hash(oldVersion).substring(2)), oldVersion);
+        newHash = hash(newVersion);
+        masterContent = writeContent(new File(root, "master"), newVersion);
+    }
+
+    @After
+    public void cleanup() {
+        delete(root);
+    }
+
+    @Test
+    public void testDeltaTransfer() throws Exception {
+        DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex index = new DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex(slaveRoot);
+        Map<Long, DomainRemoteFileDeltaRequestAndHandler.ChunkLocation> localChunks = index.getChunks();
+        Assert.assertFalse(localChunks.isEmpty());
+
+        File localPath = new File(slaveRoot, newHash.substring(0, 2) + "/" + newHash.substring(2));
+        DomainRemoteFileDeltaRequestAndHandler.DeltaTransfer transfer = handler.handleResponse(
+                writeResponse(new HashSet<>(localChunks.keySet())), localPath, newHash, localChunks);
+        Assert.assertNotNull(transfer);
+        Assert.assertEquals(newVersion.length, transfer.getSize());
+        Assert.assertTrue("Received " + transfer.getReceived(), transfer.getReceived() < newVersion.length / 4);
+        Assert.assertArrayEquals(newVersion, Files.readAllBytes(new File(localPath, DomainRemoteFileDeltaRequestAndHandler.CONTENT).toPath()));
+    }
+
+    @Test
+    public void testMissingLocalChunk() throws Exception {
+        DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex index = new DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex(slaveRoot);
+        Map<Long, DomainRemoteFileDeltaRequestAndHandler.ChunkLocation> localChunks = index.getChunks();
+
+        // The master refers to chunks the slave no longer has
+        File localPath = new File(slaveRoot, newHash.substring(0, 2) + "/" + newHash.substring(2));
+        Assert.assertNull(handler.handleResponse(writeResponse(new HashSet<>(localChunks.keySet())), localPath, newHash,
+                Collections.emptyMap()));
+        Assert.assertFalse(localPath.exists());
+    }
+
+    @Test
+    public void testChunksAreCopied() throws Exception {
+        DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex index = new DomainRemoteFileDeltaRequestAndHandler.LocalChunkIndex(slaveRoot);
+        Map<Long, DomainRemoteFileDeltaRequestAndHandler.ChunkLocation> localChunks = index.getChunks();
+        int size = localChunks.size();
+        localChunks.clear();
+        Assert.assertEquals(size, index.getChunks().size());
+    }
+
+    @Test
+    public void testAdvertisedChunksAreBounded() throws Exception {
+        List<Long> localChunks = new ArrayList<>();
+        for (long i = 0; i < DomainRemoteFileDeltaRequestAndHandler.MAX_ADVERTISED_CHUNKS + 10; i++) {
+            localChunks.add(i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TestOutput output = new TestOutput(bytes)) {
+            handler.sendRequest(output, newHash, localChunks);
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertEquals(DomainControllerProtocol.PARAM_ROOT_ID, input.readByte());
+        Assert.assertEquals(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, input.readByte());
+        Assert.assertEquals(DomainControllerProtocol.PARAM_FILE_PATH, input.readByte());
+        Assert.assertEquals(newHash, input.readUTF());
+        Assert.assertEquals(DomainControllerProtocol.PARAM_NUM_CHUNKS, input.readByte());
+        Assert.assertEquals(DomainRemoteFileDeltaRequestAndHandler.MAX_ADVERTISED_CHUNKS, input.readInt());
+
+        // The master rejects more chunks than a slave may advertise
+        bytes = new ByteArrayOutputStream();
+        try (TestOutput output = new TestOutput(bytes)) {
+            output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID);
+            output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(newHash);
+            output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+            output.writeInt(DomainRemoteFileDeltaRequestAndHandler.MAX_ADVERTISED_CHUNKS + 1);
+        }
+        try {
+            handler.handleRequest(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), null, null, null);
+            Assert.fail("Too many chunks accepted");
+        } catch (IOException expected) {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("WFLYHC0212"));
+        }
+    }
+
+    @Test
+    public void testInvalidChunkLength() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TestOutput output = new TestOutput(bytes)) {
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_SIZE);
+            output.writeLong(newVersion.length);
+            output.writeByte(DomainControllerProtocol.CHUNK_DATA);
+            output.writeInt(newVersion.length);
+        }
+        File localPath = new File(slaveRoot, newHash.substring(0, 2) + "/" + newHash.substring(2));
+        try {
+            handler.handleResponse(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), localPath, newHash,
+                    Collections.emptyMap());
+            Assert.fail("Chunk longer than the maximum accepted");
+        } catch (IOException expected) {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("WFLYHC0213"));
+        }
+        Assert.assertFalse(localPath.exists());
+    }
+
+    private DataInputStream writeResponse(HashSet<Long> remoteChunks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TestOutput output = new TestOutput(bytes)) {
+            handler.writeResponse(masterContent, remoteChunks, output);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static File writeContent(File dir, byte[] bytes) throws IOException {
+        Assert.assertTrue(dir.mkdirs());
+        File content = new File(dir, DomainRemoteFileDeltaRequestAndHandler.CONTENT);
+        Files.write(content.toPath(), bytes);
+        return content;
+    }
+
+    private static String hash(byte[] bytes) throws Exception {
+        return HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(bytes));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class TestOutput extends DataOutputStream implements FlushableDataOutput {
+        TestOutput(OutputStream out) {
+            super(out);
+        }
+    }
+}
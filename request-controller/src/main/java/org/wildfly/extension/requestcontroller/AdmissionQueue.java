@@ -0,0 +1,302 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The queue of tasks waiting for the request controller to admit them.
+ * <p/>
+ * Tasks are grouped in priority classes, given by the priority of the entry point of their control point, and a higher
+ * priority class is always served first. Within a class tasks are served in FIFO order or, with fair queuing, round
+ * robin across deployments where each deployment may run as many tasks in a row as its weight.
+ * <p/>
+ * The queue can be bounded. Once it is full a new task is rejected, or with load shedding it replaces the most recent
+ * task that isn't forced of the lowest priority class lower than its own, taken from the busiest deployment of that
+ * class first. Forced tasks are never rejected nor shed.
+ *
+ * @see RequestController#queueTask
+ */
+final class AdmissionQueue {
+
+    static final String REJECT = "reject";
+    static final String SHED_LOWEST_PRIORITY = "shed-lowest-priority";
+
+    // Upper bounds in milliseconds of the buckets of the wait time histogram, the last one is unbounded
+    private static final long[] WAIT_TIME_BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+    private static final String UNBOUNDED_BUCKET = "+Inf";
+
+    private final int maxSize;
+    private final boolean fair;
+    private final boolean shedLowestPriority;
+    private final Map<String, Integer> entryPointPriorities;
+    private final Map<String, Integer> deploymentWeights;
+
+    private final TreeMap<Integer, PriorityClass> classes = new TreeMap<>(Collections.reverseOrder());
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder[] waitTimes = new LongAdder[WAIT_TIME_BUCKETS.length + 1];
+
+    /**
+     * Creates an unbounded FIFO queue.
+     */
+    AdmissionQueue() {
+        this(-1, false, false, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * @param maxSize              the maximum number of queued tasks, or a value lower than 1 for no limit
+     * @param fair                 whether tasks of the same priority are served round robin across deployments
+     * @param shedLowestPriority   whether a task may replace a task of lower priority when the queue is full
+     * @param entryPointPriorities the priorities of the entry points, 0 if absent
+     * @param deploymentWeights    the weights of the deployments, 1 if absent
+     */
+    AdmissionQueue(int maxSize, boolean fair, boolean shedLowestPriority, Map<String, Integer> entryPointPriorities, Map<String, Integer> deploymentWeights) {
+        this.maxSize = maxSize;
+        this.fair = fair;
+        this.shedLowestPriority = shedLowestPriority;
+        this.entryPointPriorities = entryPointPriorities;
+        this.deploymentWeights = deploymentWeights;
+        for (int i = 0; i < waitTimes.length; i++) {
+            waitTimes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return whether the queue is empty, without locking it
+     */
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Adds a task to the queue.
+     *
+     * @param task the task
+     * @return {@code null} if the task was queued, the task itself if it was rejected, or the task it replaced. The
+     * returned task must be cancelled by the caller.
+     */
+    synchronized RequestController.QueuedTask offer(RequestController.QueuedTask task) {
+        final int priority = getPriority(task);
+        RequestController.QueuedTask shed = null;
+        if (maxSize > 0 && !task.isForced() && size.get() >= maxSize) {
+            rejected.increment();
+            shed = shedLowestPriority ? removeLowerPriorityTask(priority) : null;
+            if (shed == null) {
+                return task;
+            }
+        }
+        final String deployment = task.getControlPoint().getDeployment();
+        final String key = fair ? deployment : null;
+        final PriorityClass priorityClass = classes.computeIfAbsent(priority, p -> new PriorityClass());
+        SubQueue subQueue = priorityClass.subQueues.get(key);
+        if (subQueue == null) {
+            subQueue = new SubQueue(key, fair ? deploymentWeights.getOrDefault(deployment, 1) : 1);
+            priorityClass.subQueues.put(key, subQueue);
+            priorityClass.rotation.addLast(subQueue);
+        }
+        subQueue.tasks.addLast(task);
+        size.incrementAndGet();
+        return shed;
+    }
+
+    /**
+     * @return the next task to run, or {@code null} if the queue is empty
+     */
+    synchronized RequestController.QueuedTask poll() {
+        final Map.Entry<Integer, PriorityClass> first = classes.firstEntry();
+        if (first == null) {
+            return null;
+        }
+        final PriorityClass priorityClass = first.getValue();
+        final SubQueue subQueue = priorityClass.rotation.peekFirst();
+        if (subQueue.credit == 0) {
+            subQueue.credit = subQueue.weight;
+        }
+        final RequestController.QueuedTask task = subQueue.tasks.pollFirst();
+        subQueue.credit--;
+        if (subQueue.tasks.isEmpty()) {
+            priorityClass.rotation.pollFirst();
+            priorityClass.subQueues.remove(subQueue.key);
+            if (priorityClass.rotation.isEmpty()) {
+                classes.remove(first.getKey());
+            }
+        } else if (subQueue.credit == 0) {
+            priorityClass.rotation.addLast(priorityClass.rotation.pollFirst());
+        }
+        size.decrementAndGet();
+        return task;
+    }
+
+    /**
+     * @return the next task that must run even if the container is suspended, or {@code null} if there is none
+     */
+    synchronized RequestController.QueuedTask pollForced() {
+        for (Iterator<PriorityClass> classIterator = classes.values().iterator(); classIterator.hasNext(); ) {
+            final PriorityClass priorityClass = classIterator.next();
+            for (Iterator<SubQueue> queueIterator = priorityClass.rotation.iterator(); queueIterator.hasNext(); ) {
+                final SubQueue subQueue = queueIterator.next();
+                for (Iterator<RequestController.QueuedTask> taskIterator = subQueue.tasks.iterator(); taskIterator.hasNext(); ) {
+                    final RequestController.QueuedTask task = taskIterator.next();
+                    if (task.isForced()) {
+                        taskIterator.remove();
+                        size.decrementAndGet();
+                        if (subQueue.tasks.isEmpty()) {
+                            queueIterator.remove();
+                            priorityClass.subQueues.remove(subQueue.key);
+                            if (priorityClass.rotation.isEmpty()) {
+                                classIterator.remove();
+                            }
+                        }
+                        return task;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes a task that timed out while queued. Only the sub queue the task was added to is searched.
+     *
+     * @param task the task
+     */
+    synchronized void remove(RequestController.QueuedTask task) {
+        final int priority = getPriority(task);
+        final PriorityClass priorityClass = classes.get(priority);
+        if (priorityClass == null) {
+            return;
+        }
+        final SubQueue subQueue = priorityClass.subQueues.get(fair ? task.getControlPoint().getDeployment() : null);
+        if (subQueue == null || !subQueue.tasks.remove(task)) {
+            return;
+        }
+        size.decrementAndGet();
+        if (subQueue.tasks.isEmpty()) {
+            priorityClass.rotation.remove(subQueue);
+            priorityClass.subQueues.remove(subQueue.key);
+            if (priorityClass.rotation.isEmpty()) {
+                classes.remove(priority);
+            }
+        }
+    }
+
+    void recordWaitTime(long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < WAIT_TIME_BUCKETS.length && millis > WAIT_TIME_BUCKETS[bucket]) {
+            bucket++;
+        }
+        waitTimes[bucket].increment();
+    }
+
+    /**
+     * @return the number of tasks that were rejected or shed because the queue was full
+     */
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the number of tasks that ran after waiting in the queue, keyed by the upper bound in milliseconds of
+     * their wait time
+     */
+    Map<String, Long> getWaitTimeHistogram() {
+        final Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < WAIT_TIME_BUCKETS.length; i++) {
+            histogram.put(Long.toString(WAIT_TIME_BUCKETS[i]), waitTimes[i].sum());
+        }
+        histogram.put(UNBOUNDED_BUCKET, waitTimes[WAIT_TIME_BUCKETS.length].sum());
+        return histogram;
+    }
+
+    private int getPriority(RequestController.QueuedTask task) {
+        return entryPointPriorities.getOrDefault(task.getControlPoint().getEntryPoint(), 0);
+    }
+
+    /**
+     * Removes the most recent task that isn't forced, searching the classes of lower priority than {@code priority}
+     * from the lowest one and, within a class, the deployments from the busiest one.
+     */
+    private RequestController.QueuedTask removeLowerPriorityTask(int priority) {
+        // The classes are sorted by decreasing priority
+        for (Map.Entry<Integer, PriorityClass> entry : classes.descendingMap().entrySet()) {
+            if (entry.getKey() >= priority) {
+                return null;
+            }
+            final PriorityClass priorityClass = entry.getValue();
+            final List<SubQueue> subQueues = new ArrayList<>(priorityClass.rotation);
+            subQueues.sort(Comparator.comparingInt((SubQueue subQueue) -> subQueue.tasks.size()).reversed());
+            for (SubQueue subQueue : subQueues) {
+                for (Iterator<RequestController.QueuedTask> iterator = subQueue.tasks.descendingIterator(); iterator.hasNext(); ) {
+                    final RequestController.QueuedTask task = iterator.next();
+                    if (!task.isForced()) {
+                        iterator.remove();
+                        size.decrementAndGet();
+                        if (subQueue.tasks.isEmpty()) {
+                            priorityClass.rotation.remove(subQueue);
+                            priorityClass.subQueues.remove(subQueue.key);
+                            if (priorityClass.rotation.isEmpty()) {
+                                classes.remove(entry.getKey());
+                            }
+                        }
+                        return task;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class PriorityClass {
+        private final Map<String, SubQueue> subQueues = new HashMap<>();
+        private final ArrayDeque<SubQueue> rotation = new ArrayDeque<>();
+    }
+
+    private static final class SubQueue {
+        private final String key;
+        private final int weight;
+        private final ArrayDeque<RequestController.QueuedTask> tasks = new ArrayDeque<>();
+        private int credit;
+
+        private SubQueue(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+}
@@ -31,4 +31,12 @@ interface Constants {
     String MAX_REQUESTS = "max-requests";
     String ACTIVE_REQUESTS = "active-requests";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
+    String MAX_QUEUE_SIZE = "max-queue-size";
+    String QUEUE_OVERFLOW_POLICY = "queue-overflow-policy";
+    String FAIR_QUEUING = "fair-queuing";
+    String ENTRY_POINT_PRIORITIES = "entry-point-priorities";
+    String DEPLOYMENT_WEIGHTS = "deployment-weights";
+    String QUEUED_REQUESTS = "queued-requests";
+    String REJECTED_QUEUED_REQUESTS = "rejected-queued-requests";
+    String QUEUE_WAIT_TIME_HISTOGRAM = "queue-wait-time-histogram";
 }
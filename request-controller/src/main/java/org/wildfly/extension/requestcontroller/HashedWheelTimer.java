@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
+
+/**
+ * A hashed wheel timer for the timeouts of queued requests.
+ * <p/>
+ * Timeouts are hashed by their deadline into the buckets of a wheel, which a single thread advances one bucket per
+ * tick, expiring the timeouts of the current bucket that are due. Timeouts due more than one turn of the wheel ahead
+ * wait in their bucket for as many turns as needed. Scheduling and cancelling are constant time and don't contend on a
+ * lock: new and cancelled timeouts are handed to the timer thread through concurrent queues, and a cancelled timeout is
+ * unlinked from its bucket on the next tick instead of staying around until its deadline.
+ * <p/>
+ * Timeouts expire up to one tick late, and their tasks run on the timer thread so they must be short.
+ */
+final class HashedWheelTimer {
+
+    // Upper bound of the timeouts moved into the wheel per tick, so that a burst of new timeouts can't delay expiry
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean stopped;
+
+    // Only accessed by the timer thread
+    private long tick;
+
+    /**
+     * Creates and starts a timer.
+     *
+     * @param name          the name of the timer thread
+     * @param tickDuration  the duration of a tick, which is the precision of the timer
+     * @param unit          the unit of the tick duration
+     * @param ticksPerWheel the number of buckets of the wheel, rounded up to a power of two
+     */
+    HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        int buckets = 1;
+        while (buckets < ticksPerWheel) {
+            buckets <<= 1;
+        }
+        this.wheel = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = buckets - 1;
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedules a task to run once a delay has elapsed.
+     *
+     * @param task  the task, which runs on the timer thread
+     * @param delay the delay
+     * @param unit  the unit of the delay
+     * @return the timeout, which can be cancelled
+     * @throws IllegalStateException if the timer is stopped
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException();
+        }
+        Timeout timeout = new Timeout(this, task, System.nanoTime() - startTime + unit.toNanos(delay));
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the timer. The timeouts that did not expire yet are discarded.
+     */
+    void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (!stopped) {
+            final long deadline = tickNanos * (tick + 1);
+            final long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            removeCancelled();
+            transferScheduled();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+        scheduled.clear();
+        cancelled.clear();
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            // a timeout cancelled before it reached the wheel is dropped by transferScheduled()
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            // a timeout that is already due goes in the current bucket
+            final long expiryTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            wheel[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * A task scheduled to run once its deadline has passed.
+     */
+    static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        // nanoseconds since the start of the timer
+        private final long deadline;
+        private volatile int state = PENDING;
+
+        // Only accessed by the timer thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, so that its task won't run.
+         *
+         * @return {@code false} if the timeout had already expired or been cancelled
+         */
+        boolean cancel() {
+            if (!stateUpdater.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        private void expire() {
+            if (stateUpdater.compareAndSet(this, PENDING, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    RequestControllerLogger.ROOT_LOGGER.failedToRunTimeoutTask(task, t);
+                }
+            }
+        }
+    }
+
+    /**
+     * The timeouts of a slot of the wheel, in a doubly linked list so that a cancelled timeout is unlinked in
+     * constant time.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
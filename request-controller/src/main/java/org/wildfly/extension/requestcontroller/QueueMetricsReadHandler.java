@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.Map;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads handler for the metrics of the queue of the request controller
+ */
+class QueueMetricsReadHandler extends AbstractRuntimeOnlyHandler {
+
+    @Override
+    protected boolean requiresRuntime(OperationContext context) {
+        return true;
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        ServiceController<?> service = context.getServiceRegistry(false).getService(RequestController.SERVICE_NAME);
+        if(service == null) {
+            return;
+        }
+        RequestController requestController = (RequestController) service.getService().getValue();
+        switch (operation.require(NAME).asString()) {
+            case Constants.QUEUED_REQUESTS:
+                context.getResult().set(requestController.getQueuedRequestCount());
+                break;
+            case Constants.REJECTED_QUEUED_REQUESTS:
+                context.getResult().set(requestController.getRejectedQueuedRequestCount());
+                break;
+            case Constants.QUEUE_WAIT_TIME_HISTOGRAM:
+                ModelNode result = context.getResult();
+                for (Map.Entry<String, Long> bucket : requestController.getQueueWaitTimeHistogram().entrySet()) {
+                    result.get(bucket.getKey()).set(bucket.getValue());
+                }
+                break;
+        }
+    }
+}
@@ -34,16 +34,13 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
 
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
@@ -54,6 +51,13 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
  * 1) Graceful shutdown - When the number of active request reaches zero then the container can be gracefully shut down
  * 2) Request limiting - This allows the total number of requests that are active to be limited.
  * <p/>
+ * Active requests are counted by a striped {@link RequestCounter}, so that admission does not contend on a single
+ * counter when there is no request limit. When a limit is set, each admission reserves a permit with a single CAS.
+ * Control points keep a plain atomic count, as there may be many of them and each stripe set is padded to cache lines.
+ * <p/>
+ * Tasks that cannot run yet are held in an {@link AdmissionQueue}, which decides the order they run in and which ones
+ * are rejected once it is full. Their timeouts are scheduled on a {@link HashedWheelTimer}.
+ * <p/>
  *
  * @author Stuart Douglas
  */
@@ -62,16 +66,19 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Deprecated
     public static final ServiceName SERVICE_NAME = RequestControllerRootDefinition.REQUEST_CONTROLLER_CAPABILITY.getCapabilityServiceName();
 
-    private static final AtomicIntegerFieldUpdater<RequestController> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(RequestController.class, "activeRequestCount");
+    // Queued task timeouts are in milliseconds and expire up to one tick late, one turn of the wheel is about 5 seconds
+    private static final long TIMER_TICK_MILLIS = 10;
+    private static final int TIMER_TICKS_PER_WHEEL = 512;
+
     private static final AtomicReferenceFieldUpdater<RequestController, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(RequestController.class, ServerActivityCallback.class, "listener");
 
     private volatile int maxRequestCount = -1;
 
-    private volatile int activeRequestCount = 0;
+    private final RequestCounter activeRequestCount = new RequestCounter();
 
     private volatile boolean paused = false;
 
-    private final Map<ControlPointIdentifier, ControlPoint> entryPoints = new HashMap<>();
+    private final ConcurrentMap<ControlPointIdentifier, ControlPoint> entryPoints = new ConcurrentHashMap<>();
 
     private final InjectedValue<SuspendController> shutdownControllerInjectedValue = new InjectedValue<>();
 
@@ -80,8 +87,15 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private final boolean trackIndividualControlPoints;
 
+    private final AdmissionQueue taskQueue;
+
     public RequestController(boolean trackIndividualControlPoints) {
+        this(trackIndividualControlPoints, new AdmissionQueue());
+    }
+
+    RequestController(boolean trackIndividualControlPoints, AdmissionQueue taskQueue) {
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.taskQueue = taskQueue;
     }
 
     @Override
@@ -89,9 +103,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         listener.done();
     }
 
-    private Timer timer;
-
-    private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
+    private HashedWheelTimer timer;
 
     /**
      * Pause the controller. All existing requests will have a chance to finish, and once all requests are
@@ -105,7 +117,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
 
-        if (activeRequestCountUpdater.get(this) == 0) {
+        if (activeRequestCount.get() == 0) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -122,7 +134,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        while (!taskQueue.isEmpty() && (maxRequestCount < 0 || activeRequestCount.get() < maxRequestCount)) {
             runQueuedTask(false);
         }
     }
@@ -200,38 +212,33 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
-    public synchronized RequestControllerState getState() {
+    public RequestControllerState getState() {
         final List<RequestControllerState.EntryPointState> eps = new ArrayList<>();
         for (ControlPoint controlPoint : entryPoints.values()) {
             eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount()));
         }
-        return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
+        return new RequestControllerState(paused, activeRequestCount.get(), maxRequestCount, eps);
     }
 
     RunResult beginRequest(boolean force) {
+        if (paused && !force) {
+            return RunResult.REJECTED;
+        }
         int maxRequests = maxRequestCount;
-        int active = activeRequestCountUpdater.get(this);
-        boolean success = false;
-        while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
-            if (activeRequestCountUpdater.compareAndSet(this, active, active + 1)) {
-                success = true;
-                break;
-            }
-            active = activeRequestCountUpdater.get(this);
-        }
-        if (success) {
-            //re-check the paused state
-            //this is necessary because there is a race between checking paused and updating active requests
-            //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
-            //matter if it has already been invoked
-            if(!force && paused) {
-                requestComplete();
-                return RunResult.REJECTED;
-            }
-            return RunResult.RUN;
-        } else {
+        if (maxRequests <= 0) {
+            activeRequestCount.increment();
+        } else if (!activeRequestCount.tryIncrement(maxRequests)) {
             return RunResult.REJECTED;
         }
+        //re-check the paused state
+        //this is necessary because there is a race between checking paused and updating active requests
+        //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
+        //matter if it has already been invoked
+        if(!force && paused) {
+            requestComplete();
+            return RunResult.REJECTED;
+        }
+        return RunResult.RUN;
     }
 
     void requestComplete() {
@@ -240,9 +247,9 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private void decrementRequestCount() {
 
-        int result = activeRequestCountUpdater.decrementAndGet(this);
+        activeRequestCount.decrement();
         if (paused) {
-            if (paused && result == 0) {
+            if (activeRequestCount.get() == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
                 if (listener != null) {
                     if (listenerUpdater.compareAndSet(this, listener, null)) {
@@ -264,15 +271,15 @@ public class RequestController implements Service<RequestController>, ServerActi
      * @param entryPointName The entry point name
      * @return The entry point, or null if the request controller is disabled
      */
-    public synchronized ControlPoint getControlPoint(final String deploymentName, final String entryPointName) {
+    public ControlPoint getControlPoint(final String deploymentName, final String entryPointName) {
         ControlPointIdentifier id = new ControlPointIdentifier(deploymentName, entryPointName);
-        ControlPoint ep = entryPoints.get(id);
-        if (ep == null) {
-            ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
-            entryPoints.put(id, ep);
-        }
-        ep.increaseReferenceCount();
-        return ep;
+        return entryPoints.compute(id, (key, ep) -> {
+            if (ep == null) {
+                ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
+            }
+            ep.increaseReferenceCount();
+            return ep;
+        });
     }
 
     /**
@@ -280,11 +287,9 @@ public class RequestController implements Service<RequestController>, ServerActi
      *
      * @param controlPoint The entry point
      */
-    public synchronized void removeControlPoint(ControlPoint controlPoint) {
-        if (controlPoint.decreaseReferenceCount() == 0) {
-            ControlPointIdentifier id = new ControlPointIdentifier(controlPoint.getDeployment(), controlPoint.getEntryPoint());
-            entryPoints.remove(id);
-        }
+    public void removeControlPoint(ControlPoint controlPoint) {
+        ControlPointIdentifier id = new ControlPointIdentifier(controlPoint.getDeployment(), controlPoint.getEntryPoint());
+        entryPoints.compute(id, (key, ep) -> controlPoint.decreaseReferenceCount() == 0 ? null : ep);
     }
 
     /**
@@ -304,7 +309,7 @@ public class RequestController implements Service<RequestController>, ServerActi
      */
     public void setMaxRequestCount(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        while (!taskQueue.isEmpty() && (maxRequestCount < 0 || activeRequestCount.get() < maxRequestCount)) {
             if(!runQueuedTask(false)) {
                 break;
             }
@@ -321,13 +326,13 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Override
     public void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
-        timer = new Timer();
+        timer = new HashedWheelTimer("request-controller-timeouts", TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMER_TICKS_PER_WHEEL);
     }
 
     @Override
     public void stop(StopContext stopContext) {
         shutdownControllerInjectedValue.getValue().unRegisterActivity(this);
-        timer.cancel();
+        timer.stop();
         timer = null;
         while (!taskQueue.isEmpty()) {
             QueuedTask t = taskQueue.poll();
@@ -347,7 +352,28 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     public int getActiveRequestCount() {
-        return activeRequestCount;
+        return activeRequestCount.get();
+    }
+
+    /**
+     * @return the number of tasks waiting to be run
+     */
+    public int getQueuedRequestCount() {
+        return taskQueue.size();
+    }
+
+    /**
+     * @return the number of tasks that were rejected or shed because the queue was full
+     */
+    public long getRejectedQueuedRequestCount() {
+        return taskQueue.getRejectedCount();
+    }
+
+    /**
+     * @return the number of queued tasks that were run, keyed by the upper bound in milliseconds of their wait time
+     */
+    public Map<String, Long> getQueueWaitTimeHistogram() {
+        return taskQueue.getWaitTimeHistogram();
     }
 
     void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
@@ -358,11 +384,23 @@ public class RequestController implements Service<RequestController>, ServerActi
             }
         }
         QueuedTask queuedTask = new QueuedTask(taskExecutor, task, timeoutTask, controlPoint, forceRun);
-        taskQueue.add(queuedTask);
+        QueuedTask rejected = taskQueue.offer(queuedTask);
+        if (rejected != null) {
+            //the queue is full, run the timeout task of the rejected or shed task
+            rejected.cancel();
+            rejected.run();
+            if (rejected == queuedTask) {
+                return;
+            }
+        }
         runQueuedTask(false);
         if(queuedTask.isQueued()) {
             if(timeout > 0) {
-                timer.schedule(queuedTask, timeout);
+                queuedTask.setTimeout(timer.schedule(() -> {
+                    queuedTask.run();
+                    //don't keep counting it against the queue size until it would be polled
+                    taskQueue.remove(queuedTask);
+                }, timeout, TimeUnit.MILLISECONDS));
             }
         }
     }
@@ -383,11 +421,13 @@ public class RequestController implements Service<RequestController>, ServerActi
             task = taskQueue.poll();
         } else {
             //the container is suspended, but we still need to run any force queued tasks
-            task = findForcedTask();
+            task = taskQueue.pollForced();
         }
         if (task != null) {
             if(!task.runRequest()) {
                 decrementRequestCount();
+            } else {
+                taskQueue.recordWaitTime(System.nanoTime() - task.queuedTime);
             }
             return true;
         } else {
@@ -396,23 +436,6 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
-    private QueuedTask findForcedTask() {
-        QueuedTask task = null;
-        List<QueuedTask> storage = new ArrayList<>();
-        while (task == null && !taskQueue.isEmpty()) {
-            QueuedTask tmp = taskQueue.poll();
-            if(tmp.forceRun) {
-                task = tmp;
-            } else {
-                storage.add(tmp);
-            }
-        }
-        //this screws the order somewhat, but the container is suspending anyway, and the order
-        //was never guarenteed. if we push them back onto the front we will need to just go through them again
-        taskQueue.addAll(storage);
-        return task;
-    }
-
     private static final class ControlPointIdentifier {
         private final String deployment, name;
 
@@ -448,20 +471,22 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
 
-    private static final class QueuedTask extends TimerTask {
+    static final class QueuedTask implements Runnable {
 
         private final Executor executor;
         private final Runnable task;
         private final Runnable cancelTask;
         private final ControlPoint controlPoint;
         private final boolean forceRun;
+        private final long queuedTime = System.nanoTime();
+        private volatile HashedWheelTimer.Timeout timeout;
 
         //0 == queued
         //1 == run
         //2 == cancelled
         private final AtomicInteger state = new AtomicInteger(0);
 
-        private QueuedTask(Executor executor, Runnable task, Runnable cancelTask, ControlPoint controlPoint, boolean forceRun) {
+        QueuedTask(Executor executor, Runnable task, Runnable cancelTask, ControlPoint controlPoint, boolean forceRun) {
             this.executor = executor;
             this.task = task;
             this.cancelTask = cancelTask;
@@ -503,9 +528,35 @@ public class RequestController implements Service<RequestController>, ServerActi
             }
         }
 
+        void setTimeout(HashedWheelTimer.Timeout timeout) {
+            this.timeout = timeout;
+            //the task may have run or been cancelled before its timeout was set
+            if (!isQueued()) {
+                timeout.cancel();
+            }
+        }
+
+        /**
+         * Cancels the timeout of this task, if any.
+         */
+        void cancel() {
+            HashedWheelTimer.Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
         boolean isQueued() {
             return state.get() == 0;
         }
+
+        boolean isForced() {
+            return forceRun;
+        }
+
+        ControlPoint getControlPoint() {
+            return controlPoint;
+        }
     }
 
 }
@@ -35,7 +35,10 @@ import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -59,9 +62,51 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    public static final SimpleAttributeDefinition MAX_QUEUE_SIZE = SimpleAttributeDefinitionBuilder.create(Constants.MAX_QUEUE_SIZE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(-1))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition QUEUE_OVERFLOW_POLICY = SimpleAttributeDefinitionBuilder.create(Constants.QUEUE_OVERFLOW_POLICY, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(AdmissionQueue.REJECT))
+            .setValidator(new StringAllowedValuesValidator(AdmissionQueue.REJECT, AdmissionQueue.SHED_LOWEST_PRIORITY))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition FAIR_QUEUING = SimpleAttributeDefinitionBuilder.create(Constants.FAIR_QUEUING, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleMapAttributeDefinition ENTRY_POINT_PRIORITIES = new SimpleMapAttributeDefinition.Builder(Constants.ENTRY_POINT_PRIORITIES, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleMapAttributeDefinition DEPLOYMENT_WEIGHTS = new SimpleMapAttributeDefinition.Builder(Constants.DEPLOYMENT_WEIGHTS, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setElementValidator(new IntRangeValidator(1, false, true))
+            .setRestartAllServices()
+            .build();
+
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    public static final SimpleAttributeDefinition QUEUED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.QUEUED_REQUESTS, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REJECTED_QUEUED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.REJECTED_QUEUED_REQUESTS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleMapAttributeDefinition QUEUE_WAIT_TIME_HISTOGRAM = new SimpleMapAttributeDefinition.Builder(Constants.QUEUE_WAIT_TIME_HISTOGRAM, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     static final RuntimeCapability<Void> REQUEST_CONTROLLER_CAPABILITY =
@@ -85,9 +130,11 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
 
     private static Collection<AttributeDefinition> getAttributeDefinitions(boolean registerRuntimeOnly) {
         if(registerRuntimeOnly) {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ACTIVE_REQUESTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, MAX_QUEUE_SIZE, QUEUE_OVERFLOW_POLICY,
+                    FAIR_QUEUING, ENTRY_POINT_PRIORITIES, DEPLOYMENT_WEIGHTS, ACTIVE_REQUESTS});
         } else {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, MAX_QUEUE_SIZE, QUEUE_OVERFLOW_POLICY,
+                    FAIR_QUEUING, ENTRY_POINT_PRIORITIES, DEPLOYMENT_WEIGHTS});
         }
     }
 
@@ -101,8 +148,19 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
         MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS);
         resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, handler);
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
+        ReloadRequiredWriteAttributeHandler queueHandler = new ReloadRequiredWriteAttributeHandler(MAX_QUEUE_SIZE, QUEUE_OVERFLOW_POLICY,
+                FAIR_QUEUING, ENTRY_POINT_PRIORITIES, DEPLOYMENT_WEIGHTS);
+        resourceRegistration.registerReadWriteAttribute(MAX_QUEUE_SIZE, null, queueHandler);
+        resourceRegistration.registerReadWriteAttribute(QUEUE_OVERFLOW_POLICY, null, queueHandler);
+        resourceRegistration.registerReadWriteAttribute(FAIR_QUEUING, null, queueHandler);
+        resourceRegistration.registerReadWriteAttribute(ENTRY_POINT_PRIORITIES, null, queueHandler);
+        resourceRegistration.registerReadWriteAttribute(DEPLOYMENT_WEIGHTS, null, queueHandler);
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            QueueMetricsReadHandler queueMetricsHandler = new QueueMetricsReadHandler();
+            resourceRegistration.registerMetric(QUEUED_REQUESTS, queueMetricsHandler);
+            resourceRegistration.registerMetric(REJECTED_QUEUED_REQUESTS, queueMetricsHandler);
+            resourceRegistration.registerMetric(QUEUE_WAIT_TIME_HISTOGRAM, queueMetricsHandler);
         }
     }
 
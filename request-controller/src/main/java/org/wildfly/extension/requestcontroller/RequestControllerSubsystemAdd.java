@@ -34,8 +34,11 @@ import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.suspend.SuspendController;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
@@ -67,7 +70,14 @@ class RequestControllerSubsystemAdd extends AbstractBoottimeAddStepHandler {
         int maxRequests = RequestControllerRootDefinition.MAX_REQUESTS.resolveModelAttribute(context, resource.getModel()).asInt();
         boolean trackIndividual = RequestControllerRootDefinition.TRACK_INDIVIDUAL_ENDPOINTS.resolveModelAttribute(context, resource.getModel()).asBoolean();
 
-        RequestController requestController = new RequestController(trackIndividual);
+        int maxQueueSize = RequestControllerRootDefinition.MAX_QUEUE_SIZE.resolveModelAttribute(context, resource.getModel()).asInt();
+        String overflowPolicy = RequestControllerRootDefinition.QUEUE_OVERFLOW_POLICY.resolveModelAttribute(context, resource.getModel()).asString();
+        boolean fairQueuing = RequestControllerRootDefinition.FAIR_QUEUING.resolveModelAttribute(context, resource.getModel()).asBoolean();
+        Map<String, Integer> priorities = resolveIntMap(context, RequestControllerRootDefinition.ENTRY_POINT_PRIORITIES, resource.getModel());
+        Map<String, Integer> weights = resolveIntMap(context, RequestControllerRootDefinition.DEPLOYMENT_WEIGHTS, resource.getModel());
+        AdmissionQueue taskQueue = new AdmissionQueue(maxQueueSize, fairQueuing, AdmissionQueue.SHED_LOWEST_PRIORITY.equals(overflowPolicy), priorities, weights);
+
+        RequestController requestController = new RequestController(trackIndividual, taskQueue);
 
         requestController.setMaxRequestCount(maxRequests);
 
@@ -76,4 +86,15 @@ class RequestControllerSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 .install();
 
     }
+
+    private static Map<String, Integer> resolveIntMap(OperationContext context, AttributeDefinition attribute, ModelNode model) throws OperationFailedException {
+        Map<String, Integer> result = new HashMap<>();
+        ModelNode value = attribute.resolveModelAttribute(context, model);
+        if (value.isDefined()) {
+            for (Property property : value.asPropertyList()) {
+                result.put(property.getName(), property.getValue().asInt());
+            }
+        }
+        return result;
+    }
 }
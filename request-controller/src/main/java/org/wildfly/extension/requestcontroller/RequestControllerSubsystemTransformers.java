@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
+import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+
+/**
+ * Transformers of the request controller subsystem.
+ */
+public class RequestControllerSubsystemTransformers implements ExtensionTransformerRegistration {
+    static final ModelVersion VERSION_1_1 = ModelVersion.create(1, 1);
+
+    @Override
+    public String getSubsystemName() {
+        return RequestControllerExtension.SUBSYSTEM_NAME;
+    }
+
+    @Override
+    public void registerTransformers(SubsystemTransformerRegistration registration) {
+        // Current 1.2.0 to 1.1.0, which has no request queue configuration
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED,
+                        RequestControllerRootDefinition.MAX_QUEUE_SIZE,
+                        RequestControllerRootDefinition.QUEUE_OVERFLOW_POLICY,
+                        RequestControllerRootDefinition.FAIR_QUEUING,
+                        RequestControllerRootDefinition.ENTRY_POINT_PRIORITIES,
+                        RequestControllerRootDefinition.DEPLOYMENT_WEIGHTS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED,
+                        RequestControllerRootDefinition.MAX_QUEUE_SIZE,
+                        RequestControllerRootDefinition.QUEUE_OVERFLOW_POLICY,
+                        RequestControllerRootDefinition.FAIR_QUEUING,
+                        RequestControllerRootDefinition.ENTRY_POINT_PRIORITIES,
+                        RequestControllerRootDefinition.DEPLOYMENT_WEIGHTS);
+        TransformationDescription.Tools.register(builder.build(), registration, VERSION_1_1);
+    }
+}
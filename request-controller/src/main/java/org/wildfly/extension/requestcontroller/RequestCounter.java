@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A striped counter of active requests.
+ * <p/>
+ * There is a single instance per {@link RequestController}: the padded stripes take a few kilobytes, which is too much
+ * to spend on every {@link ControlPoint}.
+ * <p/>
+ * Each thread updates the stripe selected by its id, so that threads starting and completing requests don't all
+ * contend on the same cache line. A stripe holds two monotonic counts, the started and the completed requests, so that
+ * a request may complete on a different stripe than the one it started on.
+ * <p/>
+ * {@link #get()} reads all the completed counts before all the started counts. As a request always starts before it
+ * completes, every completion that is seen has its start seen as well, so the result is never lower than the number of
+ * requests that were active between the two passes. In particular a result of zero means there was an instant with no
+ * active request, which is what graceful suspend relies on: the last request to complete always sees it.
+ * <p/>
+ * When there is a request limit, {@link #tryIncrement(int)} reserves a permit from a single counter with one CAS
+ * instead, as the limit has to be checked against a total anyway. Requests are interchangeable, so a completion releases
+ * a reserved permit if there is one, and otherwise counts on its stripe. The permits are read between the two passes of
+ * {@link #get()}, which keeps the guarantee above. Requests that started on a stripe before the limit was set are not
+ * counted against it, so the limit may be exceeded by that many until they complete.
+ */
+final class RequestCounter {
+
+    private static final int STRIPES;
+    // 8 longs per stripe, so that two stripes never share a cache line
+    private static final int STRIPE_SHIFT = 3;
+
+    static {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() * 2 && stripes < 64) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES << STRIPE_SHIFT);
+    private final AtomicInteger permits = new AtomicInteger();
+
+    void increment() {
+        counts.incrementAndGet(stripe());
+    }
+
+    /**
+     * Counts a request if fewer than {@code limit} requests hold a permit.
+     *
+     * @param limit the maximum number of permits, which must be positive
+     * @return {@code true} if the request was counted
+     */
+    boolean tryIncrement(int limit) {
+        for (;;) {
+            int current = permits.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (permits.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void decrement() {
+        int current;
+        while ((current = permits.get()) > 0) {
+            if (permits.compareAndSet(current, current - 1)) {
+                return;
+            }
+        }
+        counts.incrementAndGet(stripe() + 1);
+    }
+
+    /**
+     * @return the number of active requests, which is exact when no request starts or completes concurrently
+     */
+    int get() {
+        long completed = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            completed += counts.get((i << STRIPE_SHIFT) + 1);
+        }
+        long started = permits.get();
+        for (int i = 0; i < STRIPES; i++) {
+            started += counts.get(i << STRIPE_SHIFT);
+        }
+        return (int) (started - completed);
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return ((int) (id >>> 32) & (STRIPES - 1)) << STRIPE_SHIFT;
+    }
+}
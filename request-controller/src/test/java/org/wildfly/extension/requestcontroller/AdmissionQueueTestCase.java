@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AdmissionQueue}.
+ */
+public class AdmissionQueueTestCase {
+
+    private static final Map<String, Integer> PRIORITIES;
+
+    static {
+        Map<String, Integer> priorities = new HashMap<>();
+        priorities.put("high", 10);
+        priorities.put("low", -1);
+        PRIORITIES = Collections.unmodifiableMap(priorities);
+    }
+
+    @Test
+    public void testHigherPriorityIsServedFirst() {
+        AdmissionQueue queue = new AdmissionQueue(-1, false, false, PRIORITIES, Collections.emptyMap());
+        RequestController.QueuedTask low = task("a.war", "low", false);
+        RequestController.QueuedTask normal = task("a.war", "normal", false);
+        RequestController.QueuedTask high = task("a.war", "high", false);
+        Assert.assertNull(queue.offer(low));
+        Assert.assertNull(queue.offer(normal));
+        Assert.assertNull(queue.offer(high));
+        Assert.assertEquals(3, queue.size());
+        Assert.assertSame(high, queue.poll());
+        Assert.assertSame(normal, queue.poll());
+        Assert.assertSame(low, queue.poll());
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testFullQueueRejects() {
+        AdmissionQueue queue = new AdmissionQueue(2, false, false, PRIORITIES, Collections.emptyMap());
+        Assert.assertNull(queue.offer(task("a.war", "low", false)));
+        Assert.assertNull(queue.offer(task("a.war", "low", false)));
+        RequestController.QueuedTask high = task("a.war", "high", false);
+        Assert.assertSame(high, queue.offer(high));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(1, queue.getRejectedCount());
+    }
+
+    @Test
+    public void testFullQueueShedsNewestTaskOfBusiestLowerPriorityDeployment() {
+        AdmissionQueue queue = new AdmissionQueue(3, true, true, PRIORITIES, Collections.emptyMap());
+        RequestController.QueuedTask first = task("a.war", "low", false);
+        RequestController.QueuedTask second = task("a.war", "low", false);
+        RequestController.QueuedTask other = task("b.war", "low", false);
+        Assert.assertNull(queue.offer(first));
+        Assert.assertNull(queue.offer(second));
+        Assert.assertNull(queue.offer(other));
+
+        RequestController.QueuedTask high = task("c.war", "high", false);
+        Assert.assertSame(second, queue.offer(high));
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(1, queue.getRejectedCount());
+
+        // a task of the lowest priority class is never shed for a task of the same class
+        RequestController.QueuedTask low = task("b.war", "low", false);
+        Assert.assertSame(low, queue.offer(low));
+        Assert.assertEquals(2, queue.getRejectedCount());
+
+        Assert.assertSame(high, queue.poll());
+        Assert.assertSame(first, queue.poll());
+        Assert.assertSame(other, queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testForcedTasksAreNeverRejectedNorShed() {
+        AdmissionQueue queue = new AdmissionQueue(1, false, true, PRIORITIES, Collections.emptyMap());
+        RequestController.QueuedTask forced = task("a.war", "low", true);
+        Assert.assertNull(queue.offer(forced));
+        Assert.assertNull(queue.offer(task("a.war", "low", true)));
+        Assert.assertEquals(2, queue.size());
+        RequestController.QueuedTask high = task("a.war", "high", false);
+        Assert.assertSame(high, queue.offer(high));
+        Assert.assertSame(forced, queue.pollForced());
+    }
+
+    @Test
+    public void testSheddingSkipsForcedTasks() {
+        AdmissionQueue queue = new AdmissionQueue(4, true, true, PRIORITIES, Collections.emptyMap());
+        RequestController.QueuedTask forced = task("a.war", "low", true);
+        RequestController.QueuedTask otherForced = task("a.war", "low", true);
+        RequestController.QueuedTask low = task("b.war", "low", false);
+        RequestController.QueuedTask normal = task("a.war", "normal", false);
+        for (RequestController.QueuedTask task : new RequestController.QueuedTask[] {forced, otherForced, low, normal}) {
+            Assert.assertNull(queue.offer(task));
+        }
+
+        // the busiest deployment of the lowest class only has forced tasks, the next one is searched
+        Assert.assertSame(low, queue.offer(task("c.war", "high", false)));
+        // the lowest class only has forced tasks, the next class is searched
+        Assert.assertSame(normal, queue.offer(task("c.war", "high", false)));
+        // only forced tasks remain below the high class
+        RequestController.QueuedTask rejected = task("c.war", "high", false);
+        Assert.assertSame(rejected, queue.offer(rejected));
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(3, queue.getRejectedCount());
+    }
+
+    @Test
+    public void testTimedOutTaskFreesItsSlot() {
+        AdmissionQueue queue = new AdmissionQueue(2, true, false, PRIORITIES, Collections.emptyMap());
+        RequestController.QueuedTask first = task("a.war", "low", false);
+        RequestController.QueuedTask timedOut = task("b.war", "low", false);
+        Assert.assertNull(queue.offer(first));
+        Assert.assertNull(queue.offer(timedOut));
+
+        timedOut.run();
+        queue.remove(timedOut);
+        Assert.assertEquals(1, queue.size());
+        // removing it again, or a task that was never queued, changes nothing
+        queue.remove(timedOut);
+        queue.remove(task("c.war", "high", false));
+        Assert.assertEquals(1, queue.size());
+
+        RequestController.QueuedTask next = task("b.war", "low", false);
+        Assert.assertNull(queue.offer(next));
+        Assert.assertEquals(0, queue.getRejectedCount());
+        Assert.assertSame(first, queue.poll());
+        Assert.assertSame(next, queue.poll());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testFairQueuingFollowsDeploymentWeights() {
+        AdmissionQueue queue = new AdmissionQueue(-1, true, false, Collections.emptyMap(), Collections.singletonMap("a.war", 2));
+        RequestController.QueuedTask a1 = task("a.war", "normal", false);
+        RequestController.QueuedTask a2 = task("a.war", "normal", false);
+        RequestController.QueuedTask a3 = task("a.war", "normal", false);
+        RequestController.QueuedTask b1 = task("b.war", "normal", false);
+        RequestController.QueuedTask b2 = task("b.war", "normal", false);
+        for (RequestController.QueuedTask task : new RequestController.QueuedTask[] {a1, a2, a3, b1, b2}) {
+            Assert.assertNull(queue.offer(task));
+        }
+        Assert.assertSame(a1, queue.poll());
+        Assert.assertSame(a2, queue.poll());
+        Assert.assertSame(b1, queue.poll());
+        Assert.assertSame(a3, queue.poll());
+        Assert.assertSame(b2, queue.poll());
+        Assert.assertNull(queue.poll());
+    }
+
+    private static RequestController.QueuedTask task(String deployment, String entryPoint, boolean forced) {
+        ControlPoint controlPoint = new ControlPoint(null, deployment, entryPoint, false);
+        return new RequestController.QueuedTask(Runnable::run, () -> { }, null, controlPoint, forced);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link HashedWheelTimer}.
+ */
+public class HashedWheelTimerTestCase {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void createTimer() {
+        timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void stopTimer() {
+        timer.stop();
+    }
+
+    @Test
+    public void testTimeoutExpiresAfterSeveralRounds() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        // 8 buckets of 10ms, so this timeout waits for several turns of the wheel
+        timer.schedule(latch::countDown, 250, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 250);
+    }
+
+    @Test
+    public void testCancelledTimeoutsDontRun() throws Exception {
+        AtomicInteger expired = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            HashedWheelTimer.Timeout timeout = timer.schedule(expired::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+            if (i % 2 == 0) {
+                Assert.assertTrue(timeout.cancel());
+                Assert.assertFalse(timeout.cancel());
+            }
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(500, expired.get());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.io.IOException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the request controller subsystem with the 1.1 schema, which configures the request queue.
+ */
+public class RequestControllerSubsystem11TestCase extends RequestControllerSubsystemTestCase {
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return readResource("request-controller-1.1.xml");
+    }
+
+    @Override
+    protected String getSubsystemXsdPath() throws Exception {
+        return "schema/wildfly-request-controller_1_1.xsd";
+    }
+
+    @Test
+    public void testQueueConfiguration() throws Exception {
+        KernelServices mainServices = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXml(getSubsystemXml())
+                .build();
+        if (!mainServices.isSuccessfulBoot()) {
+            Assert.fail(mainServices.getBootError().toString());
+        }
+        ModelNode model = mainServices.readWholeModel().get(SUBSYSTEM, RequestControllerExtension.SUBSYSTEM_NAME);
+        Assert.assertEquals(500, model.get(Constants.MAX_QUEUE_SIZE).asInt());
+        Assert.assertEquals(AdmissionQueue.SHED_LOWEST_PRIORITY, model.get(Constants.QUEUE_OVERFLOW_POLICY).asString());
+        Assert.assertTrue(model.get(Constants.FAIR_QUEUING).asBoolean());
+        Assert.assertEquals(10, model.get(Constants.ENTRY_POINT_PRIORITIES, "ejb").asInt());
+        Assert.assertEquals(5, model.get(Constants.ENTRY_POINT_PRIORITIES, "undertow").asInt());
+        Assert.assertEquals(4, model.get(Constants.DEPLOYMENT_WEIGHTS, "important.war").asInt());
+
+        ServiceController<?> controller = mainServices.getContainer().getService(RequestController.SERVICE_NAME);
+        controller.setMode(ServiceController.Mode.ACTIVE);
+        controller.awaitValue();
+        ModelNode op = Util.getReadAttributeOperation(PathAddress.pathAddress(SUBSYSTEM, RequestControllerExtension.SUBSYSTEM_NAME), Constants.REJECTED_QUEUED_REQUESTS);
+        ModelNode result = mainServices.executeOperation(op);
+        Assert.assertEquals(result.toString(), "success", result.get("outcome").asString());
+        Assert.assertEquals(0, result.get("result").asLong());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_1_0;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.model.test.FailedOperationTransformationConfig;
+import org.jboss.as.model.test.ModelTestControllerVersion;
+import org.jboss.as.model.test.ModelTestUtils;
+import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.as.subsystem.test.KernelServicesBuilder;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the transformation of the request controller subsystem to the 1.1 model, which has no request queue
+ * configuration.
+ */
+public class RequestControllerSubsystemTransformersTestCase extends AbstractSubsystemBaseTest {
+
+    public RequestControllerSubsystemTransformersTestCase() {
+        super(RequestControllerExtension.SUBSYSTEM_NAME, new RequestControllerExtension());
+    }
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return readResource("request-controller-1.0.xml");
+    }
+
+    @Test
+    public void testTransformerEAP710() throws Exception {
+        testTransformation(EAP_7_1_0);
+    }
+
+    @Test
+    public void testRejectingTransformersEAP710() throws Exception {
+        testRejectingTransformers(EAP_7_1_0);
+    }
+
+    private void testTransformation(ModelTestControllerVersion controllerVersion) throws Exception {
+        final ModelVersion version = RequestControllerSubsystemTransformers.VERSION_1_1;
+        KernelServicesBuilder builder = createKernelServicesBuilder(AdditionalInitialization.MANAGEMENT).setSubsystemXml(getSubsystemXml());
+        builder.createLegacyKernelServicesBuilder(AdditionalInitialization.MANAGEMENT, controllerVersion, version)
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-request-controller:" + controllerVersion.getCoreVersion())
+                .skipReverseControllerCheck()
+                .dontPersistXml();
+
+        KernelServices mainServices = builder.build();
+        Assert.assertTrue(ModelTestControllerVersion.MASTER + " boot failed", mainServices.isSuccessfulBoot());
+        Assert.assertTrue(controllerVersion.getMavenGavVersion() + " boot failed", mainServices.getLegacyServices(version).isSuccessfulBoot());
+
+        // the queue configuration is undefined, so it is discarded
+        checkSubsystemModelTransformation(mainServices, version, null, false);
+        ModelNode transformed = mainServices.readTransformedModel(version).get(SUBSYSTEM, getMainSubsystemName());
+        Assert.assertEquals(100, transformed.get(Constants.MAX_REQUESTS).asInt());
+        Assert.assertFalse(transformed.has(Constants.MAX_QUEUE_SIZE));
+    }
+
+    private void testRejectingTransformers(ModelTestControllerVersion controllerVersion) throws Exception {
+        final ModelVersion version = RequestControllerSubsystemTransformers.VERSION_1_1;
+        KernelServicesBuilder builder = createKernelServicesBuilder(AdditionalInitialization.MANAGEMENT);
+        builder.createLegacyKernelServicesBuilder(AdditionalInitialization.MANAGEMENT, controllerVersion, version)
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-request-controller:" + controllerVersion.getCoreVersion())
+                .dontPersistXml();
+
+        KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        Assert.assertTrue(mainServices.getLegacyServices(version).isSuccessfulBoot());
+
+        List<ModelNode> ops = builder.parseXmlResource("request-controller-1.1.xml");
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, version, ops, new FailedOperationTransformationConfig()
+                .addFailedAttribute(PathAddress.pathAddress(SUBSYSTEM, getMainSubsystemName()),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(
+                                RequestControllerRootDefinition.MAX_QUEUE_SIZE,
+                                RequestControllerRootDefinition.QUEUE_OVERFLOW_POLICY,
+                                RequestControllerRootDefinition.FAIR_QUEUING,
+                                RequestControllerRootDefinition.ENTRY_POINT_PRIORITIES,
+                                RequestControllerRootDefinition.DEPLOYMENT_WEIGHTS)));
+    }
+}
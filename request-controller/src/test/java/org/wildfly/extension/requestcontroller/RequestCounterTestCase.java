@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link RequestCounter}.
+ */
+public class RequestCounterTestCase {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20000;
+
+    @Test
+    public void testConcurrentRequestsCompleteToZero() throws Exception {
+        RequestCounter counter = new RequestCounter();
+        runConcurrently(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                counter.increment();
+                Assert.assertTrue(counter.get() > 0);
+                counter.decrement();
+            }
+        });
+        Assert.assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testLimitIsNeverExceeded() throws Exception {
+        final int limit = 3;
+        RequestCounter counter = new RequestCounter();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (counter.tryIncrement(limit)) {
+                    admitted.incrementAndGet();
+                    int current = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(current, Math::max);
+                    running.decrementAndGet();
+                    counter.decrement();
+                }
+            }
+        });
+        Assert.assertTrue(admitted.get() > 0);
+        Assert.assertTrue(String.valueOf(maxRunning.get()), maxRunning.get() <= limit);
+        Assert.assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testLimitedAndUnlimitedRequestsMix() throws Exception {
+        RequestCounter counter = new RequestCounter();
+        // started before a limit was set
+        counter.increment();
+        counter.increment();
+        Assert.assertTrue(counter.tryIncrement(1));
+        Assert.assertFalse(counter.tryIncrement(1));
+        Assert.assertEquals(3, counter.get());
+        // any completion releases the permit first
+        counter.decrement();
+        Assert.assertEquals(2, counter.get());
+        Assert.assertTrue(counter.tryIncrement(1));
+        counter.decrement();
+        counter.decrement();
+        counter.decrement();
+        Assert.assertEquals(0, counter.get());
+
+        runConcurrently(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (i % 2 == 0) {
+                    counter.increment();
+                } else if (!counter.tryIncrement(THREADS)) {
+                    continue;
+                }
+                counter.decrement();
+            }
+        });
+        Assert.assertEquals(0, counter.get());
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
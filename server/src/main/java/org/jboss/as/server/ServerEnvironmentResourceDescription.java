@@ -43,8 +43,11 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathInfoHandler;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.deployment.DeployerChainsService;
+import org.jboss.as.server.deployment.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * A resource description that describes the server environment.
@@ -61,6 +64,10 @@ public class ServerEnvironmentResourceDescription extends SimpleResourceDefiniti
     public static final AttributeDefinition CONFIG_FILE = SimpleAttributeDefinitionBuilder.create("config-file", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final AttributeDefinition CONTENT_DIR = SimpleAttributeDefinitionBuilder.create("content-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final AttributeDefinition DATA_DIR = SimpleAttributeDefinitionBuilder.create("data-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final AttributeDefinition DEPLOYMENT_PHASE_PARALLELISM = SimpleAttributeDefinitionBuilder.create("deployment-phase-parallelism", ModelType.INT)
+            .setRequired(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
     public static final AttributeDefinition DEPLOY_DIR = SimpleAttributeDefinitionBuilder.create("deploy-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final AttributeDefinition EXT_DIRS = SimpleAttributeDefinitionBuilder.create("ext-dirs", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final AttributeDefinition HOME_DIR = SimpleAttributeDefinitionBuilder.create("home-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
@@ -79,7 +86,7 @@ public class ServerEnvironmentResourceDescription extends SimpleResourceDefiniti
     public static final AttributeDefinition TEMP_DIR = SimpleAttributeDefinitionBuilder.create("temp-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
 
     public static final AttributeDefinition[] SERVER_ENV_ATTRIBUTES = {BASE_DIR, CONFIG_DIR, CONFIG_FILE, CONTENT_DIR, DATA_DIR,
-            DEPLOY_DIR, EXT_DIRS, HOME_DIR, HOST_NAME, INITIAL_RUNNING_MODE, LAUNCH_TYPE, LOG_DIR, MODULES_DIR, NODE_NAME,
+            DEPLOY_DIR, DEPLOYMENT_PHASE_PARALLELISM, EXT_DIRS, HOME_DIR, HOST_NAME, INITIAL_RUNNING_MODE, LAUNCH_TYPE, LOG_DIR, MODULES_DIR, NODE_NAME,
             QUALIFIED_HOST_NAME, SERVER_NAME, TEMP_DIR};
 
     private final ServerEnvironmentReadHandler osh;
@@ -159,6 +166,15 @@ public class ServerEnvironmentResourceDescription extends SimpleResourceDefiniti
             if (equals(name, DEPLOY_DIR)) {
                 set(result, environment.getServerContentDir());
             }
+            if (equals(name, DEPLOYMENT_PHASE_PARALLELISM)) {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.JBOSS_DEPLOYMENT_CHAINS);
+                if (controller != null) {
+                    final int parallelism = ((DeployerChainsService) controller.getService()).getParallelism();
+                    if (parallelism > 0) {
+                        result.set(parallelism);
+                    }
+                }
+            }
             if (equals(name, EXT_DIRS)) {
                 set(result, environment.getJavaExtDirs());
             }
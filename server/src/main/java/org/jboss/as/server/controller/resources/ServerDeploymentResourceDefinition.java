@@ -29,6 +29,7 @@ import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.deployment.ExplodedDeploymentAddContentHandler;
 import org.jboss.as.server.deployment.DeploymentAddHandler;
 import org.jboss.as.server.deployment.DeploymentDeployHandler;
+import org.jboss.as.server.deployment.DeploymentProcessorStatistics;
 import org.jboss.as.server.deployment.DeploymentExplodeHandler;
 import org.jboss.as.server.deployment.DeploymentRedeployHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
@@ -36,6 +37,7 @@ import org.jboss.as.server.deployment.DeploymentUndeployHandler;
 import org.jboss.as.server.deployment.ManagedDeploymentBrowseContentHandler;
 import org.jboss.as.server.deployment.ManagedDeploymentReadContentHandler;
 import org.jboss.as.server.deployment.ExplodedDeploymentRemoveContentHandler;
+import org.jboss.as.server.operations.DeploymentProcessorStatisticsHandlers;
 import org.jboss.as.server.services.security.AbstractVaultReader;
 
 /**
@@ -74,6 +76,7 @@ public class ServerDeploymentResourceDefinition extends DeploymentResourceDefini
         resourceRegistration.registerOperationHandler(DeploymentAttributes.DEPLOYMENT_REMOVE_CONTENT_DEFINITION, new ExplodedDeploymentRemoveContentHandler(contentRepository, serverEnvironment));
         resourceRegistration.registerOperationHandler(DeploymentAttributes.DEPLOYMENT_READ_CONTENT_DEFINITION, new ManagedDeploymentReadContentHandler(contentRepository));
         resourceRegistration.registerOperationHandler(DeploymentAttributes.DEPLOYMENT_BROWSE_CONTENT_DEFINITION, new ManagedDeploymentBrowseContentHandler(contentRepository));
+        resourceRegistration.registerOperationHandler(DeploymentProcessorStatisticsHandlers.READ_DEPLOYMENT_DEFINITION, DeploymentProcessorStatisticsHandlers.createReadDeploymentHandler(DeploymentProcessorStatistics.getInstance()));
     }
 
     @Override
@@ -86,14 +86,18 @@ import org.jboss.as.server.Services;
 import org.jboss.as.server.controller.descriptions.ServerDescriptionConstants;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
 import org.jboss.as.server.deployment.DeploymentFullReplaceHandler;
+import org.jboss.as.server.deployment.DeploymentProcessorStatistics;
 import org.jboss.as.server.deployment.DeploymentReplaceHandler;
 import org.jboss.as.server.deployment.DeploymentUploadBytesHandler;
 import org.jboss.as.server.deployment.DeploymentUploadStreamAttachmentHandler;
 import org.jboss.as.server.deployment.DeploymentUploadURLHandler;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deploymentoverlay.DeploymentOverlayDefinition;
 import org.jboss.as.server.mgmt.HttpManagementResourceDefinition;
 import org.jboss.as.server.mgmt.NativeManagementResourceDefinition;
 import org.jboss.as.server.mgmt.NativeRemotingManagementResourceDefinition;
+import org.jboss.as.server.operations.AnnotationIndexCacheHandlers;
+import org.jboss.as.server.operations.DeploymentProcessorStatisticsHandlers;
 import org.jboss.as.server.operations.CleanObsoleteContentHandler;
 import org.jboss.as.server.operations.InstallationReportHandler;
 import org.jboss.as.server.operations.InstanceUuidReadHandler;
@@ -228,6 +232,7 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
     private final CapabilityRegistry capabilityRegistry;
     private final MutableRootResourceRegistrationProvider rootResourceRegistrationProvider;
     private final BootErrorCollector bootErrorCollector;
+    private final AnnotationIndexCache annotationIndexCache;
 
     public ServerRootResourceDefinition(
             final ContentRepository contentRepository,
@@ -246,6 +251,29 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
             final MutableRootResourceRegistrationProvider rootResourceRegistrationProvider,
             final BootErrorCollector bootErrorCollector,
             final CapabilityRegistry capabilityRegistry) {
+        this(contentRepository, extensibleConfigurationPersister, serverEnvironment, processState, runningModeControl, vaultReader,
+                extensionRegistry, parallelBoot, pathManager, operationIDUpdater, authorizer, securityIdentitySupplier, auditLogger,
+                rootResourceRegistrationProvider, bootErrorCollector, capabilityRegistry, null);
+    }
+
+    public ServerRootResourceDefinition(
+            final ContentRepository contentRepository,
+            final ExtensibleConfigurationPersister extensibleConfigurationPersister,
+            final ServerEnvironment serverEnvironment,
+            final ControlledProcessState processState,
+            final RunningModeControl runningModeControl,
+            final AbstractVaultReader vaultReader,
+            final ExtensionRegistry extensionRegistry,
+            final boolean parallelBoot,
+            final PathManagerService pathManager,
+            final DomainServerCommunicationServices.OperationIDUpdater operationIDUpdater,
+            final DelegatingConfigurableAuthorizer authorizer,
+            final ManagementSecurityIdentitySupplier securityIdentitySupplier,
+            final ManagedAuditLogger auditLogger,
+            final MutableRootResourceRegistrationProvider rootResourceRegistrationProvider,
+            final BootErrorCollector bootErrorCollector,
+            final CapabilityRegistry capabilityRegistry,
+            final AnnotationIndexCache annotationIndexCache) {
         super(new Parameters(null, ServerDescriptions.getResourceDescriptionResolver(SERVER, false))
                 .addCapabilities(PATH_CAPABILITY.fromBaseCapability(ServerEnvironment.HOME_DIR),
                         PATH_CAPABILITY.fromBaseCapability(ServerEnvironment.SERVER_BASE_DIR),
@@ -272,6 +300,7 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
         this.securityIdentitySupplier = securityIdentitySupplier;
         this.rootResourceRegistrationProvider = rootResourceRegistrationProvider;
         this.bootErrorCollector = bootErrorCollector;
+        this.annotationIndexCache = annotationIndexCache;
     }
 
     @Override
@@ -334,6 +363,10 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerOperationHandler(GlobalInstallationReportHandler.DEFINITION, GlobalInstallationReportHandler.INSTANCE, false);
         resourceRegistration.registerOperationHandler(InstallationReportHandler.DEFINITION, InstallationReportHandler.createOperation(serverEnvironment), false);
         resourceRegistration.registerOperationHandler(CleanObsoleteContentHandler.DEFINITION, CleanObsoleteContentHandler.createOperation(contentRepository), false);
+        // Registered whether or not the features are enabled, so the management API doesn't depend on system properties
+        resourceRegistration.registerOperationHandler(AnnotationIndexCacheHandlers.READ_DEFINITION, AnnotationIndexCacheHandlers.createReadHandler(annotationIndexCache), false);
+        resourceRegistration.registerOperationHandler(AnnotationIndexCacheHandlers.CLEAR_DEFINITION, AnnotationIndexCacheHandlers.createClearHandler(annotationIndexCache), false);
+        resourceRegistration.registerOperationHandler(DeploymentProcessorStatisticsHandlers.READ_SLOWEST_DEFINITION, DeploymentProcessorStatisticsHandlers.createReadSlowestHandler(DeploymentProcessorStatistics.getInstance()), false);
 
         // Reload op available in standalone and domain
         if (isDomain) {
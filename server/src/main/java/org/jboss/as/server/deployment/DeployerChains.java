@@ -24,6 +24,7 @@ package org.jboss.as.server.deployment;
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * The deployer chains service value object.
@@ -32,6 +33,7 @@ import java.util.List;
  */
 final class DeployerChains {
     private final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases;
+    private volatile Executor executor;
 
     DeployerChains(final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases) {
         this.phases = phases;
@@ -40,4 +42,15 @@ final class DeployerChains {
     List<RegisteredDeploymentUnitProcessor> getChain(Phase phase) {
         return phases.get(phase);
     }
+
+    /**
+     * @return the executor processing the deployment phases, or {@code null} if they are processed by the MSC threads
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
 }
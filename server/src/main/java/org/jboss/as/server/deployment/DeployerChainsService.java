@@ -22,14 +22,26 @@
 
 package org.jboss.as.server.deployment;
 
+import static java.security.AccessController.doPrivileged;
+
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
+import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Service wrapper for {@link org.jboss.as.server.deployment.DeployerChains}.
@@ -37,7 +49,18 @@ import org.jboss.msc.service.StopContext;
  * @author John Bailey
  */
 public class DeployerChainsService implements Service<DeployerChains> {
+
+    /**
+     * The number of threads processing the deployment phases. If it isn't set the phases are processed by the MSC
+     * threads, otherwise independent deployments and sub deployments are processed concurrently by up to this many
+     * dedicated threads, whatever the size of the MSC thread pool. A phase runs with the context class loader and the
+     * access control context of the MSC thread starting it.
+     */
+    public static final String PARALLELISM_PROPERTY = "jboss.as.deployment.phase.parallelism";
+
     private final DeployerChains deployerChains;
+    private ExecutorService executor;
+    private volatile int parallelism;
 
     public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases) {
         final DeployerChains deployerChains = new DeployerChains(phases);
@@ -50,12 +73,85 @@ public class DeployerChainsService implements Service<DeployerChains> {
     }
 
     public void start(StartContext context) throws StartException {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(PARALLELISM_PROPERTY, null);
+        if (value == null) {
+            return;
+        }
+        final int parallelism;
+        try {
+            parallelism = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.invalidDeploymentPhaseParallelism(value, PARALLELISM_PROPERTY);
+            return;
+        }
+        if (parallelism < 1) {
+            ServerLogger.DEPLOYMENT_LOGGER.invalidDeploymentPhaseParallelism(value, PARALLELISM_PROPERTY);
+            return;
+        }
+        final ThreadGroup threadGroup = new ThreadGroup("DeploymentPhase ThreadGroup");
+        final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<ThreadFactory>() {
+            public ThreadFactory run() {
+                return new JBossThreadFactory(threadGroup, Boolean.TRUE, null, "DeploymentPhase Thread Pool -- %t", null, null);
+            }
+        });
+        executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+        deployerChains.setExecutor(new ContextExecutor(executor));
+        this.parallelism = parallelism;
     }
 
     public void stop(StopContext context) {
+        deployerChains.setExecutor(null);
+        parallelism = 0;
+        if (executor != null) {
+            // The deployment phases depend on this service, so they are all stopped by now
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Gets the number of dedicated threads processing the deployment phases.
+     *
+     * @return the number of threads, or {@code 0} if the phases are processed by the MSC threads
+     */
+    public int getParallelism() {
+        return parallelism;
     }
 
     public DeployerChains getValue() throws IllegalStateException, IllegalArgumentException {
         return deployerChains;
     }
+
+    /**
+     * Runs the tasks with the context class loader and the access control context of the thread submitting them, so
+     * that the phases run as they would on the MSC thread starting them.
+     */
+    private static final class ContextExecutor implements Executor {
+        private final Executor delegate;
+
+        private ContextExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            final ClassLoader classLoader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            final AccessControlContext accessControlContext = AccessController.getContext();
+            delegate.execute(() -> {
+                final ClassLoader previous = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
+                try {
+                    if (WildFlySecurityManager.isChecking()) {
+                        doPrivileged((PrivilegedAction<Void>) () -> {
+                            command.run();
+                            return null;
+                        }, accessControlContext);
+                    } else {
+                        command.run();
+                    }
+                } finally {
+                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(previous);
+                }
+            });
+        }
+    }
 }
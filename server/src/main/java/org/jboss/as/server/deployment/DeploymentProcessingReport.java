@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.logging.ServerLogger;
+
+/**
+ * Records how long the phases of a deployment unit took, to report the critical path of a deployment. It is only
+ * recorded while the deployment logger is enabled for {@code DEBUG}, which is the level of the report.
+ * <p/>
+ * The phases of a deployment and of its sub-deployments alternate: a phase of the parent waits for the previous phase
+ * of all the sub-deployments. So the critical path of a phase goes through the slowest of the parent and its
+ * sub-deployments, and the report names it together with its slowest processor.
+ */
+final class DeploymentProcessingReport {
+
+    private static final AttachmentKey<DeploymentProcessingReport> ATTACHMENT_KEY = AttachmentKey.create(DeploymentProcessingReport.class);
+
+    private final Map<Phase, PhaseTime> phases = new EnumMap<>(Phase.class);
+
+    static DeploymentProcessingReport get(DeploymentUnit deploymentUnit) {
+        synchronized (deploymentUnit) {
+            DeploymentProcessingReport report = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+            if (report == null) {
+                report = new DeploymentProcessingReport();
+                deploymentUnit.putAttachment(ATTACHMENT_KEY, report);
+            }
+            return report;
+        }
+    }
+
+    synchronized void phaseStarted(Phase phase, long start) {
+        phases.put(phase, new PhaseTime(start));
+    }
+
+    synchronized void processorCompleted(Phase phase, DeploymentUnitProcessor processor, long time) {
+        final PhaseTime phaseTime = phases.get(phase);
+        if (phaseTime != null && time > phaseTime.slowestProcessorTime) {
+            phaseTime.slowestProcessor = processor;
+            phaseTime.slowestProcessorTime = time;
+        }
+    }
+
+    synchronized void phaseCompleted(Phase phase, long end) {
+        final PhaseTime phaseTime = phases.get(phase);
+        if (phaseTime != null) {
+            phaseTime.end = end;
+        }
+    }
+
+    private synchronized PhaseTime getPhaseTime(Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Logs the critical path of a top level deployment through the phases up to {@code last}, which must be complete for
+     * the deployment and its sub-deployments. Nothing is logged if the first phase wasn't recorded, as the logger was only
+     * enabled for {@code DEBUG} in the meantime.
+     */
+    void log(DeploymentUnit deploymentUnit, Phase last) {
+        if (!ServerLogger.DEPLOYMENT_LOGGER.isDebugEnabled()) {
+            return;
+        }
+        final CriticalPath criticalPath = getCriticalPath(deploymentUnit, last);
+        if (criticalPath != null) {
+            ServerLogger.DEPLOYMENT_LOGGER.deploymentProcessed(deploymentUnit.getName(), toMillis(criticalPath.time),
+                    toMillis(criticalPath.waitingTime), criticalPath.toString());
+        }
+    }
+
+    /**
+     * @return the critical path of a top level deployment through the phases up to {@code last}, or {@code null} if
+     * none was processed
+     */
+    CriticalPath getCriticalPath(DeploymentUnit deploymentUnit, Phase last) {
+        final PhaseTime first = getPhaseTime(Phase.values()[0]);
+        if (first == null) {
+            return null;
+        }
+        final StringBuilder path = new StringBuilder();
+        long end = first.start;
+        long critical = 0;
+        for (Phase phase : Phase.values()) {
+            String slowestUnit = deploymentUnit.getName();
+            PhaseTime slowest = getPhaseTime(phase);
+            for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                final PhaseTime phaseTime = get(subDeployment).getPhaseTime(phase);
+                if (phaseTime != null && (slowest == null || phaseTime.getTime() > slowest.getTime())) {
+                    slowest = phaseTime;
+                    slowestUnit = subDeployment.getName();
+                }
+                if (phaseTime != null) {
+                    end = Math.max(end, phaseTime.end);
+                }
+            }
+            if (slowest != null) {
+                end = Math.max(end, slowest.end);
+                critical += slowest.getTime();
+                if (path.length() > 0) {
+                    path.append(", ");
+                }
+                path.append(phase).append(' ').append(toMillis(slowest.getTime())).append(" ms");
+                if (!slowestUnit.equals(deploymentUnit.getName())) {
+                    path.append(" in ").append(slowestUnit);
+                }
+                if (slowest.slowestProcessor != null) {
+                    path.append(" (").append(slowest.slowestProcessor.getClass().getSimpleName()).append(' ')
+                            .append(toMillis(slowest.slowestProcessorTime)).append(" ms)");
+                }
+            }
+            if (phase == last) {
+                break;
+            }
+        }
+        return new CriticalPath(end - first.start, Math.max(0, end - first.start - critical), path.toString());
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * The processing time of a deployment, in nanoseconds, and the phases it spent it in.
+     */
+    static final class CriticalPath {
+        private final long time;
+        private final long waitingTime;
+        private final String path;
+
+        private CriticalPath(long time, long waitingTime, String path) {
+            this.time = time;
+            this.waitingTime = waitingTime;
+            this.path = path;
+        }
+
+        /**
+         * @return the time from the start of the first phase to the end of the last one
+         */
+        long getTime() {
+            return time;
+        }
+
+        /**
+         * @return the part of the time not spent in the slowest unit of a phase
+         */
+        long getWaitingTime() {
+            return waitingTime;
+        }
+
+        /**
+         * @return the slowest unit and processor of each phase
+         */
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+
+    private static final class PhaseTime {
+        private final long start;
+        private long end;
+        private DeploymentUnitProcessor slowestProcessor;
+        private long slowestProcessorTime;
+
+        private PhaseTime(long start) {
+            this.start = start;
+            this.end = start;
+        }
+
+        private long getTime() {
+            return end - start;
+        }
+    }
+}
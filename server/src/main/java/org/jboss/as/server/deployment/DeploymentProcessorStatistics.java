@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * The time spent by the deployment unit processors deploying and undeploying the deployment units.
+ * <p/>
+ * The deploy times are recorded both per deployment unit, as an attachment, and aggregated per processor and phase
+ * across all the deployments of the server. The undeploy times are only aggregated, as the attachments of a deployment
+ * unit don't outlive its undeployment. The times are only recorded if the {@value #ENABLED_PROPERTY} system property is
+ * {@code true}, otherwise {@link #getInstance()} returns {@code null} and the processors aren't timed.
+ */
+public final class DeploymentProcessorStatistics {
+
+    public static final String ENABLED_PROPERTY = "jboss.as.deployment.processor-statistics";
+
+    private static final DeploymentProcessorStatistics INSTANCE =
+            Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "false")) ? new DeploymentProcessorStatistics() : null;
+
+    private static final AttachmentKey<ConcurrentMap<String, ProcessorTimes>> ATTACHMENT_KEY = AttachmentKey.create(ConcurrentMap.class);
+
+    private static final Comparator<ProcessorTimes> SLOWEST_FIRST = Comparator.comparingLong(ProcessorTimes::getDeployTime).reversed();
+
+    private final ConcurrentMap<String, ProcessorTimes> processors = new ConcurrentHashMap<>();
+
+    DeploymentProcessorStatistics() {
+    }
+
+    /**
+     * @return the statistics, or {@code null} if they are disabled
+     */
+    public static DeploymentProcessorStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    void deployed(DeploymentUnit deploymentUnit, Phase phase, DeploymentUnitProcessor processor, long nanos) {
+        getTimes(processors, phase, processor).deployed(nanos);
+        getTimes(getUnitProcessors(deploymentUnit), phase, processor).deployed(nanos);
+    }
+
+    void undeployed(Phase phase, DeploymentUnitProcessor processor, long nanos) {
+        getTimes(processors, phase, processor).undeployed(nanos);
+    }
+
+    /**
+     * @param count the maximum number of processors to return
+     * @return the processors of the server that spent the most time deploying, slowest first
+     */
+    public List<ProcessorTimes> getSlowestProcessors(int count) {
+        return sort(processors.values(), count);
+    }
+
+    /**
+     * @param deploymentUnit the deployment unit
+     * @return the processors that processed the deployment unit, slowest first
+     */
+    public List<ProcessorTimes> getProcessors(DeploymentUnit deploymentUnit) {
+        final ConcurrentMap<String, ProcessorTimes> unitProcessors = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+        return unitProcessors == null ? Collections.emptyList() : sort(unitProcessors.values(), Integer.MAX_VALUE);
+    }
+
+    private static List<ProcessorTimes> sort(Collection<ProcessorTimes> times, int count) {
+        final List<ProcessorTimes> sorted = new ArrayList<>(times);
+        sorted.sort(SLOWEST_FIRST);
+        return sorted.size() > count ? sorted.subList(0, count) : sorted;
+    }
+
+    private static ConcurrentMap<String, ProcessorTimes> getUnitProcessors(DeploymentUnit deploymentUnit) {
+        ConcurrentMap<String, ProcessorTimes> unitProcessors = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+        if (unitProcessors == null) {
+            synchronized (deploymentUnit) {
+                unitProcessors = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+                if (unitProcessors == null) {
+                    unitProcessors = new ConcurrentHashMap<>();
+                    deploymentUnit.putAttachment(ATTACHMENT_KEY, unitProcessors);
+                }
+            }
+        }
+        return unitProcessors;
+    }
+
+    private static ProcessorTimes getTimes(ConcurrentMap<String, ProcessorTimes> map, Phase phase, DeploymentUnitProcessor processor) {
+        final String className = processor.getClass().getName();
+        final String key = phase.name() + ' ' + className;
+        ProcessorTimes times = map.get(key);
+        if (times == null) {
+            times = map.computeIfAbsent(key, k -> new ProcessorTimes(phase, className));
+        }
+        return times;
+    }
+
+    /**
+     * The times of a processor in a phase. The times are in microseconds.
+     */
+    public static final class ProcessorTimes {
+        private final Phase phase;
+        private final String processor;
+        private final LongAdder deployCount = new LongAdder();
+        private final LongAdder deployTime = new LongAdder();
+        private final AtomicLong maxDeployTime = new AtomicLong();
+        private final LongAdder undeployTime = new LongAdder();
+
+        private ProcessorTimes(Phase phase, String processor) {
+            this.phase = phase;
+            this.processor = processor;
+        }
+
+        private void deployed(long nanos) {
+            deployCount.increment();
+            deployTime.add(nanos);
+            maxDeployTime.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void undeployed(long nanos) {
+            undeployTime.add(nanos);
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the class name of the processor
+         */
+        public String getProcessor() {
+            return processor;
+        }
+
+        /**
+         * @return the number of deployment units the processor deployed
+         */
+        public long getDeployCount() {
+            return deployCount.sum();
+        }
+
+        public long getDeployTime() {
+            return toMicros(deployTime.sum());
+        }
+
+        public long getMaxDeployTime() {
+            return toMicros(maxDeployTime.get());
+        }
+
+        public long getUndeployTime() {
+            return toMicros(undeployTime.sum());
+        }
+
+        private static long toMicros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
@@ -27,6 +27,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -110,6 +112,31 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             return;
         }
         runOnce.set(true);
+        final Executor executor = deployerChainsInjector.getValue().getExecutor();
+        if (executor == null) {
+            runPhase(context);
+            return;
+        }
+        // Process the phase on the deployment executor, so that its parallelism doesn't depend on the MSC threads
+        context.asynchronous();
+        final Runnable task = () -> {
+            try {
+                runPhase(context);
+                context.complete();
+            } catch (StartException e) {
+                context.failed(e);
+            } catch (Throwable t) {
+                context.failed(new StartException(t));
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private synchronized void runPhase(final StartContext context) throws StartException {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
@@ -137,11 +164,33 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentProcessorStatistics statistics = DeploymentProcessorStatistics.getInstance();
+        // The critical path is only recorded when it is logged
+        final DeploymentProcessingReport report = ServerLogger.DEPLOYMENT_LOGGER.isDebugEnabled() ? DeploymentProcessingReport.get(deploymentUnit) : null;
+        if (report != null) {
+            if (parent == null && phase == Phase.CLEANUP) {
+                // This phase waited for the previous ones of the sub deployments
+                report.log(deploymentUnit, Phase.INSTALL);
+            }
+            report.phaseStarted(phase, System.nanoTime());
+        }
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                    if (report == null && statistics == null) {
+                        processor.getProcessor().deploy(processorContext);
+                    } else {
+                        final long start = System.nanoTime();
+                        processor.getProcessor().deploy(processorContext);
+                        final long time = System.nanoTime() - start;
+                        if (report != null) {
+                            report.processorCompleted(phase, processor.getProcessor(), time);
+                        }
+                        if (statistics != null) {
+                            statistics.deployed(deploymentUnit, phase, processor.getProcessor(), time);
+                        }
+                    }
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -151,6 +200,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        if (report != null) {
+            report.phaseCompleted(phase, System.nanoTime());
+        }
 
         final Phase nextPhase = phase.next();
         if (nextPhase != null) {
@@ -208,7 +260,14 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final RegisteredDeploymentUnitProcessor prev) {
         try {
             if (shouldRun(deploymentUnit, prev)) {
-                prev.getProcessor().undeploy(deploymentUnit);
+                final DeploymentProcessorStatistics statistics = DeploymentProcessorStatistics.getInstance();
+                if (statistics == null) {
+                    prev.getProcessor().undeploy(deploymentUnit);
+                } else {
+                    final long start = System.nanoTime();
+                    prev.getProcessor().undeploy(deploymentUnit);
+                    statistics.undeployed(phase, prev.getProcessor(), System.nanoTime() - start);
+                }
             }
         } catch (Throwable t) {
             ServerLogger.DEPLOYMENT_LOGGER.caughtExceptionUndeploying(t, prev.getProcessor(), phase, deploymentUnit);
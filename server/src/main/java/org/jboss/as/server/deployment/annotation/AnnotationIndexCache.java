@@ -0,0 +1,416 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A server wide cache of the annotation indexes of archives, stored in the data directory so that an archive seen
+ * before, in any deployment, isn't indexed again on redeploy or restart.
+ * <p/>
+ * Indexes are keyed by the SHA-1 digest of the content of the archive, or of the deployment archive and the path of the
+ * archive in it, by the overlays replacing its content, by its ignored paths and by the Jandex version. The digest of
+ * an archive is only computed again when its size or modification time changes. The size of the cache
+ * is bounded by the {@value #MAX_SIZE_PROPERTY} system property, in bytes, and the least recently used indexes are
+ * evicted once it is exceeded. The order of use survives restarts, as reading an index updates the modification time
+ * of its file. A size of {@code 0} disables the cache.
+ */
+public final class AnnotationIndexCache {
+
+    public static final String MAX_SIZE_PROPERTY = "jboss.as.deployment.annotation-index-cache.max-size";
+
+    private static final long DEFAULT_MAX_SIZE = 128L * 1024 * 1024;
+    private static final String DIRECTORY = "annotation-index";
+    private static final String SUFFIX = ".idx";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int MAX_ARCHIVE_DIGESTS = 256;
+    // The serialized indexes depend on the Jandex version
+    private static final String JANDEX_VERSION = getJandexVersion();
+
+    private final File directory;
+    private final long maxSize;
+    // The sizes of the stored indexes, in order of use
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private boolean loaded;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // The digests of the deployment archives, by canonical file
+    private final Map<File, ArchiveDigest> archiveDigests = new LinkedHashMap<File, ArchiveDigest>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, ArchiveDigest> eldest) {
+            return size() > MAX_ARCHIVE_DIGESTS;
+        }
+    };
+
+    AnnotationIndexCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cache of the server, or {@code null} if it is disabled
+     */
+    public static AnnotationIndexCache create(ServerEnvironment serverEnvironment) {
+        long maxSize = DEFAULT_MAX_SIZE;
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, null);
+        if (value != null) {
+            try {
+                maxSize = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                ServerLogger.DEPLOYMENT_LOGGER.invalidAnnotationIndexCacheSize(value, MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+            }
+        }
+        return maxSize > 0 ? new AnnotationIndexCache(new File(serverEnvironment.getServerDataDir(), DIRECTORY), maxSize) : null;
+    }
+
+    /**
+     * Computes the key of the index of a resource root.
+     *
+     * @param resourceRoot     the resource root
+     * @param indexIgnorePaths the paths that are not indexed, or {@code null}
+     * @param deployment       the content of the deployment of the resource root, or {@code null}
+     * @return the key, or {@code null} if the resource root isn't a mounted archive, whose index can't be cached
+     */
+    String getKey(ResourceRoot resourceRoot, Set<String> indexIgnorePaths, DeploymentContent deployment) throws IOException {
+        final String rootPath = resourceRoot.getRoot().getPathName();
+        final String deploymentPath = deployment == null ? null : deployment.root.getPathName();
+        final boolean nested = deploymentPath != null && isSameOrUnder(rootPath, deploymentPath);
+        final MessageDigest digest = createDigest();
+        digest.update(JANDEX_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (nested && deployment.archive != null && deployment.archive.isFile()) {
+            // Nested archives are identified by the deployment archive and their path in it, as they are copied to a
+            // new temporary file on each deploy
+            digest.update(getArchiveDigest(deployment.archive));
+            digest.update(rootPath.substring(deploymentPath.length()).getBytes(StandardCharsets.UTF_8));
+        } else {
+            final File archive = resourceRoot.getMountHandle() == null ? null : resourceRoot.getMountHandle().getMountSource();
+            if (archive == null || !archive.isFile()) {
+                return null;
+            }
+            digest.update(getArchiveDigest(archive));
+        }
+        digest.update((byte) 0);
+        if (nested) {
+            // The overlays replacing the resource root, one of its parents or one of its files
+            for (Map.Entry<String, byte[]> overlay : new TreeMap<>(deployment.overlays).entrySet()) {
+                if (isSameOrUnder(overlay.getKey(), rootPath) || isSameOrUnder(rootPath, overlay.getKey())) {
+                    digest.update(overlay.getKey().substring(deploymentPath.length()).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    digest.update(overlay.getValue());
+                }
+            }
+        }
+        digest.update((byte) 0);
+        if (indexIgnorePaths != null) {
+            for (String ignorePath : new TreeSet<>(indexIgnorePaths)) {
+                digest.update(ignorePath.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    private static boolean isSameOrUnder(String path, String parent) {
+        return path.equals(parent) || path.startsWith(parent.endsWith("/") ? parent : parent + '/');
+    }
+
+    /**
+     * @return the digest of the content of an archive, only computed again if its size or modification time changed
+     */
+    private byte[] getArchiveDigest(File archive) throws IOException {
+        final File file = archive.getCanonicalFile();
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        synchronized (archiveDigests) {
+            final ArchiveDigest known = archiveDigests.get(file);
+            if (known != null && known.length == length && known.lastModified == lastModified) {
+                return known.digest;
+            }
+        }
+        final MessageDigest digest = createDigest();
+        final byte[] buffer = new byte[8192];
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        final ArchiveDigest computed = new ArchiveDigest(length, lastModified, digest.digest());
+        synchronized (archiveDigests) {
+            archiveDigests.put(file, computed);
+        }
+        return computed.digest;
+    }
+
+    /**
+     * @return the stored index, or {@code null} if there is none
+     */
+    Index get(String key) {
+        final File file = new File(directory, key + SUFFIX);
+        synchronized (this) {
+            load();
+            if (entries.get(key) == null) {
+                misses.increment();
+                return null;
+            }
+        }
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            final Index index = new IndexReader(input).read();
+            file.setLastModified(System.currentTimeMillis());
+            hits.increment();
+            return index;
+        } catch (IOException | RuntimeException e) {
+            // Corrupt or deleted meanwhile, it will be stored again
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not read cached annotation index %s", file);
+            remove(key);
+            misses.increment();
+            return null;
+        }
+    }
+
+    void put(String key, Index index, String resourceRoot) {
+        final File file = new File(directory, key + SUFFIX);
+        synchronized (this) {
+            // Removes the files left over by interrupted writes before writing any
+            load();
+        }
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            // Concurrent deployments may store the index of the same archive
+            tmp = Files.createTempFile(directory.toPath(), key, TMP_SUFFIX);
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                new IndexWriter(output).write(index);
+            }
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotStoreAnnotationIndex(resourceRoot, e);
+            if (tmp != null) {
+                tmp.toFile().delete();
+            }
+            return;
+        }
+        synchronized (this) {
+            load();
+            final Long previous = entries.put(key, file.length());
+            size += file.length() - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    /**
+     * @return the number of stored indexes, their size, the maximum size and the hits and misses since the server started
+     */
+    public synchronized CacheStatistics getStatistics() {
+        load();
+        return new CacheStatistics(entries.size(), size, maxSize, hits.sum(), misses.sum());
+    }
+
+    /**
+     * Removes all the stored indexes.
+     *
+     * @return the number of removed indexes
+     */
+    public synchronized int clear() {
+        load();
+        final int count = entries.size();
+        for (String key : new ArrayList<>(entries.keySet())) {
+            remove(key);
+        }
+        return count;
+    }
+
+    private synchronized void remove(String key) {
+        final Long removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed;
+        }
+        new File(directory, key + SUFFIX).delete();
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            new File(directory, eldest.getKey() + SUFFIX).delete();
+        }
+    }
+
+    /**
+     * Reads the stored indexes, from the least to the most recently used, on first use.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final List<File> indexes = new ArrayList<>(Arrays.asList(files));
+        indexes.sort(Comparator.comparingLong(File::lastModified));
+        for (File file : indexes) {
+            final String name = file.getName();
+            if (name.endsWith(SUFFIX)) {
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                size += file.length();
+            } else {
+                // left over by an interrupted write
+                file.delete();
+            }
+        }
+        evict();
+    }
+
+    private static String getJandexVersion() {
+        final Package jandex = Indexer.class.getPackage();
+        if (jandex != null && jandex.getImplementationVersion() != null) {
+            return jandex.getImplementationVersion();
+        }
+        final URL location = WildFlySecurityManager.isChecking()
+                ? AccessController.doPrivileged((PrivilegedAction<URL>) () -> Indexer.class.getResource("Indexer.class"))
+                : Indexer.class.getResource("Indexer.class");
+        return String.valueOf(location);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The content of a deployment, that the resource roots indexed for it are part of.
+     */
+    static final class DeploymentContent {
+        private final VirtualFile root;
+        private final File archive;
+        private final Map<String, byte[]> overlays;
+
+        /**
+         * @param root     the root of the top level deployment
+         * @param archive  the archive of the top level deployment, or {@code null} if it isn't one
+         * @param overlays the hashes of the overlays of the deployment and of its sub deployments, by the path name of
+         *                 the file they replace, which is under the root
+         */
+        DeploymentContent(VirtualFile root, File archive, Map<String, byte[]> overlays) {
+            this.root = root;
+            this.archive = archive;
+            this.overlays = overlays;
+        }
+    }
+
+    private static final class ArchiveDigest {
+        private final long length;
+        private final long lastModified;
+        private final byte[] digest;
+
+        private ArchiveDigest(long length, long lastModified, byte[] digest) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * A snapshot of the state of the cache.
+     */
+    public static final class CacheStatistics {
+        private final int entries;
+        private final long size;
+        private final long maxSize;
+        private final long hits;
+        private final long misses;
+
+        private CacheStatistics(int entries, long size, long maxSize, long hits, long misses) {
+            this.entries = entries;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+    }
+}
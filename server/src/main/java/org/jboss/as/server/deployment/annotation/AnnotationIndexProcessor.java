@@ -22,12 +22,21 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
+import org.jboss.as.server.logging.ServerLogger;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
@@ -37,6 +46,19 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final AnnotationIndexCache cache;
+
+    public AnnotationIndexProcessor() {
+        this(null);
+    }
+
+    /**
+     * @param cache the cache of the indexes of archives, or {@code null} to always index them
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache) {
+        this.cache = cache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +69,41 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
-        }
+        final List<ResourceRoot> resourceRoots = DeploymentUtils.allResourceRoots(deploymentUnit);
+        final long start = System.nanoTime();
+        ResourceRootIndexer.indexResourceRoots(resourceRoots, cache, cache == null ? null : getDeploymentContent(deploymentUnit));
+        ServerLogger.DEPLOYMENT_LOGGER.debugf("Indexed the resource roots of %s in %d ms (%d roots)", deploymentUnit.getName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), resourceRoots.size());
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    private static AnnotationIndexCache.DeploymentContent getDeploymentContent(final DeploymentUnit deploymentUnit) {
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (deploymentRoot == null) {
+            return null;
+        }
+        final File archive = deploymentRoot.getMountHandle() == null ? null : deploymentRoot.getMountHandle().getMountSource();
+        // The overlays are applied to the deployment and to each sub deployment, by their names
+        final Map<String, byte[]> overlays = new HashMap<>();
+        addOverlays(topLevel, overlays);
+        if (topLevel != deploymentUnit) {
+            addOverlays(deploymentUnit, overlays);
+        }
+        return new AnnotationIndexCache.DeploymentContent(deploymentRoot.getRoot(), archive, overlays);
+    }
+
+    private static void addOverlays(final DeploymentUnit deploymentUnit, final Map<String, byte[]> overlays) {
+        final DeploymentOverlayIndex overlayIndex = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+        final ResourceRoot deploymentRoot = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (overlayIndex == null || deploymentRoot == null) {
+            return;
+        }
+        for (Map.Entry<String, byte[]> entry : overlayIndex.getOverlays(deploymentUnit.getName()).entrySet()) {
+            final String path = entry.getKey().startsWith("/") ? entry.getKey().substring(1) : entry.getKey();
+            overlays.put(deploymentRoot.getRoot().getChild(path).getPathName(), entry.getValue());
+        }
+    }
 }
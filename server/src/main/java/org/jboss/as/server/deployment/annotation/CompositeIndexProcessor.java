@@ -85,8 +85,8 @@ public class CompositeIndexProcessor implements DeploymentUnitProcessor {
         for (final ModuleIdentifier moduleIdentifier : additionalModuleIndexes) {
             AdditionalModuleSpecification additional = additionalModuleSpecificationMap.get(moduleIdentifier);
             if(additional != null) {
+                ResourceRootIndexer.indexResourceRoots(additional.getResourceRoots());
                 for(ResourceRoot resource : additional.getResourceRoots()) {
-                    ResourceRootIndexer.indexResourceRoot(resource);
                     Index indexAttachment = resource.getAttachment(Attachments.ANNOTATION_INDEX);
                     if(indexAttachment != null) {
                         indexes.add(indexAttachment);
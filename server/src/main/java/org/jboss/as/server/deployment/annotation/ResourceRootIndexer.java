@@ -22,16 +22,32 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
@@ -43,71 +59,249 @@ import org.jboss.vfs.util.SuffixMatchFilter;
 
 /**
  * Utility class for indexing a resource root
+ * <p/>
+ * Resource roots are indexed in parallel on a dedicated fork-join pool. The class files of a large root are split in
+ * partitions, each indexed by its own {@link Indexer}, and the partial indexes are merged once they are all complete.
  */
 public class ResourceRootIndexer {
 
+    // The number of class files above which a resource root is split in partitions
+    private static final int PARTITION_SIZE = 1000;
+
     /**
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
-        if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
+        indexResourceRoots(Collections.singletonList(resourceRoot));
+    }
+
+    /**
+     * Creates and attaches the annotation indexes to resource roots, if they have not already been attached. The
+     * resource roots are indexed in parallel.
+     */
+    public static void indexResourceRoots(final Collection<ResourceRoot> resourceRoots) throws DeploymentUnitProcessingException {
+        indexResourceRoots(resourceRoots, null, null);
+    }
+
+    /**
+     * Creates and attaches the annotation indexes to resource roots, if they have not already been attached. The
+     * resource roots are indexed in parallel, and the indexes of archives are read from and stored in the given cache.
+     *
+     * @param resourceRoots the resource roots
+     * @param cache         the cache of the indexes, or {@code null}
+     * @param deployment    the content of the deployment of the resource roots, or {@code null}
+     */
+    static void indexResourceRoots(final Collection<ResourceRoot> resourceRoots, final AnnotationIndexCache cache,
+                                   final AnnotationIndexCache.DeploymentContent deployment) throws DeploymentUnitProcessingException {
+        final List<RootIndexTask> tasks = new ArrayList<>();
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
+                continue;
+            }
+
+            VirtualFile indexFile = resourceRoot.getRoot().getChild(ModuleIndexBuilder.INDEX_LOCATION);
+            if (indexFile.exists()) {
+                try {
+                    IndexReader reader = new IndexReader(indexFile.openStream());
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, reader.read());
+                    ServerLogger.DEPLOYMENT_LOGGER.tracef("Found and read index at: %s", indexFile);
+                    continue;
+                } catch (Exception e) {
+                    ServerLogger.DEPLOYMENT_LOGGER.cannotLoadAnnotationIndex(indexFile.getPathName());
+                }
+            }
+
+            // if this flag is present and set to false then do not index the resource
+            Boolean shouldIndexResource = resourceRoot.getAttachment(Attachments.INDEX_RESOURCE_ROOT);
+            if (shouldIndexResource != null && !shouldIndexResource) {
+                continue;
+            }
+
+            final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
+            final Set<String> indexIgnorePaths;
+            if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
+                indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
+            } else {
+                indexIgnorePaths = null;
+            }
+            tasks.add(new RootIndexTask(resourceRoot, indexIgnorePaths, cache, deployment));
+        }
+        if (tasks.isEmpty()) {
             return;
         }
 
-        VirtualFile indexFile = resourceRoot.getRoot().getChild(ModuleIndexBuilder.INDEX_LOCATION);
-        if (indexFile.exists()) {
+        try {
+            IndexerPool.INSTANCE.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } catch (Throwable t) {
+            throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
+        }
+        for (RootIndexTask task : tasks) {
+            task.resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, task.getRawResult());
+            ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", task.root);
+            if (task.cached) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Read the cached index of %s in %d ms", task.root, TimeUnit.NANOSECONDS.toMillis(task.time));
+            } else {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Indexed %d classes of %s in %d partitions in %d ms", task.classCount, task.root,
+                        task.partitionCount, TimeUnit.NANOSECONDS.toMillis(task.time));
+            }
+        }
+    }
+
+    private static Index index(final VirtualFile root, final List<VirtualFile> classFiles) {
+        final Indexer indexer = new Indexer();
+        for (VirtualFile classFile : classFiles) {
+            InputStream inputStream = null;
             try {
-                IndexReader reader = new IndexReader(indexFile.openStream());
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, reader.read());
-                ServerLogger.DEPLOYMENT_LOGGER.tracef("Found and read index at: %s", indexFile);
-                return;
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
             } catch (Exception e) {
-                ServerLogger.DEPLOYMENT_LOGGER.cannotLoadAnnotationIndex(indexFile.getPathName());
+                ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(root), root.getPathName(), e);
+            } finally {
+                VFSUtils.safeClose(inputStream);
             }
         }
+        return indexer.complete();
+    }
 
-        // if this flag is present and set to false then do not index the resource
-        Boolean shouldIndexResource = resourceRoot.getAttachment(Attachments.INDEX_RESOURCE_ROOT);
-        if (shouldIndexResource != null && !shouldIndexResource) {
-            return;
+    /**
+     * Merges the indexes of disjoint sets of classes, as if they had been indexed by a single {@link Indexer}.
+     */
+    static Index merge(final List<Index> indexes) {
+        final Map<DotName, List<AnnotationInstance>> annotations = new HashMap<>();
+        final Map<DotName, List<ClassInfo>> subclasses = new HashMap<>();
+        final Map<DotName, List<ClassInfo>> implementors = new HashMap<>();
+        final Map<DotName, ClassInfo> classes = new HashMap<>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                classes.put(classInfo.name(), classInfo);
+                for (Map.Entry<DotName, List<AnnotationInstance>> entry : classInfo.annotations().entrySet()) {
+                    annotations.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+                }
+                if (classInfo.superName() != null) {
+                    subclasses.computeIfAbsent(classInfo.superName(), k -> new ArrayList<>()).add(classInfo);
+                }
+                for (DotName interfaceName : classInfo.interfaceNames()) {
+                    implementors.computeIfAbsent(interfaceName, k -> new ArrayList<>()).add(classInfo);
+                }
+            }
         }
+        return Index.create(annotations, subclasses, implementors, classes);
+    }
 
-        final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
-        final Set<String> indexIgnorePaths;
-        if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
-            indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
-        } else {
-            indexIgnorePaths = null;
+    private static final class RootIndexTask extends RecursiveTask<Index> {
+
+        private final ResourceRoot resourceRoot;
+        private final VirtualFile root;
+        private final Set<String> indexIgnorePaths;
+        private final AnnotationIndexCache cache;
+        private final AnnotationIndexCache.DeploymentContent deployment;
+        // Read once the task completed
+        private boolean cached;
+        private int classCount;
+        private int partitionCount = 1;
+        private long time;
+
+        private RootIndexTask(ResourceRoot resourceRoot, Set<String> indexIgnorePaths, AnnotationIndexCache cache,
+                              AnnotationIndexCache.DeploymentContent deployment) {
+            this.resourceRoot = resourceRoot;
+            this.root = resourceRoot.getRoot();
+            this.indexIgnorePaths = indexIgnorePaths;
+            this.cache = cache;
+            this.deployment = deployment;
         }
 
-        final VirtualFile virtualFile = resourceRoot.getRoot();
-        final Indexer indexer = new Indexer();
-        try {
+        @Override
+        protected Index compute() {
+            final long start = System.nanoTime();
+            try {
+                String key = null;
+                if (cache != null) {
+                    try {
+                        key = cache.getKey(resourceRoot, indexIgnorePaths, deployment);
+                    } catch (IOException e) {
+                        ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not compute the annotation index cache key of %s", root);
+                    }
+                    if (key != null) {
+                        final Index index = cache.get(key);
+                        if (index != null) {
+                            cached = true;
+                            return index;
+                        }
+                    }
+                }
+                final Index index = indexClasses();
+                if (key != null) {
+                    cache.put(key, index, root.getPathName());
+                }
+                return index;
+            } finally {
+                time = System.nanoTime() - start;
+            }
+        }
+
+        private Index indexClasses() {
             final VisitorAttributes visitorAttributes = new VisitorAttributes();
             visitorAttributes.setLeavesOnly(true);
             visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
                 public boolean accepts(VirtualFile file) {
-                    return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+                    return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(root));
                 }
             });
 
-            final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-            for (VirtualFile classFile : classChildren) {
-                InputStream inputStream = null;
-                try {
-                    inputStream = classFile.openStream();
-                    indexer.index(inputStream);
-                } catch (Exception e) {
-                    ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
-                } finally {
-                    VFSUtils.safeClose(inputStream);
-                }
+            final List<VirtualFile> classChildren = root.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            classCount = classChildren.size();
+            if (classCount <= PARTITION_SIZE) {
+                return index(root, classChildren);
             }
-            final Index index = indexer.complete();
-            resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
-        } catch (Throwable t) {
-            throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
+            final List<PartitionIndexTask> partitions = new ArrayList<>();
+            for (int i = 0; i < classCount; i += PARTITION_SIZE) {
+                partitions.add(new PartitionIndexTask(root, classChildren.subList(i, Math.min(i + PARTITION_SIZE, classCount))));
+            }
+            partitionCount = partitions.size();
+            invokeAll(partitions);
+            final List<Index> indexes = new ArrayList<>(partitionCount);
+            for (PartitionIndexTask partition : partitions) {
+                indexes.add(partition.getRawResult());
+            }
+            return merge(indexes);
+        }
+    }
+
+    private static final class PartitionIndexTask extends RecursiveTask<Index> {
+
+        private final VirtualFile root;
+        private final List<VirtualFile> classFiles;
+
+        private PartitionIndexTask(VirtualFile root, List<VirtualFile> classFiles) {
+            this.root = root;
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Index compute() {
+            return index(root, classFiles);
+        }
+    }
+
+    private static final class IndexerPool {
+
+        private static final ForkJoinPool INSTANCE = AccessController.doPrivileged((PrivilegedAction<ForkJoinPool>) () ->
+                new ForkJoinPool(Runtime.getRuntime().availableProcessors(), IndexerPool::newThread, null, false));
+
+        private static ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            // Threads are started on demand by whichever thread submits a task
+            return AccessController.doPrivileged((PrivilegedAction<ForkJoinWorkerThread>) () -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("deployment-indexer-" + thread.getPoolIndex());
+                // don't keep the class loader of the deployment that happened to start the thread
+                thread.setContextClassLoader(ResourceRootIndexer.class.getClassLoader());
+                return thread;
+            });
         }
     }
 }
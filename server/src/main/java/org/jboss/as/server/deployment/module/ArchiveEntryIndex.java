@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A packed table of the paths of the entries of an archive, read once from its central directory, which tells whether
+ * the archive may contain a path without going through VFS.
+ * <p/>
+ * The table only holds the sorted hash codes of the paths and of their parent directories, so a path whose hash code
+ * isn't in the table is certainly missing, while a path whose hash code is in the table still has to be looked up.
+ * Archives containing other archives aren't indexed, as the deployers may mount these and add paths below them.
+ */
+final class ArchiveEntryIndex {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    private static final long ZIP64_MAGIC_OFFSET = 0xFFFFFFFFL;
+
+    private static final String[] NESTED_ARCHIVE_SUFFIXES = {".jar", ".war", ".ear", ".rar", ".sar", ".har", ".zip"};
+
+    private final int[] hashes;
+
+    private ArchiveEntryIndex(int[] hashes) {
+        this.hashes = hashes;
+    }
+
+    /**
+     * Reads the central directory of an archive.
+     *
+     * @param archive the archive
+     * @return the index, or {@code null} if the central directory couldn't be read, holds paths that VFS would resolve
+     * differently or holds other archives
+     */
+    static ArchiveEntryIndex create(File archive) {
+        try (FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < END_SIZE) {
+                return null;
+            }
+            final long tailStart = Math.max(0, size - END_SIZE - MAX_COMMENT_SIZE);
+            final ByteBuffer tail = read(channel, tailStart, (int) (size - tailStart));
+            int end = tail.limit() - END_SIZE;
+            while (end >= 0 && tail.getInt(end) != END_SIGNATURE) {
+                end--;
+            }
+            if (end < 0) {
+                return null;
+            }
+            final int count = tail.getShort(end + 10) & 0xFFFF;
+            final long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+            final long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+            if (count == ZIP64_MAGIC_COUNT || directoryOffset == ZIP64_MAGIC_OFFSET) {
+                return null;
+            }
+            // the offset is relative to the start of the archive, which data may precede
+            final long directoryStart = tailStart + end - directorySize;
+            if (directoryStart < 0 || directorySize > Integer.MAX_VALUE) {
+                return null;
+            }
+            return read(read(channel, directoryStart, (int) directorySize), count);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a region of a file into a heap buffer, rather than mapping it, as it is only read once and a mapping would
+     * hold on to the file until it is garbage collected.
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ArchiveEntryIndex read(ByteBuffer directory, int count) {
+        int[] hashes = new int[Math.max(16, count * 2)];
+        int size = 0;
+        int position = 0;
+        final byte[] nameBytes = new byte[0xFFFF];
+        for (int i = 0; i < count; i++) {
+            if (directory.getInt(position) != CENTRAL_SIGNATURE) {
+                return null;
+            }
+            final int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            final int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            final int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            directory.position(position + CENTRAL_HEADER_SIZE);
+            directory.get(nameBytes, 0, nameLength);
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            String name = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+            if (name.endsWith("/")) {
+                name = name.substring(0, name.length() - 1);
+            }
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!isCanonical(name) || isNestedArchive(name)) {
+                return null;
+            }
+            // the parent directories may have no entries of their own, but VFS still finds them. The hash code of a
+            // string is computed from left to right, so the one of each parent is the one of a prefix of the name.
+            int hash = 0;
+            for (int j = 0; j <= name.length(); j++) {
+                final char c = j < name.length() ? name.charAt(j) : '/';
+                if (c == '/') {
+                    if (size == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, size * 2);
+                    }
+                    hashes[size++] = hash;
+                }
+                hash = 31 * hash + c;
+            }
+        }
+        Arrays.sort(hashes, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || hashes[i] != hashes[unique - 1]) {
+                hashes[unique++] = hashes[i];
+            }
+        }
+        return new ArchiveEntryIndex(Arrays.copyOf(hashes, unique));
+    }
+
+    private static boolean isNestedArchive(String name) {
+        for (String suffix : NESTED_ARCHIVE_SUFFIXES) {
+            if (name.regionMatches(true, name.length() - suffix.length(), suffix, 0, suffix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCanonical(String name) {
+        return name.charAt(0) != '/' && name.indexOf('\\') < 0 && name.indexOf("//") < 0
+                && !name.equals(".") && !name.equals("..") && !name.startsWith("./") && !name.startsWith("../")
+                && !name.contains("/./") && !name.contains("/../") && !name.endsWith("/.") && !name.endsWith("/..");
+    }
+
+    /**
+     * @param path a canonical path relative to the root of the archive
+     * @return {@code false} if the archive certainly doesn't contain the path
+     */
+    boolean mayContain(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (start == end) {
+            return true;
+        }
+        return Arrays.binarySearch(hashes, (start == 0 && end == path.length() ? path : path.substring(start, end)).hashCode()) >= 0;
+    }
+
+    /**
+     * @return the number of distinct hash codes in the table
+     */
+    int size() {
+        return hashes.length;
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.module;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.Permission;
 import java.security.Permissions;
@@ -30,6 +31,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.PropertyPermission;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -38,6 +40,7 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.MountedDeploymentOverlay;
 import org.jboss.as.server.deployment.SubDeploymentMarker;
 import org.jboss.as.server.moduleservice.ModuleDefinition;
 import org.jboss.as.server.moduleservice.ModuleLoadService;
@@ -228,9 +231,11 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
             specBuilder.addResourceRoot(resourceLoaderSpec);
         }
 
+        // Overlays may add files to the archives, which their index wouldn't know about
+        final boolean indexArchives = !hasOverlays(deploymentUnit);
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debugf("Adding resource %s to module %s", resourceRoot.getRoot(), moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot, permFactories);
+            addResourceRoot(specBuilder, resourceRoot, permFactories, indexArchives);
         }
 
         createDependencies(specBuilder, dependencies, false);
@@ -351,20 +356,21 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories)
-            throws DeploymentUnitProcessingException {
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories,
+                                 final boolean indexArchive) throws DeploymentUnitProcessingException {
         try {
             final VirtualFile root = resource.getRoot();
+            final File archive = indexArchive ? getMountedArchive(resource) : null;
             if (resource.getExportFilters().isEmpty()) {
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource())));
+                        .getRootName(), root, resource.isUsePhysicalCodeSource(), archive)));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                        .getRootName(), root, resource.isUsePhysicalCodeSource(), archive), filterBuilder.create()));
             }
             // start with the root
             permFactories.add(new ImmediatePermissionFactory(
@@ -377,4 +383,26 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    /**
+     * @return {@code true} if overlays are mounted on the deployment unit or on its parent
+     */
+    static boolean hasOverlays(final DeploymentUnit deploymentUnit) {
+        for (DeploymentUnit unit = deploymentUnit; unit != null; unit = unit.getParent()) {
+            final Map<String, MountedDeploymentOverlay> overlays = unit.getAttachment(Attachments.DEPLOYMENT_OVERLAY_LOCATIONS);
+            if (overlays != null && !overlays.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the archive file mounted on the resource root, or {@code null} if the root isn't a mounted archive file
+     */
+    static File getMountedArchive(final ResourceRoot resource) {
+        final MountHandle mountHandle = resource.getMountHandle();
+        final File source = mountHandle == null ? null : mountHandle.getMountSource();
+        return source != null && source.isFile() ? source : null;
+    }
+
 }
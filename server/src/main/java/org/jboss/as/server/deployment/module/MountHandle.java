@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment.module;
 
 import java.io.Closeable;
+import java.io.File;
 
 import org.jboss.vfs.VFSUtils;
 
@@ -47,6 +48,15 @@ public class MountHandle implements Closeable {
         this.handle = handle;
     }
 
+    /**
+     * Get the file which was mounted.
+     *
+     * @return the mounted file, or {@code null} if it is unknown
+     */
+    public File getMountSource() {
+        return handle instanceof org.jboss.vfs.spi.MountHandle ? ((org.jboss.vfs.spi.MountHandle) handle).getMountSource() : null;
+    }
+
     /**
      * Forcefully close this handle. Use with caution.
      */
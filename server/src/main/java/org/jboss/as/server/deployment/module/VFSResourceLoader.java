@@ -25,6 +25,7 @@ package org.jboss.as.server.deployment.module;
 import static java.security.AccessController.doPrivileged;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -73,10 +74,20 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class VFSResourceLoader extends AbstractResourceLoader implements IterableResourceLoader {
 
+    /**
+     * Whether the entries of archive roots are indexed, so that the classes and resources they don't contain are
+     * looked up without going through VFS. Defaults to {@code true}.
+     */
+    public static final String INDEX_ARCHIVES_PROPERTY = "jboss.as.deployment.resource-loader.index-archives";
+
+    private static final boolean INDEX_ARCHIVES = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(INDEX_ARCHIVES_PROPERTY, "true"));
+
     private final VirtualFile root;
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    // null if the root isn't an indexed archive
+    private final ArchiveEntryIndex index;
 
     // protected by {@code this}
     private final Map<CodeSigners, CodeSource> codeSources = new HashMap<>();
@@ -101,6 +112,20 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource) throws IOException {
+        this(rootName, root, usePhysicalCodeSource, null);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @param archive The archive mounted on the root, whose entries are indexed, or {@code null} if the root isn't an archive
+     *                or other files may be mounted under it
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource, final File archive) throws IOException {
         final SecurityManager sm = System.getSecurityManager();
         final boolean checking = WildFlySecurityManager.isChecking();
         if (checking) {
@@ -124,10 +149,25 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
             }
         }
         rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+        if (archive != null && INDEX_ARCHIVES) {
+            index = checking ? doPrivileged(new PrivilegedAction<ArchiveEntryIndex>() {
+                public ArchiveEntryIndex run() {
+                    return ArchiveEntryIndex.create(archive);
+                }
+            }) : ArchiveEntryIndex.create(archive);
+            if (index == null) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Could not index the entries of %s, they are looked up through VFS", archive);
+            }
+        } else {
+            index = null;
+        }
     }
 
     /** {@inheritDoc} */
     public ClassSpec getClassSpec(final String name) throws IOException {
+        if (index != null && !index.mayContain(name)) {
+            return null;
+        }
         try {
             return doPrivileged(new PrivilegedExceptionAction<ClassSpec>() {
                 public ClassSpec run() throws Exception {
@@ -202,10 +242,14 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
 
     /** {@inheritDoc} */
     public Resource getResource(final String name) {
+        final String path = PathUtils.canonicalize(name);
+        if (index != null && !index.mayContain(path)) {
+            return null;
+        }
         return doPrivileged(new PrivilegedAction<Resource>() {
             public Resource run() {
                 try {
-                    final VirtualFile file = root.getChild(PathUtils.canonicalize(name));
+                    final VirtualFile file = root.getChild(path);
                     if (!file.exists()) {
                         return null;
                     }
@@ -1277,6 +1277,22 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 266, value = "Server home is set to '%s', but server real home is '%s' - unpredictable results may occur.")
     void serverHomeMismatch(Path passed, Path real);
 
+    @LogMessage(level = WARN)
+    @Message(id = 267, value = "Could not store the annotation index of %s in the annotation index cache")
+    void cannotStoreAnnotationIndex(String resourceRoot, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 268, value = "Invalid value '%s' for system property '%s', using the default annotation index cache size %d")
+    void invalidAnnotationIndexCacheSize(String value, String property, long defaultValue);
+
+    @LogMessage(level = WARN)
+    @Message(id = 269, value = "Invalid value '%s' for system property '%s', deployment phases are processed by the MSC threads")
+    void invalidDeploymentPhaseParallelism(String value, String property);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 270, value = "Deployment %s processed in %d ms, of which %d ms waiting for dependencies; critical path: %s")
+    void deploymentProcessed(String deployment, long time, long waitingTime, String criticalPath);
+
     ////////////////////////////////////////////////
     //Messages without IDs
 
@@ -104,6 +104,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     private final InjectedValue<Executor> managementExecutor = new InjectedValue<>();
     private final ConsoleMode consoleMode;
     private final String consoleSlot;
+    private final boolean metricsEnabled;
     private ManagementHttpServer serverManagement;
     private SocketBindingManager socketBindingManager;
     private boolean useUnmanagedBindings = false;
@@ -198,8 +199,13 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     };
 
     public UndertowHttpManagementService(ConsoleMode consoleMode, String consoleSlot) {
+        this(consoleMode, consoleSlot, false);
+    }
+
+    public UndertowHttpManagementService(ConsoleMode consoleMode, String consoleSlot, boolean metricsEnabled) {
         this.consoleMode = consoleMode;
         this.consoleSlot = consoleSlot;
+        this.metricsEnabled = metricsEnabled;
     }
 
     /**
@@ -297,6 +303,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
                     .setAllowedOrigins(allowedOriginsValue.getOptionalValue())
                     .setWorker(worker.getValue())
                     .setExecutor(managementExecutor.getValue())
+                    .setMetricsEnabled(metricsEnabled)
                     .build();
 
             serverManagement.start();
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.operations;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handlers of the operations reading and clearing the annotation index cache. They are registered whether or not the
+ * cache is enabled, and have an empty result if it isn't.
+ */
+public final class AnnotationIndexCacheHandlers {
+
+    public static final String READ_OPERATION_NAME = "read-annotation-index-cache";
+    public static final String CLEAR_OPERATION_NAME = "clear-annotation-index-cache";
+
+    private static final SimpleAttributeDefinition ENTRIES = new SimpleAttributeDefinitionBuilder("entries", ModelType.INT).build();
+    private static final SimpleAttributeDefinition SIZE = new SimpleAttributeDefinitionBuilder("size", ModelType.LONG).build();
+    private static final SimpleAttributeDefinition MAX_SIZE = new SimpleAttributeDefinitionBuilder("max-size", ModelType.LONG).build();
+    private static final SimpleAttributeDefinition HITS = new SimpleAttributeDefinitionBuilder("hits", ModelType.LONG).build();
+    private static final SimpleAttributeDefinition MISSES = new SimpleAttributeDefinitionBuilder("misses", ModelType.LONG).build();
+
+    public static final SimpleOperationDefinition READ_DEFINITION = new SimpleOperationDefinitionBuilder(READ_OPERATION_NAME,
+                ServerDescriptions.getResourceDescriptionResolver())
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.OBJECT)
+            .setReplyParameters(ENTRIES, SIZE, MAX_SIZE, HITS, MISSES)
+            .build();
+
+    public static final SimpleOperationDefinition CLEAR_DEFINITION = new SimpleOperationDefinitionBuilder(CLEAR_OPERATION_NAME,
+                ServerDescriptions.getResourceDescriptionResolver())
+            .setRuntimeOnly()
+            .setReplyType(ModelType.INT)
+            .build();
+
+    private AnnotationIndexCacheHandlers() {
+    }
+
+    /**
+     * @param cache the cache, or {@code null} if it is disabled
+     */
+    public static OperationStepHandler createReadHandler(final AnnotationIndexCache cache) {
+        return new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode result = context.getResult().setEmptyObject();
+                if (cache == null) {
+                    return;
+                }
+                final AnnotationIndexCache.CacheStatistics statistics = cache.getStatistics();
+                result.get(ENTRIES.getName()).set(statistics.getEntries());
+                result.get(SIZE.getName()).set(statistics.getSize());
+                result.get(MAX_SIZE.getName()).set(statistics.getMaxSize());
+                result.get(HITS.getName()).set(statistics.getHits());
+                result.get(MISSES.getName()).set(statistics.getMisses());
+            }
+        };
+    }
+
+    /**
+     * @param cache the cache, or {@code null} if it is disabled
+     */
+    public static OperationStepHandler createClearHandler(final AnnotationIndexCache cache) {
+        return new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.getResult().set(cache == null ? 0 : cache.clear());
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.operations;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.controller.resources.DeploymentAttributes;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentProcessorStatistics;
+import org.jboss.as.server.deployment.DeploymentProcessorStatistics.ProcessorTimes;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.Services;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handlers of the operations reading the time spent by the deployment unit processors. They are registered whether or
+ * not the {@link DeploymentProcessorStatistics} are enabled, and have an empty result if they aren't.
+ */
+public final class DeploymentProcessorStatisticsHandlers {
+
+    public static final String READ_SLOWEST_OPERATION_NAME = "read-slowest-deployment-processors";
+    public static final String READ_DEPLOYMENT_OPERATION_NAME = "read-processor-statistics";
+
+    private static final int DEFAULT_COUNT = 10;
+
+    private static final SimpleAttributeDefinition COUNT = new SimpleAttributeDefinitionBuilder("count", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(DEFAULT_COUNT))
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, false))
+            .build();
+
+    private static final SimpleAttributeDefinition DEPLOYMENT = new SimpleAttributeDefinitionBuilder("deployment", ModelType.STRING).build();
+    private static final SimpleAttributeDefinition PHASE = new SimpleAttributeDefinitionBuilder("phase", ModelType.STRING).build();
+    private static final SimpleAttributeDefinition PROCESSOR = new SimpleAttributeDefinitionBuilder("processor", ModelType.STRING).build();
+    private static final SimpleAttributeDefinition DEPLOY_COUNT = new SimpleAttributeDefinitionBuilder("deploy-count", ModelType.LONG).build();
+    private static final SimpleAttributeDefinition DEPLOY_TIME = new SimpleAttributeDefinitionBuilder("deploy-time", ModelType.LONG).build();
+    private static final SimpleAttributeDefinition MAX_DEPLOY_TIME = new SimpleAttributeDefinitionBuilder("max-deploy-time", ModelType.LONG).build();
+    private static final SimpleAttributeDefinition UNDEPLOY_TIME = new SimpleAttributeDefinitionBuilder("undeploy-time", ModelType.LONG).build();
+
+    public static final SimpleOperationDefinition READ_SLOWEST_DEFINITION = new SimpleOperationDefinitionBuilder(READ_SLOWEST_OPERATION_NAME,
+                ServerDescriptions.getResourceDescriptionResolver())
+            .setParameters(COUNT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .setReplyParameters(PHASE, PROCESSOR, DEPLOY_COUNT, DEPLOY_TIME, MAX_DEPLOY_TIME, UNDEPLOY_TIME)
+            .build();
+
+    public static final SimpleOperationDefinition READ_DEPLOYMENT_DEFINITION = new SimpleOperationDefinitionBuilder(READ_DEPLOYMENT_OPERATION_NAME,
+                DeploymentAttributes.DEPLOYMENT_RESOLVER)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .setReplyParameters(DEPLOYMENT, PHASE, PROCESSOR, DEPLOY_TIME)
+            .build();
+
+    private DeploymentProcessorStatisticsHandlers() {
+    }
+
+    /**
+     * @param statistics the statistics, or {@code null} if they are disabled
+     */
+    public static OperationStepHandler createReadSlowestHandler(final DeploymentProcessorStatistics statistics) {
+        return new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final int count = COUNT.resolveModelAttribute(context, operation).asInt();
+                final ModelNode result = context.getResult().setEmptyList();
+                if (statistics == null) {
+                    return;
+                }
+                for (ProcessorTimes times : statistics.getSlowestProcessors(count)) {
+                    final ModelNode processor = result.add();
+                    processor.get(PHASE.getName()).set(times.getPhase().name());
+                    processor.get(PROCESSOR.getName()).set(times.getProcessor());
+                    processor.get(DEPLOY_COUNT.getName()).set(times.getDeployCount());
+                    processor.get(DEPLOY_TIME.getName()).set(times.getDeployTime());
+                    processor.get(MAX_DEPLOY_TIME.getName()).set(times.getMaxDeployTime());
+                    processor.get(UNDEPLOY_TIME.getName()).set(times.getUndeployTime());
+                }
+            }
+        };
+    }
+
+    /**
+     * @param statistics the statistics, or {@code null} if they are disabled
+     */
+    public static OperationStepHandler createReadDeploymentHandler(final DeploymentProcessorStatistics statistics) {
+        return new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode deployment = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+                final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, deployment).asString();
+                // Nothing was processed if the deployment isn't up
+                context.getResult().setEmptyList();
+                if (statistics == null) {
+                    return;
+                }
+                context.addStep(new OperationStepHandler() {
+                    @Override
+                    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                        final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(runtimeName));
+                        if (controller == null || controller.getState() != ServiceController.State.UP) {
+                            return;
+                        }
+                        final DeploymentUnit deploymentUnit = (DeploymentUnit) controller.getValue();
+                        final List<DeploymentUnit> units = new ArrayList<>();
+                        units.add(deploymentUnit);
+                        units.addAll(deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS));
+                        final ModelNode result = context.getResult();
+                        for (DeploymentUnit unit : units) {
+                            for (ProcessorTimes times : statistics.getProcessors(unit)) {
+                                final ModelNode processor = result.add();
+                                processor.get(DEPLOYMENT.getName()).set(unit.getName());
+                                processor.get(PHASE.getName()).set(times.getPhase().name());
+                                processor.get(PROCESSOR.getName()).set(times.getProcessor());
+                                processor.get(DEPLOY_TIME.getName()).set(times.getDeployTime());
+                            }
+                        }
+                    }
+                }, OperationContext.Stage.RUNTIME);
+            }
+        };
+    }
+}
@@ -303,6 +303,10 @@ final class StandaloneXml_7 extends CommonXml implements ManagementXmlDelegate {
                         HttpManagementResourceDefinition.CONSOLE_ENABLED.parseAndSetParameter(value, addOp, reader);
                         break;
                     }
+                    case METRICS_ENABLED: {
+                        HttpManagementResourceDefinition.METRICS_ENABLED.parseAndSetParameter(value, addOp, reader);
+                        break;
+                    }
                     case ALLOWED_ORIGINS: {
                         for (String origin : reader.getListAttributeValue(i)) {
                             HttpManagementResourceDefinition.ALLOWED_ORIGINS.parseAndAddParameterElement(origin, addOp, reader);
@@ -927,6 +931,7 @@ final class StandaloneXml_7 extends CommonXml implements ManagementXmlDelegate {
         if (!consoleEnabled) {
             HttpManagementResourceDefinition.CONSOLE_ENABLED.marshallAsAttribute(protocol, writer);
         }
+        HttpManagementResourceDefinition.METRICS_ENABLED.marshallAsAttribute(protocol, writer);
 
         HttpManagementResourceDefinition.ALLOWED_ORIGINS.getMarshaller().marshallAsAttribute(
                 HttpManagementResourceDefinition.ALLOWED_ORIGINS, protocol, true, writer);
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the processing of the deployment phases on the executor of {@link DeployerChainsService}.
+ */
+public class DeployerChainsServiceTestCase {
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(DeployerChainsService.PARALLELISM_PROPERTY);
+    }
+
+    @Test
+    public void testPhasesProcessedByMscThreadsByDefault() throws Exception {
+        DeployerChainsService service = new DeployerChainsService(new DeployerChains(new EnumMap<>(Phase.class)));
+        service.start(null);
+        Assert.assertNull(service.getValue().getExecutor());
+        service.stop(null);
+    }
+
+    @Test
+    public void testPhasesProcessedByExecutor() throws Exception {
+        System.setProperty(DeployerChainsService.PARALLELISM_PROPERTY, "2");
+        final Map<Phase, String> threads = new ConcurrentHashMap<>();
+        final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Collections.singletonList(new RegisteredDeploymentUnitProcessor(0, new DeploymentUnitProcessor() {
+                @Override
+                public void deploy(DeploymentPhaseContext phaseContext) {
+                    threads.put(phaseContext.getPhase(), Thread.currentThread().getName());
+                }
+
+                @Override
+                public void undeploy(DeploymentUnit context) {
+                }
+            }, "test")));
+        }
+
+        ServiceContainer container = ServiceContainer.Factory.create();
+        try {
+            DeployerChainsService.addService(container, phases);
+            DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.jar", container);
+            DeploymentUnitPhaseService<?> phaseService = DeploymentUnitPhaseService.create(deploymentUnit, Phase.values()[0]);
+            ServiceName serviceName = deploymentUnit.getServiceName().append(Phase.values()[0].name());
+            container.addService(serviceName, phaseService)
+                    .addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector())
+                    .install();
+            container.awaitStability();
+
+            Assert.assertEquals(Phase.values().length, threads.size());
+            for (Map.Entry<Phase, String> entry : threads.entrySet()) {
+                Assert.assertTrue(entry.getKey() + " processed by " + entry.getValue(), entry.getValue().startsWith("DeploymentPhase Thread Pool"));
+            }
+            ServiceController<?> last = container.getRequiredService(DeploymentUtils.getDeploymentUnitPhaseServiceName(deploymentUnit, Phase.CLEANUP));
+            Assert.assertEquals(ServiceController.State.UP, last.getState());
+        } finally {
+            container.shutdown();
+            container.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testContextOfSubmitterIsUsed() throws Exception {
+        System.setProperty(DeployerChainsService.PARALLELISM_PROPERTY, "1");
+        DeployerChainsService service = new DeployerChainsService(new DeployerChains(new EnumMap<>(Phase.class)));
+        service.start(null);
+        try {
+            Executor executor = service.getValue().getExecutor();
+            Assert.assertNotNull(executor);
+            // The single thread of the pool runs both tasks, with the class loader of each submitter
+            for (int i = 0; i < 2; i++) {
+                ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+                BlockingQueue<ClassLoader> seen = new ArrayBlockingQueue<>(1);
+                Thread thread = Thread.currentThread();
+                ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader(classLoader);
+                try {
+                    executor.execute(() -> seen.add(Thread.currentThread().getContextClassLoader()));
+                } finally {
+                    thread.setContextClassLoader(previous);
+                }
+                Assert.assertSame(classLoader, seen.poll(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            service.stop(null);
+        }
+        Assert.assertNull(service.getValue().getExecutor());
+    }
+}
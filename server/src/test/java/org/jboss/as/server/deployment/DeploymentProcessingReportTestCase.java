@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DeploymentProcessingReport}.
+ */
+public class DeploymentProcessingReportTestCase {
+
+    @Test
+    public void testCriticalPathThroughSubDeployments() {
+        DeploymentUnit ear = new DeploymentUnitImpl(null, "test.ear", null);
+        DeploymentUnit slowWar = new DeploymentUnitImpl(ear, "slow.war", null);
+        DeploymentUnit fastWar = new DeploymentUnitImpl(ear, "fast.war", null);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, slowWar);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, fastWar);
+
+        DeploymentProcessingReport report = DeploymentProcessingReport.get(ear);
+        record(report, Phase.STRUCTURE, 0, 10, new FastProcessor(), 8);
+        record(DeploymentProcessingReport.get(slowWar), Phase.STRUCTURE, 10, 40, new SlowProcessor(), 25);
+        record(DeploymentProcessingReport.get(fastWar), Phase.STRUCTURE, 10, 20, new FastProcessor(), 5);
+        record(report, Phase.PARSE, 40, 45, new FastProcessor(), 4);
+        // after the last reported phase
+        record(report, Phase.REGISTER, 45, 100, new SlowProcessor(), 50);
+
+        DeploymentProcessingReport.CriticalPath criticalPath = report.getCriticalPath(ear, Phase.PARSE);
+        Assert.assertNotNull(criticalPath);
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(45), criticalPath.getTime());
+        // the structure phase of the ear, waiting for the slowest war
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), criticalPath.getWaitingTime());
+        Assert.assertEquals("STRUCTURE 30 ms in slow.war (SlowProcessor 25 ms), PARSE 5 ms (FastProcessor 4 ms)", criticalPath.toString());
+    }
+
+    @Test
+    public void testNothingProcessed() {
+        DeploymentUnit jar = new DeploymentUnitImpl(null, "test.jar", null);
+        Assert.assertNull(DeploymentProcessingReport.get(jar).getCriticalPath(jar, Phase.INSTALL));
+    }
+
+    private static void record(DeploymentProcessingReport report, Phase phase, long start, long end, DeploymentUnitProcessor processor, long processorTime) {
+        report.phaseStarted(phase, TimeUnit.MILLISECONDS.toNanos(start));
+        report.processorCompleted(phase, processor, TimeUnit.MILLISECONDS.toNanos(processorTime));
+        report.phaseCompleted(phase, TimeUnit.MILLISECONDS.toNanos(end));
+    }
+
+    private static class FastProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    }
+
+    private static class SlowProcessor extends FastProcessor {
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.server.operations.DeploymentProcessorStatisticsHandlers;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Tests of {@link DeploymentProcessorStatistics} and of the operations reading them.
+ */
+public class DeploymentProcessorStatisticsTestCase {
+
+    private final DeploymentProcessorStatistics statistics = new DeploymentProcessorStatistics();
+    private final DeploymentUnit ear = new DeploymentUnitImpl(null, "test.ear", null);
+    private final DeploymentUnit war = new DeploymentUnitImpl(ear, "test.war", null);
+    private OperationContext context;
+
+    @Before
+    public void recordTimes() throws Exception {
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, war);
+        statistics.deployed(ear, Phase.STRUCTURE, new FastProcessor(), 1000);
+        statistics.deployed(war, Phase.STRUCTURE, new FastProcessor(), 3000);
+        statistics.deployed(war, Phase.PARSE, new SlowProcessor(), 10000);
+        statistics.undeployed(Phase.PARSE, new SlowProcessor(), 2000);
+
+        context = Mockito.mock(OperationContext.class);
+        Mockito.when(context.getResult()).thenReturn(new ModelNode());
+        Mockito.when(context.resolveExpressions(Mockito.any(ModelNode.class))).then(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void testSlowestProcessors() {
+        List<DeploymentProcessorStatistics.ProcessorTimes> slowest = statistics.getSlowestProcessors(1);
+        Assert.assertEquals(1, slowest.size());
+        Assert.assertEquals(SlowProcessor.class.getName(), slowest.get(0).getProcessor());
+
+        // the times of the processors are aggregated across the deployment units
+        DeploymentProcessorStatistics.ProcessorTimes fast = statistics.getSlowestProcessors(2).get(1);
+        Assert.assertEquals(FastProcessor.class.getName(), fast.getProcessor());
+        Assert.assertEquals(2, fast.getDeployCount());
+        Assert.assertEquals(4, fast.getDeployTime());
+        Assert.assertEquals(3, fast.getMaxDeployTime());
+    }
+
+    @Test
+    public void testReadSlowestOperation() throws Exception {
+        ModelNode operation = new ModelNode();
+        operation.get("count").set(1);
+        DeploymentProcessorStatisticsHandlers.createReadSlowestHandler(statistics).execute(context, operation);
+
+        List<ModelNode> result = context.getResult().asList();
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(Phase.PARSE.name(), result.get(0).get("phase").asString());
+        Assert.assertEquals(SlowProcessor.class.getName(), result.get(0).get("processor").asString());
+        Assert.assertEquals(1, result.get(0).get("deploy-count").asLong());
+        Assert.assertEquals(10, result.get(0).get("deploy-time").asLong());
+        Assert.assertEquals(2, result.get(0).get("undeploy-time").asLong());
+    }
+
+    @Test
+    public void testReadDeploymentOperation() throws Exception {
+        executeReadDeployment(ServiceController.State.UP);
+
+        List<ModelNode> result = context.getResult().asList();
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("test.ear", result.get(0).get("deployment").asString());
+        Assert.assertEquals(FastProcessor.class.getName(), result.get(0).get("processor").asString());
+        Assert.assertEquals(1, result.get(0).get("deploy-time").asLong());
+        // the processors of a unit, slowest first
+        Assert.assertEquals("test.war", result.get(1).get("deployment").asString());
+        Assert.assertEquals(SlowProcessor.class.getName(), result.get(1).get("processor").asString());
+        Assert.assertEquals("test.war", result.get(2).get("deployment").asString());
+        Assert.assertEquals(FastProcessor.class.getName(), result.get(2).get("processor").asString());
+        Assert.assertFalse(result.get(1).has("undeploy-time"));
+    }
+
+    @Test
+    public void testReadDeploymentOperationNotUp() throws Exception {
+        executeReadDeployment(ServiceController.State.DOWN);
+
+        Assert.assertEquals(ModelType.LIST, context.getResult().getType());
+        Assert.assertTrue(context.getResult().asList().isEmpty());
+    }
+
+    @Test
+    public void testReadOperationsWhenDisabled() throws Exception {
+        ModelNode operation = new ModelNode();
+        operation.get("count").set(1);
+        DeploymentProcessorStatisticsHandlers.createReadSlowestHandler(null).execute(context, operation);
+        Assert.assertEquals(ModelType.LIST, context.getResult().getType());
+        Assert.assertTrue(context.getResult().asList().isEmpty());
+
+        Resource resource = Resource.Factory.create();
+        resource.getModel().get(RUNTIME_NAME).set("test.ear");
+        Mockito.when(context.readResource(PathAddress.EMPTY_ADDRESS)).thenReturn(resource);
+        DeploymentProcessorStatisticsHandlers.createReadDeploymentHandler(null).execute(context, new ModelNode());
+        Mockito.verify(context, Mockito.never()).addStep(Mockito.any(OperationStepHandler.class), Mockito.any(OperationContext.Stage.class));
+        Assert.assertTrue(context.getResult().asList().isEmpty());
+    }
+
+    private void executeReadDeployment(ServiceController.State state) throws Exception {
+        Resource resource = Resource.Factory.create();
+        resource.getModel().get(RUNTIME_NAME).set("test.ear");
+        Mockito.when(context.readResource(PathAddress.EMPTY_ADDRESS)).thenReturn(resource);
+        ServiceController<?> controller = Mockito.mock(ServiceController.class);
+        Mockito.when(controller.getState()).thenReturn(state);
+        Mockito.<Object>when(controller.getValue()).thenReturn(ear);
+        ServiceRegistry registry = Mockito.mock(ServiceRegistry.class);
+        Mockito.<ServiceController<?>>when(registry.getService(Services.deploymentUnitName("test.ear"))).thenReturn(controller);
+        Mockito.when(context.getServiceRegistry(false)).thenReturn(registry);
+
+        DeploymentProcessorStatisticsHandlers.createReadDeploymentHandler(statistics).execute(context, new ModelNode());
+        ArgumentCaptor<OperationStepHandler> step = ArgumentCaptor.forClass(OperationStepHandler.class);
+        Mockito.verify(context).addStep(step.capture(), Mockito.eq(OperationContext.Stage.RUNTIME));
+        step.getValue().execute(context, new ModelNode());
+    }
+
+    private static class FastProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    }
+
+    private static class SlowProcessor extends FastProcessor {
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private File directory;
+    private Index index;
+
+    @Before
+    public void createIndex() throws IOException {
+        directory = Files.createTempDirectory("annotation-index-cache").toFile();
+        Indexer indexer = new Indexer();
+        try (InputStream input = getClass().getResourceAsStream(getClass().getSimpleName() + ".class")) {
+            indexer.index(input);
+        }
+        index = indexer.complete();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testStoredIndexIsRead() {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        Assert.assertNull(cache.get("a"));
+        cache.put("a", index, "test");
+
+        // a new instance reads the stored indexes, as after a restart
+        cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        Index read = cache.get("a");
+        Assert.assertNotNull(read);
+        Assert.assertNotNull(read.getClassByName(DotName.createSimple(getClass().getName())));
+        Assert.assertEquals(1, cache.getStatistics().getEntries());
+        Assert.assertEquals(1, cache.getStatistics().getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        cache.put("a", index, "test");
+        long entrySize = cache.getStatistics().getSize();
+
+        cache = new AnnotationIndexCache(directory, entrySize * 2);
+        cache.put("b", index, "test");
+        Assert.assertNotNull(cache.get("a"));
+        cache.put("c", index, "test");
+
+        Assert.assertEquals(2, cache.getStatistics().getEntries());
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void testClear() {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        cache.put("a", index, "test");
+        cache.put("b", index, "test");
+        Assert.assertEquals(2, cache.clear());
+        Assert.assertEquals(0, cache.getStatistics().getSize());
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testConcurrentPutsOfSameIndex() throws Exception {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                puts.add(executor.submit(() -> cache.put("a", index, "test")));
+            }
+            for (Future<?> put : puts) {
+                put.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertNotNull(cache.get("a"));
+        // no write failed and left its temporary file
+        Assert.assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void testKeyOfNestedArchive() throws IOException {
+        File archive = Files.createTempFile("annotation-index-cache", ".ear").toFile();
+        try {
+            Files.write(archive.toPath(), new byte[] {1, 2, 3});
+            AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+            VirtualFile deploymentRoot = VFS.getChild("content/test.ear");
+            ResourceRoot lib = new ResourceRoot(deploymentRoot.getChild("lib/a.jar"), null);
+            Map<String, byte[]> overlays = new HashMap<>();
+            AnnotationIndexCache.DeploymentContent deployment = new AnnotationIndexCache.DeploymentContent(deploymentRoot, archive, overlays);
+
+            String key = cache.getKey(lib, null, deployment);
+            Assert.assertNotNull(key);
+            Assert.assertEquals(key, cache.getKey(lib, null, deployment));
+            Assert.assertNotEquals(key, cache.getKey(new ResourceRoot(deploymentRoot.getChild("lib/b.jar"), null), null, deployment));
+            Assert.assertNotEquals(key, cache.getKey(lib, Collections.singleton("org/example"), deployment));
+
+            // an overlay of another archive doesn't change the key, one of a file of the archive does
+            overlays.put(deploymentRoot.getChild("lib/b.jar").getPathName(), new byte[] {1});
+            Assert.assertEquals(key, cache.getKey(lib, null, deployment));
+            overlays.put(deploymentRoot.getChild("lib/a.jar/org/example/Foo.class").getPathName(), new byte[] {1});
+            String overlaid = cache.getKey(lib, null, deployment);
+            Assert.assertNotEquals(key, overlaid);
+            overlays.put(deploymentRoot.getChild("lib/a.jar/org/example/Foo.class").getPathName(), new byte[] {2});
+            Assert.assertNotEquals(overlaid, cache.getKey(lib, null, deployment));
+            overlays.clear();
+
+            // the deployment archive changed
+            Files.write(archive.toPath(), new byte[] {1, 2, 3, 4});
+            Assert.assertNotEquals(key, cache.getKey(lib, null, deployment));
+        } finally {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void testKeyOfUnmountedRoot() throws IOException {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        VirtualFile deploymentRoot = VFS.getChild("content/test.war");
+        AnnotationIndexCache.DeploymentContent deployment = new AnnotationIndexCache.DeploymentContent(deploymentRoot, null, Collections.emptyMap());
+        // an exploded deployment, whose classes may change
+        Assert.assertNull(cache.getKey(new ResourceRoot(deploymentRoot.getChild("WEB-INF/classes"), null), null, deployment));
+        Assert.assertNull(cache.getKey(new ResourceRoot(VFS.getChild("modules/classes"), null), null, null));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ResourceRootIndexer}.
+ */
+public class ResourceRootIndexerTestCase {
+
+    @Test
+    public void testMergedIndexMatchesSingleIndex() throws IOException {
+        Index single = index(Base.class, Sub.class, Other.class);
+        Index merged = ResourceRootIndexer.merge(Arrays.asList(index(Base.class), index(Sub.class, Other.class)));
+
+        Assert.assertEquals(names(single.getKnownClasses()), names(merged.getKnownClasses()));
+        Assert.assertEquals(names(single.getKnownDirectSubclasses(DotName.createSimple(Base.class.getName()))),
+                names(merged.getKnownDirectSubclasses(DotName.createSimple(Base.class.getName()))));
+        Assert.assertEquals(names(single.getKnownDirectImplementors(DotName.createSimple(Runnable.class.getName()))),
+                names(merged.getKnownDirectImplementors(DotName.createSimple(Runnable.class.getName()))));
+        DotName deprecated = DotName.createSimple(Deprecated.class.getName());
+        Assert.assertEquals(2, merged.getAnnotations(deprecated).size());
+        Assert.assertEquals(targets(single.getAnnotations(deprecated)), targets(merged.getAnnotations(deprecated)));
+    }
+
+    private static Index index(Class<?>... classes) throws IOException {
+        Indexer indexer = new Indexer();
+        for (Class<?> clazz : classes) {
+            try (InputStream input = clazz.getResourceAsStream(clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class")) {
+                indexer.index(input);
+            }
+        }
+        return indexer.complete();
+    }
+
+    private static Set<DotName> names(Iterable<ClassInfo> classes) {
+        Set<DotName> names = new HashSet<>();
+        for (ClassInfo classInfo : classes) {
+            names.add(classInfo.name());
+        }
+        return names;
+    }
+
+    private static Set<String> targets(List<AnnotationInstance> annotations) {
+        Set<String> targets = new HashSet<>();
+        for (AnnotationInstance annotation : annotations) {
+            targets.add(annotation.target().toString());
+        }
+        return targets;
+    }
+
+    @Deprecated
+    static class Base {
+    }
+
+    static class Sub extends Base implements Runnable {
+        @Deprecated
+        public void run() {
+        }
+    }
+
+    static class Other implements Runnable {
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ArchiveEntryIndex}.
+ */
+public class ArchiveEntryIndexTestCase {
+
+    private File archive;
+
+    @Before
+    public void createArchive() throws IOException {
+        archive = File.createTempFile("archive-entry-index", ".jar");
+    }
+
+    @After
+    public void deleteArchive() {
+        archive.delete();
+    }
+
+    private void write(String comment, String... names) throws IOException {
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (String name : names) {
+                output.putNextEntry(new ZipEntry(name));
+                if (!name.endsWith("/")) {
+                    output.write(name.getBytes(StandardCharsets.UTF_8));
+                }
+                output.closeEntry();
+            }
+            output.setComment(comment);
+        }
+    }
+
+    @Test
+    public void testEntriesAndParentDirectories() throws IOException {
+        write("a comment", "META-INF/MANIFEST.MF", "org/example/Foo.class", "org/example/impl/", "messages.properties");
+        ArchiveEntryIndex index = ArchiveEntryIndex.create(archive);
+        Assert.assertNotNull(index);
+        Assert.assertTrue(index.mayContain("org/example/Foo.class"));
+        Assert.assertTrue(index.mayContain("messages.properties"));
+        Assert.assertTrue(index.mayContain("META-INF"));
+        Assert.assertTrue(index.mayContain("org/example/"));
+        Assert.assertTrue(index.mayContain("/org/example/impl"));
+        Assert.assertTrue(index.mayContain(""));
+        Assert.assertFalse(index.mayContain("org/example/Bar.class"));
+        Assert.assertFalse(index.mayContain("META-INF/services/org.example.Foo"));
+        Assert.assertFalse(index.mayContain("example"));
+    }
+
+    @Test
+    public void testArchivesWithNestedArchivesAreNotIndexed() throws IOException {
+        write(null, "META-INF/MANIFEST.MF", "lib/library.JAR");
+        Assert.assertNull(ArchiveEntryIndex.create(archive));
+    }
+
+    @Test
+    public void testNonCanonicalPathsAreNotIndexed() throws IOException {
+        write(null, "org/../Foo.class");
+        Assert.assertNull(ArchiveEntryIndex.create(archive));
+    }
+
+    @Test
+    public void testInvalidArchiveIsNotIndexed() throws IOException {
+        try (FileOutputStream output = new FileOutputStream(archive)) {
+            output.write(new byte[1024]);
+        }
+        Assert.assertNull(ArchiveEntryIndex.create(archive));
+    }
+}
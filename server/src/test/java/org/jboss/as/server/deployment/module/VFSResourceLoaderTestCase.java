@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.MountedDeploymentOverlay;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests of {@link VFSResourceLoader} looking up the archives it is given through their {@link ArchiveEntryIndex}, and of
+ * the fallbacks to VFS which {@link ModuleSpecProcessor} chooses when the archives may not hold all of their paths.
+ */
+public class VFSResourceLoaderTestCase {
+
+    private final List<File> files = new ArrayList<>();
+    private final List<Closeable> mounts = new ArrayList<>();
+    private TempFileProvider tempFileProvider;
+
+    @Before
+    public void createTempFileProvider() throws IOException {
+        tempFileProvider = TempFileProvider.create("vfs-resource-loader", Executors.newSingleThreadScheduledExecutor(), true);
+    }
+
+    @After
+    public void cleanUp() {
+        Collections.reverse(mounts);
+        VFSUtils.safeClose(mounts);
+        VFSUtils.safeClose(tempFileProvider);
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private File createArchive(String... names) throws IOException {
+        final File archive = File.createTempFile("vfs-resource-loader", ".jar");
+        files.add(archive);
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (String name : names) {
+                output.putNextEntry(new ZipEntry(name));
+                if (name.endsWith(".jar")) {
+                    // an archive of its own, holding a single resource
+                    final ZipOutputStream nested = new ZipOutputStream(output);
+                    nested.putNextEntry(new ZipEntry("nested.properties"));
+                    nested.write("nested".getBytes(StandardCharsets.UTF_8));
+                    nested.finish();
+                } else {
+                    output.write(name.getBytes(StandardCharsets.UTF_8));
+                }
+                output.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    private ResourceRoot mount(File archive) throws IOException {
+        final VirtualFile root = VFS.getChild("content").getChild(archive.getName());
+        final Closeable handle = VFS.mountZip(archive, root, tempFileProvider);
+        mounts.add(handle);
+        return new ResourceRoot(root, new MountHandle(handle));
+    }
+
+    @Test
+    public void testIndexedLookups() throws IOException {
+        final File archive = createArchive("META-INF/services/org.example.Foo", "org/example/Foo.class", "messages.properties");
+        final ResourceRoot resourceRoot = mount(archive);
+        Assert.assertEquals(archive, ModuleSpecProcessor.getMountedArchive(resourceRoot));
+
+        final VFSResourceLoader loader = new VFSResourceLoader("test", resourceRoot.getRoot(), false, archive);
+        Assert.assertNotNull(loader.getResource("messages.properties"));
+        Assert.assertNotNull(loader.getResource("/org/example/Foo.class"));
+        Assert.assertNotNull(loader.getClassSpec("org/example/Foo.class"));
+        // the misses are answered by the index alone
+        Assert.assertNull(loader.getResource("missing.properties"));
+        Assert.assertNull(loader.getResource("org/example/impl/Bar.class"));
+        Assert.assertNull(loader.getClassSpec("org/example/Bar.class"));
+        Assert.assertNull(loader.getClassSpec("org/other/Foo.class"));
+    }
+
+    @Test
+    public void testOverlaysDisableIndexing() throws IOException {
+        final File archive = createArchive("messages.properties");
+        final ResourceRoot resourceRoot = mount(archive);
+        // overlays are mounted on top of the archive, as DeploymentOverlayDeploymentUnitProcessor does
+        final File overlay = File.createTempFile("overlay", ".properties");
+        files.add(overlay);
+        Files.write(overlay.toPath(), "overlay".getBytes(StandardCharsets.UTF_8));
+        mounts.add(VFS.mountReal(overlay, resourceRoot.getRoot().getChild("overlay.properties")));
+
+        // the index doesn't know about the overlay, which is why it mustn't be used
+        Assert.assertNull(new VFSResourceLoader("test", resourceRoot.getRoot(), false, archive).getResource("overlay.properties"));
+        Assert.assertNotNull(new VFSResourceLoader("test", resourceRoot.getRoot(), false, null).getResource("overlay.properties"));
+
+        final DeploymentUnit parent = Mockito.mock(DeploymentUnit.class);
+        final DeploymentUnit subDeployment = Mockito.mock(DeploymentUnit.class);
+        Mockito.when(subDeployment.getParent()).thenReturn(parent);
+        Assert.assertFalse(ModuleSpecProcessor.hasOverlays(parent));
+        Assert.assertFalse(ModuleSpecProcessor.hasOverlays(subDeployment));
+
+        Mockito.when(parent.getAttachment(Attachments.DEPLOYMENT_OVERLAY_LOCATIONS))
+                .thenReturn(Collections.<String, MountedDeploymentOverlay>emptyMap());
+        Assert.assertFalse(ModuleSpecProcessor.hasOverlays(subDeployment));
+
+        final MountedDeploymentOverlay mounted = new MountedDeploymentOverlay(null, overlay, resourceRoot.getRoot(), tempFileProvider);
+        Mockito.when(subDeployment.getAttachment(Attachments.DEPLOYMENT_OVERLAY_LOCATIONS))
+                .thenReturn(Collections.singletonMap("overlay.properties", mounted));
+        Assert.assertTrue(ModuleSpecProcessor.hasOverlays(subDeployment));
+        Assert.assertFalse(ModuleSpecProcessor.hasOverlays(parent));
+
+        // overlays of the top level deployment may target the archives of its sub deployments
+        Mockito.when(subDeployment.getAttachment(Attachments.DEPLOYMENT_OVERLAY_LOCATIONS)).thenReturn(null);
+        Mockito.when(parent.getAttachment(Attachments.DEPLOYMENT_OVERLAY_LOCATIONS))
+                .thenReturn(Collections.singletonMap("sub.jar/overlay.properties", mounted));
+        Assert.assertTrue(ModuleSpecProcessor.hasOverlays(parent));
+        Assert.assertTrue(ModuleSpecProcessor.hasOverlays(subDeployment));
+    }
+
+    @Test
+    public void testNestedArchivesAreNotIndexed() throws IOException {
+        final File archive = createArchive("messages.properties", "lib/inner.jar");
+        final ResourceRoot resourceRoot = mount(archive);
+        // the deployers mount the archives nested in the resource roots, adding paths the central directory doesn't hold
+        final VirtualFile inner = resourceRoot.getRoot().getChild("lib/inner.jar");
+        mounts.add(VFS.mountZip(inner, inner, tempFileProvider));
+
+        final VFSResourceLoader loader = new VFSResourceLoader("test", resourceRoot.getRoot(), false, archive);
+        Assert.assertNotNull(loader.getResource("lib/inner.jar/nested.properties"));
+        Assert.assertNotNull(loader.getResource("messages.properties"));
+        Assert.assertNull(loader.getResource("missing.properties"));
+    }
+
+    @Test
+    public void testExplodedRootsAreNotIndexed() throws IOException {
+        final File directory = Files.createTempDirectory("vfs-resource-loader").toFile();
+        final File resource = new File(directory, "messages.properties");
+        Files.write(resource.toPath(), "messages".getBytes(StandardCharsets.UTF_8));
+        files.add(resource);
+        files.add(directory);
+        final VirtualFile root = VFS.getChild(directory.getAbsolutePath());
+        Assert.assertNull(ModuleSpecProcessor.getMountedArchive(new ResourceRoot(root, null)));
+        Assert.assertNotNull(new VFSResourceLoader("test", root, false, null).getResource("messages.properties"));
+    }
+}